@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho;
+
+import com.facebook.litho.benchmarks.BenchmarkRunner;
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Benchmarks acquiring and releasing objects from {@link ComponentsPools}, from a single thread and
+ * from several layout threads at once. Each operation is one acquire/release pair.
+ */
+@RunWith(ComponentsTestRunner.class)
+public class ComponentsPoolsBenchmark {
+
+  private static final int BATCH_SIZE = 32;
+  private static final int ROUNDS = 100;
+  private static final int THREADS = 4;
+
+  private ExecutorService mExecutor;
+
+  @Before
+  public void setup() {
+    mExecutor = Executors.newFixedThreadPool(THREADS);
+  }
+
+  @After
+  public void tearDown() {
+    mExecutor.shutdownNow();
+  }
+
+  @Test
+  public void benchmarkLayoutOutputSingleThread() {
+    BenchmarkRunner.create("pools/layoutOutput(threads=1)")
+        .operationsPerIteration(ROUNDS * BATCH_SIZE)
+        .run(
+            new BenchmarkRunner.Operation() {
+              @Override
+              public void run(int iteration) {
+                acquireAndReleaseLayoutOutputs();
+              }
+            });
+  }
+
+  @Test
+  public void benchmarkNodeInfoSingleThread() {
+    BenchmarkRunner.create("pools/nodeInfo(threads=1)")
+        .operationsPerIteration(ROUNDS * BATCH_SIZE)
+        .run(
+            new BenchmarkRunner.Operation() {
+              @Override
+              public void run(int iteration) {
+                acquireAndReleaseNodeInfos();
+              }
+            });
+  }
+
+  @Test
+  public void benchmarkLayoutOutputContention() {
+    benchmarkContention(
+        "pools/layoutOutput(threads=" + THREADS + ")",
+        new Callable<Void>() {
+          @Override
+          public Void call() {
+            acquireAndReleaseLayoutOutputs();
+            return null;
+          }
+        });
+  }
+
+  @Test
+  public void benchmarkNodeInfoContention() {
+    benchmarkContention(
+        "pools/nodeInfo(threads=" + THREADS + ")",
+        new Callable<Void>() {
+          @Override
+          public Void call() {
+            acquireAndReleaseNodeInfos();
+            return null;
+          }
+        });
+  }
+
+  /**
+   * Runs the task on all the threads at the same time. Allocations are only reported for the
+   * benchmark thread and are not meaningful here.
+   */
+  private void benchmarkContention(String name, Callable<Void> task) {
+    final List<Callable<Void>> tasks = new ArrayList<>(THREADS);
+    for (int i = 0; i < THREADS; i++) {
+      tasks.add(task);
+    }
+
+    BenchmarkRunner.create(name)
+        .operationsPerIteration(THREADS * ROUNDS * BATCH_SIZE)
+        .run(
+            new BenchmarkRunner.Operation() {
+              @Override
+              public void run(int iteration) {
+                try {
+                  for (Future<Void> future : mExecutor.invokeAll(tasks)) {
+                    future.get();
+                  }
+                } catch (InterruptedException | ExecutionException e) {
+                  throw new RuntimeException(e);
+                }
+              }
+            });
+  }
+
+  private static void acquireAndReleaseLayoutOutputs() {
+    final LayoutOutput[] outputs = new LayoutOutput[BATCH_SIZE];
+    for (int round = 0; round < ROUNDS; round++) {
+      for (int i = 0; i < BATCH_SIZE; i++) {
+        outputs[i] = ComponentsPools.acquireLayoutOutput();
+      }
+      for (int i = 0; i < BATCH_SIZE; i++) {
+        outputs[i].release();
+        outputs[i] = null;
+      }
+    }
+  }
+
+  private static void acquireAndReleaseNodeInfos() {
+    final NodeInfo[] nodeInfos = new NodeInfo[BATCH_SIZE];
+    for (int round = 0; round < ROUNDS; round++) {
+      for (int i = 0; i < BATCH_SIZE; i++) {
+        nodeInfos[i] = NodeInfo.acquire();
+      }
+      for (int i = 0; i < BATCH_SIZE; i++) {
+        nodeInfos[i].release();
+        nodeInfos[i] = null;
+      }
+    }
+  }
+}
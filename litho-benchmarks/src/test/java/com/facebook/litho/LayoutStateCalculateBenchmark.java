@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho;
+
+import static com.facebook.litho.SizeSpec.EXACTLY;
+import static com.facebook.litho.SizeSpec.UNSPECIFIED;
+import static com.facebook.litho.SizeSpec.makeSizeSpec;
+
+import com.facebook.litho.benchmarks.BenchmarkRunner;
+import com.facebook.litho.benchmarks.SyntheticTree;
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import java.util.Locale;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RuntimeEnvironment;
+
+/** Benchmarks {@link LayoutState#calculate} with and without a previous diff tree. */
+@RunWith(ComponentsTestRunner.class)
+public class LayoutStateCalculateBenchmark {
+
+  private static final int WIDTH_SPEC = makeSizeSpec(1080, EXACTLY);
+  private static final int HEIGHT_SPEC = makeSizeSpec(0, UNSPECIFIED);
+
+  private ComponentContext mContext;
+
+  @Before
+  public void setup() {
+    mContext = new ComponentContext(RuntimeEnvironment.application);
+  }
+
+  @Test
+  public void benchmarkCalculateWideTree() {
+    benchmarkCalculate(2, 16);
+  }
+
+  @Test
+  public void benchmarkCalculateBalancedTree() {
+    benchmarkCalculate(4, 4);
+  }
+
+  @Test
+  public void benchmarkCalculateDeepTree() {
+    benchmarkCalculate(8, 2);
+  }
+
+  @Test
+  public void benchmarkCalculateWithDiffingWideTree() {
+    benchmarkCalculateWithDiffing(2, 16);
+  }
+
+  @Test
+  public void benchmarkCalculateWithDiffingBalancedTree() {
+    benchmarkCalculateWithDiffing(4, 4);
+  }
+
+  @Test
+  public void benchmarkCalculateWithDiffingDeepTree() {
+    benchmarkCalculateWithDiffing(8, 2);
+  }
+
+  private void benchmarkCalculate(final int depth, final int width) {
+    BenchmarkRunner.create(getName("calculate", depth, width))
+        .run(
+            new BenchmarkRunner.Operation() {
+              @Override
+              public void run(int iteration) {
+                calculate(new SyntheticTree(depth, width), null).releaseRef();
+              }
+            });
+  }
+
+  private void benchmarkCalculateWithDiffing(final int depth, final int width) {
+    final LayoutState[] previous = {calculate(new SyntheticTree(depth, width), null)};
+
+    BenchmarkRunner.create(getName("calculateWithDiffing", depth, width))
+        .run(
+            new BenchmarkRunner.Operation() {
+              @Override
+              public void run(int iteration) {
+                final LayoutState layoutState =
+                    calculate(new SyntheticTree(depth, width), previous[0].getDiffTree());
+                previous[0].releaseRef();
+                previous[0] = layoutState;
+              }
+            });
+
+    previous[0].releaseRef();
+  }
+
+  private LayoutState calculate(Component<?> component, DiffNode previousDiffTreeRoot) {
+    return LayoutState.calculate(
+        mContext,
+        component,
+        -1,
+        WIDTH_SPEC,
+        HEIGHT_SPEC,
+        true /* shouldGenerateDiffTree */,
+        previousDiffTreeRoot,
+        false /* canPrefetchDisplayLists */,
+        false /* canCacheDrawingDisplayLists */,
+        true /* clipChildren */);
+  }
+
+  private static String getName(String benchmark, int depth, int width) {
+    return String.format(
+        Locale.US,
+        "%s(depth=%d,width=%d,leaves=%d)",
+        benchmark,
+        depth,
+        width,
+        SyntheticTree.getLeafCount(depth, width));
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho;
+
+import static com.facebook.litho.testing.helper.ComponentTestHelper.mountComponent;
+
+import android.graphics.Rect;
+import com.facebook.litho.benchmarks.BenchmarkRunner;
+import com.facebook.litho.benchmarks.SyntheticTree;
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RuntimeEnvironment;
+
+/** Benchmarks {@link MountState#mount} for full and incremental mounts. */
+@RunWith(ComponentsTestRunner.class)
+public class MountStateBenchmark {
+
+  private static final int WIDTH = 1080;
+  private static final int VIEWPORT_HEIGHT = 200;
+  private static final int SCROLL_STEP = 15;
+
+  private ComponentContext mContext;
+
+  @Before
+  public void setup() {
+    mContext = new ComponentContext(RuntimeEnvironment.application);
+  }
+
+  @Test
+  public void benchmarkRemountBalancedTree() {
+    benchmarkRemount(4, 4);
+  }
+
+  @Test
+  public void benchmarkRemountWideTree() {
+    benchmarkRemount(2, 16);
+  }
+
+  @Test
+  public void benchmarkIncrementalMountScroll() {
+    final int itemCount = 200;
+    final int contentHeight = itemCount * SyntheticTree.LEAF_SIZE_PX;
+    final LithoView lithoView =
+        mountComponent(
+            mContext,
+            new LithoView(mContext),
+            new SyntheticTree(1, itemCount),
+            true /* incrementalMountEnabled */,
+            WIDTH,
+            contentHeight);
+    final ComponentTree componentTree = lithoView.getComponentTree();
+    final Rect visibleRect = new Rect();
+    final int maxScroll = contentHeight - VIEWPORT_HEIGHT;
+
+    BenchmarkRunner.create("incrementalMountScroll(items=" + itemCount + ")")
+        .run(
+            new BenchmarkRunner.Operation() {
+              @Override
+              public void run(int iteration) {
+                final int top = (iteration * SCROLL_STEP) % maxScroll;
+                visibleRect.set(0, top, WIDTH, top + VIEWPORT_HEIGHT);
+                componentTree.mountComponent(visibleRect, true);
+              }
+            });
+
+    lithoView.unmountAllItems();
+  }
+
+  /** Unmounts everything and mounts the whole tree again, without recomputing the layout. */
+  private void benchmarkRemount(int depth, int width) {
+    final LithoView lithoView =
+        mountComponent(
+            mContext,
+            new LithoView(mContext),
+            new SyntheticTree(depth, width),
+            false /* incrementalMountEnabled */,
+            WIDTH,
+            WIDTH);
+    final ComponentTree componentTree = lithoView.getComponentTree();
+
+    BenchmarkRunner.create(
+            "remount(depth="
+                + depth
+                + ",width="
+                + width
+                + ",leaves="
+                + SyntheticTree.getLeafCount(depth, width)
+                + ")")
+        .run(
+            new BenchmarkRunner.Operation() {
+              @Override
+              public void run(int iteration) {
+                lithoView.unmountAllItems();
+                lithoView.setMountStateDirty();
+                componentTree.mountComponent(null, false);
+              }
+            });
+
+    lithoView.unmountAllItems();
+  }
+}
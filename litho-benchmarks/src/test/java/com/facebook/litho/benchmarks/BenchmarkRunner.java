@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho.benchmarks;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * A minimal JMH-style harness for benchmarks that need to run under Robolectric. It runs an
+ * {@link Operation} for a number of warmup iterations, then measures the time and the bytes
+ * allocated on the calling thread for each of the measured iterations and prints a one line
+ * report.
+ *
+ * <p>The number of iterations can be overridden with the {@code litho.benchmark.warmup} and {@code
+ * litho.benchmark.iterations} system properties.
+ */
+public final class BenchmarkRunner {
+
+  public interface Operation {
+
+    /**
+     * Runs the operation being measured.
+     *
+     * @param iteration the index of the current iteration, warmup iterations included.
+     */
+    void run(int iteration);
+  }
+
+  private static final String WARMUP_PROPERTY = "litho.benchmark.warmup";
+  private static final String ITERATIONS_PROPERTY = "litho.benchmark.iterations";
+
+  private static final int DEFAULT_WARMUP_ITERATIONS = 20;
+  private static final int DEFAULT_ITERATIONS = 50;
+
+  private final String mName;
+  private int mWarmupIterations = Integer.getInteger(WARMUP_PROPERTY, DEFAULT_WARMUP_ITERATIONS);
+  private int mIterations = Integer.getInteger(ITERATIONS_PROPERTY, DEFAULT_ITERATIONS);
+  private int mOperationsPerIteration = 1;
+
+  private BenchmarkRunner(String name) {
+    mName = name;
+  }
+
+  public static BenchmarkRunner create(String name) {
+    return new BenchmarkRunner(name);
+  }
+
+  public BenchmarkRunner warmupIterations(int warmupIterations) {
+    mWarmupIterations = warmupIterations;
+    return this;
+  }
+
+  public BenchmarkRunner iterations(int iterations) {
+    mIterations = iterations;
+    return this;
+  }
+
+  /**
+   * Sets how many logical operations a single run of the {@link Operation} performs, so that the
+   * results are reported per logical operation. Useful for operations that are too fast to be
+   * timed one by one.
+   */
+  public BenchmarkRunner operationsPerIteration(int operationsPerIteration) {
+    mOperationsPerIteration = operationsPerIteration;
+    return this;
+  }
+
+  public Result run(Operation operation) {
+    for (int i = 0; i < mWarmupIterations; i++) {
+      operation.run(i);
+    }
+
+    System.gc();
+
+    final long allocationOverhead = AllocationCounter.measureOverhead();
+    final long[] durationsNs = new long[mIterations];
+    long totalAllocatedBytes = 0;
+
+    for (int i = 0; i < mIterations; i++) {
+      final long allocatedBefore = AllocationCounter.getAllocatedBytes();
+      final long startNs = System.nanoTime();
+
+      operation.run(mWarmupIterations + i);
+
+      durationsNs[i] = System.nanoTime() - startNs;
+      final long allocatedAfter = AllocationCounter.getAllocatedBytes();
+      totalAllocatedBytes += Math.max(0, allocatedAfter - allocatedBefore - allocationOverhead);
+    }
+
+    final Result result =
+        new Result(
+            mName,
+            mIterations,
+            mOperationsPerIteration,
+            durationsNs,
+            AllocationCounter.isSupported() ? totalAllocatedBytes : -1);
+    System.out.println(result);
+
+    return result;
+  }
+
+  /** The outcome of a benchmark. All values are per logical operation. */
+  public static final class Result {
+
+    private final String mName;
+    private final int mIterations;
+    private final int mOperationsPerIteration;
+    private final long mMeanNs;
+    private final long mP50Ns;
+    private final long mP90Ns;
+    private final long mAllocatedBytes;
+
+    private Result(
+        String name,
+        int iterations,
+        int operationsPerIteration,
+        long[] durationsNs,
+        long totalAllocatedBytes) {
+      mName = name;
+      mIterations = iterations;
+      mOperationsPerIteration = operationsPerIteration;
+
+      final long[] sorted = Arrays.copyOf(durationsNs, durationsNs.length);
+      Arrays.sort(sorted);
+
+      long totalNs = 0;
+      for (long durationNs : sorted) {
+        totalNs += durationNs;
+      }
+
+      final long operations = (long) iterations * operationsPerIteration;
+      mMeanNs = operations > 0 ? totalNs / operations : 0;
+      mP50Ns = percentile(sorted, 0.5f) / operationsPerIteration;
+      mP90Ns = percentile(sorted, 0.9f) / operationsPerIteration;
+      mAllocatedBytes =
+          totalAllocatedBytes >= 0 && operations > 0 ? totalAllocatedBytes / operations : -1;
+    }
+
+    private static long percentile(long[] sorted, float percentile) {
+      if (sorted.length == 0) {
+        return 0;
+      }
+
+      final int index = Math.min(sorted.length - 1, (int) (sorted.length * percentile));
+      return sorted[index];
+    }
+
+    public String getName() {
+      return mName;
+    }
+
+    public long getMeanNs() {
+      return mMeanNs;
+    }
+
+    public long getP50Ns() {
+      return mP50Ns;
+    }
+
+    public long getP90Ns() {
+      return mP90Ns;
+    }
+
+    /** @return the bytes allocated per operation, or -1 if the JVM can't report allocations. */
+    public long getAllocatedBytes() {
+      return mAllocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          Locale.US,
+          "[benchmark] %s  mean=%dns  p50=%dns  p90=%dns  alloc=%s  (%d iterations x %d ops)",
+          mName,
+          mMeanNs,
+          mP50Ns,
+          mP90Ns,
+          mAllocatedBytes >= 0 ? mAllocatedBytes + "B/op" : "n/a",
+          mIterations,
+          mOperationsPerIteration);
+    }
+  }
+
+  /**
+   * Reads the bytes allocated by the current thread from the HotSpot specific ThreadMXBean. This
+   * goes through reflection since java.lang.management isn't part of the Android SDK we compile
+   * against.
+   */
+  private static final class AllocationCounter {
+
+    private static final Object sThreadMXBean;
+    private static final Method sGetThreadAllocatedBytes;
+
+    static {
+      Object threadMXBean = null;
+      Method getThreadAllocatedBytes = null;
+      try {
+        threadMXBean =
+            Class.forName("java.lang.management.ManagementFactory")
+                .getMethod("getThreadMXBean")
+                .invoke(null);
+        getThreadAllocatedBytes =
+            Class.forName("com.sun.management.ThreadMXBean")
+                .getMethod("getThreadAllocatedBytes", long.class);
+        getThreadAllocatedBytes.setAccessible(true);
+        getThreadAllocatedBytes.invoke(threadMXBean, Thread.currentThread().getId());
+      } catch (Exception e) {
+        // Not running on HotSpot, allocations won't be reported.
+        threadMXBean = null;
+        getThreadAllocatedBytes = null;
+      }
+
+      sThreadMXBean = threadMXBean;
+      sGetThreadAllocatedBytes = getThreadAllocatedBytes;
+    }
+
+    static boolean isSupported() {
+      return sGetThreadAllocatedBytes != null;
+    }
+
+    static long getAllocatedBytes() {
+      if (!isSupported()) {
+        return 0;
+      }
+
+      try {
+        return (Long) sGetThreadAllocatedBytes.invoke(
+            sThreadMXBean,
+            Thread.currentThread().getId());
+      } catch (Exception e) {
+        return 0;
+      }
+    }
+
+    /** @return the bytes allocated by a pair of {@link #getAllocatedBytes()} calls. */
+    static long measureOverhead() {
+      long overhead = Long.MAX_VALUE;
+      for (int i = 0; i < 10; i++) {
+        final long before = getAllocatedBytes();
+        final long after = getAllocatedBytes();
+        overhead = Math.min(overhead, after - before);
+      }
+      return overhead;
+    }
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho.benchmarks;
+
+import com.facebook.litho.Column;
+import com.facebook.litho.ComponentContext;
+import com.facebook.litho.ComponentLayout;
+import com.facebook.litho.Row;
+import com.facebook.litho.testing.TestDrawableComponent;
+import com.facebook.litho.testing.TestViewComponent;
+import com.facebook.litho.testing.util.InlineLayoutSpec;
+import com.facebook.yoga.YogaEdge;
+
+/**
+ * A layout of alternating columns and rows, {@code depth} levels deep with {@code width} children
+ * per container. Leaves alternate between drawable and view mount specs. The tree is fully
+ * deterministic so that two runs of a benchmark lay out exactly the same thing.
+ *
+ * <p>Every instance can only be laid out once, create a new one for every calculation.
+ */
+public class SyntheticTree extends InlineLayoutSpec {
+
+  public static final int LEAF_SIZE_PX = 10;
+
+  private final int mDepth;
+  private final int mWidth;
+
+  public SyntheticTree(int depth, int width) {
+    mDepth = depth;
+    mWidth = width;
+  }
+
+  /** @return the number of leaves, i.e. of mount specs, in a tree of the given shape. */
+  public static int getLeafCount(int depth, int width) {
+    int count = 1;
+    for (int i = 0; i < depth; i++) {
+      count *= width;
+    }
+    return count;
+  }
+
+  @Override
+  public String getSimpleName() {
+    return "SyntheticTree";
+  }
+
+  @Override
+  protected ComponentLayout onCreateLayout(ComponentContext c) {
+    return createContainer(c, 1).build();
+  }
+
+  private ComponentLayout.ContainerBuilder createContainer(ComponentContext c, int level) {
+    final ComponentLayout.ContainerBuilder container =
+        (level % 2 == 0 ? Row.create(c) : Column.create(c)).paddingPx(YogaEdge.ALL, 1);
+
+    for (int i = 0; i < mWidth; i++) {
+      if (level < mDepth) {
+        container.child(createContainer(c, level + 1));
+      } else if (i % 2 == 0) {
+        container.child(
+            TestDrawableComponent.create(c).widthPx(LEAF_SIZE_PX).heightPx(LEAF_SIZE_PX));
+      } else {
+        container.child(TestViewComponent.create(c).widthPx(LEAF_SIZE_PX).heightPx(LEAF_SIZE_PX));
+      }
+    }
+
+    return container;
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho.sections.common;
+
+import com.facebook.litho.benchmarks.BenchmarkRunner;
+import com.facebook.litho.sections.SectionContext;
+import com.facebook.litho.sections.SectionTree;
+import com.facebook.litho.testing.sections.TestGroupSection;
+import com.facebook.litho.testing.sections.TestTarget;
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RuntimeEnvironment;
+
+/** Benchmarks the diffing of {@link DataDiffSectionSpec} when the data of a list changes. */
+@RunWith(ComponentsTestRunner.class)
+public class DataDiffSectionBenchmark {
+
+  private static final int ITEM_COUNT = 1000;
+  private static final long SEED = 42;
+
+  private SectionContext mSectionContext;
+  private SectionTree mSectionTree;
+  private TestTarget mTestTarget;
+
+  @Before
+  public void setup() {
+    mSectionContext = new SectionContext(RuntimeEnvironment.application);
+    mTestTarget = new TestTarget();
+    mSectionTree = SectionTree.create(mSectionContext, mTestTarget).build();
+  }
+
+  @Test
+  public void benchmarkUnchangedData() {
+    final List<String> data = createData(ITEM_COUNT);
+    benchmarkDiff("dataDiff/unchanged", data, new ArrayList<>(data));
+  }
+
+  @Test
+  public void benchmarkFewChanges() {
+    final List<String> data = createData(ITEM_COUNT);
+    benchmarkDiff("dataDiff/fewChanges", data, mutate(data, ITEM_COUNT / 50));
+  }
+
+  @Test
+  public void benchmarkManyChanges() {
+    final List<String> data = createData(ITEM_COUNT);
+    benchmarkDiff("dataDiff/manyChanges", data, mutate(data, ITEM_COUNT / 4));
+  }
+
+  @Test
+  public void benchmarkShuffledData() {
+    final List<String> data = createData(ITEM_COUNT);
+    final List<String> shuffled = new ArrayList<>(data);
+    Collections.shuffle(shuffled, new Random(SEED));
+    benchmarkDiff("dataDiff/shuffled", data, shuffled);
+  }
+
+  /** Alternates the data of the list between the two given lists, one diff per operation. */
+  private void benchmarkDiff(String name, final List<String> first, final List<String> second) {
+    mSectionTree.setRoot(TestGroupSection.create(mSectionContext).data(first).build());
+    mTestTarget.clear();
+
+    BenchmarkRunner.create(name + "(items=" + ITEM_COUNT + ")")
+        .run(
+            new BenchmarkRunner.Operation() {
+              @Override
+              public void run(int iteration) {
+                final List<String> data = iteration % 2 == 0 ? second : first;
+                mSectionTree.setRoot(TestGroupSection.create(mSectionContext).data(data).build());
+                mTestTarget.clear();
+              }
+            });
+  }
+
+  private static List<String> createData(int count) {
+    final List<String> data = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      data.add("item " + i);
+    }
+    return data;
+  }
+
+  /** @return a copy of the data with the given number of removals, insertions and moves. */
+  private static List<String> mutate(List<String> data, int changes) {
+    final Random random = new Random(SEED);
+    final List<String> mutated = new ArrayList<>(data);
+
+    for (int i = 0; i < changes; i++) {
+      switch (i % 3) {
+        case 0:
+          mutated.remove(random.nextInt(mutated.size()));
+          break;
+        case 1:
+          mutated.add(random.nextInt(mutated.size()), "new item " + i);
+          break;
+        default:
+          mutated.add(random.nextInt(mutated.size()), mutated.remove(random.nextInt(mutated.size())));
+          break;
+      }
+    }
+
+    return mutated;
+  }
+}
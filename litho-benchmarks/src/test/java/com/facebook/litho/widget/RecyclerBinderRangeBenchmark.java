@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho.widget;
+
+import static com.facebook.litho.SizeSpec.EXACTLY;
+import static com.facebook.litho.SizeSpec.makeSizeSpec;
+
+import android.support.v7.widget.OrientationHelper;
+import com.facebook.litho.ComponentContext;
+import com.facebook.litho.LayoutHandler;
+import com.facebook.litho.Size;
+import com.facebook.litho.benchmarks.BenchmarkRunner;
+import com.facebook.litho.testing.TestDrawableComponent;
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RuntimeEnvironment;
+
+/**
+ * Benchmarks the range computation of {@link RecyclerBinder} while scrolling through a list. Layouts
+ * are computed synchronously so that the cost of computing the items entering the range is part of
+ * the measurement.
+ */
+@RunWith(ComponentsTestRunner.class)
+public class RecyclerBinderRangeBenchmark {
+
+  private static final int ITEM_COUNT = 500;
+  private static final int ITEM_HEIGHT = 100;
+  private static final int WIDTH = 1080;
+  private static final int HEIGHT = 1920;
+
+  private static final LayoutHandler SYNC_LAYOUT_HANDLER =
+      new LayoutHandler() {
+        @Override
+        public boolean post(Runnable runnable) {
+          runnable.run();
+          return true;
+        }
+
+        @Override
+        public void removeCallbacks(Runnable runnable) {}
+
+        @Override
+        public void removeCallbacksAndMessages(Object token) {}
+      };
+
+  private ComponentContext mContext;
+
+  @Before
+  public void setup() {
+    mContext = new ComponentContext(RuntimeEnvironment.application);
+  }
+
+  @Test
+  public void benchmarkScrollByOne() {
+    benchmarkScroll("recyclerBinderRange/scrollByOne", 1);
+  }
+
+  @Test
+  public void benchmarkFling() {
+    benchmarkScroll("recyclerBinderRange/fling", 10);
+  }
+
+  private void benchmarkScroll(String name, final int itemsPerStep) {
+    final RecyclerBinder recyclerBinder = createRecyclerBinder();
+    final int visibleCount = HEIGHT / ITEM_HEIGHT;
+    final int maxFirstVisible = ITEM_COUNT - visibleCount;
+
+    BenchmarkRunner.create(name + "(items=" + ITEM_COUNT + ")")
+        .run(
+            new BenchmarkRunner.Operation() {
+              @Override
+              public void run(int iteration) {
+                final int firstVisible = (iteration * itemsPerStep) % maxFirstVisible;
+                recyclerBinder.onNewVisibleRange(firstVisible, firstVisible + visibleCount - 1);
+              }
+            });
+  }
+
+  private RecyclerBinder createRecyclerBinder() {
+    final RecyclerBinder recyclerBinder =
+        new RecyclerBinder.Builder()
+            .layoutInfo(new LinearLayoutInfo(mContext, OrientationHelper.VERTICAL, false))
+            .layoutHandlerFactory(
+                new LayoutHandlerFactory() {
+                  @Override
+                  public LayoutHandler createLayoutCalculationHandler(RenderInfo renderInfo) {
+                    return SYNC_LAYOUT_HANDLER;
+                  }
+                })
+            .build(mContext);
+
+    final List<RenderInfo> renderInfos = new ArrayList<>(ITEM_COUNT);
+    for (int i = 0; i < ITEM_COUNT; i++) {
+      renderInfos.add(
+          ComponentRenderInfo.create()
+              .component(TestDrawableComponent.create(mContext).heightPx(ITEM_HEIGHT).build())
+              .build());
+    }
+    recyclerBinder.insertRangeAt(0, renderInfos);
+    recyclerBinder.measure(
+        new Size(), makeSizeSpec(WIDTH, EXACTLY), makeSizeSpec(HEIGHT, EXACTLY), null);
+
+    return recyclerBinder;
+  }
+}
@@ -68,6 +68,9 @@ public abstract class Component<L extends Component> extends ComponentLifecycle
   @ThreadConfined(ThreadConfined.ANY)
   private InternalNode mLastMeasuredLayout;
 
+  // Lazily computed by getPropsHashCode(), 0 means that it hasn't been computed yet.
+  private int mPropsHashCode;
+
   // Layout attributes that are set directly on the component itself.
   @Nullable private ComponentLayoutAttributes mComponentLayoutAttributes;
 
@@ -114,6 +117,39 @@ public abstract class Component<L extends Component> extends ComponentLifecycle
     return this == other;
   }
 
+  /**
+   * Returns a hash of the props of this component which is consistent with {@link
+   * #isEquivalentTo(Component)}: two equivalent components always have the same props hash code.
+   * A mismatch can therefore be used to cheaply reject equivalence, and the value can be used as
+   * the basis for cache keys.
+   *
+   * <p>The value is computed once and cached, so this should only be called once the component
+   * has been built.
+   */
+  public final int getPropsHashCode() {
+    int propsHashCode = mPropsHashCode;
+    if (propsHashCode == 0) {
+      propsHashCode = propsHashCode();
+      // 0 is reserved to mark the hash code as not computed yet.
+      if (propsHashCode == 0) {
+        propsHashCode = 1;
+      }
+      mPropsHashCode = propsHashCode;
+    }
+
+    return propsHashCode;
+  }
+
+  /**
+   * Computes the hash returned by {@link #getPropsHashCode()}. Generated components implement
+   * this for all their props. Components that override {@link #isEquivalentTo(Component)} by hand
+   * should override this as well, the default value is consistent with any implementation but
+   * can't tell components apart.
+   */
+  protected int propsHashCode() {
+    return 0;
+  }
+
   protected StateContainer getStateContainer() {
     return null;
   }
@@ -255,6 +291,8 @@ public abstract class Component<L extends Component> extends ComponentLifecycle
       component.mIsLayoutStarted = false;
       component.mChildCounters = new HashMap<>();
       component.mHasManualKey = false;
+      // Component props might be replaced with their copies, which can change the hash code.
+      component.mPropsHashCode = 0;
 
       return component;
     } catch (CloneNotSupportedException e) {
@@ -47,6 +47,10 @@ public class ComponentContext extends ContextWrapper {
   @ThreadConfined(ThreadConfined.ANY)
   private ComponentTree mComponentTree;
 
+  @ThreadConfined(ThreadConfined.ANY)
+  @Nullable
+  private ReusableNodeTree mReusableNodeTree;
+
   // Used to hold styling information applied to components
   @StyleRes
   @ThreadConfined(ThreadConfined.ANY)
@@ -107,6 +111,7 @@ public class ComponentContext extends ContextWrapper {
       mHeightSpec = componentContext.mHeightSpec;
       mComponentScope = componentContext.mComponentScope;
       mComponentTree = componentContext.mComponentTree;
+      mReusableNodeTree = componentContext.mReusableNodeTree;
     } else {
       mResourceCache = ResourceCache.getLatest(context.getResources().getConfiguration());
     }
@@ -127,6 +132,19 @@ public class ComponentContext extends ContextWrapper {
     return componentContext;
   }
 
+  /**
+   * Creates a new ComponentContext instance whose layouts take the subtrees of the components that
+   * didn't change from the given tree.
+   */
+  static ComponentContext withReusableNodeTree(
+      ComponentContext context,
+      ReusableNodeTree reusableNodeTree) {
+    final ComponentContext componentContext = context.makeNewCopy();
+    componentContext.mReusableNodeTree = reusableNodeTree;
+
+    return componentContext;
+  }
+
   /**
    * Creates a new ComponentContext instance scoped to the given component and sets it on the
    *  component.
@@ -294,6 +312,33 @@ public class ComponentContext extends ContextWrapper {
       @StyleRes int defStyleRes) {
     component.applyStateUpdates(this);
 
+    return createLayout(component, defStyleAttr, defStyleRes);
+  }
+
+  /**
+   * Creates the layout of a child added with {@link InternalNode#child(Component)}. Since the
+   * caller doesn't style the layout any further, it can be taken from the previous layout if the
+   * child didn't change.
+   */
+  ComponentLayout.Builder newChildLayoutBuilder(Component<?> component) {
+    if (mReusableNodeTree == null) {
+      return newLayoutBuilder(component, 0, 0);
+    }
+
+    component.applyStateUpdates(this);
+
+    final InternalNode reusedNode = mReusableNodeTree.takeNode(component);
+    if (reusedNode != null) {
+      return reusedNode;
+    }
+
+    return createLayout(component, 0, 0);
+  }
+
+  private ComponentLayout.Builder createLayout(
+      Component<?> component,
+      @AttrRes int defStyleAttr,
+      @StyleRes int defStyleRes) {
     final InternalNode node = (InternalNode) component.getLifecycle().createLayout(
         component.getScopedContext(),
         component,
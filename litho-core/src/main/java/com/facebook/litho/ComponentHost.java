@@ -33,6 +33,7 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.view.ViewParent;
 import android.view.accessibility.AccessibilityNodeInfo;
+import com.facebook.litho.config.ComponentsConfiguration;
 import com.facebook.proguard.annotations.DoNotStrip;
 import java.util.ArrayList;
 import java.util.List;
@@ -45,6 +46,12 @@ import java.util.List;
 @DoNotStrip
 public class ComponentHost extends ViewGroup {
 
+  /** Only accessed from the main thread, while drawing. */
+  private static int sQuickRejectedDrawCount;
+
+  /** Below this many touchables, going through all of them is cheaper than keeping an index. */
+  private static final int MIN_TOUCHABLES_FOR_INDEX = 8;
+
   private final SparseArrayCompat<MountItem> mMountItems = new SparseArrayCompat<>();
   private SparseArrayCompat<MountItem> mScrapMountItemsArray;
 
@@ -56,6 +63,13 @@ public class ComponentHost extends ViewGroup {
 
   private final SparseArrayCompat<Touchable> mTouchables = new SparseArrayCompat<>();
   private SparseArrayCompat<Touchable> mScrapTouchables;
+  private final HitTestIndex<Touchable> mTouchableIndex = new HitTestIndex<>();
+  private final ArrayList<Touchable> mTouchablesAtEvent = new ArrayList<>();
+  // The touchables that were offered the ACTION_DOWN of the current gesture through the index, in
+  // reverse drawing order.
+  private final ArrayList<Touchable> mHandlingTouchables = new ArrayList<>();
+  private boolean mIsTouchableIndexDirty = true;
+  private boolean mIsUsingTouchableIndex;
 
   private final ArrayList<MountItem> mDisappearingItems = new ArrayList<>();
 
@@ -715,12 +729,22 @@ public class ComponentHost extends ViewGroup {
     boolean handled = false;
 
     if (isEnabled()) {
-      // Iterate drawable from last to first to respect drawing order.
-      for (int size = mTouchables.size(), i = size - 1; i >= 0; i--) {
-        final Touchable t = mTouchables.valueAt(i);
-        if (t.shouldHandleTouchEvent(event) && t.onTouchEvent(event, this)) {
-          handled = true;
-          break;
+      if (event.getActionMasked() == MotionEvent.ACTION_DOWN) {
+        maybeUpdateTouchableIndex();
+        mHandlingTouchables.clear();
+        mIsUsingTouchableIndex = !mIsTouchableIndexDirty;
+      }
+
+      if (mIsUsingTouchableIndex) {
+        handled = dispatchToIndexedTouchables(event);
+      } else {
+        // Iterate drawable from last to first to respect drawing order.
+        for (int size = mTouchables.size(), i = size - 1; i >= 0; i--) {
+          final Touchable t = mTouchables.valueAt(i);
+          if (t.shouldHandleTouchEvent(event) && t.onTouchEvent(event, this)) {
+            handled = true;
+            break;
+          }
         }
       }
     }
@@ -732,6 +756,84 @@ public class ComponentHost extends ViewGroup {
     return handled;
   }
 
+  /**
+   * Offers the ACTION_DOWN of a gesture to the touchables whose bounds contain it, and the rest of
+   * the gesture only to the touchables that were offered its ACTION_DOWN, wherever it moves. Unlike
+   * the linear scan, a later event of the gesture is never offered to a touchable that wasn't
+   * offered its ACTION_DOWN, e.g. the one under an ACTION_UP that ends elsewhere.
+   */
+  private boolean dispatchToIndexedTouchables(MotionEvent event) {
+    boolean handled = false;
+
+    if (event.getActionMasked() == MotionEvent.ACTION_DOWN) {
+      // The touchables are returned from last to first, to respect drawing order.
+      mTouchableIndex.findItemsAt((int) event.getX(), (int) event.getY(), mTouchablesAtEvent);
+      for (int i = 0, size = mTouchablesAtEvent.size(); i < size; i++) {
+        final Touchable t = mTouchablesAtEvent.get(i);
+        if (t.shouldHandleTouchEvent(event)) {
+          mHandlingTouchables.add(t);
+          if (t.onTouchEvent(event, this)) {
+            handled = true;
+            break;
+          }
+        }
+      }
+      mTouchablesAtEvent.clear();
+
+      return handled;
+    }
+
+    for (int i = 0, size = mHandlingTouchables.size(); i < size; i++) {
+      final Touchable t = mHandlingTouchables.get(i);
+      if (t.shouldHandleTouchEvent(event) && t.onTouchEvent(event, this)) {
+        handled = true;
+        break;
+      }
+    }
+
+    if (event.getActionMasked() == MotionEvent.ACTION_UP
+        || event.getActionMasked() == MotionEvent.ACTION_CANCEL) {
+      mHandlingTouchables.clear();
+      mIsUsingTouchableIndex = false;
+    }
+
+    return handled;
+  }
+
+  /**
+   * Marks the touchable index as stale, for it to be rebuilt on the next ACTION_DOWN. The host
+   * does this itself when touchables are mounted, unmounted or moved, but the bounds of mounted
+   * drawables are updated by {@link MountState} and animations, which have to call this.
+   */
+  public void invalidateTouchableIndex() {
+    mIsTouchableIndexDirty = true;
+  }
+
+  /**
+   * Rebuilds the touchable index if it was invalidated since it was built. This runs once per
+   * gesture, on ACTION_DOWN, which is the only event looked up in the index.
+   */
+  private void maybeUpdateTouchableIndex() {
+    final int size = mTouchables.size();
+    if (size < MIN_TOUCHABLES_FOR_INDEX) {
+      mIsTouchableIndexDirty = true;
+      mTouchableIndex.clear();
+      return;
+    }
+
+    if (!mIsTouchableIndexDirty) {
+      return;
+    }
+
+    mTouchableIndex.clear();
+    for (int i = 0; i < size; i++) {
+      final Touchable touchable = mTouchables.valueAt(i);
+      mTouchableIndex.add(touchable, ((Drawable) touchable).getBounds());
+    }
+    mTouchableIndex.build();
+    mIsTouchableIndexDirty = false;
+  }
+
   void performLayout(boolean changed, int l, int t, int r, int b) {
   }
 
@@ -1140,6 +1242,7 @@ public class ComponentHost extends ViewGroup {
 
     if (drawable instanceof Touchable && !MountItem.isTouchableDisabled(mountItem.getFlags())) {
       mTouchables.put(index, (Touchable) drawable);
+      mIsTouchableIndexDirty = true;
     }
   }
 
@@ -1166,6 +1269,8 @@ public class ComponentHost extends ViewGroup {
       } else {
         mTouchables.remove(index);
       }
+      mIsTouchableIndexDirty = true;
+      mHandlingTouchables.remove(contentDrawable);
     }
 
     this.invalidate(drawable.getBounds());
@@ -1194,6 +1299,7 @@ public class ComponentHost extends ViewGroup {
     ComponentHostUtils.moveItem(oldIndex, newIndex, mDrawableMountItems, mScrapDrawableMountItems);
     if (item.getContent() instanceof Touchable) {
       ComponentHostUtils.moveItem(oldIndex, newIndex, mTouchables, mScrapTouchables);
+      mIsTouchableIndexDirty = true;
     }
 
     // Drawing order changed, invalidate the whole view.
@@ -1243,6 +1349,8 @@ public class ComponentHost extends ViewGroup {
     private Canvas mCanvas;
     private int mDrawIndex;
     private int mItemsToDraw;
+    private final Rect mClipBounds = new Rect();
+    private boolean mShouldQuickReject;
 
     private InterleavedDispatchDraw() {
     }
@@ -1251,6 +1359,13 @@ public class ComponentHost extends ViewGroup {
       mCanvas = canvas;
       mDrawIndex = 0;
       mItemsToDraw = mMountItems.size();
+
+      // Child views restore the canvas after drawing, so the clip stays the same for all the
+      // drawables of this pass and is only read once.
+      mShouldQuickReject =
+          ComponentsConfiguration.quickRejectOffClipDrawables
+              && mItemsToDraw > 0
+              && canvas.getClipBounds(mClipBounds);
     }
 
     private boolean isRunning() {
@@ -1278,11 +1393,17 @@ public class ComponentHost extends ViewGroup {
           return;
         }
 
+        final Drawable drawable = (Drawable) content;
+        if (mShouldQuickReject && !Rect.intersects(mClipBounds, drawable.getBounds())) {
+          sQuickRejectedDrawCount++;
+          continue;
+        }
+
         final boolean isTracing = ComponentsSystrace.isTracing();
         if (isTracing) {
           ComponentsSystrace.beginSection(getTraceName(mountItem));
         }
-        ((Drawable) content).draw(mCanvas);
+        drawable.draw(mCanvas);
         if (isTracing) {
           ComponentsSystrace.endSection();
         }
@@ -1296,6 +1417,19 @@ public class ComponentHost extends ViewGroup {
     }
   }
 
+  /**
+   * @return how many drawables were not drawn because they were outside of the clip of the canvas
+   *     (see {@link ComponentsConfiguration#quickRejectOffClipDrawables}).
+   */
+  public static int getQuickRejectedDrawCount() {
+    return sQuickRejectedDrawCount;
+  }
+
+  /** Resets the count of drawables that were not drawn, e.g. at the start of a sampling window. */
+  public static void resetQuickRejectedDrawCount() {
+    sQuickRejectedDrawCount = 0;
+  }
+
   private static String getTraceName(MountItem mountItem) {
     String traceName = "draw: " + mountItem.getComponent().getSimpleName();
     final DisplayListDrawable displayListDrawable = mountItem.getDisplayListDrawable();
@@ -12,9 +12,10 @@ package com.facebook.litho;
 import static com.facebook.litho.ComponentLifecycle.StateUpdate;
 import static com.facebook.litho.FrameworkLogEvents.EVENT_LAYOUT_CALCULATE;
 import static com.facebook.litho.FrameworkLogEvents.EVENT_PRE_ALLOCATE_MOUNT_CONTENT;
-import static com.facebook.litho.FrameworkLogEvents.PARAM_IS_BACKGROUND_LAYOUT;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_ID_IS_BACKGROUND_LAYOUT;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_ID_REUSED_SUBTREE_COUNT;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_ID_TREE_DIFF_ENABLED;
 import static com.facebook.litho.FrameworkLogEvents.PARAM_LOG_TAG;
-import static com.facebook.litho.FrameworkLogEvents.PARAM_TREE_DIFF_ENABLED;
 import static com.facebook.litho.ThreadUtils.assertHoldsLock;
 import static com.facebook.litho.ThreadUtils.assertMainThread;
 import static com.facebook.litho.ThreadUtils.isMainThread;
@@ -66,6 +67,8 @@ import javax.annotation.concurrent.GuardedBy;
 public class ComponentTree {
 
   public static final int INVALID_ID = -1;
+  /** Distance to the viewport of a ComponentTree that isn't rendered in a list, or not yet. */
+  public static final int DISTANCE_TO_VIEWPORT_UNKNOWN = Integer.MAX_VALUE;
   private static final String TAG = ComponentTree.class.getSimpleName();
   private static final int SIZE_UNINITIALIZED = -1;
   // MainThread Looper messages:
@@ -151,6 +154,10 @@ public class ComponentTree {
 
   private boolean mHasMounted = false;
 
+  // How far, in items, this tree is from the viewport of the list rendering it.
+  // DISTANCE_TO_VIEWPORT_UNKNOWN if it's not rendered by a list or it's out of the list's range.
+  private volatile int mDistanceToViewport = DISTANCE_TO_VIEWPORT_UNKNOWN;
+
   // TODO(6606683): Enable recycling of mComponent.
   // We will need to ensure there are no background threads referencing mComponent. We'll need
   // to keep a reference count or something. :-/
@@ -173,6 +180,11 @@ public class ComponentTree {
   @GuardedBy("this")
   private LayoutState mBackgroundLayoutState;
 
+  // The last layout whose state was committed, the only one whose nodes can be reused: the nodes
+  // of an older layout may hold components with outdated state. Only compared by reference.
+  @GuardedBy("this")
+  private LayoutState mLayoutStateWithLatestState;
+
   @GuardedBy("this")
   private StateHandler mStateHandler;
 
@@ -192,11 +204,29 @@ public class ComponentTree {
   @GuardedBy("this")
   private int mScheduleLayoutAfterMeasure;
 
+  // Guards the event handlers and triggers of the tree, so that binding the event handlers of a
+  // new layout doesn't hold the lock of the tree.
+  private final Object mEventHandlersLock = new Object();
+
+  @GuardedBy("mEventHandlersLock")
   private @Nullable Map<String, EventTrigger> mEventTriggers;
 
-  @GuardedBy("this")
+  @GuardedBy("mEventHandlersLock")
   public Map<String, List<EventHandler>> mEventHandlers = new HashMap<>();
 
+  // Incremented each time a layout is committed, to order the binding of their event handlers.
+  @GuardedBy("this")
+  private int mCommittedLayoutCount;
+
+  // Only written while holding mEventHandlersLock. It's read without it, so that the main thread
+  // doesn't wait for the event handlers of a layout to be bound.
+  private volatile int mLastBoundLayoutCount;
+
+  // The count of mBackgroundLayoutState, which isn't promoted to the main thread before the event
+  // handlers of its components are bound.
+  @GuardedBy("this")
+  private int mBackgroundLayoutCount;
+
   public static Builder create(ComponentContext context, Component.Builder<?, ?> root) {
     return create(context, root.build());
   }
@@ -221,7 +251,10 @@ public class ComponentTree {
     mHasMounted = builder.hasMounted;
 
     if (mLayoutThreadHandler == null) {
-      mLayoutThreadHandler = new DefaultLayoutHandler(getDefaultLayoutThreadLooper());
+      mLayoutThreadHandler =
+          ComponentsConfiguration.useLayoutThreadPool
+              ? LayoutThreadPool.getInstance().createLayoutHandler()
+              : new DefaultLayoutHandler(getDefaultLayoutThreadLooper());
     }
 
     if (mPreAllocateMountContentHandler == null
@@ -299,6 +332,13 @@ public class ComponentTree {
       mBackgroundLayoutState = null;
       return toRelease;
     } else {
+      // The event handlers of a background layout are bound after it's committed, outside of the
+      // lock, and it must not be mounted with the ones of an older layout. Rather than waiting,
+      // keep the current layout: the thread binding them posts an update once it's done.
+      if (mBackgroundLayoutState != null && mLastBoundLayoutCount < mBackgroundLayoutCount) {
+        return null;
+      }
+
       // Since we are changing layout states we'll need to remount.
       if (mLithoView != null) {
         mLithoView.setMountStateDirty();
@@ -684,17 +724,20 @@ public class ComponentTree {
 
       final StateHandler layoutStateStateHandler =
           localLayoutState.consumeStateHandler();
+      final List<Component> components = localLayoutState.consumeComponents();
+      final int layoutCount;
       synchronized (this) {
         if (layoutStateStateHandler != null) {
           mStateHandler.commit(layoutStateStateHandler);
         }
+        mLayoutStateWithLatestState = localLayoutState;
+        layoutCount = ++mCommittedLayoutCount;
+      }
 
+      // Only publish the layout once the event handlers of its components are bound.
+      bindEventHandlers(components, layoutCount);
 
-        for (Component layoutComponent : localLayoutState.getComponents()) {
-          bindEventHandler(layoutComponent);
-        }
-        localLayoutState.clearComponents();
-
+      synchronized (this) {
         mMainThreadLayoutState = localLayoutState;
         localLayoutState = null;
       }
@@ -745,6 +788,21 @@ public class ComponentTree {
     return mIncrementalMountEnabled;
   }
 
+  /**
+   * Sets how far, in items, this ComponentTree is from the viewport of the list that renders it, 0
+   * if it's visible. This is used to prioritize display list prefetching of the closest items
+   * across all lists, before the items whose distance is {@link #DISTANCE_TO_VIEWPORT_UNKNOWN}.
+   * Lists reset the distance to {@link #DISTANCE_TO_VIEWPORT_UNKNOWN} when the item leaves the
+   * range they keep laid out.
+   */
+  public void setDistanceToViewport(int distanceToViewport) {
+    mDistanceToViewport = distanceToViewport;
+  }
+
+  int getDistanceToViewport() {
+    return mDistanceToViewport;
+  }
+
   synchronized Component getRoot() {
     return mRoot;
   }
@@ -911,62 +969,95 @@ public class ComponentTree {
         null /*output */);
   }
 
-  synchronized void bindEventHandler(Component component) {
-    final String key = component.getGlobalKey();
+  /**
+   * Binds the event handlers of the components of a committed layout, unless the ones of a layout
+   * committed after it were bound already. This is called without holding the lock of the tree, so
+   * that state updates and layouts on other threads don't wait for it. A committed background
+   * layout isn't promoted to the main thread until this is done, see {@link
+   * #setBestMainThreadLayoutAndReturnOldLayout}.
+   */
+  private void bindEventHandlers(List<Component> components, int layoutCount) {
+    synchronized (mEventHandlersLock) {
+      if (layoutCount < mLastBoundLayoutCount) {
+        return;
+      }
 
-    if (!mEventHandlers.containsKey(key)) {
-      return;
+      try {
+        for (int i = 0, size = components.size(); i < size; i++) {
+          bindEventHandler(components.get(i));
+        }
+      } finally {
+        mLastBoundLayoutCount = layoutCount;
+      }
     }
+  }
 
-    for (EventHandler eventHandler : mEventHandlers.get(key)) {
-      eventHandler.mHasEventDispatcher = component;
+  void bindEventHandler(Component component) {
+    synchronized (mEventHandlersLock) {
+      final String key = component.getGlobalKey();
 
-      // Params should only be null for tests
-      if (eventHandler.params != null) {
-        eventHandler.params[0] = component.getScopedContext();
+      if (!mEventHandlers.containsKey(key)) {
+        return;
+      }
+
+      for (EventHandler eventHandler : mEventHandlers.get(key)) {
+        eventHandler.mHasEventDispatcher = component;
+
+        // Params should only be null for tests
+        if (eventHandler.params != null) {
+          eventHandler.params[0] = component.getScopedContext();
+        }
       }
     }
   }
 
-  synchronized void recordEventHandler(Component component, EventHandler eventHandler) {
-    final String key = component.getGlobalKey();
+  void recordEventHandler(Component component, EventHandler eventHandler) {
+    synchronized (mEventHandlersLock) {
+      final String key = component.getGlobalKey();
 
-    if (!mEventHandlers.containsKey(key)) {
-      List<EventHandler> list = new ArrayList<>();
-      mEventHandlers.put(key, list);
-    }
+      if (!mEventHandlers.containsKey(key)) {
+        List<EventHandler> list = new ArrayList<>();
+        mEventHandlers.put(key, list);
+      }
 
-    mEventHandlers.get(key).add(eventHandler);
+      mEventHandlers.get(key).add(eventHandler);
+    }
   }
 
   /**
    * Keep a referenece to {@link EventTrigger} to allow a retrieval of the same reference with a
    * key.
    */
-  synchronized void recordEventTrigger(String triggerKey, EventTrigger eventTrigger) {
-    if (mEventTriggers == null) {
-      mEventTriggers = new ArrayMap<>();
-    }
+  void recordEventTrigger(String triggerKey, EventTrigger eventTrigger) {
+    synchronized (mEventHandlersLock) {
+      if (mEventTriggers == null) {
+        mEventTriggers = new ArrayMap<>();
+      }
 
-    mEventTriggers.put(triggerKey, eventTrigger);
+      mEventTriggers.put(triggerKey, eventTrigger);
+    }
   }
 
   /** Remove a referenece of {@link EventTrigger} with the key it was registered with. */
-  synchronized void releaseEventTrigger(String triggerKey) {
-    if (mEventTriggers == null) {
-      return;
-    }
+  void releaseEventTrigger(String triggerKey) {
+    synchronized (mEventHandlersLock) {
+      if (mEventTriggers == null) {
+        return;
+      }
 
-    mEventTriggers.remove(triggerKey);
+      mEventTriggers.remove(triggerKey);
+    }
   }
 
   @Nullable
-  synchronized EventTrigger getEventTrigger(String triggerKey) {
-    if (mEventTriggers == null || !mEventTriggers.containsKey(triggerKey)) {
-      return null;
-    }
+  EventTrigger getEventTrigger(String triggerKey) {
+    synchronized (mEventHandlersLock) {
+      if (mEventTriggers == null || !mEventTriggers.containsKey(triggerKey)) {
+        return null;
+      }
 
-    return mEventTriggers.get(triggerKey);
+      return mEventTriggers.get(triggerKey);
+    }
   }
 
   /**
@@ -1045,6 +1136,111 @@ public class ComponentTree {
         output);
   }
 
+  /**
+   * Calculates a layout of the given root with the given size specs without changing what this
+   * tree renders, so that it can be called while an enclosing component is measured or laid out.
+   * The layout is diffed against the one currently rendered. Render it with {@link
+   * #setRootAndSizeSpec(PreparedLayout)}, or simply drop it.
+   */
+  public PreparedLayout prepareRootAndSizeSpec(Component<?> root, int widthSpec, int heightSpec) {
+    if (root == null) {
+      throw new IllegalArgumentException("Root component can't be null");
+    }
+
+    final int committedLayoutCount;
+    LayoutState previousLayoutState = null;
+    synchronized (this) {
+      committedLayoutCount = mCommittedLayoutCount;
+      if (mMainThreadLayoutState != null) {
+        previousLayoutState = mMainThreadLayoutState.acquireRef();
+      }
+    }
+
+    final LayoutState layoutState =
+        calculateLayoutState(
+            mLayoutLock,
+            mContext,
+            root.makeShallowCopy(),
+            widthSpec,
+            heightSpec,
+            mIsLayoutDiffingEnabled,
+            previousLayoutState != null ? previousLayoutState.getDiffTree() : null);
+
+    if (previousLayoutState != null) {
+      if (ComponentsConfiguration.calculateTransitionDiffsInLayout) {
+        layoutState.calculateTransitionDiff(previousLayoutState);
+      }
+      previousLayoutState.releaseRef();
+    }
+
+    return new PreparedLayout(
+        this, root, widthSpec, heightSpec, committedLayoutCount, layoutState);
+  }
+
+  /**
+   * Renders a layout calculated by {@link #prepareRootAndSizeSpec}. If another layout was committed
+   * or the state of the tree changed in the meantime, the layout is outdated and it's calculated
+   * again, like {@link #setRootAndSizeSpec(Component, int, int)} does.
+   */
+  @ThreadConfined(ThreadConfined.UI)
+  public void setRootAndSizeSpec(PreparedLayout preparedLayout) {
+    assertMainThread();
+
+    // Take the layout even if it was prepared by another tree, so that it's released below.
+    LayoutState layoutState = preparedLayout.takeLayoutState();
+    boolean layoutStateUpdated = false;
+    List<Component> components = null;
+    int layoutCount = 0;
+    synchronized (this) {
+      if (layoutState != null
+          && preparedLayout.mComponentTree == this
+          && !mReleased
+          && preparedLayout.mCommittedLayoutCount == mCommittedLayoutCount
+          && !hasPendingStateUpdates()
+          && isCompatibleSpec(layoutState, preparedLayout.mWidthSpec, preparedLayout.mHeightSpec)) {
+        mRoot = preparedLayout.mRoot;
+        mWidthSpec = preparedLayout.mWidthSpec;
+        mHeightSpec = preparedLayout.mHeightSpec;
+
+        final StateHandler layoutStateStateHandler = layoutState.consumeStateHandler();
+        if (layoutStateStateHandler != null) {
+          mStateHandler.commit(layoutStateStateHandler);
+        }
+        mLayoutStateWithLatestState = layoutState;
+        components = layoutState.consumeComponents();
+        layoutCount = ++mCommittedLayoutCount;
+
+        final LayoutState tmp = mBackgroundLayoutState;
+        mBackgroundLayoutState = layoutState;
+        mBackgroundLayoutCount = layoutCount;
+        layoutState = tmp;
+        layoutStateUpdated = true;
+      }
+    }
+
+    if (components != null) {
+      bindEventHandlers(components, layoutCount);
+    }
+
+    if (layoutState != null) {
+      layoutState.releaseRef();
+    }
+
+    if (layoutStateUpdated) {
+      postBackgroundLayoutStateUpdated();
+    } else {
+      setRootAndSizeSpec(
+          preparedLayout.mRoot, preparedLayout.mWidthSpec, preparedLayout.mHeightSpec);
+    }
+  }
+
+  @GuardedBy("this")
+  private boolean hasPendingStateUpdates() {
+    final Map<String, List<StateUpdate>> pendingStateUpdates =
+        mStateHandler != null ? mStateHandler.getPendingStateUpdates() : null;
+    return pendingStateUpdates != null && !pendingStateUpdates.isEmpty();
+  }
+
   /**
    * @return the {@link LithoView} associated with this ComponentTree if any.
    */
@@ -1065,6 +1261,21 @@ public class ComponentTree {
     return StateHandler.acquireNewInstance(mStateHandler);
   }
 
+  /**
+   * @return whether any component in this tree has state or a pending state update. Cheaper than
+   *     {@link #getStateHandler()} as it doesn't copy the state.
+   */
+  public synchronized boolean hasState() {
+    if (mStateHandler == null) {
+      return false;
+    }
+
+    final Map<String, List<StateUpdate>> pendingStateUpdates =
+        mStateHandler.getPendingStateUpdates();
+    return !mStateHandler.isEmpty()
+        || (pendingStateUpdates != null && !pendingStateUpdates.isEmpty());
+  }
+
   /**
    * Takes ownership of the {@link RenderState} object from this ComponentTree - this allows the
    * RenderState to be persisted somewhere and then set back on another ComponentTree using the
@@ -1119,7 +1330,9 @@ public class ComponentTree {
 
       final Map<String, List<StateUpdate>> pendingStateUpdates =
           mStateHandler.getPendingStateUpdates();
-      if (pendingStateUpdates != null && pendingStateUpdates.size() > 0 && root != null) {
+      final boolean hasPendingStateUpdates =
+          pendingStateUpdates != null && pendingStateUpdates.size() > 0;
+      if (hasPendingStateUpdates && root != null) {
         root = root.makeShallowCopyWithNewId();
       }
       final boolean rootInitialized = root != null;
@@ -1155,7 +1368,12 @@ public class ComponentTree {
                       heightSpec,
                       mostRecentLayoutState.getWidth(),
                       mostRecentLayoutState.getHeight()));
-      final boolean rootDidntChange = !rootInitialized || root.getId() == mRoot.getId();
+      final boolean rootDidntChange =
+          !rootInitialized
+              || root.getId() == mRoot.getId()
+              || (ComponentsConfiguration.reuseLayoutForEquivalentRoots
+                  && !hasPendingStateUpdates
+                  && isEquivalentToRoot(root));
 
       if (rootDidntChange && sizeSpecsAreCompatible) {
         // The spec and the root haven't changed. Either we have a layout already, or we're
@@ -1206,6 +1424,7 @@ public class ComponentTree {
     int heightSpec;
     Component<?> root;
     LayoutState previousLayoutState = null;
+    ReusableNodeTree reusableNodeTree = null;
 
     // Cancel any scheduled layout requests we might have in the background queue
     // since we are starting a new layout computation.
@@ -1234,6 +1453,7 @@ public class ComponentTree {
 
       if (mMainThreadLayoutState != null) {
         previousLayoutState = mMainThreadLayoutState.acquireRef();
+        reusableNodeTree = maybeCreateReusableNodeTree(previousLayoutState);
       }
     }
 
@@ -1242,30 +1462,49 @@ public class ComponentTree {
     if (logger != null) {
       layoutEvent = logger.newPerformanceEvent(EVENT_LAYOUT_CALCULATE);
       layoutEvent.addParam(PARAM_LOG_TAG, mContext.getLogTag());
-      layoutEvent.addParam(PARAM_TREE_DIFF_ENABLED, String.valueOf(mIsLayoutDiffingEnabled));
-      layoutEvent.addParam(PARAM_IS_BACKGROUND_LAYOUT, String.valueOf(!ThreadUtils.isMainThread()));
+      layoutEvent.addParam(PARAM_ID_TREE_DIFF_ENABLED, mIsLayoutDiffingEnabled);
+      layoutEvent.addParam(PARAM_ID_IS_BACKGROUND_LAYOUT, !ThreadUtils.isMainThread());
     }
 
     LayoutState localLayoutState = calculateLayoutState(
         mLayoutLock,
-        mContext,
+        reusableNodeTree != null
+            ? ComponentContext.withReusableNodeTree(mContext, reusableNodeTree)
+            : mContext,
         root,
         widthSpec,
         heightSpec,
         mIsLayoutDiffingEnabled,
         previousLayoutState != null ? previousLayoutState.getDiffTree() : null);
 
+    if (reusableNodeTree != null) {
+      if (logger != null) {
+        layoutEvent.addParam(
+            PARAM_ID_REUSED_SUBTREE_COUNT, reusableNodeTree.getReusedSubtreeCount());
+      }
+      reusableNodeTree.release();
+      reusableNodeTree = null;
+    }
+
     if (output != null) {
       output.width = localLayoutState.getWidth();
       output.height = localLayoutState.getHeight();
     }
 
+    if (ComponentsConfiguration.calculateTransitionDiffsInLayout
+        && previousLayoutState != null
+        && localLayoutState != null) {
+      localLayoutState.calculateTransitionDiff(previousLayoutState);
+    }
+
     if (previousLayoutState != null) {
       previousLayoutState.releaseRef();
       previousLayoutState = null;
     }
 
     boolean layoutStateUpdated = false;
+    List<Component> components = null;
+    int layoutCount = 0;
     synchronized (this) {
       // Make sure some other thread hasn't computed a compatible layout in the meantime.
       if (!hasCompatibleComponentAndSpec()
@@ -1279,22 +1518,25 @@ public class ComponentTree {
               mStateHandler.commit(layoutStateStateHandler);
             }
           }
-
-          for (Component component : localLayoutState.getComponents()) {
-            bindEventHandler(component);
-          }
-          localLayoutState.clearComponents();
+          mLayoutStateWithLatestState = localLayoutState;
+          components = localLayoutState.consumeComponents();
+          layoutCount = ++mCommittedLayoutCount;
         }
 
         // Set the new layout state, and remember the old layout state so we
         // can release it.
         LayoutState tmp = mBackgroundLayoutState;
         mBackgroundLayoutState = localLayoutState;
+        mBackgroundLayoutCount = layoutCount;
         localLayoutState = tmp;
         layoutStateUpdated = true;
       }
     }
 
+    if (components != null) {
+      bindEventHandlers(components, layoutCount);
+    }
+
     if (localLayoutState != null) {
       localLayoutState.releaseRef();
       localLayoutState = null;
@@ -1314,6 +1556,23 @@ public class ComponentTree {
     }
   }
 
+  /**
+   * @return the node tree of the given layout if its unchanged subtrees can be reused for a new
+   *     layout with the current size specs, e.g. after a state update.
+   */
+  @GuardedBy("this")
+  @Nullable
+  private ReusableNodeTree maybeCreateReusableNodeTree(LayoutState previousLayoutState) {
+    if (!ComponentsConfiguration.reuseUnchangedSubtreesOnStateUpdate
+        || previousLayoutState != mLayoutStateWithLatestState
+        || !previousLayoutState.isCompatibleSpec(mWidthSpec, mHeightSpec)) {
+      return null;
+    }
+
+    final InternalNode layoutRoot = previousLayoutState.takeLayoutRootForReuse();
+    return layoutRoot != null ? new ReusableNodeTree(layoutRoot) : null;
+  }
+
   /**
    * Transfer mBackgroundLayoutState to mMainThreadLayoutState. This will proxy
    * to the main thread if necessary. If the component/size-spec changes in the
@@ -1367,6 +1626,7 @@ public class ComponentTree {
 
       backgroundLayoutState = mBackgroundLayoutState;
       mBackgroundLayoutState = null;
+      mLayoutStateWithLatestState = null;
 
       // TODO t15532529
       mStateHandler = null;
@@ -1404,6 +1664,21 @@ public class ComponentTree {
         || isCompatibleComponentAndSpec(mBackgroundLayoutState);
   }
 
+  /**
+   * @return whether the given component has the same props as the current root, in which case the
+   *     layouts calculated for the current root are valid for it. The props hash codes are used as
+   *     the key of the current layouts, so that most non equivalent roots are rejected without
+   *     comparing their props.
+   */
+  private boolean isEquivalentToRoot(Component<?> root) {
+    assertHoldsLock(this);
+
+    return mRoot != null
+        && mRoot.getClass() == root.getClass()
+        && mRoot.getPropsHashCode() == root.getPropsHashCode()
+        && mRoot.isEquivalentTo(root);
+  }
+
   private boolean hasSizeSpec() {
     assertHoldsLock(this);
 
@@ -1552,6 +1827,56 @@ public class ComponentTree {
     return sIdGenerator.getAndIncrement();
   }
 
+  /**
+   * A layout calculated by {@link #prepareRootAndSizeSpec} that its tree doesn't render yet.
+   */
+  public static final class PreparedLayout {
+    private final ComponentTree mComponentTree;
+    private final Component<?> mRoot;
+    private final int mWidthSpec;
+    private final int mHeightSpec;
+    private final int mWidth;
+    private final int mHeight;
+
+    // The number of layouts the tree had committed when this one was calculated.
+    private final int mCommittedLayoutCount;
+
+    @GuardedBy("this")
+    private @Nullable LayoutState mLayoutState;
+
+    private PreparedLayout(
+        ComponentTree componentTree,
+        Component<?> root,
+        int widthSpec,
+        int heightSpec,
+        int committedLayoutCount,
+        LayoutState layoutState) {
+      mComponentTree = componentTree;
+      mRoot = root;
+      mWidthSpec = widthSpec;
+      mHeightSpec = heightSpec;
+      mWidth = layoutState.getWidth();
+      mHeight = layoutState.getHeight();
+      mCommittedLayoutCount = committedLayoutCount;
+      mLayoutState = layoutState;
+    }
+
+    public int getWidth() {
+      return mWidth;
+    }
+
+    public int getHeight() {
+      return mHeight;
+    }
+
+    /** @return the layout if it wasn't rendered yet, so that it's rendered at most once. */
+    private synchronized @Nullable LayoutState takeLayoutState() {
+      final LayoutState layoutState = mLayoutState;
+      mLayoutState = null;
+      return layoutState;
+    }
+  }
+
   /**
    * A builder class that can be used to create a {@link ComponentTree}.
    */
@@ -21,6 +21,11 @@ class DisplayListContainer {
   private @Nullable DisplayList mDisplayList;
   private boolean mCanCacheDrawingDisplayLists;
   private @Nullable String mName;
+  // True while the display list is waiting in the DisplayListPrefetcher and hasn't been mounted.
+  private boolean mQueuedForPrefetch;
+  // True if the output mounted before this one draws the same content, so that this container can
+  // take its display list at mount instead of recording a new one.
+  private boolean mCanTakePreviousDisplayList;
 
   void setDisplayList(DisplayList displayList) {
     mDisplayList = displayList;
@@ -43,10 +48,28 @@ class DisplayListContainer {
     return mCanCacheDrawingDisplayLists;
   }
 
+  boolean isQueuedForPrefetch() {
+    return mQueuedForPrefetch;
+  }
+
+  void setQueuedForPrefetch(boolean queuedForPrefetch) {
+    mQueuedForPrefetch = queuedForPrefetch;
+  }
+
+  boolean canTakePreviousDisplayList() {
+    return mCanTakePreviousDisplayList;
+  }
+
+  void setCanTakePreviousDisplayList(boolean canTakePreviousDisplayList) {
+    mCanTakePreviousDisplayList = canTakePreviousDisplayList;
+  }
+
   void release() {
     mDisplayList = null;
     mCanCacheDrawingDisplayLists = false;
     mName = null;
+    mQueuedForPrefetch = false;
+    mCanTakePreviousDisplayList = false;
   }
 
   @Nullable String getName() {
@@ -11,38 +11,63 @@ package com.facebook.litho;
 
 import android.annotation.TargetApi;
 import android.os.Build;
+import android.view.Choreographer;
 import android.view.Display;
 import android.view.View;
+import com.facebook.litho.config.ComponentsConfiguration;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.Queue;
-import java.util.concurrent.TimeUnit;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * {@link Runnable} that is used to prefetch display lists of components for which layout has been
  * already calculated but not yet appeared on screen. This will allow for faster drawing time when
  * these components come to screen.
+ *
+ * <p>Prefetching runs right after a frame has been drawn, and stops when either the next frame is
+ * due or the per frame budget defined by {@link
+ * ComponentsConfiguration#displayListPrefetchFrameBudgetRatio} has been used. LayoutStates from
+ * all lists are served in order of their distance to the viewport (see {@link
+ * ComponentTree#setDistanceToViewport(int)}), then in the order they were queued. The order is
+ * computed once per frame, and LayoutStates whose distance is unknown are served last.
  */
 @TargetApi(Build.VERSION_CODES.LOLLIPOP)
 public final class DisplayListPrefetcher implements Runnable {
 
   /**
-   * Keeps average display list creation time per unique component type defined by component class
-   * name.
+   * Keeps average display list creation time per unique component type defined by component type
+   * id.
    */
   private static final AverageDLPrefetchDuration sAverageDLPrefetchDurationNs
       = new AverageDLPrefetchDuration();
 
   private static final DisplayListPrefetcher sDisplayListPrefetcher = new DisplayListPrefetcher();
 
-  private final Queue<WeakReference<LayoutState>> mLayoutStates;
+  private final List<WeakReference<LayoutState>> mLayoutStates;
+
+  // The LayoutStates to serve in the current frame, closest to the viewport first. Only accessed
+  // on the main thread.
+  private final List<LayoutState> mFrameQueue = new ArrayList<>();
+
+  private final Choreographer.FrameCallback mFrameCallback =
+      new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+          onFrame(frameTimeNanos);
+        }
+      };
 
   private long mFrameIntervalNs;
+  private long mLastFrameTimeNs;
+  private boolean mIsFrameCallbackPosted;
   private WeakReference<View> mHostingView;
 
+  private int mPrefetchHitCount;
+  private int mPrefetchMissCount;
+
   private DisplayListPrefetcher() {
-    mLayoutStates = new LinkedList<>();
+    mLayoutStates = new ArrayList<>();
   }
 
   public static DisplayListPrefetcher getInstance() {
@@ -56,6 +81,19 @@ public final class DisplayListPrefetcher implements Runnable {
     initIfNeeded(view);
   }
 
+  /**
+   * Schedules prefetching to run once the next frame has been drawn. Must be called from the main
+   * thread.
+   */
+  public synchronized void schedulePrefetch(View view) {
+    setHostingView(view);
+
+    if (!mIsFrameCallbackPosted) {
+      mIsFrameCallbackPosted = true;
+      Choreographer.getInstance().postFrameCallback(mFrameCallback);
+    }
+  }
+
   private void initIfNeeded(View view) {
     if (mFrameIntervalNs > 0) {
       return;
@@ -73,56 +111,98 @@ public final class DisplayListPrefetcher implements Runnable {
     mFrameIntervalNs = (long) (1000000000 / refreshRate);
   }
 
+  private void onFrame(long frameTimeNanos) {
+    final View hostingView;
+    synchronized (this) {
+      mIsFrameCallbackPosted = false;
+      mLastFrameTimeNs = frameTimeNanos;
+      hostingView = mHostingView != null ? mHostingView.get() : null;
+    }
+
+    if (hostingView != null) {
+      // Posting from a frame callback makes this run after the traversal of the current frame.
+      hostingView.post(this);
+    }
+  }
+
   synchronized void addLayoutState(LayoutState layoutState) {
     mLayoutStates.add(new WeakReference<>(layoutState));
   }
 
   @Override
   public void run() {
-    if (mFrameIntervalNs == 0) {
-      // Not yet initialized.
-      return;
+    final long frameIntervalNs;
+    final long lastFrameTimeNs;
+    synchronized (this) {
+      frameIntervalNs = mFrameIntervalNs;
+      lastFrameTimeNs = mLastFrameTimeNs;
     }
 
-    final View hostingView = mHostingView.get();
-    if (hostingView == null) {
+    if (frameIntervalNs == 0 || lastFrameTimeNs == 0) {
+      // Not yet initialized.
       return;
     }
 
-    final long latestFrameVsyncNs = TimeUnit.MILLISECONDS.toNanos(hostingView.getDrawingTime());
-    final long nextVsyncNs = latestFrameVsyncNs + mFrameIntervalNs;
+    final long nextVsyncNs = lastFrameTimeNs + frameIntervalNs;
+    final long startNs = System.nanoTime();
 
-    if (System.nanoTime() > nextVsyncNs) {
+    if (startNs > nextVsyncNs) {
       // We are over the frame, bail.
       return;
     }
 
+    final long budgetNs =
+        (long) (frameIntervalNs * ComponentsConfiguration.displayListPrefetchFrameBudgetRatio);
+    final long deadlineNs = Math.min(nextVsyncNs, startNs + budgetNs);
+
     ComponentsSystrace.beginSection("DisplayListPrefetcher");
 
-    while (true) {
-      final LayoutState currentLayoutState = getValidLayoutStateFromQueue();
-      if (currentLayoutState == null) {
-        break;
+    fillFrameQueue();
+
+    try {
+      for (int i = 0, size = mFrameQueue.size(); i < size; i++) {
+        if (!prefetchUntilDeadline(mFrameQueue.get(i), deadlineNs)) {
+          break;
+        }
       }
+    } finally {
+      mFrameQueue.clear();
+      removeFinishedLayoutStates();
+      ComponentsSystrace.endSection();
+    }
+  }
 
-      if (!currentLayoutState.isActivityValid()) {
-        // There might be the case when LayoutState was posted when app was in foreground, but by
-        // the time this runnable is executed we no longer can create displaylist, i.e. GLContext
-        // has been killed, for example, if activity has finished.
-        mLayoutStates.remove();
-        continue;
+  /**
+   * Prefetches the display lists of the given LayoutState until it has none left or the deadline
+   * is reached.
+   *
+   * @return whether there is time left to prefetch for the next LayoutState.
+   */
+  private boolean prefetchUntilDeadline(LayoutState layoutState, long deadlineNs) {
+    if (!layoutState.isActivityValid()) {
+      // There might be the case when LayoutState was posted when app was in foreground, but by
+      // the time this runnable is executed we no longer can create displaylist, i.e. GLContext
+      // has been killed, for example, if activity has finished.
+      removeLayoutState(layoutState);
+      return true;
+    }
+
+    while (true) {
+      layoutState.trimDisplayListItemsQueue();
+      if (!layoutState.hasItemsForDLPrefetch()) {
+        return true;
       }
 
-      final LayoutOutput currentLayoutOutput =
-          currentLayoutState.getNextLayoutOutputForDLPrefetch();
-      final String currentComponentType = currentLayoutOutput.getComponent().getSimpleName();
+      final int currentComponentType =
+          layoutState.peekNextLayoutOutputForDLPrefetch().getComponent().getTypeId();
       final long startPrefetchNs = System.nanoTime();
 
-      if (!canPrefetchOnTime(currentComponentType, startPrefetchNs, nextVsyncNs)) {
-        break;
+      if (!canPrefetchOnTime(currentComponentType, startPrefetchNs, deadlineNs)) {
+        return false;
       }
 
-      currentLayoutState.createDisplayList(currentLayoutOutput);
+      final LayoutOutput currentLayoutOutput = layoutState.getNextLayoutOutputForDLPrefetch();
+      layoutState.createDisplayList(currentLayoutOutput);
       if (currentLayoutOutput.hasDisplayListContainer() // container might have been recycled.
           && currentLayoutOutput.hasValidDisplayList()) {
         // successfully created DL
@@ -130,44 +210,88 @@ public final class DisplayListPrefetcher implements Runnable {
         updateAveragePrefetchDuration(currentComponentType, actualElapsedNs);
       }
     }
-
-    ComponentsSystrace.endSection();
   }
 
-  private boolean canPrefetchOnTime(String componentType, long startTimeNs, long deadlineNs) {
+  private boolean canPrefetchOnTime(int componentType, long startTimeNs, long deadlineNs) {
     final long expectedPrefetchDurationNs = sAverageDLPrefetchDurationNs.get(componentType);
     return expectedPrefetchDurationNs == -1L
         || (startTimeNs + expectedPrefetchDurationNs < deadlineNs);
   }
 
   /**
-   * @return the next {@link LayoutState} from the queue that has non-zero elements to process.
+   * Puts the queued LayoutStates that have items left to prefetch in {@link #mFrameQueue}, closest
+   * to the viewport first.
    */
-  private LayoutState getValidLayoutStateFromQueue() {
-    WeakReference<LayoutState> currentLayoutState = mLayoutStates.peek();
-    while (currentLayoutState != null) {
-      final LayoutState layoutState = currentLayoutState.get();
+  private synchronized void fillFrameQueue() {
+    removeFinishedLayoutStates();
+
+    final int size = mLayoutStates.size();
+    final List<LayoutState> layoutStates = new ArrayList<>(size);
+    final int[] distances = new int[size];
+    for (int i = 0; i < size; i++) {
+      final LayoutState layoutState = mLayoutStates.get(i).get();
+      if (layoutState == null) {
+        // Collected since the queue was cleaned up, it will be removed at the end of the frame.
+        continue;
+      }
+      // Read the distances once, they can be updated while the queue is sorted.
+      distances[layoutStates.size()] = layoutState.getDistanceToViewport();
+      layoutStates.add(layoutState);
+    }
+
+    final int[] order =
+        orderByDistanceToViewport(Arrays.copyOf(distances, layoutStates.size()));
+    for (int i = 0; i < order.length; i++) {
+      mFrameQueue.add(layoutStates.get(order[i]));
+    }
+  }
+
+  /** Removes the LayoutStates that were collected or have nothing left to prefetch. */
+  private synchronized void removeFinishedLayoutStates() {
+    for (int i = mLayoutStates.size() - 1; i >= 0; i--) {
+      final LayoutState layoutState = mLayoutStates.get(i).get();
       if (layoutState != null) {
         layoutState.trimDisplayListItemsQueue();
       }
 
       if (layoutState == null || !layoutState.hasItemsForDLPrefetch()) {
-        mLayoutStates.remove();
-        currentLayoutState = mLayoutStates.peek();
-      } else {
-        break;
+        mLayoutStates.remove(i);
       }
     }
+  }
+
+  /**
+   * @return the indices of the given distances to the viewport, from the closest to the farthest.
+   *     Equal distances keep their order, and {@link ComponentTree#DISTANCE_TO_VIEWPORT_UNKNOWN}
+   *     sorts last.
+   */
+  static int[] orderByDistanceToViewport(int[] distances) {
+    final int size = distances.length;
+    final long[] keys = new long[size];
+    for (int i = 0; i < size; i++) {
+      // Distances are never negative, and the index in the low bits keeps the sort stable.
+      keys[i] = ((long) distances[i] << 32) | i;
+    }
+    Arrays.sort(keys);
 
-    if (currentLayoutState == null) {
-      // Queue is empty.
-      return null;
+    final int[] order = new int[size];
+    for (int i = 0; i < size; i++) {
+      order[i] = (int) keys[i];
     }
 
-    return currentLayoutState.get();
+    return order;
   }
 
-  private void updateAveragePrefetchDuration(String componentType, long actualElapsedNs) {
+  private synchronized void removeLayoutState(LayoutState layoutState) {
+    for (int i = 0, size = mLayoutStates.size(); i < size; i++) {
+      if (mLayoutStates.get(i).get() == layoutState) {
+        mLayoutStates.remove(i);
+        return;
+      }
+    }
+  }
+
+  private void updateAveragePrefetchDuration(int componentType, long actualElapsedNs) {
     final long expectedPrefetchDurationNs = sAverageDLPrefetchDurationNs.get(componentType);
     final long updatedValue;
     if (expectedPrefetchDurationNs == -1L) {
@@ -184,8 +308,43 @@ public final class DisplayListPrefetcher implements Runnable {
   }
 
   /**
-   * Data structure to hold mapping between String and long primitive. We are using custom data
-   * structure instead of using HashMap&lt;String, Long&gt; to avoid boxing/unboxing of Long type.
+   * Called when an item that was queued for prefetching gets mounted.
+   *
+   * @param hasValidDisplayList whether the display list was ready by the time of mount.
+   */
+  synchronized void onPrefetchedItemMounted(boolean hasValidDisplayList) {
+    if (hasValidDisplayList) {
+      mPrefetchHitCount++;
+    } else {
+      mPrefetchMissCount++;
+    }
+  }
+
+  /**
+   * @return the number of items queued for prefetching that had a valid display list when they
+   *     were mounted.
+   */
+  public synchronized int getPrefetchHitCount() {
+    return mPrefetchHitCount;
+  }
+
+  /**
+   * @return the number of items queued for prefetching that didn't have a valid display list yet
+   *     when they were mounted.
+   */
+  public synchronized int getPrefetchMissCount() {
+    return mPrefetchMissCount;
+  }
+
+  public synchronized void resetPrefetchStats() {
+    mPrefetchHitCount = 0;
+    mPrefetchMissCount = 0;
+  }
+
+  /**
+   * Data structure to hold mapping between component type ids and long primitive. We are using
+   * custom data structure instead of using SparseArray&lt;Long&gt; to avoid boxing/unboxing of
+   * Long type.
    *
    * NOTE: get() and put() are linear operations, but we don't expect to have large number of items
    *       so for our case that is acceptable.
@@ -194,10 +353,11 @@ public final class DisplayListPrefetcher implements Runnable {
     static final int INITIAL_SIZE = 10;
 
     private long[] durationsNs = new long[INITIAL_SIZE];
-    private final ArrayList<String> componentTypes = new ArrayList<>();
+    private int[] componentTypes = new int[INITIAL_SIZE];
+    private int size;
 
-    long get(String componentType) {
-      final int indexOf = componentTypes.indexOf(componentType);
+    long get(int componentType) {
+      final int indexOf = indexOf(componentType);
       if (indexOf < 0) {
         return -1L;
       }
@@ -205,20 +365,35 @@ public final class DisplayListPrefetcher implements Runnable {
       return durationsNs[indexOf];
     }
 
-    void put(String componentType, long durationNs) {
-      final int indexOfKey = componentTypes.indexOf(componentType);
+    void put(int componentType, long durationNs) {
+      final int indexOfKey = indexOf(componentType);
       if (indexOfKey == -1) {
-        if (componentTypes.size() >= durationsNs.length) {
+        if (size >= durationsNs.length) {
           final long[] oldDurationsNs = durationsNs;
           durationsNs = new long[durationsNs.length + INITIAL_SIZE];
           System.arraycopy(oldDurationsNs, 0, durationsNs, 0, oldDurationsNs.length);
+
+          final int[] oldComponentTypes = componentTypes;
+          componentTypes = new int[componentTypes.length + INITIAL_SIZE];
+          System.arraycopy(oldComponentTypes, 0, componentTypes, 0, oldComponentTypes.length);
         }
 
-        durationsNs[componentTypes.size()] = durationNs;
-        componentTypes.add(componentType);
+        durationsNs[size] = durationNs;
+        componentTypes[size] = componentType;
+        size++;
       } else {
         durationsNs[indexOfKey] = durationNs;
       }
     }
+
+    private int indexOf(int componentType) {
+      for (int i = 0; i < size; i++) {
+        if (componentTypes[i] == componentType) {
+          return i;
+        }
+      }
+
+      return -1;
+    }
   }
 }
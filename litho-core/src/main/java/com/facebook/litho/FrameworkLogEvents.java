@@ -42,4 +42,18 @@ public interface FrameworkLogEvents {
   String PARAM_NO_OP_COUNT = "no_op_count";
   String PARAM_IS_DIRTY = "is_dirty";
   String PARAM_MESSAGE = "message";
+  String PARAM_REUSED_SUBTREE_COUNT = "reused_subtree_count";
+
+  // Ids of the params the framework adds with LogEvent#addParam(int, long) and
+  // LogEvent#addParam(int, boolean). Their names are the PARAM_ constants above.
+  int PARAM_ID_TREE_DIFF_ENABLED = 0;
+  int PARAM_ID_IS_BACKGROUND_LAYOUT = 1;
+  int PARAM_ID_UNMOUNTED_COUNT = 2;
+  int PARAM_ID_MOVED_COUNT = 3;
+  int PARAM_ID_UNCHANGED_COUNT = 4;
+  int PARAM_ID_MOUNTED_COUNT = 5;
+  int PARAM_ID_UPDATED_COUNT = 6;
+  int PARAM_ID_NO_OP_COUNT = 7;
+  int PARAM_ID_IS_DIRTY = 8;
+  int PARAM_ID_REUSED_SUBTREE_COUNT = 9;
 }
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho;
+
+import android.graphics.Rect;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Index of the bounds of the touch targets of a {@link ComponentHost}, used to find the targets
+ * under a touch without going through all of them.
+ *
+ * <p>The host is cut in horizontal bands at the top and bottom edge of every target, and each band
+ * keeps the targets that cross it. A lookup is a binary search for the band followed by a bounds
+ * check of the targets in it. Targets are added in drawing order and returned in reverse drawing
+ * order, the order in which touch events are offered to them.
+ *
+ * <p>The index is a snapshot: it has to be rebuilt when targets are added, removed or moved.
+ */
+class HitTestIndex<T> {
+
+  private final List<T> mItems = new ArrayList<>();
+  private final List<Rect> mBounds = new ArrayList<>();
+  private int mSize;
+
+  // The edges of the bands, sorted and without duplicates.
+  private int[] mBandEdges = new int[0];
+  private int mBandEdgeCount;
+  // The positions of the targets crossing band i, in reverse drawing order, are
+  // mBandItems[mBandStarts[i]] to mBandItems[mBandStarts[i + 1] - 1].
+  private int[] mBandStarts = new int[0];
+  private int[] mBandItems = new int[0];
+
+  /** Removes all the targets. */
+  void clear() {
+    for (int i = 0; i < mSize; i++) {
+      mItems.set(i, null);
+    }
+    mSize = 0;
+    mBandEdgeCount = 0;
+  }
+
+  /**
+   * Adds a target. Targets must be added in drawing order and {@link #build()} must be called once
+   * they are all added.
+   */
+  void add(T item, Rect bounds) {
+    if (mSize < mItems.size()) {
+      mItems.set(mSize, item);
+      mBounds.get(mSize).set(bounds);
+    } else {
+      mItems.add(item);
+      mBounds.add(new Rect(bounds));
+    }
+    mSize++;
+  }
+
+  /** @return the number of targets in the index. */
+  int size() {
+    return mSize;
+  }
+
+  /** Computes the bands of the targets added since the last {@link #clear()}. */
+  void build() {
+    final int edgeCount = 2 * mSize;
+    if (mBandEdges.length < edgeCount) {
+      mBandEdges = new int[edgeCount];
+    }
+
+    int count = 0;
+    for (int i = 0; i < mSize; i++) {
+      final Rect bounds = mBounds.get(i);
+      if (!bounds.isEmpty()) {
+        mBandEdges[count++] = bounds.top;
+        mBandEdges[count++] = bounds.bottom;
+      }
+    }
+    Arrays.sort(mBandEdges, 0, count);
+
+    mBandEdgeCount = 0;
+    for (int i = 0; i < count; i++) {
+      if (mBandEdgeCount == 0 || mBandEdges[mBandEdgeCount - 1] != mBandEdges[i]) {
+        mBandEdges[mBandEdgeCount++] = mBandEdges[i];
+      }
+    }
+
+    final int bandCount = Math.max(mBandEdgeCount - 1, 0);
+    if (mBandStarts.length < bandCount + 1) {
+      mBandStarts = new int[bandCount + 1];
+    }
+    Arrays.fill(mBandStarts, 0, bandCount + 1, 0);
+
+    // First count the targets of each band, then fill them in.
+    for (int i = 0; i < mSize; i++) {
+      final Rect bounds = mBounds.get(i);
+      if (bounds.isEmpty()) {
+        continue;
+      }
+      for (int band = findEdge(bounds.top), last = findEdge(bounds.bottom); band < last; band++) {
+        mBandStarts[band + 1]++;
+      }
+    }
+
+    for (int band = 0; band < bandCount; band++) {
+      mBandStarts[band + 1] += mBandStarts[band];
+    }
+
+    final int itemCount = mBandStarts[bandCount];
+    if (mBandItems.length < itemCount) {
+      mBandItems = new int[itemCount];
+    }
+
+    final int[] fillPositions = Arrays.copyOf(mBandStarts, bandCount + 1);
+    for (int i = mSize - 1; i >= 0; i--) {
+      final Rect bounds = mBounds.get(i);
+      if (bounds.isEmpty()) {
+        continue;
+      }
+      for (int band = findEdge(bounds.top), last = findEdge(bounds.bottom); band < last; band++) {
+        mBandItems[fillPositions[band]++] = i;
+      }
+    }
+  }
+
+  /**
+   * Collects the targets whose bounds contain the given point.
+   *
+   * @param outItems cleared and filled with the targets, in reverse drawing order.
+   */
+  void findItemsAt(int x, int y, List<T> outItems) {
+    outItems.clear();
+
+    final int band = findBand(y);
+    if (band < 0) {
+      return;
+    }
+
+    for (int i = mBandStarts[band], end = mBandStarts[band + 1]; i < end; i++) {
+      final int position = mBandItems[i];
+      if (mBounds.get(position).contains(x, y)) {
+        outItems.add(mItems.get(position));
+      }
+    }
+  }
+
+  private int findEdge(int value) {
+    return Arrays.binarySearch(mBandEdges, 0, mBandEdgeCount, value);
+  }
+
+  /** @return the band containing y, or -1 if it's above the first band or below the last one. */
+  private int findBand(int y) {
+    if (mBandEdgeCount < 2 || y < mBandEdges[0] || y >= mBandEdges[mBandEdgeCount - 1]) {
+      return -1;
+    }
+
+    final int position = Arrays.binarySearch(mBandEdges, 0, mBandEdgeCount, y);
+    // An exact match is the top edge of its band, otherwise take the band starting before y.
+    return position >= 0 ? position : -position - 2;
+  }
+}
@@ -84,7 +84,14 @@ class IncrementalMountHelper {
     @Override
     public void onPageScrolled(int position, float positionOffset, int positionOffsetPixels) {
       final ComponentTree componentTree = mComponentTree.get();
-      if (componentTree != null) {
+      if (componentTree == null) {
+        return;
+      }
+
+      final LithoView lithoView = componentTree.getLithoView();
+      if (ComponentsConfiguration.coalesceIncrementalMountPerFrame && lithoView != null) {
+        lithoView.notifyVisibleBoundsChanged();
+      } else {
         componentTree.incrementalMountComponent();
       }
     }
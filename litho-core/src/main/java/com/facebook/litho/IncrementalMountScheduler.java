@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho;
+
+import static com.facebook.litho.ThreadUtils.assertMainThread;
+
+import android.support.annotation.VisibleForTesting;
+import android.view.ViewTreeObserver;
+import com.facebook.litho.config.ComponentsConfiguration;
+import com.facebook.litho.dataflow.ChoreographerCompat;
+import com.facebook.litho.dataflow.ChoreographerCompatImpl;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the {@link LithoView}s whose visible bounds changed and performs one incremental mount
+ * per view before the next frame is drawn, instead of one per scroll, offset or translation
+ * change (see {@link ComponentsConfiguration#coalesceIncrementalMountPerFrame}).
+ *
+ * <p>Pending mounts run from a pre-draw listener of the window of the views, so that the content
+ * moved by an animation callback is mounted in the same frame, and from a frame callback for the
+ * views that aren't drawn.
+ */
+public final class IncrementalMountScheduler {
+
+  private static IncrementalMountScheduler sInstance;
+
+  private static long sRequestedMountCount;
+  private static long sPerformedMountCount;
+  private static long sCollapsedMountCount;
+
+  private final List<LithoView> mPendingViews = new ArrayList<>();
+  private final List<ViewTreeObserver> mObservers = new ArrayList<>(2);
+  private boolean mIsFrameCallbackPosted;
+
+  private final ChoreographerCompat.FrameCallback mFrameCallback =
+      new ChoreographerCompat.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+          mIsFrameCallbackPosted = false;
+          performPendingMounts();
+        }
+      };
+
+  private final ViewTreeObserver.OnPreDrawListener mOnPreDrawListener =
+      new ViewTreeObserver.OnPreDrawListener() {
+        @Override
+        public boolean onPreDraw() {
+          performPendingMounts();
+          return true;
+        }
+      };
+
+  private IncrementalMountScheduler() {}
+
+  static IncrementalMountScheduler get() {
+    assertMainThread();
+
+    if (sInstance == null) {
+      sInstance = new IncrementalMountScheduler();
+    }
+
+    return sInstance;
+  }
+
+  /**
+   * Schedules an incremental mount of the given view. Requests for a view that already has one
+   * pending are collapsed into it.
+   *
+   * @param fullVisibleRect whether the mount has to compute the visible rect of the view on screen
+   *     rather than in its parent.
+   */
+  void schedule(LithoView lithoView, boolean fullVisibleRect) {
+    sRequestedMountCount++;
+
+    if (lithoView.isIncrementalMountScheduled()) {
+      sCollapsedMountCount++;
+      lithoView.setIncrementalMountScheduled(
+          true, fullVisibleRect || lithoView.isScheduledIncrementalMountFull());
+      return;
+    }
+
+    lithoView.setIncrementalMountScheduled(true, fullVisibleRect);
+    mPendingViews.add(lithoView);
+
+    final ViewTreeObserver observer = lithoView.getViewTreeObserver();
+    if (observer != null && observer.isAlive() && !mObservers.contains(observer)) {
+      observer.addOnPreDrawListener(mOnPreDrawListener);
+      mObservers.add(observer);
+    }
+
+    if (!mIsFrameCallbackPosted) {
+      mIsFrameCallbackPosted = true;
+      ChoreographerCompatImpl.getInstance().postFrameCallback(mFrameCallback);
+    }
+  }
+
+  /** Drops the pending mount of the given view, e.g. because it was detached. */
+  void cancel(LithoView lithoView) {
+    if (!lithoView.isIncrementalMountScheduled()) {
+      return;
+    }
+
+    // The view stays in the list, which may be being iterated, and is skipped once it's reached.
+    sCollapsedMountCount++;
+    lithoView.setIncrementalMountScheduled(false, false);
+  }
+
+  private void performPendingMounts() {
+    // Mounting a view can move nested LithoViews, which are then added to the end of the list and
+    // mounted in the same pass.
+    for (int i = 0; i < mPendingViews.size(); i++) {
+      final LithoView lithoView = mPendingViews.get(i);
+      if (!lithoView.isIncrementalMountScheduled()) {
+        continue;
+      }
+
+      sPerformedMountCount++;
+      lithoView.performScheduledIncrementalMount();
+      lithoView.setIncrementalMountScheduled(false, false);
+    }
+    mPendingViews.clear();
+
+    for (int i = 0, size = mObservers.size(); i < size; i++) {
+      final ViewTreeObserver observer = mObservers.get(i);
+      if (observer.isAlive()) {
+        observer.removeOnPreDrawListener(mOnPreDrawListener);
+      }
+    }
+    mObservers.clear();
+
+    if (mIsFrameCallbackPosted) {
+      mIsFrameCallbackPosted = false;
+      ChoreographerCompatImpl.getInstance().removeFrameCallback(mFrameCallback);
+    }
+  }
+
+  /** @return the number of incremental mounts that were requested through the scheduler. */
+  public static long getRequestedMountCount() {
+    return sRequestedMountCount;
+  }
+
+  /** @return the number of incremental mounts that the scheduler actually performed. */
+  public static long getPerformedMountCount() {
+    return sPerformedMountCount;
+  }
+
+  /**
+   * @return the number of requests that were collapsed into a mount already pending for the same
+   *     view, or dropped because the view was detached before the next frame.
+   */
+  public static long getCollapsedMountCount() {
+    return sCollapsedMountCount;
+  }
+
+  @VisibleForTesting
+  static void reset() {
+    sInstance = null;
+    sRequestedMountCount = 0;
+    sPerformedMountCount = 0;
+    sCollapsedMountCount = 0;
+  }
+}
@@ -969,7 +969,7 @@ class InternalNode implements ComponentLayout, ComponentLayout.ContainerBuilder
   @Override
   public InternalNode child(Component<?> child) {
     if (child != null) {
-      child(Layout.create(mComponentContext, child));
+      child(mComponentContext.newChildLayoutBuilder(child));
     }
     return this;
   }
@@ -182,13 +182,6 @@ class LayoutOutput implements Cloneable, AnimatableItem {
     mDisplayListContainer.init(name, canCacheDrawingDisplayList);
   }
 
-  void setDisplayListContainer(DisplayListContainer displayListContainer) {
-    if (mDisplayListContainer != null) {
-      mDisplayListContainer.release();
-    }
-    mDisplayListContainer = displayListContainer;
-  }
-
   @Nullable DisplayListContainer getDisplayListContainer() {
     return mDisplayListContainer;
   }
@@ -26,8 +26,8 @@ import static com.facebook.litho.FrameworkLogEvents.EVENT_COLLECT_RESULTS;
 import static com.facebook.litho.FrameworkLogEvents.EVENT_CREATE_LAYOUT;
 import static com.facebook.litho.FrameworkLogEvents.EVENT_CSS_LAYOUT;
 import static com.facebook.litho.FrameworkLogEvents.PARAM_COMPONENT;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_ID_TREE_DIFF_ENABLED;
 import static com.facebook.litho.FrameworkLogEvents.PARAM_LOG_TAG;
-import static com.facebook.litho.FrameworkLogEvents.PARAM_TREE_DIFF_ENABLED;
 import static com.facebook.litho.MountItem.FLAG_DISABLE_TOUCHABLE;
 import static com.facebook.litho.MountItem.FLAG_DUPLICATE_PARENT_STATE;
 import static com.facebook.litho.MountItem.FLAG_IS_TRANSITION_KEY_SET;
@@ -120,7 +120,7 @@ class LayoutState {
       };
 
   private final Map<String, Rect> mComponentKeyToBounds = new HashMap<>();
-  private final List<Component> mComponents = new ArrayList<>();
+  private List<Component> mComponents = new ArrayList<>();
 
   @ThreadConfined(ThreadConfined.UI)
   private final Rect mDisplayListCreateRect = new Rect();
@@ -182,8 +182,13 @@ class LayoutState {
   private boolean mClipChildren = true;
   private ArrayList<Component> mComponentsNeedingPreviousRenderData;
   private SimpleArrayMap<String, LayoutOutput> mTransitionKeyMapping;
+  private @Nullable TransitionDiff mTransitionDiff;
   private boolean mHasLithoViewBoundsAnimation = false;
 
+  private static final AtomicInteger sIdGenerator = new AtomicInteger(0);
+  // Unique per use of this instance, LayoutStates are pooled.
+  private int mId;
+
   LayoutState() {
     mLayoutStateOutputIdCalculator = new LayoutStateOutputIdCalculator();
   }
@@ -191,6 +196,7 @@ class LayoutState {
   void init(ComponentContext context) {
     mContext = context;
     mStateHandler = mContext.getStateHandler();
+    mId = sIdGenerator.getAndIncrement();
     mReferenceCount.set(1);
     mTestOutputs = ComponentsConfiguration.isEndToEndTestRun ? new ArrayList<TestOutput>(8) : null;
   }
@@ -610,8 +616,8 @@ class LayoutState {
 
     // If we don't need to update this output we can safely re-use the display list from the
     // previous output.
-    if (ThreadUtils.isMainThread() && isCachedOutputUpdated) {
-      layoutOutput.setDisplayListContainer(currentDiffNode.getContent().getDisplayListContainer());
+    if (isCachedOutputUpdated) {
+      maybeReuseDisplayList(layoutOutput, currentDiffNode.getContent());
     }
 
     // 2. Add background if defined.
@@ -817,6 +823,17 @@ class LayoutState {
     mComponents.clear();
   }
 
+  /**
+   * Returns the components of this LayoutState and replaces them with an empty list, so that the
+   * returned list can still be used once this LayoutState is released.
+   */
+  @CheckReturnValue
+  List<Component> consumeComponents() {
+    final List<Component> components = mComponents;
+    mComponents = new ArrayList<>();
+    return components;
+  }
+
   private static void calculateAndSetHostOutputIdAndUpdateState(
       InternalNode node,
       LayoutOutput hostOutput,
@@ -867,9 +884,48 @@ class LayoutState {
         previousId,
         isOutputUpdated);
 
+    if (recycle != null) {
+      maybeReuseDisplayList(output, recycle);
+    }
+
     return output;
   }
 
+  /**
+   * Marks the given output as drawing the same content as the output of the previous LayoutState
+   * that it replaces, i.e. the two components are equivalent and the content has the same size. The
+   * display list of the previous output is then moved over when the new output is mounted in its
+   * place (see {@link MountState}), instead of being recorded again by {@link
+   * #collectDisplayLists(LayoutState)} or the {@link DisplayListPrefetcher}.
+   *
+   * <p>The display list itself is not touched here: this can run on a background thread while the
+   * previous LayoutState is still mounted and drawing it.
+   */
+  private static void maybeReuseDisplayList(
+      @Nullable LayoutOutput output,
+      @Nullable LayoutOutput previousOutput) {
+    if (output == null
+        || previousOutput == null
+        || !output.hasDisplayListContainer()
+        || !previousOutput.hasDisplayListContainer()) {
+      return;
+    }
+
+    final Rect bounds = output.getBounds();
+    final Rect previousBounds = previousOutput.getBounds();
+    if (bounds.width() != previousBounds.width() || bounds.height() != previousBounds.height()) {
+      return;
+    }
+
+    final Component<?> component = output.getComponent();
+    final Component<?> previousComponent = previousOutput.getComponent();
+    if (component != previousComponent && !component.isEquivalentTo(previousComponent)) {
+      return;
+    }
+
+    output.getDisplayListContainer().setCanTakePreviousDisplayList(true);
+  }
+
   private static Reference<? extends Drawable> getBorderColorDrawable(InternalNode node) {
     if (!node.shouldDrawBorders()) {
       throw new RuntimeException("This node does not support drawing border color");
@@ -1134,6 +1190,7 @@ class LayoutState {
 
     if (!ComponentsConfiguration.isDebugModeEnabled
         && !ComponentsConfiguration.persistInternalNodeTree
+        && !ComponentsConfiguration.reuseUnchangedSubtreesOnStateUpdate
         && layoutState.mLayoutRoot != null) {
       releaseNodeTree(layoutState.mLayoutRoot, false /* isNestedTree */);
       layoutState.mLayoutRoot = null;
@@ -1219,7 +1276,8 @@ class LayoutState {
     output.getMountBounds(rect);
 
     if (!output.hasValidDisplayList()) {
-      return true;
+      // If the output can take the display list of the one it replaces, it's moved over at mount.
+      return !output.getDisplayListContainer().canTakePreviousDisplayList();
     }
 
     // This output already has a valid DisplayList from diffing. No need to re-create it.
@@ -1255,6 +1313,18 @@ class LayoutState {
     return getValidActivityForContext(mContext) != null;
   }
 
+  /**
+   * @return how far the ComponentTree this LayoutState belongs to is from the viewport of its
+   *     list, or {@link ComponentTree#DISTANCE_TO_VIEWPORT_UNKNOWN}.
+   */
+  int getDistanceToViewport() {
+    final ComponentContext context = mContext;
+    final ComponentTree componentTree = context == null ? null : context.getComponentTree();
+    return componentTree == null
+        ? ComponentTree.DISTANCE_TO_VIEWPORT_UNKNOWN
+        : componentTree.getDistanceToViewport();
+  }
+
   void createDisplayList(LayoutOutput output) {
     ThreadUtils.assertMainThread();
 
@@ -1343,6 +1413,7 @@ class LayoutState {
       final LayoutOutput output = layoutState.getMountableOutputAt(i);
       if (shouldCreateDisplayList(output, rect)) {
         layoutState.mDisplayListsToPrefetch.add(i);
+        output.getDisplayListContainer().setQueuedForPrefetch(true);
       }
     }
 
@@ -1434,7 +1505,7 @@ class LayoutState {
     if (logger != null) {
       layoutEvent = logger.newPerformanceEvent(EVENT_CSS_LAYOUT);
       layoutEvent.addParam(PARAM_LOG_TAG, context.getLogTag());
-      layoutEvent.addParam(PARAM_TREE_DIFF_ENABLED, String.valueOf(previousDiffTreeRoot != null));
+      layoutEvent.addParam(PARAM_ID_TREE_DIFF_ENABLED, previousDiffTreeRoot != null);
     }
 
     root.calculateLayout(
@@ -1897,6 +1968,7 @@ class LayoutState {
       }
 
       mTransitionKeyMapping = null;
+      mTransitionDiff = null;
       mHasLithoViewBoundsAnimation = false;
 
       ComponentsPools.release(this);
@@ -1938,6 +2010,24 @@ class LayoutState {
     return mLayoutRoot;
   }
 
+  /**
+   * Hands over the node tree of this layout to a new layout that reuses its unchanged subtrees.
+   * The tree can only be taken once, and not while it's kept for debugging.
+   *
+   * @return the node tree, or null if it isn't available.
+   */
+  @Nullable
+  synchronized InternalNode takeLayoutRootForReuse() {
+    if (ComponentsConfiguration.isDebugModeEnabled
+        || ComponentsConfiguration.persistInternalNodeTree) {
+      return null;
+    }
+
+    final InternalNode layoutRoot = mLayoutRoot;
+    mLayoutRoot = null;
+    return layoutRoot;
+  }
+
   // If the layout root is a nested tree holder node, it gets skipped immediately while
   // collecting the LayoutOutputs. The nested tree itself effectively becomes the layout
   // root in this case.
@@ -2013,11 +2103,19 @@ class LayoutState {
    * Gets (or creates) a mapping from transition key to LayoutOutput.
    */
   SimpleArrayMap<String, LayoutOutput> getTransitionKeyMapping() {
-    if (mTransitionKeyMapping != null) {
-      return mTransitionKeyMapping;
+    if (mTransitionKeyMapping == null) {
+      mTransitionKeyMapping = createTransitionKeyMapping();
     }
 
-    mTransitionKeyMapping = new SimpleArrayMap<>();
+    return mTransitionKeyMapping;
+  }
+
+  /**
+   * Creates a mapping from transition key to LayoutOutput without caching it, so that it can be
+   * used from the layout thread while this LayoutState is mounted.
+   */
+  SimpleArrayMap<String, LayoutOutput> createTransitionKeyMapping() {
+    final SimpleArrayMap<String, LayoutOutput> transitionKeyMapping = new SimpleArrayMap<>();
 
     for (int i = 0, size = getMountableOutputCount(); i < size; i++) {
       final LayoutOutput newOutput = getMountableOutputAt(i);
@@ -2026,7 +2124,7 @@ class LayoutState {
         continue;
       }
 
-      if (mTransitionKeyMapping.put(transitionKey, newOutput) != null) {
+      if (transitionKeyMapping.put(transitionKey, newOutput) != null) {
         throw new RuntimeException(
             "The transitionKey '"
                 + transitionKey
@@ -2036,7 +2134,29 @@ class LayoutState {
       }
     }
 
-    return mTransitionKeyMapping;
+    return transitionKeyMapping;
+  }
+
+  /**
+   * Prepares the transitions of this LayoutState against the given previous LayoutState of the
+   * same ComponentTree, so that the mount pass only has to look at the running animations (see
+   * {@link TransitionDiff}). Only done for LayoutStates with transitions.
+   */
+  void calculateTransitionDiff(LayoutState previousLayoutState) {
+    if (!hasTransitionContext() || previousLayoutState.getComponentTreeId() != mComponentTreeId) {
+      return;
+    }
+
+    mTransitionDiff = TransitionDiff.create(previousLayoutState, this);
+  }
+
+  @Nullable
+  TransitionDiff getTransitionDiff() {
+    return mTransitionDiff;
+  }
+
+  int getId() {
+    return mId;
   }
 
   LayoutOutput getLayoutOutputForTransitionKey(String transitionKey) {
@@ -2093,6 +2213,15 @@ class LayoutState {
     }
   }
 
+  /**
+   * Returns next {@link LayoutOutput} from the queue for Display Lists without removing it.
+   * Note that it is callers responsibility to make sure queue is not empty.
+   */
+  LayoutOutput peekNextLayoutOutputForDLPrefetch() {
+    final int layoutOutputIndex = mDisplayListsToPrefetch.peek();
+    return getMountableOutputAt(layoutOutputIndex);
+  }
+
   /**
    * Removes and returns next {@link LayoutOutput} from the queue for Display Lists.
    * Note that it is callers responsibility to make sure queue is not empty.
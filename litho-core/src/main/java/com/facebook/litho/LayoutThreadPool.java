@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho;
+
+import android.os.Process;
+import android.support.annotation.VisibleForTesting;
+import com.facebook.litho.config.ComponentsConfiguration;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * A pool of layout threads, sized to the available cores, that can back the {@link LayoutHandler}s
+ * of many {@link ComponentTree}s (see {@link ComponentsConfiguration#useLayoutThreadPool}).
+ *
+ * <p>Each {@link LayoutHandler} created by the pool runs its runnables one at a time and in the
+ * order in which they were posted, so that two layouts of the same tree never run concurrently,
+ * while the runnables of different handlers run in parallel. A handler with pending work is queued
+ * on the pool as a whole and any idle thread picks it up; after running one of its runnables it
+ * goes back to the end of the queue, so that a busy tree doesn't starve the others.
+ */
+public final class LayoutThreadPool {
+
+  private static final String LAYOUT_THREAD_NAME = "ComponentLayoutThreadPool";
+  private static final int LAYOUT_THREAD_PRIORITY = Process.THREAD_PRIORITY_BACKGROUND;
+  private static final long KEEP_ALIVE_SECONDS = 30;
+
+  private static LayoutThreadPool sInstance;
+
+  private final Executor mExecutor;
+
+  @VisibleForTesting
+  LayoutThreadPool(Executor executor) {
+    mExecutor = executor;
+  }
+
+  public static synchronized LayoutThreadPool getInstance() {
+    if (sInstance == null) {
+      // Leave a core to the main thread.
+      final int threadCount = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+      final ThreadPoolExecutor executor =
+          new ThreadPoolExecutor(
+              threadCount,
+              threadCount,
+              KEEP_ALIVE_SECONDS,
+              TimeUnit.SECONDS,
+              new LinkedBlockingQueue<Runnable>(),
+              new LayoutThreadFactory());
+      executor.allowCoreThreadTimeOut(true);
+      sInstance = new LayoutThreadPool(executor);
+    }
+
+    return sInstance;
+  }
+
+  /**
+   * @return a new {@link LayoutHandler} that runs its runnables serially on the threads of this
+   *     pool. Use one per {@link ComponentTree}.
+   */
+  public LayoutHandler createLayoutHandler() {
+    return new SerialLayoutHandler(mExecutor);
+  }
+
+  private static class LayoutThreadFactory implements ThreadFactory {
+    private final AtomicInteger mThreadCount = new AtomicInteger();
+
+    @Override
+    public Thread newThread(final Runnable runnable) {
+      return new Thread(
+          new Runnable() {
+            @Override
+            public void run() {
+              Process.setThreadPriority(LAYOUT_THREAD_PRIORITY);
+              runnable.run();
+            }
+          },
+          LAYOUT_THREAD_NAME + "-" + mThreadCount.incrementAndGet());
+    }
+  }
+
+  private static class SerialLayoutHandler implements LayoutHandler, Runnable {
+
+    private final Executor mExecutor;
+
+    @GuardedBy("this")
+    private final ArrayDeque<Runnable> mQueue = new ArrayDeque<>();
+
+    // Whether this handler is queued on the pool or running one of its runnables.
+    @GuardedBy("this")
+    private boolean mIsScheduled;
+
+    private SerialLayoutHandler(Executor executor) {
+      mExecutor = executor;
+    }
+
+    @Override
+    public boolean post(Runnable runnable) {
+      synchronized (this) {
+        mQueue.addLast(runnable);
+        if (mIsScheduled) {
+          return true;
+        }
+        mIsScheduled = true;
+      }
+
+      mExecutor.execute(this);
+      return true;
+    }
+
+    @Override
+    public synchronized void removeCallbacks(Runnable runnable) {
+      while (mQueue.remove(runnable)) {
+        // Like a Handler, remove all the pending posts of the runnable.
+      }
+    }
+
+    @Override
+    public synchronized void removeCallbacksAndMessages(Object token) {
+      // Runnables are posted without a token, so only a null token, which matches all the
+      // callbacks, removes anything.
+      if (token == null) {
+        mQueue.clear();
+      }
+    }
+
+    @Override
+    public void run() {
+      final Runnable runnable;
+      synchronized (this) {
+        runnable = mQueue.pollFirst();
+        if (runnable == null) {
+          mIsScheduled = false;
+          return;
+        }
+      }
+
+      try {
+        runnable.run();
+      } finally {
+        final boolean hasPendingRunnables;
+        synchronized (this) {
+          hasPendingRunnables = !mQueue.isEmpty();
+          mIsScheduled = hasPendingRunnables;
+        }
+
+        if (hasPendingRunnables) {
+          mExecutor.execute(this);
+        }
+      }
+    }
+  }
+}
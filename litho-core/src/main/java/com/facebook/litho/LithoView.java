@@ -67,6 +67,11 @@ public class LithoView extends ComponentHost {
   private int mTransientStateCount;
   private boolean mDoesOwnIncrementalMount;
 
+  // Incremental mount pending in the IncrementalMountScheduler, and whether it has to compute the
+  // visible rect of this view on screen.
+  private boolean mIsIncrementalMountScheduled;
+  private boolean mIsScheduledIncrementalMountFull;
+
   /**
    * Create a new {@link LithoView} instance and initialize it
    * with the given {@link Component} root.
@@ -186,6 +191,10 @@ public class LithoView extends ComponentHost {
       mIsAttached = false;
       mMountState.detach();
 
+      if (mIsIncrementalMountScheduled) {
+        IncrementalMountScheduler.get().cancel(this);
+      }
+
       if (mComponentTree != null) {
         mComponentTree.detach();
       }
@@ -519,6 +528,19 @@ public class LithoView extends ComponentHost {
       return;
     }
 
+    if (ComponentsConfiguration.coalesceIncrementalMountPerFrame && mIsAttached) {
+      IncrementalMountScheduler.get().schedule(this, false);
+      return;
+    }
+
+    performIncrementalMountOnView();
+  }
+
+  private void performIncrementalMountOnView() {
+    if (!(getParent() instanceof View)) {
+      return;
+    }
+
     int parentWidth = ((View) getParent()).getWidth();
     int parentHeight = ((View) getParent()).getHeight();
 
@@ -608,6 +630,50 @@ public class LithoView extends ComponentHost {
     }
   }
 
+  /**
+   * Notifies this view that its visible bounds changed without it being moved, e.g. because an
+   * ancestor scrolled, so that it mounts the content that became visible. When {@link
+   * ComponentsConfiguration#coalesceIncrementalMountPerFrame} is enabled the incremental mount
+   * happens once before the next frame is drawn, otherwise it happens right away.
+   */
+  public void notifyVisibleBoundsChanged() {
+    if (ComponentsConfiguration.coalesceIncrementalMountPerFrame
+        && mIsAttached
+        && isIncrementalMountEnabled()) {
+      IncrementalMountScheduler.get().schedule(this, true);
+      return;
+    }
+
+    performIncrementalMount();
+  }
+
+  boolean isIncrementalMountScheduled() {
+    return mIsIncrementalMountScheduled;
+  }
+
+  boolean isScheduledIncrementalMountFull() {
+    return mIsScheduledIncrementalMountFull;
+  }
+
+  void setIncrementalMountScheduled(boolean isScheduled, boolean isFull) {
+    mIsIncrementalMountScheduled = isScheduled;
+    mIsScheduledIncrementalMountFull = isFull;
+  }
+
+  /** Called by the {@link IncrementalMountScheduler} once per frame with pending mounts. */
+  void performScheduledIncrementalMount() {
+    // The ComponentTree may have changed or been released since the mount was scheduled.
+    if (!isIncrementalMountEnabled() || mComponentTree.getMainThreadLayoutState() == null) {
+      return;
+    }
+
+    if (mIsScheduledIncrementalMountFull) {
+      mComponentTree.incrementalMountComponent();
+    } else {
+      performIncrementalMountOnView();
+    }
+  }
+
   public boolean isIncrementalMountEnabled() {
     return (mComponentTree != null && mComponentTree.isIncrementalMountEnabled());
   }
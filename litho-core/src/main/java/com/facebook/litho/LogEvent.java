@@ -9,7 +9,29 @@
 
 package com.facebook.litho;
 
+import static com.facebook.litho.FrameworkLogEvents.PARAM_ID_IS_BACKGROUND_LAYOUT;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_ID_IS_DIRTY;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_ID_MOUNTED_COUNT;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_ID_MOVED_COUNT;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_ID_NO_OP_COUNT;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_ID_REUSED_SUBTREE_COUNT;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_ID_TREE_DIFF_ENABLED;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_ID_UNCHANGED_COUNT;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_ID_UNMOUNTED_COUNT;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_ID_UPDATED_COUNT;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_IS_BACKGROUND_LAYOUT;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_IS_DIRTY;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_MOUNTED_COUNT;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_MOVED_COUNT;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_NO_OP_COUNT;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_REUSED_SUBTREE_COUNT;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_TREE_DIFF_ENABLED;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_UNCHANGED_COUNT;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_UNMOUNTED_COUNT;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_UPDATED_COUNT;
+
 import android.support.v4.util.SimpleArrayMap;
+import java.util.Arrays;
 
 /**
  * A class representing an event to log to a {@link ComponentsLogger}. There are two kind of events,
@@ -17,9 +39,26 @@ import android.support.v4.util.SimpleArrayMap;
  * and being logged while regular events do not. A {@link LogEvent} is created by requesting a new
  * event from the {@link ComponentsLogger} and they are recycled when logged and should not be
  * re-used.
+ *
+ * <p>Params are either typed or keyed by name. Typed params are numbers and booleans identified by
+ * an int id (see {@link FrameworkLogEvents}); they are kept in primitive arrays that survive the
+ * recycling of the event, so adding them doesn't allocate. Loggers that read typed params with
+ * {@link #getTypedParamCount()} and the getters below never pay for formatting them. For the other
+ * loggers the getters of named params also return the typed params, formatted with {@link
+ * String#valueOf} and named with {@link #getTypedParamName(int)}, the first time they are called.
  */
 public final class LogEvent {
+  private static final int INITIAL_TYPED_PARAMS_CAPACITY = 8;
+  private static final byte TYPE_LONG = 0;
+  private static final byte TYPE_BOOLEAN = 1;
+
   private final SimpleArrayMap<String, Object> mParams = new SimpleArrayMap<>();
+  private int[] mTypedParamIds = new int[INITIAL_TYPED_PARAMS_CAPACITY];
+  private long[] mTypedParamValues = new long[INITIAL_TYPED_PARAMS_CAPACITY];
+  private byte[] mTypedParamTypes = new byte[INITIAL_TYPED_PARAMS_CAPACITY];
+  private int mTypedParamCount;
+  // Whether the typed params were copied to mParams for the getters of named params.
+  private boolean mHasNamedTypedParams;
   private int mEventId = -1;
   private boolean mIsPerformanceEvent = false;
 
@@ -35,6 +74,8 @@ public final class LogEvent {
 
   void reset() {
     mParams.clear();
+    mTypedParamCount = 0;
+    mHasNamedTypedParams = false;
     mEventId = -1;
     mIsPerformanceEvent = false;
   }
@@ -51,24 +92,152 @@ public final class LogEvent {
     mParams.put(key, value);
   }
 
+  /**
+   * Adds a numeric param without allocating. Replaces the value of a param previously added with
+   * the same id.
+   */
+  public void addParam(int paramId, long value) {
+    addTypedParam(paramId, value, TYPE_LONG);
+  }
+
+  /**
+   * Adds a boolean param without allocating. Replaces the value of a param previously added with
+   * the same id.
+   */
+  public void addParam(int paramId, boolean value) {
+    addTypedParam(paramId, value ? 1 : 0, TYPE_BOOLEAN);
+  }
+
+  public int getTypedParamCount() {
+    return mTypedParamCount;
+  }
+
+  public int getTypedParamIdAt(int index) {
+    return mTypedParamIds[index];
+  }
+
+  public boolean isBooleanTypedParamAt(int index) {
+    return mTypedParamTypes[index] == TYPE_BOOLEAN;
+  }
+
+  /** @return the value of the typed param at the given index, 1 or 0 for a boolean param. */
+  public long getTypedParamValueAt(int index) {
+    return mTypedParamValues[index];
+  }
+
+  public long getLongParam(int paramId, long defaultValue) {
+    final int index = indexOfTypedParam(paramId);
+    return index >= 0 ? mTypedParamValues[index] : defaultValue;
+  }
+
+  public int getIntParam(int paramId, int defaultValue) {
+    final int index = indexOfTypedParam(paramId);
+    return index >= 0 ? (int) mTypedParamValues[index] : defaultValue;
+  }
+
+  public boolean getBooleanParam(int paramId, boolean defaultValue) {
+    final int index = indexOfTypedParam(paramId);
+    return index >= 0 ? mTypedParamValues[index] != 0 : defaultValue;
+  }
+
   public int getParamCount() {
+    ensureNamedTypedParams();
     return mParams.size();
   }
 
   public String getParamKeyAt(int index) {
+    ensureNamedTypedParams();
     return mParams.keyAt(index);
   }
 
   public <T> T getParamValueAt(int index) {
+    ensureNamedTypedParams();
     return (T) mParams.valueAt(index);
   }
 
   public <T> T getParam(String paramMessage) {
+    ensureNamedTypedParams();
     return (T) mParams.get(paramMessage);
   }
 
+  /**
+   * @return the name under which the typed param with the given id is returned by the getters of
+   *     named params.
+   */
+  public static String getTypedParamName(int paramId) {
+    switch (paramId) {
+      case PARAM_ID_TREE_DIFF_ENABLED:
+        return PARAM_TREE_DIFF_ENABLED;
+      case PARAM_ID_IS_BACKGROUND_LAYOUT:
+        return PARAM_IS_BACKGROUND_LAYOUT;
+      case PARAM_ID_UNMOUNTED_COUNT:
+        return PARAM_UNMOUNTED_COUNT;
+      case PARAM_ID_MOVED_COUNT:
+        return PARAM_MOVED_COUNT;
+      case PARAM_ID_UNCHANGED_COUNT:
+        return PARAM_UNCHANGED_COUNT;
+      case PARAM_ID_MOUNTED_COUNT:
+        return PARAM_MOUNTED_COUNT;
+      case PARAM_ID_UPDATED_COUNT:
+        return PARAM_UPDATED_COUNT;
+      case PARAM_ID_NO_OP_COUNT:
+        return PARAM_NO_OP_COUNT;
+      case PARAM_ID_IS_DIRTY:
+        return PARAM_IS_DIRTY;
+      case PARAM_ID_REUSED_SUBTREE_COUNT:
+        return PARAM_REUSED_SUBTREE_COUNT;
+      default:
+        return "param_" + paramId;
+    }
+  }
+
+  private void addTypedParam(int paramId, long value, byte type) {
+    int index = indexOfTypedParam(paramId);
+    if (index < 0) {
+      if (mTypedParamCount == mTypedParamIds.length) {
+        final int capacity = mTypedParamCount * 2;
+        mTypedParamIds = Arrays.copyOf(mTypedParamIds, capacity);
+        mTypedParamValues = Arrays.copyOf(mTypedParamValues, capacity);
+        mTypedParamTypes = Arrays.copyOf(mTypedParamTypes, capacity);
+      }
+      index = mTypedParamCount++;
+      mTypedParamIds[index] = paramId;
+    }
+
+    mTypedParamValues[index] = value;
+    mTypedParamTypes[index] = type;
+    mHasNamedTypedParams = false;
+  }
+
+  private int indexOfTypedParam(int paramId) {
+    for (int i = 0; i < mTypedParamCount; i++) {
+      if (mTypedParamIds[i] == paramId) {
+        return i;
+      }
+    }
+
+    return -1;
+  }
+
+  private void ensureNamedTypedParams() {
+    if (mHasNamedTypedParams) {
+      return;
+    }
+
+    for (int i = 0; i < mTypedParamCount; i++) {
+      final String value =
+          mTypedParamTypes[i] == TYPE_BOOLEAN
+              ? String.valueOf(mTypedParamValues[i] != 0)
+              : String.valueOf(mTypedParamValues[i]);
+      mParams.put(getTypedParamName(mTypedParamIds[i]), value);
+    }
+
+    mHasNamedTypedParams = true;
+  }
+
   @Override
   public String toString() {
+    ensureNamedTypedParams();
     return "eventId = " + mEventId +
         ", isPerformanceEvent = " + mIsPerformanceEvent +
         ", params = " + mParams.toString();
@@ -90,6 +259,15 @@ public final class LogEvent {
           }
         }
 
+        for (int i = 0; i < mTypedParamCount; i++) {
+          final int otherIndex = other.indexOfTypedParam(mTypedParamIds[i]);
+          if (otherIndex >= 0
+              && (other.mTypedParamValues[otherIndex] != mTypedParamValues[i]
+                  || other.mTypedParamTypes[otherIndex] != mTypedParamTypes[i])) {
+            return false;
+          }
+        }
+
         return true;
       }
     }
@@ -151,6 +151,12 @@ class MountItem {
       return null;
     }
 
+    if (layoutOutputDisplayListContainer.isQueuedForPrefetch()) {
+      layoutOutputDisplayListContainer.setQueuedForPrefetch(false);
+      DisplayListPrefetcher.getInstance()
+          .onPrefetchedItemMounted(layoutOutputDisplayListContainer.hasValidDisplayList());
+    }
+
     final DisplayList displayList = layoutOutputDisplayListContainer.getDisplayList();
     if (mountItemDisplayListDrawable == null
         && (layoutOutputDisplayListContainer.canCacheDrawingDisplayLists()
@@ -295,6 +301,11 @@ class MountItem {
     mIsBound = bound;
   }
 
+  @Nullable
+  DisplayListContainer getDisplayListContainer() {
+    return mDisplayListContainer;
+  }
+
   DisplayListDrawable getDisplayListDrawable() {
     return mDisplayListDrawable;
   }
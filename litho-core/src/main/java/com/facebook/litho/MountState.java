@@ -17,15 +17,15 @@ import static com.facebook.litho.ComponentHostUtils.maybeSetDrawableState;
 import static com.facebook.litho.FrameworkLogEvents.EVENT_MOUNT;
 import static com.facebook.litho.FrameworkLogEvents.EVENT_PREPARE_MOUNT;
 import static com.facebook.litho.FrameworkLogEvents.EVENT_SHOULD_UPDATE_REFERENCE_LAYOUT_MISMATCH;
-import static com.facebook.litho.FrameworkLogEvents.PARAM_IS_DIRTY;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_ID_IS_DIRTY;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_ID_MOUNTED_COUNT;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_ID_MOVED_COUNT;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_ID_NO_OP_COUNT;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_ID_UNCHANGED_COUNT;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_ID_UNMOUNTED_COUNT;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_ID_UPDATED_COUNT;
 import static com.facebook.litho.FrameworkLogEvents.PARAM_LOG_TAG;
 import static com.facebook.litho.FrameworkLogEvents.PARAM_MESSAGE;
-import static com.facebook.litho.FrameworkLogEvents.PARAM_MOUNTED_COUNT;
-import static com.facebook.litho.FrameworkLogEvents.PARAM_MOVED_COUNT;
-import static com.facebook.litho.FrameworkLogEvents.PARAM_NO_OP_COUNT;
-import static com.facebook.litho.FrameworkLogEvents.PARAM_UNCHANGED_COUNT;
-import static com.facebook.litho.FrameworkLogEvents.PARAM_UNMOUNTED_COUNT;
-import static com.facebook.litho.FrameworkLogEvents.PARAM_UPDATED_COUNT;
 import static com.facebook.litho.ThreadUtils.assertMainThread;
 
 import android.graphics.Rect;
@@ -43,6 +43,8 @@ import android.view.ViewGroup;
 import android.view.ViewOutlineProvider;
 import com.facebook.infer.annotation.ThreadConfined;
 import com.facebook.litho.config.ComponentsConfiguration;
+import com.facebook.litho.displaylist.DisplayList;
+import com.facebook.litho.displaylist.DisplayListException;
 import com.facebook.litho.reference.Reference;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -310,11 +312,11 @@ class MountState implements TransitionManager.OnAnimationCompleteListener {
 
     if (logger != null) {
       mountEvent.addParam(PARAM_LOG_TAG, componentTree.getContext().getLogTag());
-      mountEvent.addParam(PARAM_MOUNTED_COUNT, String.valueOf(mMountStats.mountedCount));
-      mountEvent.addParam(PARAM_UNMOUNTED_COUNT, String.valueOf(mMountStats.unmountedCount));
-      mountEvent.addParam(PARAM_UPDATED_COUNT, String.valueOf(mMountStats.updatedCount));
-      mountEvent.addParam(PARAM_NO_OP_COUNT, String.valueOf(mMountStats.noOpCount));
-      mountEvent.addParam(PARAM_IS_DIRTY, String.valueOf(mIsDirty));
+      mountEvent.addParam(PARAM_ID_MOUNTED_COUNT, mMountStats.mountedCount);
+      mountEvent.addParam(PARAM_ID_UNMOUNTED_COUNT, mMountStats.unmountedCount);
+      mountEvent.addParam(PARAM_ID_UPDATED_COUNT, mMountStats.updatedCount);
+      mountEvent.addParam(PARAM_ID_NO_OP_COUNT, mMountStats.noOpCount);
+      mountEvent.addParam(PARAM_ID_IS_DIRTY, mIsDirty);
       logger.log(mountEvent);
     }
 
@@ -640,6 +642,7 @@ class MountState implements TransitionManager.OnAnimationCompleteListener {
     }
 
     // 4. Re initialize the MountItem internal state with the new attributes from LayoutOutput
+    maybeMoveDisplayList(currentMountItem, layoutOutput);
     currentMountItem.init(layoutOutput.getComponent(), currentMountItem, layoutOutput);
 
     // 5. If the mount item is not valid for this component update its content and view attributes.
@@ -687,6 +690,38 @@ class MountState implements TransitionManager.OnAnimationCompleteListener {
     return shouldUpdate;
   }
 
+  /**
+   * Moves the display list of the given mount item over to the output that is about to be mounted
+   * in its place, if the output draws the same content (see {@link
+   * DisplayListContainer#canTakePreviousDisplayList()}). The previous output stops referencing it,
+   * so a display list is never shared by two LayoutStates.
+   */
+  private static void maybeMoveDisplayList(MountItem item, LayoutOutput layoutOutput) {
+    final DisplayListContainer previousContainer = item.getDisplayListContainer();
+    final DisplayListContainer nextContainer = layoutOutput.getDisplayListContainer();
+    if (previousContainer == null
+        || nextContainer == null
+        || previousContainer == nextContainer
+        || !nextContainer.canTakePreviousDisplayList()
+        || nextContainer.getDisplayList() != null
+        || !previousContainer.hasValidDisplayList()) {
+      return;
+    }
+
+    final DisplayList displayList = previousContainer.getDisplayList();
+    final Rect bounds = sTempRect;
+    layoutOutput.getMountBounds(bounds);
+    try {
+      displayList.setBounds(bounds.left, bounds.top, bounds.right, bounds.bottom);
+    } catch (DisplayListException e) {
+      // The display list will be recorded again when the content is drawn.
+      return;
+    }
+
+    previousContainer.setDisplayList(null);
+    nextContainer.setDisplayList(displayList);
+  }
+
   private static boolean shouldUpdateMountItem(
       LayoutOutput layoutOutput,
       MountItem currentMountItem,
@@ -804,13 +839,23 @@ class MountState implements TransitionManager.OnAnimationCompleteListener {
     final boolean forceTraversal = Component.isMountViewSpec(layoutOutput.getComponent())
         && ((View) item.getContent()).isLayoutRequested();
 
+    final Object content = item.getContent();
+    final boolean isTouchableMoved =
+        content instanceof Touchable
+            && content instanceof Drawable
+            && !((Drawable) content).getBounds().equals(sTempRect);
+
     applyBoundsToMountContent(
-        item.getContent(),
+        content,
         sTempRect.left,
         sTempRect.top,
         sTempRect.right,
         sTempRect.bottom,
         forceTraversal /* force */);
+
+    if (isTouchableMoved) {
+      item.getHost().invalidateTouchableIndex();
+    }
   }
 
   /**
@@ -831,9 +876,9 @@ class MountState implements TransitionManager.OnAnimationCompleteListener {
 
     if (logger != null) {
       prepareEvent.addParam(PARAM_LOG_TAG, logTag);
-      prepareEvent.addParam(PARAM_UNMOUNTED_COUNT, String.valueOf(stats.unmountedCount));
-      prepareEvent.addParam(PARAM_MOVED_COUNT, String.valueOf(stats.movedCount));
-      prepareEvent.addParam(PARAM_UNCHANGED_COUNT, String.valueOf(stats.unchangedCount));
+      prepareEvent.addParam(PARAM_ID_UNMOUNTED_COUNT, stats.unmountedCount);
+      prepareEvent.addParam(PARAM_ID_MOVED_COUNT, stats.movedCount);
+      prepareEvent.addParam(PARAM_ID_UNCHANGED_COUNT, stats.unchangedCount);
     }
 
     if (mHostsByMarker.get(ROOT_HOST_ID) == null) {
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho;
+
+import android.support.annotation.Nullable;
+import com.facebook.infer.annotation.ThreadConfined;
+import com.facebook.litho.config.ComponentsConfiguration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The InternalNode tree of the previous layout of a {@link ComponentTree}, from which a new layout
+ * takes the subtrees of the components that didn't change instead of calling their onCreateLayout
+ * again (see {@link ComponentsConfiguration#reuseUnchangedSubtreesOnStateUpdate}).
+ *
+ * <p>The subtree of a layout spec is reused when the previous component with the same global key
+ * has the same type and props, and the component is neither updated nor an ancestor of an updated
+ * component. Global keys start with the keys of the ancestors of a component, so the ancestors of
+ * an updated component are the components whose key is a prefix of its key. Components with
+ * layout attributes or tree props are created again: those may depend on the state of an
+ * ancestor without being part of the props.
+ *
+ * <p>A reused subtree is detached from the previous tree, which is released once the new layout
+ * has been calculated.
+ */
+@ThreadConfined(ThreadConfined.ANY)
+final class ReusableNodeTree {
+
+  @Nullable private InternalNode mRoot;
+  @Nullable private Map<String, InternalNode> mNodesByKey;
+  @Nullable private List<String> mUpdatedKeys;
+  private int mReusedSubtreeCount;
+
+  ReusableNodeTree(InternalNode root) {
+    mRoot = root;
+  }
+
+  /**
+   * @return the subtree of the previous layout that can be used for the given component, or null
+   *     if the component has to be created. The component must have its global key set.
+   */
+  @Nullable
+  InternalNode takeNode(Component<?> component) {
+    if (mRoot == null
+        || !Component.isLayoutSpec(component)
+        || Component.isNestedTree(component)
+        || component.getLayoutAttributes() != null
+        || component.getScopedContext().getTreeProps() != null) {
+      return null;
+    }
+
+    if (mNodesByKey == null) {
+      mNodesByKey = new HashMap<>();
+      indexNodes(mRoot);
+      mUpdatedKeys = getUpdatedKeys(component.getScopedContext().getStateHandler());
+    }
+
+    final String key = component.getGlobalKey();
+    final InternalNode node = mNodesByKey.remove(key);
+    if (node == null || !canReuse(node, component) || isUpdatedOrAncestorOfUpdated(key)) {
+      return null;
+    }
+
+    final InternalNode parent = node.getParent();
+    for (int i = 0, count = parent.getChildCount(); i < count; i++) {
+      if (parent.getChildAt(i) == node) {
+        parent.removeChildAt(i);
+        break;
+      }
+    }
+
+    // The diff nodes belong to the previous layout, the new one sets its own ones.
+    clearDiffNodes(node);
+    mReusedSubtreeCount++;
+
+    return node;
+  }
+
+  /** @return the number of subtrees taken from the previous layout. */
+  int getReusedSubtreeCount() {
+    return mReusedSubtreeCount;
+  }
+
+  /** Releases what is left of the previous tree once the new layout has been calculated. */
+  void release() {
+    if (mRoot != null) {
+      LayoutState.releaseNodeTree(mRoot, false /* isNestedTree */);
+      mRoot = null;
+    }
+
+    mNodesByKey = null;
+    mUpdatedKeys = null;
+  }
+
+  private void indexNodes(InternalNode node) {
+    final Component<?> component = node.getRootComponent();
+    if (node != mRoot && component != null && !node.isNestedTreeHolder()) {
+      mNodesByKey.put(component.getGlobalKey(), node);
+    }
+
+    for (int i = 0, count = node.getChildCount(); i < count; i++) {
+      indexNodes(node.getChildAt(i));
+    }
+  }
+
+  private boolean canReuse(InternalNode node, Component<?> component) {
+    final Component<?> previous = node.getRootComponent();
+    if (previous.getClass() != component.getClass()
+        || previous.getLayoutAttributes() != null
+        || previous.getScopedContext().getTreeProps() != null
+        || !previous.isEquivalentTo(component)) {
+      return false;
+    }
+
+    // Disabling a node also disables its subtree, which depends on the parent.
+    final NodeInfo nodeInfo = node.getNodeInfo();
+    if (nodeInfo != null && nodeInfo.getEnabledState() == NodeInfo.ENABLED_SET_FALSE) {
+      return false;
+    }
+
+    // A node inside a subtree that was already reused isn't attached to the previous tree anymore.
+    InternalNode root = node;
+    while (root.getParent() != null) {
+      root = root.getParent();
+    }
+
+    return root == mRoot;
+  }
+
+  private boolean isUpdatedOrAncestorOfUpdated(String key) {
+    for (int i = 0, size = mUpdatedKeys.size(); i < size; i++) {
+      if (mUpdatedKeys.get(i).startsWith(key)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private static List<String> getUpdatedKeys(@Nullable StateHandler stateHandler) {
+    final Map<String, ?> pendingStateUpdates =
+        stateHandler != null ? stateHandler.getPendingStateUpdates() : null;
+
+    return pendingStateUpdates != null
+        ? new ArrayList<>(pendingStateUpdates.keySet())
+        : new ArrayList<String>();
+  }
+
+  private static void clearDiffNodes(InternalNode node) {
+    node.setDiffNode(null);
+    node.setCachedMeasuresValid(false);
+
+    for (int i = 0, count = node.getChildCount(); i < count; i++) {
+      clearDiffNodes(node.getChildAt(i));
+    }
+
+    if (node.hasNestedTree() && node.getNestedTree() != ComponentContext.NULL_LAYOUT) {
+      clearDiffNodes(node.getNestedTree());
+    }
+  }
+}
@@ -18,6 +18,7 @@ import android.view.MotionEvent;
 import android.view.TouchDelegate;
 import android.view.View;
 import android.view.ViewConfiguration;
+import java.util.ArrayList;
 
 /**
  * Compound touch delegate that forward touch events to recyclable
@@ -26,12 +27,21 @@ import android.view.ViewConfiguration;
 class TouchExpansionDelegate extends TouchDelegate {
 
   private static final Rect IGNORED_RECT = new Rect();
+  /** Below this many delegates, going through all of them is cheaper than keeping an index. */
+  private static final int MIN_DELEGATES_FOR_INDEX = 8;
   private static final Pools.SimplePool<SparseArrayCompat<InnerTouchDelegate>>
       sInnerTouchDelegateScrapArrayPool = new Pools.SimplePool<>(4);
 
   private final SparseArrayCompat<InnerTouchDelegate> mDelegates = new SparseArrayCompat<>();
   private SparseArrayCompat<InnerTouchDelegate> mScrapDelegates;
 
+  private final HitTestIndex<InnerTouchDelegate> mDelegateIndex = new HitTestIndex<>();
+  private final ArrayList<InnerTouchDelegate> mDelegatesAtEvent = new ArrayList<>();
+  // The delegates that accepted the ACTION_DOWN of the current gesture, in reverse drawing order.
+  private final ArrayList<InnerTouchDelegate> mHandlingDelegates = new ArrayList<>();
+  private boolean mIsDelegateIndexDirty = true;
+  private boolean mIsUsingDelegateIndex;
+
   TouchExpansionDelegate(ComponentHost host) {
     super(IGNORED_RECT, host);
   }
@@ -46,6 +56,7 @@ class TouchExpansionDelegate extends TouchDelegate {
    */
   void registerTouchExpansion(int index, View view, Rect touchExpansion) {
     mDelegates.put(index, InnerTouchDelegate.acquire(view, touchExpansion));
+    mIsDelegateIndexDirty = true;
   }
 
   /**
@@ -62,6 +73,8 @@ class TouchExpansionDelegate extends TouchDelegate {
     final InnerTouchDelegate touchDelegate = mDelegates.valueAt(valueIndex);
 
     mDelegates.removeAt(valueIndex);
+    mIsDelegateIndexDirty = true;
+    mHandlingDelegates.remove(touchDelegate);
     touchDelegate.release();
   }
 
@@ -71,6 +84,7 @@ class TouchExpansionDelegate extends TouchDelegate {
       if (valueIndex >= 0) {
         final InnerTouchDelegate touchDelegate = mScrapDelegates.valueAt(valueIndex);
         mScrapDelegates.removeAt(valueIndex);
+        mHandlingDelegates.remove(touchDelegate);
         touchDelegate.release();
 
         return true;
@@ -88,6 +102,14 @@ class TouchExpansionDelegate extends TouchDelegate {
 
   @Override
   public boolean onTouchEvent(MotionEvent event) {
+    if (event.getAction() == MotionEvent.ACTION_DOWN) {
+      mIsUsingDelegateIndex = mDelegates.size() >= MIN_DELEGATES_FOR_INDEX;
+    }
+
+    if (mIsUsingDelegateIndex) {
+      return dispatchToIndexedDelegates(event);
+    }
+
     for (int i = mDelegates.size() - 1; i >= 0; i--) {
       final InnerTouchDelegate touchDelegate = mDelegates.valueAt(i);
       if (touchDelegate.onTouchEvent(event)) {
@@ -98,6 +120,65 @@ class TouchExpansionDelegate extends TouchDelegate {
     return false;
   }
 
+  /**
+   * A delegate only starts handling a gesture with an ACTION_DOWN within its bounds, so that event
+   * is only offered to the delegates found in the index, and the following events of the gesture
+   * only to the delegates that started handling it.
+   */
+  private boolean dispatchToIndexedDelegates(MotionEvent event) {
+    boolean handled = false;
+
+    if (event.getAction() == MotionEvent.ACTION_DOWN) {
+      maybeUpdateDelegateIndex();
+
+      for (int i = 0, size = mHandlingDelegates.size(); i < size; i++) {
+        mHandlingDelegates.get(i).mIsHandlingTouch = false;
+      }
+      mHandlingDelegates.clear();
+
+      mDelegateIndex.findItemsAt((int) event.getX(), (int) event.getY(), mDelegatesAtEvent);
+      for (int i = 0, size = mDelegatesAtEvent.size(); i < size; i++) {
+        final InnerTouchDelegate touchDelegate = mDelegatesAtEvent.get(i);
+        mHandlingDelegates.add(touchDelegate);
+        if (touchDelegate.onTouchEvent(event)) {
+          handled = true;
+          break;
+        }
+      }
+      mDelegatesAtEvent.clear();
+
+      return handled;
+    }
+
+    for (int i = 0, size = mHandlingDelegates.size(); i < size; i++) {
+      if (mHandlingDelegates.get(i).onTouchEvent(event)) {
+        handled = true;
+        break;
+      }
+    }
+
+    if (event.getAction() == MotionEvent.ACTION_UP
+        || event.getAction() == MotionEvent.ACTION_CANCEL) {
+      mHandlingDelegates.clear();
+    }
+
+    return handled;
+  }
+
+  private void maybeUpdateDelegateIndex() {
+    if (!mIsDelegateIndexDirty) {
+      return;
+    }
+
+    mDelegateIndex.clear();
+    for (int i = 0, size = mDelegates.size(); i < size; i++) {
+      final InnerTouchDelegate touchDelegate = mDelegates.valueAt(i);
+      mDelegateIndex.add(touchDelegate, touchDelegate.mDelegateBounds);
+    }
+    mDelegateIndex.build();
+    mIsDelegateIndexDirty = false;
+  }
+
   /**
    * Called when the MountItem this Delegate is referred to is moved to another position to also
    * update the indexes of the TouchExpansionDelegate.
@@ -109,6 +190,7 @@ class TouchExpansionDelegate extends TouchDelegate {
     }
 
     ComponentHostUtils.moveItem(oldIndex, newIndex, mDelegates, mScrapDelegates);
+    mIsDelegateIndexDirty = true;
 
     releaseScrapDelegatesIfNeeded();
   }
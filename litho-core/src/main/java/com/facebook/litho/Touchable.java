@@ -15,6 +15,10 @@ import android.view.View;
 /**
  * Any interface for mounted items that need to capture motion events from its
  * {@link ComponentHost}.
+ *
+ * <p>Touchables are mounted drawables. A host with many touchables only offers the ACTION_DOWN of
+ * a gesture to the touchables whose bounds contain it, and the rest of the gesture to the ones it
+ * offered the ACTION_DOWN to, wherever the gesture moves.
  */
 public interface Touchable {
   boolean onTouchEvent(MotionEvent event, View host);
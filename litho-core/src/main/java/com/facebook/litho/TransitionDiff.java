@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho;
+
+import android.support.annotation.Nullable;
+import android.support.v4.util.SimpleArrayMap;
+import com.facebook.litho.Transition.TransitionUnit;
+import com.facebook.litho.animation.AnimatedProperties;
+import com.facebook.litho.animation.AnimatedProperty;
+import java.util.ArrayList;
+
+/**
+ * The part of starting the transitions of a {@link LayoutState} that doesn't depend on the
+ * animations running in {@link TransitionManager}. It's computed on the layout thread against the
+ * previous LayoutState of the same {@link ComponentTree}, so that the mount pass doesn't have to:
+ *
+ * <ul>
+ *   <li>which transition keys appeared, changed or disappeared;
+ *   <li>for each {@link TransitionUnit} of the layout's transitions, the properties of the keys it
+ *       targets that can animate, with their start and end values in the two layouts.
+ * </ul>
+ *
+ * <p>The mount pass is left with reading the values of the running animations, which replace the
+ * start values, and resolving the appearFrom and disappearTo values, which can read them too. The
+ * diff refers to the previous LayoutState by its id, so that it doesn't keep it alive, and can only
+ * be used when the previous LayoutState is the one that is mounted.
+ */
+final class TransitionDiff {
+
+  /** A property of a transition key that a {@link TransitionUnit} can animate. */
+  static final class PreparedAnimation {
+    final String transitionKey;
+    final AnimatedProperty property;
+    // The value in the previous layout, NaN if the key appeared.
+    final float layoutStartValue;
+    // The value in the next layout, NaN if the key disappeared.
+    final float layoutEndValue;
+
+    private PreparedAnimation(
+        String transitionKey,
+        AnimatedProperty property,
+        float layoutStartValue,
+        float layoutEndValue) {
+      this.transitionKey = transitionKey;
+      this.property = property;
+      this.layoutStartValue = layoutStartValue;
+      this.layoutEndValue = layoutEndValue;
+    }
+  }
+
+  private final int mPreviousLayoutStateId;
+  // For each key of the next transition key mapping, whether it was in the previous layout.
+  private final boolean[] mIsInPreviousLayout;
+  private final ArrayList<String> mDisappearedKeys;
+  private final SimpleArrayMap<TransitionUnit, ArrayList<PreparedAnimation>> mPreparedAnimations;
+
+  private TransitionDiff(
+      int previousLayoutStateId,
+      boolean[] isInPreviousLayout,
+      ArrayList<String> disappearedKeys,
+      SimpleArrayMap<TransitionUnit, ArrayList<PreparedAnimation>> preparedAnimations) {
+    mPreviousLayoutStateId = previousLayoutStateId;
+    mIsInPreviousLayout = isInPreviousLayout;
+    mDisappearedKeys = disappearedKeys;
+    mPreparedAnimations = preparedAnimations;
+  }
+
+  static TransitionDiff create(LayoutState previousLayoutState, LayoutState nextLayoutState) {
+    // The previous LayoutState is mounted, so its cached mapping belongs to the main thread.
+    final SimpleArrayMap<String, LayoutOutput> previousTransitionKeys =
+        previousLayoutState.createTransitionKeyMapping();
+    final SimpleArrayMap<String, LayoutOutput> nextTransitionKeys =
+        nextLayoutState.getTransitionKeyMapping();
+
+    final boolean[] isInPreviousLayout = new boolean[nextTransitionKeys.size()];
+    final boolean[] seenPreviousIndices = new boolean[previousTransitionKeys.size()];
+    for (int i = 0, size = nextTransitionKeys.size(); i < size; i++) {
+      final int previousIndex = previousTransitionKeys.indexOfKey(nextTransitionKeys.keyAt(i));
+      if (previousIndex >= 0) {
+        isInPreviousLayout[i] = true;
+        seenPreviousIndices[previousIndex] = true;
+      }
+    }
+
+    final ArrayList<String> disappearedKeys = new ArrayList<>();
+    for (int i = 0; i < seenPreviousIndices.length; i++) {
+      if (!seenPreviousIndices[i]) {
+        disappearedKeys.add(previousTransitionKeys.keyAt(i));
+      }
+    }
+
+    final SimpleArrayMap<TransitionUnit, ArrayList<PreparedAnimation>> preparedAnimations =
+        new SimpleArrayMap<>();
+    final TransitionContext transitionContext = nextLayoutState.getTransitionContext();
+    final ArrayList<Transition> transitions =
+        transitionContext != null ? transitionContext.getTransitions() : null;
+    if (transitions != null) {
+      for (int i = 0, size = transitions.size(); i < size; i++) {
+        prepareAnimations(
+            transitions.get(i), previousTransitionKeys, nextTransitionKeys, preparedAnimations);
+      }
+    }
+
+    return new TransitionDiff(
+        previousLayoutState.getId(), isInPreviousLayout, disappearedKeys, preparedAnimations);
+  }
+
+  private static void prepareAnimations(
+      Transition transition,
+      SimpleArrayMap<String, LayoutOutput> previousTransitionKeys,
+      SimpleArrayMap<String, LayoutOutput> nextTransitionKeys,
+      SimpleArrayMap<TransitionUnit, ArrayList<PreparedAnimation>> outAnimations) {
+    if (transition instanceof TransitionSet) {
+      final ArrayList<Transition> children = ((TransitionSet) transition).getChildren();
+      for (int i = 0, size = children.size(); i < size; i++) {
+        prepareAnimations(
+            children.get(i), previousTransitionKeys, nextTransitionKeys, outAnimations);
+      }
+    } else if (transition instanceof TransitionUnit && !outAnimations.containsKey(transition)) {
+      final TransitionUnit transitionUnit = (TransitionUnit) transition;
+      final ArrayList<PreparedAnimation> animations =
+          prepareAnimations(transitionUnit, previousTransitionKeys, nextTransitionKeys);
+      if (animations != null) {
+        outAnimations.put(transitionUnit, animations);
+      }
+    }
+  }
+
+  /**
+   * @return the properties the given unit can animate, or null if it names a key that is in
+   *     neither layout. Such a key can still be animating from an earlier transition, so the unit
+   *     is left to the mount pass.
+   */
+  @Nullable
+  private static ArrayList<PreparedAnimation> prepareAnimations(
+      TransitionUnit transition,
+      SimpleArrayMap<String, LayoutOutput> previousTransitionKeys,
+      SimpleArrayMap<String, LayoutOutput> nextTransitionKeys) {
+    final Transition.AnimationTarget animationTarget = transition.getAnimationTarget();
+    final AnimatedProperty[] properties;
+    switch (animationTarget.propertyTarget.propertyTargetType) {
+      case SET:
+        properties = (AnimatedProperty[]) animationTarget.propertyTarget.propertyTargetExtraData;
+        break;
+      case SINGLE:
+        properties =
+            new AnimatedProperty[] {
+              (AnimatedProperty) animationTarget.propertyTarget.propertyTargetExtraData
+            };
+        break;
+      default:
+        properties = AnimatedProperties.ALL_PROPERTIES;
+        break;
+    }
+
+    final ArrayList<PreparedAnimation> animations = new ArrayList<>();
+    switch (animationTarget.componentTarget.componentTargetType) {
+      case SET:
+        final String[] keys = (String[]) animationTarget.componentTarget.componentTargetExtraData;
+        for (int i = 0; i < keys.length; i++) {
+          if (!prepareAnimations(
+              transition,
+              keys[i],
+              properties,
+              previousTransitionKeys,
+              nextTransitionKeys,
+              animations)) {
+            return null;
+          }
+        }
+        break;
+      case SINGLE:
+        if (!prepareAnimations(
+            transition,
+            (String) animationTarget.componentTarget.componentTargetExtraData,
+            properties,
+            previousTransitionKeys,
+            nextTransitionKeys,
+            animations)) {
+          return null;
+        }
+        break;
+      default:
+        for (int i = 0, size = nextTransitionKeys.size(); i < size; i++) {
+          prepareAnimations(
+              transition,
+              nextTransitionKeys.keyAt(i),
+              properties,
+              previousTransitionKeys,
+              nextTransitionKeys,
+              animations);
+        }
+        for (int i = 0, size = previousTransitionKeys.size(); i < size; i++) {
+          final String key = previousTransitionKeys.keyAt(i);
+          if (!nextTransitionKeys.containsKey(key)) {
+            prepareAnimations(
+                transition,
+                key,
+                properties,
+                previousTransitionKeys,
+                nextTransitionKeys,
+                animations);
+          }
+        }
+        break;
+    }
+
+    return animations;
+  }
+
+  /** @return false if the key is in neither layout. */
+  private static boolean prepareAnimations(
+      TransitionUnit transition,
+      String key,
+      AnimatedProperty[] properties,
+      SimpleArrayMap<String, LayoutOutput> previousTransitionKeys,
+      SimpleArrayMap<String, LayoutOutput> nextTransitionKeys,
+      ArrayList<PreparedAnimation> outAnimations) {
+    final LayoutOutput previousLayoutOutput = previousTransitionKeys.get(key);
+    final LayoutOutput nextLayoutOutput = nextTransitionKeys.get(key);
+    if (previousLayoutOutput == null && nextLayoutOutput == null) {
+      return false;
+    }
+
+    if ((previousLayoutOutput == null && !transition.hasAppearAnimation())
+        || (nextLayoutOutput == null && !transition.hasDisappearAnimation())) {
+      return true;
+    }
+
+    for (int i = 0; i < properties.length; i++) {
+      final AnimatedProperty property = properties[i];
+      outAnimations.add(
+          new PreparedAnimation(
+              key,
+              property,
+              previousLayoutOutput != null ? property.get(previousLayoutOutput) : Float.NaN,
+              nextLayoutOutput != null ? property.get(nextLayoutOutput) : Float.NaN));
+    }
+
+    return true;
+  }
+
+  /** @return whether this diff was computed against the given LayoutState. */
+  boolean isDiffAgainst(LayoutState previousLayoutState) {
+    return previousLayoutState.getId() == mPreviousLayoutStateId;
+  }
+
+  /**
+   * @return whether the key at the given index of the next transition key mapping was in the
+   *     previous layout.
+   */
+  boolean isInPreviousLayout(int nextIndex) {
+    return mIsInPreviousLayout[nextIndex];
+  }
+
+  ArrayList<String> getDisappearedKeys() {
+    return mDisappearedKeys;
+  }
+
+  /**
+   * @return the properties the given unit of the layout's transitions can animate, or null if the
+   *     unit isn't one of them or it's left to the mount pass.
+   */
+  @Nullable
+  ArrayList<PreparedAnimation> getPreparedAnimations(TransitionUnit transition) {
+    return mPreparedAnimations.get(transition);
+  }
+}
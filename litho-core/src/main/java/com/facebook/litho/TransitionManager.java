@@ -18,6 +18,7 @@ import android.util.Log;
 import android.view.View;
 import android.view.ViewParent;
 import com.facebook.litho.Transition.TransitionUnit;
+import com.facebook.litho.TransitionDiff.PreparedAnimation;
 import com.facebook.litho.animation.AnimatedProperties;
 import com.facebook.litho.animation.AnimatedProperty;
 import com.facebook.litho.animation.AnimatedPropertyNode;
@@ -220,13 +221,34 @@ public class TransitionManager {
 
     final SimpleArrayMap<String, LayoutOutput> nextTransitionKeys =
         nextLayoutState.getTransitionKeyMapping();
-    if (currentLayoutState == null) {
+    TransitionDiff transitionDiff = nextLayoutState.getTransitionDiff();
+    if (currentLayoutState != null
+        && transitionDiff != null
+        && transitionDiff.isDiffAgainst(currentLayoutState)) {
+      // The keys were already diffed on the layout thread.
+      final SimpleArrayMap<String, LayoutOutput> currentTransitionKeys =
+          currentLayoutState.getTransitionKeyMapping();
+      for (int i = 0, size = nextTransitionKeys.size(); i < size; i++) {
+        final String transitionKey = nextTransitionKeys.keyAt(i);
+        recordLayoutOutputDiff(
+            transitionKey,
+            transitionDiff.isInPreviousLayout(i) ? currentTransitionKeys.get(transitionKey) : null,
+            nextTransitionKeys.valueAt(i));
+      }
+
+      final ArrayList<String> disappearedKeys = transitionDiff.getDisappearedKeys();
+      for (int i = 0, size = disappearedKeys.size(); i < size; i++) {
+        final String transitionKey = disappearedKeys.get(i);
+        recordLayoutOutputDiff(transitionKey, currentTransitionKeys.get(transitionKey), null);
+      }
+    } else if (currentLayoutState == null) {
       for (int i = 0, size = nextTransitionKeys.size(); i < size; i++) {
         final String transitionKey = nextTransitionKeys.keyAt(i);
         final LayoutOutput nextLayoutOutput = nextTransitionKeys.valueAt(i);
         recordLayoutOutputDiff(transitionKey, null, nextLayoutOutput);
       }
     } else {
+      transitionDiff = null;
       final SimpleArrayMap<String, LayoutOutput> currentTransitionKeys =
           currentLayoutState.getTransitionKeyMapping();
       final boolean[] seenIndicesInNewLayout = new boolean[currentTransitionKeys.size()];
@@ -254,7 +276,8 @@ public class TransitionManager {
       }
     }
 
-    createTransitionAnimations(getRootTransition(nextLayoutState, mountTimeTransitions));
+    createTransitionAnimations(
+        getRootTransition(nextLayoutState, mountTimeTransitions), transitionDiff);
 
     // If we recorded any mount content diffs that didn't result in an animation being created for
     // that transition key, clean them up now.
@@ -429,25 +452,33 @@ public class TransitionManager {
     return new ParallelTransitionSet(transitions);
   }
 
-  private void createTransitionAnimations(Transition rootTransition) {
-    mRootAnimationToRun = createAnimationsForTransition(rootTransition);
+  /**
+   * @param transitionDiff the transitions prepared on the layout thread for the current diff, or
+   *     null if they weren't.
+   */
+  private void createTransitionAnimations(
+      Transition rootTransition, @Nullable TransitionDiff transitionDiff) {
+    mRootAnimationToRun = createAnimationsForTransition(rootTransition, transitionDiff);
   }
 
-  private AnimationBinding createAnimationsForTransition(Transition transition) {
+  private AnimationBinding createAnimationsForTransition(
+      Transition transition, @Nullable TransitionDiff transitionDiff) {
     if (transition instanceof TransitionUnit) {
-      return createAnimationsForTransitionUnit((TransitionUnit) transition);
+      return createAnimationsForTransitionUnit((TransitionUnit) transition, transitionDiff);
     } else if (transition instanceof TransitionSet) {
-      return createAnimationsForTransitionSet((TransitionSet) transition);
+      return createAnimationsForTransitionSet((TransitionSet) transition, transitionDiff);
     } else {
       throw new RuntimeException("Unhandled Transition type: " + transition);
     }
   }
 
-  private AnimationBinding createAnimationsForTransitionSet(TransitionSet transitionSet) {
+  private AnimationBinding createAnimationsForTransitionSet(
+      TransitionSet transitionSet, @Nullable TransitionDiff transitionDiff) {
     final ArrayList<Transition> children = transitionSet.getChildren();
     final ArrayList<AnimationBinding> createdAnimations = new ArrayList<>();
     for (int i = 0, size = children.size(); i < size; i++) {
-      final AnimationBinding animation = createAnimationsForTransition(children.get(i));
+      final AnimationBinding animation =
+          createAnimationsForTransition(children.get(i), transitionDiff);
       if (animation != null) {
         createdAnimations.add(animation);
       }
@@ -460,9 +491,64 @@ public class TransitionManager {
     return transitionSet.createAnimation(createdAnimations);
   }
 
-  private AnimationBinding createAnimationsForTransitionUnit(TransitionUnit transition) {
-    final Transition.AnimationTarget animationTarget = transition.getAnimationTarget();
+  private AnimationBinding createAnimationsForTransitionUnit(
+      TransitionUnit transition, @Nullable TransitionDiff transitionDiff) {
+    final ArrayList<PreparedAnimation> preparedAnimations =
+        transitionDiff != null ? transitionDiff.getPreparedAnimations(transition) : null;
     final ArrayList<AnimationBinding> createdAnimations = new ArrayList<>();
+    if (preparedAnimations != null) {
+      createPreparedAnimations(transition, preparedAnimations, createdAnimations);
+    } else {
+      createAnimationsForTransitionUnitKeys(transition, createdAnimations);
+    }
+
+    if (createdAnimations.isEmpty()) {
+      return null;
+    }
+
+    if (createdAnimations.size() == 1) {
+      return createdAnimations.get(0);
+    }
+
+    return new ParallelBinding(0, createdAnimations);
+  }
+
+  /**
+   * Creates the animations of a unit whose keys and properties, and their values in the two
+   * layouts, were resolved on the layout thread, see {@link TransitionDiff}.
+   */
+  private void createPreparedAnimations(
+      TransitionUnit transition,
+      ArrayList<PreparedAnimation> preparedAnimations,
+      ArrayList<AnimationBinding> outList) {
+    for (int i = 0, size = preparedAnimations.size(); i < size; i++) {
+      final PreparedAnimation preparedAnimation = preparedAnimations.get(i);
+      final String key = preparedAnimation.transitionKey;
+      final AnimatedProperty property = preparedAnimation.property;
+
+      if (AnimationsDebug.ENABLED) {
+        Log.d(
+            AnimationsDebug.TAG,
+            "Calculating prepared transitions for " + key + "#" + property.getName() + ":");
+      }
+
+      final AnimationBinding createdAnimation =
+          maybeCreateAnimation(
+              transition,
+              key,
+              property,
+              mAnimationStates.get(key),
+              preparedAnimation.layoutStartValue,
+              preparedAnimation.layoutEndValue);
+      if (createdAnimation != null) {
+        outList.add(createdAnimation);
+      }
+    }
+  }
+
+  private void createAnimationsForTransitionUnitKeys(
+      TransitionUnit transition, ArrayList<AnimationBinding> createdAnimations) {
+    final Transition.AnimationTarget animationTarget = transition.getAnimationTarget();
     switch (animationTarget.componentTarget.componentTargetType) {
       case ALL:
         createAnimationsForTransitionUnitAllKeys(transition, createdAnimations);
@@ -480,16 +566,6 @@ public class TransitionManager {
             createdAnimations);
         break;
     }
-
-    if (createdAnimations.isEmpty()) {
-      return null;
-    }
-
-    if (createdAnimations.size() == 1) {
-      return createdAnimations.get(0);
-    }
-
-    return new ParallelBinding(0, createdAnimations);
   }
 
   private void createAnimationsForTransitionUnitAllKeys(
@@ -573,6 +649,32 @@ public class TransitionManager {
       return null;
     }
 
+    final float layoutStartValue =
+        changeType != ChangeType.APPEARED
+            ? property.get(animationState.currentLayoutOutput)
+            : Float.NaN;
+    final float layoutEndValue =
+        changeType != ChangeType.DISAPPEARED
+            ? property.get(animationState.nextLayoutOutput)
+            : Float.NaN;
+
+    return maybeCreateAnimation(
+        transition, key, property, animationState, layoutStartValue, layoutEndValue);
+  }
+
+  /**
+   * @param layoutStartValue the value of the property in the current layout, unused if the key
+   *     appeared
+   * @param layoutEndValue the value of the property in the next layout, unused if the key
+   *     disappeared
+   */
+  private @Nullable AnimationBinding maybeCreateAnimation(
+      TransitionUnit transition,
+      String key,
+      AnimatedProperty property,
+      AnimationState animationState,
+      float layoutStartValue,
+      float layoutEndValue) {
     final PropertyState existingState = animationState.propertyStates.get(property);
     final PropertyHandle propertyHandle = new PropertyHandle(key, property);
     final float startValue;
@@ -580,7 +682,7 @@ public class TransitionManager {
       startValue = existingState.animatedPropertyNode.getValue();
     } else {
       if (animationState.changeType != ChangeType.APPEARED) {
-        startValue = property.get(animationState.currentLayoutOutput);
+        startValue = layoutStartValue;
       } else {
         startValue = transition.getAppearFrom().resolve(mResolver, propertyHandle);
       }
@@ -588,7 +690,7 @@ public class TransitionManager {
 
     final float endValue;
     if (animationState.changeType != ChangeType.DISAPPEARED) {
-      endValue = property.get(animationState.nextLayoutOutput);
+      endValue = layoutEndValue;
     } else {
       endValue = transition.getDisappearTo().resolve(mResolver, propertyHandle);
     }
@@ -198,6 +198,7 @@ public final class AnimatedProperties {
         if (animatingMountItem != null) {
           BoundsHelper.applySizeToDrawableForAnimation(
               animatingMountItem, view.getWidth(), (int) (value));
+          view.invalidateTouchableIndex();
         }
       } else {
         throw new UnsupportedOperationException(
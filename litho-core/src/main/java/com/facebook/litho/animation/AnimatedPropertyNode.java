@@ -9,6 +9,7 @@
 
 package com.facebook.litho.animation;
 
+import com.facebook.litho.config.ComponentsConfiguration;
 import com.facebook.litho.dataflow.ValueNode;
 import java.lang.ref.WeakReference;
 
@@ -63,11 +64,17 @@ public class AnimatedPropertyNode extends ValueNode {
     }
 
     if (!hasInput) {
+      // The value written by another node in this frame may not have been applied yet.
+      AnimatedPropertyWriteBatch.flushPendingWrites();
       return mAnimatedProperty.get(mountContent);
     }
 
     final float value = getInput().getValue();
-    mAnimatedProperty.set(mountContent, value);
+    if (ComponentsConfiguration.batchAnimatedPropertyWrites) {
+      AnimatedPropertyWriteBatch.get().write(mountContent, mAnimatedProperty, value);
+    } else {
+      mAnimatedProperty.set(mountContent, value);
+    }
 
     return value;
   }
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho.animation;
+
+import android.support.annotation.VisibleForTesting;
+import android.support.v4.util.SimpleArrayMap;
+import android.view.View;
+import com.facebook.litho.config.ComponentsConfiguration;
+import com.facebook.litho.dataflow.DataFlowGraph;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Collects the values that {@link AnimatedPropertyNode}s write to their mount content during a
+ * frame of the {@link DataFlowGraph}, and applies them together once all the values of the frame
+ * have been calculated (see {@link ComponentsConfiguration#batchAnimatedPropertyWrites}).
+ *
+ * <p>The writes are grouped by mount content, in the order in which each content was first
+ * written, and only the last value written to a property in a frame is applied. Views whose alpha
+ * is animating get a hardware layer while the animation runs, so that fading them doesn't redraw
+ * their content on every frame.
+ */
+public final class AnimatedPropertyWriteBatch implements DataFlowGraph.FrameListener {
+
+  private static AnimatedPropertyWriteBatch sInstance;
+
+  private static long sTotalWriteCount;
+  private static long sTotalContentCount;
+  private static long sCollapsedWriteCount;
+  private static int sLastFrameWriteCount;
+  private static int sLastFrameContentCount;
+
+  /** The pending writes of a mount content. */
+  private static class ContentWrites {
+    Object mountContent;
+    final ArrayList<AnimatedProperty> properties = new ArrayList<>(4);
+    float[] values = new float[4];
+
+    void put(AnimatedProperty property, float value) {
+      final int index = properties.indexOf(property);
+      if (index >= 0) {
+        values[index] = value;
+        sCollapsedWriteCount++;
+        return;
+      }
+
+      final int size = properties.size();
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      properties.add(property);
+      values[size] = value;
+    }
+  }
+
+  private final SimpleArrayMap<Object, ContentWrites> mWritesByContent = new SimpleArrayMap<>();
+  private final ArrayList<ContentWrites> mPendingWrites = new ArrayList<>();
+  private final ArrayList<ContentWrites> mWritesPool = new ArrayList<>();
+  private final ArrayList<View> mViewsWithLayers = new ArrayList<>();
+  private final ArrayList<View> mViewsFadingThisFrame = new ArrayList<>();
+  private DataFlowGraph mDataFlowGraph;
+  // The writes applied since the last frame ended, also by reads in the middle of the frame.
+  private int mFrameWriteCount;
+  private int mFrameContentCount;
+
+  private AnimatedPropertyWriteBatch() {}
+
+  static AnimatedPropertyWriteBatch get() {
+    if (sInstance == null) {
+      sInstance = new AnimatedPropertyWriteBatch();
+    }
+
+    return sInstance;
+  }
+
+  /**
+   * Applies the pending writes right away, e.g. before reading a value from a mount content. The
+   * layers and the counters are still only updated once the frame has been propagated.
+   */
+  static void flushPendingWrites() {
+    if (sInstance != null && !sInstance.mPendingWrites.isEmpty()) {
+      sInstance.applyPendingWrites();
+    }
+  }
+
+  /** Queues a write, which is applied once the current frame has been propagated. */
+  void write(Object mountContent, AnimatedProperty property, float value) {
+    final DataFlowGraph dataFlowGraph = DataFlowGraph.getInstance();
+    if (dataFlowGraph != mDataFlowGraph) {
+      if (mDataFlowGraph != null) {
+        mDataFlowGraph.removeFrameListener(this);
+      }
+      dataFlowGraph.addFrameListener(this);
+      mDataFlowGraph = dataFlowGraph;
+    }
+
+    ContentWrites writes = mWritesByContent.get(mountContent);
+    if (writes == null) {
+      final int poolSize = mWritesPool.size();
+      writes = poolSize > 0 ? mWritesPool.remove(poolSize - 1) : new ContentWrites();
+      writes.mountContent = mountContent;
+      mWritesByContent.put(mountContent, writes);
+      mPendingWrites.add(writes);
+    }
+
+    writes.put(property, value);
+  }
+
+  @Override
+  public void onFramePropagated() {
+    applyPendingWrites();
+    endFrame();
+    updateLayers();
+  }
+
+  @Override
+  public void onGraphIdle() {
+    applyPendingWrites();
+    if (mFrameContentCount > 0) {
+      endFrame();
+    }
+
+    mViewsFadingThisFrame.clear();
+    for (int i = 0, size = mViewsWithLayers.size(); i < size; i++) {
+      mViewsWithLayers.get(i).setLayerType(View.LAYER_TYPE_NONE, null);
+    }
+    mViewsWithLayers.clear();
+  }
+
+  private void applyPendingWrites() {
+    for (int i = 0, size = mPendingWrites.size(); i < size; i++) {
+      final ContentWrites writes = mPendingWrites.get(i);
+      final Object mountContent = writes.mountContent;
+      for (int j = 0, count = writes.properties.size(); j < count; j++) {
+        final AnimatedProperty property = writes.properties.get(j);
+        final float value = writes.values[j];
+        property.set(mountContent, value);
+
+        if (property == AnimatedProperties.ALPHA && value > 0 && value < 1) {
+          mViewsFadingThisFrame.add((View) mountContent);
+        }
+      }
+
+      mFrameWriteCount += writes.properties.size();
+      writes.mountContent = null;
+      writes.properties.clear();
+      mWritesPool.add(writes);
+    }
+
+    mFrameContentCount += mPendingWrites.size();
+    mPendingWrites.clear();
+    mWritesByContent.clear();
+  }
+
+  private void endFrame() {
+    sLastFrameWriteCount = mFrameWriteCount;
+    sLastFrameContentCount = mFrameContentCount;
+    sTotalWriteCount += mFrameWriteCount;
+    sTotalContentCount += mFrameContentCount;
+
+    mFrameWriteCount = 0;
+    mFrameContentCount = 0;
+  }
+
+  /**
+   * Gives a hardware layer to the views that started fading and removes it from the ones that
+   * are not fading anymore.
+   */
+  private void updateLayers() {
+    for (int i = mViewsWithLayers.size() - 1; i >= 0; i--) {
+      final View view = mViewsWithLayers.get(i);
+      if (!mViewsFadingThisFrame.contains(view)) {
+        view.setLayerType(View.LAYER_TYPE_NONE, null);
+        mViewsWithLayers.remove(i);
+      }
+    }
+
+    for (int i = 0, size = mViewsFadingThisFrame.size(); i < size; i++) {
+      final View view = mViewsFadingThisFrame.get(i);
+      if (!mViewsWithLayers.contains(view)
+          && view.getLayerType() == View.LAYER_TYPE_NONE
+          && view.hasOverlappingRendering()) {
+        view.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+        mViewsWithLayers.add(view);
+      }
+    }
+
+    mViewsFadingThisFrame.clear();
+  }
+
+  /** @return the number of property writes applied in the last frame. */
+  public static int getLastFrameWriteCount() {
+    return sLastFrameWriteCount;
+  }
+
+  /**
+   * @return the number of mount contents written in the last frame, each of which had its host
+   *     redrawn.
+   */
+  public static int getLastFrameContentCount() {
+    return sLastFrameContentCount;
+  }
+
+  /** @return the number of property writes applied since the process started. */
+  public static long getTotalWriteCount() {
+    return sTotalWriteCount;
+  }
+
+  /** @return the number of mount contents written since the process started, counted per frame. */
+  public static long getTotalContentCount() {
+    return sTotalContentCount;
+  }
+
+  /** @return the number of writes dropped because the same property was written again. */
+  public static long getCollapsedWriteCount() {
+    return sCollapsedWriteCount;
+  }
+
+  @VisibleForTesting
+  static void reset() {
+    if (sInstance != null && sInstance.mDataFlowGraph != null) {
+      sInstance.mDataFlowGraph.removeFrameListener(sInstance);
+    }
+    sInstance = null;
+    sTotalWriteCount = 0;
+    sTotalContentCount = 0;
+    sCollapsedWriteCount = 0;
+    sLastFrameWriteCount = 0;
+    sLastFrameContentCount = 0;
+  }
+}
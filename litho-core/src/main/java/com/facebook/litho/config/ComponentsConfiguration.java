@@ -145,4 +145,85 @@ public class ComponentsConfiguration {
    * be posted to the next frame.
    */
   public static boolean insertPostAsyncLayout = false;
+
+  /**
+   * The fraction of a frame interval that {@link com.facebook.litho.DisplayListPrefetcher} is
+   * allowed to spend prefetching display lists after each frame.
+   */
+  public static float displayListPrefetchFrameBudgetRatio = 0.5f;
+
+  /**
+   * Whether {@link com.facebook.litho.widget.Text} components with identical text and style share
+   * the same text Layout, so that repeated strings only get laid out once.
+   */
+  public static boolean enableTextLayoutCache = false;
+
+  /**
+   * Approximate upper bound, in bytes, for the text Layouts kept alive by the text Layout cache.
+   * Read once, when the cache is first used.
+   */
+  public static int textLayoutCacheMaxSizeBytes = 1024 * 1024;
+
+  /**
+   * Whether card shadows are rasterized once per corner radius, shadow size and colors, and then
+   * drawn as bitmaps instead of being drawn with gradients every frame.
+   */
+  public static boolean enableCardShadowBitmapCache = false;
+
+  /**
+   * Upper bound, in bytes, for the shadow bitmaps kept by the card shadow cache. Read once, when
+   * the cache is first used.
+   */
+  public static int cardShadowBitmapCacheMaxSizeBytes = 512 * 1024;
+
+  /**
+   * Whether a {@link com.facebook.litho.ComponentHost} skips the drawables whose bounds are
+   * outside of the clip of the canvas. Drawables that draw outside of their own bounds could be
+   * skipped while partially visible.
+   */
+  public static boolean quickRejectOffClipDrawables = false;
+
+  /**
+   * Whether a new layout with the same size specs, e.g. for a state update, takes the subtrees
+   * of the components that are neither updated nor ancestors of an updated component from the
+   * previous layout instead of creating them again. This keeps the InternalNode tree of the last
+   * layout of each {@link com.facebook.litho.ComponentTree} in memory.
+   */
+  public static boolean reuseUnchangedSubtreesOnStateUpdate = false;
+
+  /**
+   * Whether the incremental mounts triggered by scrolls, offsets and translations of a {@link
+   * com.facebook.litho.LithoView} are collected and performed once per view before the next frame
+   * is drawn, instead of right away.
+   */
+  public static boolean coalesceIncrementalMountPerFrame = false;
+
+  /**
+   * Whether the transitions of a new layout are prepared against the previous layout on the layout
+   * thread: the transition keys are diffed and the keys, properties and layout values each
+   * transition animates are resolved, leaving the mount pass that starts the transitions to read
+   * the running animations.
+   */
+  public static boolean calculateTransitionDiffsInLayout = false;
+
+  /**
+   * Whether the values of animated properties are applied to the mount content together once per
+   * frame, after all the animations of the frame have been calculated, instead of one property at
+   * a time. Views whose alpha is animating are given a hardware layer while they fade.
+   */
+  public static boolean batchAnimatedPropertyWrites = false;
+
+  /**
+   * Whether the {@link com.facebook.litho.ComponentTree}s and SectionTrees that aren't given a
+   * layout thread run their background work on a {@link com.facebook.litho.LayoutThreadPool}
+   * instead of a single shared thread. The work of each tree still runs serially.
+   */
+  public static boolean useLayoutThreadPool = false;
+
+  /**
+   * Whether setting a root whose props are equivalent to the ones of the current root of a {@link
+   * com.facebook.litho.ComponentTree} keeps the layouts calculated for the current root, which are
+   * looked up by the props hash code of the root, instead of calculating a new layout.
+   */
+  public static boolean reuseLayoutForEquivalentRoots = false;
 }
@@ -40,6 +40,16 @@ public class DataFlowGraph {
     return sInstance;
   }
 
+  /** Listener for the frames in which data flows through the graph. */
+  public interface FrameListener {
+
+    /** Called on each frame, once the new values have been propagated through all the nodes. */
+    void onFramePropagated();
+
+    /** Called when the last binding is removed, after which no frames run until a new one. */
+    void onGraphIdle();
+  }
+
   private static final Pools.SynchronizedPool<NodeState> sNodeStatePool =
       new Pools.SynchronizedPool<>(20);
 
@@ -82,6 +92,9 @@ public class DataFlowGraph {
   @GuardedBy("this")
   private final SimpleArrayMap<ValueNode, NodeState> mNodeStates = new SimpleArrayMap<>();
 
+  @GuardedBy("this")
+  private final ArrayList<FrameListener> mFrameListeners = new ArrayList<>(1);
+
   private boolean mIsDirty = false;
 
   private DataFlowGraph(TimingSource timingSource) {
@@ -104,6 +117,15 @@ public class DataFlowGraph {
     mIsDirty = true;
   }
 
+  /** Adds a listener that is notified of the frames of this graph. */
+  public synchronized void addFrameListener(FrameListener listener) {
+    mFrameListeners.add(listener);
+  }
+
+  public synchronized void removeFrameListener(FrameListener listener) {
+    mFrameListeners.remove(listener);
+  }
+
   /**
    * Removes a {@link GraphBinding}. This means any nodes that only belonged to that binding will
    * be removed from the graph.
@@ -119,6 +141,9 @@ public class DataFlowGraph {
       if (!mNodeStates.isEmpty()) {
         throw new RuntimeException("Failed to clean up all nodes");
       }
+      for (int i = 0, size = mFrameListeners.size(); i < size; i++) {
+        mFrameListeners.get(i).onGraphIdle();
+      }
     }
     mIsDirty = true;
   }
@@ -129,6 +154,9 @@ public class DataFlowGraph {
     }
 
     propagate(frameTimeNanos);
+    for (int i = 0, size = mFrameListeners.size(); i < size; i++) {
+      mFrameListeners.get(i).onFramePropagated();
+    }
     updateFinishedStates();
   }
 
@@ -22,8 +22,7 @@ public class DisplayListUtils {
     final DisplayListPrefetcher displayListPrefetcher = DisplayListPrefetcher.getInstance();
 
     if (displayListPrefetcher.hasPrefetchItems()) {
-      displayListPrefetcher.setHostingView(view);
-      view.post(displayListPrefetcher);
+      displayListPrefetcher.schedulePrefetch(view);
     }
   }
 
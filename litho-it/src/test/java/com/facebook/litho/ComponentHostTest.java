@@ -24,11 +24,13 @@ import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import android.content.Context;
+import android.graphics.Canvas;
 import android.graphics.Rect;
 import android.graphics.drawable.ColorDrawable;
 import android.graphics.drawable.Drawable;
@@ -36,15 +38,19 @@ import android.support.v4.util.SparseArrayCompat;
 import android.util.SparseArray;
 import android.view.MotionEvent;
 import android.view.View;
+import com.facebook.litho.config.ComponentsConfiguration;
 import com.facebook.litho.testing.TestDrawableComponent;
 import com.facebook.litho.testing.TestViewComponent;
 import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
 import com.facebook.yoga.YogaDirection;
+import java.util.ArrayList;
 import java.util.List;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.powermock.reflect.Whitebox;
 import org.robolectric.RuntimeEnvironment;
 
@@ -282,6 +288,68 @@ public class ComponentHostTest {
     assertThat(mHost.onTouchEvent(obtain(0, 0, 0, 0, 0, 0))).isFalse();
   }
 
+  @Test
+  public void testGestureGoesToTheTouchableThatTookItsDown() {
+    final RecordingTouchable[] touchables = new RecordingTouchable[8];
+    for (int i = 0; i < touchables.length; i++) {
+      touchables[i] = new RecordingTouchable();
+      touchables[i].setBounds(i * 10, 0, i * 10 + 10, 10);
+      mount(i, touchables[i]);
+    }
+
+    // Enough touchables for the host to look the ACTION_DOWN up in its index.
+    assertThat(mHost.onTouchEvent(obtain(0, 0, MotionEvent.ACTION_DOWN, 5, 5, 0))).isTrue();
+    assertThat(mHost.onTouchEvent(obtain(0, 0, MotionEvent.ACTION_UP, 75, 5, 0))).isTrue();
+
+    assertThat(touchables[0].mActions)
+        .containsExactly(MotionEvent.ACTION_DOWN, MotionEvent.ACTION_UP);
+    for (int i = 1; i < touchables.length; i++) {
+      assertThat(touchables[i].mActions).isEmpty();
+    }
+  }
+
+  @Test
+  public void testGestureDoesntGoToTheTouchableItEndsOn() {
+    final RecordingTouchable[] touchables = new RecordingTouchable[7];
+    for (int i = 0; i < touchables.length; i++) {
+      touchables[i] = new RecordingTouchable();
+      touchables[i].setBounds(i * 10, 0, i * 10 + 10, 10);
+      mount(i, touchables[i]);
+    }
+    final InBoundsTouchable last = new InBoundsTouchable();
+    last.setBounds(70, 0, 80, 10);
+    mount(7, last);
+
+    // The linear scan would offer the ACTION_UP to the last touchable, which handles any event
+    // within its bounds, but it wasn't offered the ACTION_DOWN.
+    mHost.onTouchEvent(obtain(0, 0, MotionEvent.ACTION_DOWN, 5, 5, 0));
+    mHost.onTouchEvent(obtain(0, 0, MotionEvent.ACTION_UP, 75, 5, 0));
+
+    assertThat(touchables[0].mActions)
+        .containsExactly(MotionEvent.ACTION_DOWN, MotionEvent.ACTION_UP);
+    assertThat(last.mActions).isEmpty();
+  }
+
+  @Test
+  public void testGestureGoesToTheTouchableAtItsInvalidatedBounds() {
+    final RecordingTouchable[] touchables = new RecordingTouchable[8];
+    for (int i = 0; i < touchables.length; i++) {
+      touchables[i] = new RecordingTouchable();
+      touchables[i].setBounds(i * 10, 0, i * 10 + 10, 10);
+      mount(i, touchables[i]);
+    }
+    mHost.onTouchEvent(obtain(0, 0, MotionEvent.ACTION_DOWN, 5, 5, 0));
+    mHost.onTouchEvent(obtain(0, 0, MotionEvent.ACTION_UP, 5, 5, 0));
+
+    touchables[0].setBounds(0, 20, 10, 30);
+    mHost.invalidateTouchableIndex();
+    mHost.onTouchEvent(obtain(0, 0, MotionEvent.ACTION_DOWN, 5, 25, 0));
+
+    assertThat(touchables[0].mActions)
+        .containsExactly(
+            MotionEvent.ACTION_DOWN, MotionEvent.ACTION_UP, MotionEvent.ACTION_DOWN);
+  }
+
   @Test
   public void testDrawableStateChangedOnDrawables() {
     Drawable d1 = mock(ColorDrawable.class);
@@ -719,6 +787,41 @@ public class ComponentHostTest {
     assertThat(getDrawableMountItemAt(2)).isEqualTo(mountItem3);
   }
 
+  @Test
+  public void testDrawablesOutsideOfClipAreNotDrawn() {
+    ComponentsConfiguration.quickRejectOffClipDrawables = true;
+    ComponentHost.resetQuickRejectedDrawCount();
+
+    try {
+      final Drawable visible = spy(new ColorDrawable(BLACK));
+      visible.setBounds(0, 0, 10, 10);
+      mount(0, visible);
+
+      final Drawable clipped = spy(new ColorDrawable(BLACK));
+      clipped.setBounds(0, 200, 10, 210);
+      mount(1, clipped);
+
+      final Canvas canvas = mock(Canvas.class);
+      when(canvas.getClipBounds(any(Rect.class)))
+          .thenAnswer(
+              new Answer<Boolean>() {
+                @Override
+                public Boolean answer(InvocationOnMock invocation) {
+                  ((Rect) invocation.getArguments()[0]).set(0, 0, 100, 100);
+                  return true;
+                }
+              });
+
+      mHost.dispatchDraw(canvas);
+
+      verify(visible).draw(canvas);
+      verify(clipped, never()).draw(any(Canvas.class));
+      assertThat(ComponentHost.getQuickRejectedDrawCount()).isEqualTo(1);
+    } finally {
+      ComponentsConfiguration.quickRejectOffClipDrawables = false;
+    }
+  }
+
   private int getDrawableItemsSize()
       throws Exception {
     SparseArrayCompat drawableItems = Whitebox.getInternalState(mHost, "mDrawableMountItems");
@@ -900,6 +1003,42 @@ public class ComponentHostTest {
     }
   }
 
+  /** Like a pressable drawable, handles the gestures that start within its bounds. */
+  private static class RecordingTouchable extends ColorDrawable implements Touchable {
+    private final List<Integer> mActions = new ArrayList<>();
+    private boolean mIsPressed;
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event, View host) {
+      mActions.add(event.getActionMasked());
+      mIsPressed = event.getActionMasked() == MotionEvent.ACTION_DOWN;
+      return true;
+    }
+
+    @Override
+    public boolean shouldHandleTouchEvent(MotionEvent event) {
+      return mIsPressed
+          || (event.getActionMasked() == MotionEvent.ACTION_DOWN
+              && getBounds().contains((int) event.getX(), (int) event.getY()));
+    }
+  }
+
+  /** Handles any event within its bounds, wherever its gesture started. */
+  private static class InBoundsTouchable extends ColorDrawable implements Touchable {
+    private final List<Integer> mActions = new ArrayList<>();
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event, View host) {
+      mActions.add(event.getActionMasked());
+      return true;
+    }
+
+    @Override
+    public boolean shouldHandleTouchEvent(MotionEvent event) {
+      return getBounds().contains((int) event.getX(), (int) event.getY());
+    }
+  }
+
   private static class TouchableDrawable extends ColorDrawable implements Touchable {
 
     @Override
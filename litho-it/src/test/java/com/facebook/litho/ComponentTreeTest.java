@@ -20,9 +20,12 @@ import static org.junit.Assert.fail;
 import static org.powermock.reflect.Whitebox.getInternalState;
 
 import android.os.Looper;
+import com.facebook.litho.config.ComponentsConfiguration;
 import com.facebook.litho.testing.TestDrawableComponent;
 import com.facebook.litho.testing.TestLayoutComponent;
 import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import com.facebook.litho.testing.util.InlineLayoutSpec;
+import java.util.Collections;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -447,6 +450,144 @@ public class ComponentTreeTest {
     Assert.assertNull(getComponentTree(lithoView1));
   }
 
+  @Test
+  public void testEventHandlersOfAnOlderLayoutAreNotBoundOverANewerOne() throws Exception {
+    final ComponentTree componentTree = ComponentTree.create(mContext, mComponent).build();
+
+    final Component olderComponent = TestDrawableComponent.create(mContext).build();
+    final Component newerComponent = TestDrawableComponent.create(mContext).build();
+    Whitebox.setInternalState(olderComponent, "mGlobalKey", "key");
+    Whitebox.setInternalState(newerComponent, "mGlobalKey", "key");
+
+    final EventHandler eventHandler = new EventHandler(olderComponent, "handler", 1, null);
+    componentTree.recordEventHandler(olderComponent, eventHandler);
+
+    // The layouts are bound in the reverse order in which they were committed.
+    Whitebox.invokeMethod(
+        componentTree, "bindEventHandlers", Collections.singletonList(newerComponent), 2);
+    Whitebox.invokeMethod(
+        componentTree, "bindEventHandlers", Collections.singletonList(olderComponent), 1);
+
+    assertThat(eventHandler.mHasEventDispatcher).isSameAs(newerComponent);
+  }
+
+  @Test
+  public void testBackgroundLayoutIsOnlyPromotedOnceItsEventHandlersAreBound() throws Exception {
+    final ComponentTree componentTree = ComponentTree.create(mContext, mComponent).build();
+    final LithoView lithoView = new LithoView(mContext);
+    lithoView.setComponentTree(componentTree);
+    final Object eventHandlersLock = getInternalState(componentTree, "mEventHandlersLock");
+
+    final Thread layoutThread =
+        new Thread(
+            new Runnable() {
+              @Override
+              public void run() {
+                componentTree.setSizeSpec(mWidthSpec, mHeightSpec);
+              }
+            });
+    synchronized (eventHandlersLock) {
+      layoutThread.start();
+
+      // The layout is committed and the binding of its event handlers waits for the lock.
+      while (layoutThread.getState() != Thread.State.BLOCKED) {
+        Thread.yield();
+      }
+      assertThat(componentTree.getBackgroundLayoutState()).isNotNull();
+      assertThat((int) getInternalState(componentTree, "mLastBoundLayoutCount")).isEqualTo(0);
+
+      // The main thread doesn't wait for the event handlers, it keeps its current layout.
+      componentTree.attach();
+
+      assertThat(componentTree.getBackgroundLayoutState()).isNotNull();
+      assertThat(componentTree.getMainThreadLayoutState()).isNull();
+    }
+
+    // The layout thread posts an update to the main thread once the event handlers are bound.
+    layoutThread.join();
+    assertThat((int) getInternalState(componentTree, "mLastBoundLayoutCount")).isEqualTo(1);
+    ShadowLooper.runUiThreadTasks();
+
+    assertThat(componentTree.getBackgroundLayoutState()).isNull();
+    assertThat(
+            componentTree
+                .getMainThreadLayoutState()
+                .isCompatibleComponentAndSpec(mComponent.getId(), mWidthSpec, mHeightSpec))
+        .isTrue();
+  }
+
+  @Test
+  public void testSetEquivalentRootKeepsCurrentLayout() {
+    ComponentsConfiguration.reuseLayoutForEquivalentRoots = true;
+    try {
+      final Component root = new EquivalentRoot();
+      final ComponentTree componentTree = ComponentTree.create(mContext, root).build();
+      componentTree.setSizeSpec(mWidthSpec, mHeightSpec);
+      final LayoutState layoutState = getInternalState(componentTree, "mBackgroundLayoutState");
+
+      componentTree.setRoot(new EquivalentRoot());
+
+      assertThat((Component) getInternalState(componentTree, "mRoot")).isSameAs(root);
+      assertThat((LayoutState) getInternalState(componentTree, "mBackgroundLayoutState"))
+          .isSameAs(layoutState);
+    } finally {
+      ComponentsConfiguration.reuseLayoutForEquivalentRoots = false;
+    }
+  }
+
+  @Test
+  public void testPreparedLayoutIsOnlyRenderedWhenSet() {
+    final ComponentTree componentTree = ComponentTree.create(mContext, mComponent).build();
+    final Component root = TestDrawableComponent.create(mContext).build();
+
+    final ComponentTree.PreparedLayout preparedLayout =
+        componentTree.prepareRootAndSizeSpec(root, mWidthSpec, mHeightSpec);
+
+    assertThat(preparedLayout.getWidth()).isEqualTo(39);
+    assertThat(preparedLayout.getHeight()).isEqualTo(41);
+    assertThat((Component) getInternalState(componentTree, "mRoot")).isSameAs(mComponent);
+    assertThat(componentTree.getBackgroundLayoutState()).isNull();
+
+    componentTree.setRootAndSizeSpec(preparedLayout);
+
+    assertThat((Component) getInternalState(componentTree, "mRoot")).isSameAs(root);
+    assertThat(
+            componentTree
+                .getBackgroundLayoutState()
+                .isCompatibleComponentAndSpec(root.getId(), mWidthSpec, mHeightSpec))
+        .isTrue();
+  }
+
+  @Test
+  public void testOutdatedPreparedLayoutIsCalculatedAgain() {
+    final ComponentTree componentTree = ComponentTree.create(mContext, mComponent).build();
+    final Component root = TestDrawableComponent.create(mContext).build();
+
+    final ComponentTree.PreparedLayout preparedLayout =
+        componentTree.prepareRootAndSizeSpec(root, mWidthSpec, mHeightSpec);
+    componentTree.setRootAndSizeSpec(mComponent, mWidthSpec2, mHeightSpec2);
+    final LayoutState newerLayoutState = componentTree.getBackgroundLayoutState();
+
+    componentTree.setRootAndSizeSpec(preparedLayout);
+
+    final LayoutState layoutState = componentTree.getBackgroundLayoutState();
+    assertThat(layoutState).isNotSameAs(newerLayoutState);
+    assertThat(layoutState.isCompatibleComponentAndSpec(root.getId(), mWidthSpec, mHeightSpec))
+        .isTrue();
+  }
+
+  private static class EquivalentRoot extends InlineLayoutSpec {
+    @Override
+    protected ComponentLayout onCreateLayout(ComponentContext c) {
+      return TestDrawableComponent.create(c).buildWithLayout();
+    }
+
+    @Override
+    public boolean isEquivalentTo(Component<?> other) {
+      return other instanceof EquivalentRoot;
+    }
+  }
+
   private static LithoView getLithoView(ComponentTree componentTree) {
     return Whitebox.getInternalState(componentTree, "mLithoView");
   }
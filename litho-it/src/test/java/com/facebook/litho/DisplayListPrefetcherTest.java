@@ -21,6 +21,9 @@ import org.junit.Test;
  */
 public class DisplayListPrefetcherTest {
 
+  private static final int TEXT_TYPE = 1;
+  private static final int IMAGE_TYPE = 100;
+
   AverageDLPrefetchDuration mAverageDLPrefetchDuration;
 
   @Before
@@ -30,31 +33,41 @@ public class DisplayListPrefetcherTest {
 
   @Test
   public void testAverageDLPrefetchDurationEmpty() {
-    assertThat(-1L).isEqualTo(mAverageDLPrefetchDuration.get("Text"));
+    assertThat(-1L).isEqualTo(mAverageDLPrefetchDuration.get(TEXT_TYPE));
   }
 
   @Test
   public void testAverageDLPrefetchDurationAddItem() {
-    mAverageDLPrefetchDuration.put("Image", 100L);
-    assertThat(-1L).isEqualTo(mAverageDLPrefetchDuration.get("Text"));
-    assertThat(100L).isEqualTo(mAverageDLPrefetchDuration.get("Image"));
+    mAverageDLPrefetchDuration.put(IMAGE_TYPE, 100L);
+    assertThat(-1L).isEqualTo(mAverageDLPrefetchDuration.get(TEXT_TYPE));
+    assertThat(100L).isEqualTo(mAverageDLPrefetchDuration.get(IMAGE_TYPE));
   }
 
   @Test
   public void testAverageDLPrefetchDurationUpdateItems() {
-    mAverageDLPrefetchDuration.put("Image", 100L);
-    mAverageDLPrefetchDuration.put("Image", 200L);
-    mAverageDLPrefetchDuration.put("Image", 250L);
-    assertThat(250L).isEqualTo(mAverageDLPrefetchDuration.get("Image"));
+    mAverageDLPrefetchDuration.put(IMAGE_TYPE, 100L);
+    mAverageDLPrefetchDuration.put(IMAGE_TYPE, 200L);
+    mAverageDLPrefetchDuration.put(IMAGE_TYPE, 250L);
+    assertThat(250L).isEqualTo(mAverageDLPrefetchDuration.get(IMAGE_TYPE));
   }
 
   @Test
   public void testAverageDLPrefetchDurationAddItemsExceedInitialSize() {
     int initialSize = INITIAL_SIZE;
     for (int i = 0; i < initialSize; i++) {
-      mAverageDLPrefetchDuration.put("Image" + i, 100L + i * 10);
+      mAverageDLPrefetchDuration.put(IMAGE_TYPE + i, 100L + i * 10);
     }
-    mAverageDLPrefetchDuration.put("Image" + initialSize, 111L);
-    assertThat(111L).isEqualTo(mAverageDLPrefetchDuration.get("Image" + initialSize));
+    mAverageDLPrefetchDuration.put(IMAGE_TYPE + initialSize, 111L);
+    assertThat(111L).isEqualTo(mAverageDLPrefetchDuration.get(IMAGE_TYPE + initialSize));
+    assertThat(100L).isEqualTo(mAverageDLPrefetchDuration.get(IMAGE_TYPE));
+  }
+
+  @Test
+  public void testOrderByDistanceToViewportServesUnknownDistancesLast() {
+    final int unknown = ComponentTree.DISTANCE_TO_VIEWPORT_UNKNOWN;
+    final int[] distances = {unknown, 3, 0, 1, 0, unknown};
+
+    assertThat(DisplayListPrefetcher.orderByDistanceToViewport(distances))
+        .containsExactly(2, 4, 3, 1, 0, 5);
   }
 }
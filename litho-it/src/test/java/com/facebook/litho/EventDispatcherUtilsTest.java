@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.view.View;
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.robolectric.RuntimeEnvironment;
+
+/** Tests that {@link EventDispatcherUtils} doesn't allocate a new event for every dispatch. */
+@RunWith(ComponentsTestRunner.class)
+public class EventDispatcherUtilsTest {
+
+  private EventDispatcher mEventDispatcher;
+  private EventHandler mEventHandler;
+
+  @Before
+  public void setUp() {
+    mEventDispatcher = mock(EventDispatcher.class);
+    final HasEventDispatcher hasEventDispatcher = mock(HasEventDispatcher.class);
+    when(hasEventDispatcher.getEventDispatcher()).thenReturn(mEventDispatcher);
+    mEventHandler = new EventHandler(hasEventDispatcher, "handler", 0, null);
+  }
+
+  @Test
+  public void testVisibilityEventsAreReused() {
+    EventDispatcherUtils.dispatchOnVisible(mEventHandler);
+    EventDispatcherUtils.dispatchOnVisible(mEventHandler);
+    EventDispatcherUtils.dispatchOnInvisible(mEventHandler);
+    EventDispatcherUtils.dispatchOnInvisible(mEventHandler);
+    EventDispatcherUtils.dispatchOnFocused(mEventHandler);
+    EventDispatcherUtils.dispatchOnFocused(mEventHandler);
+    EventDispatcherUtils.dispatchOnFullImpression(mEventHandler);
+    EventDispatcherUtils.dispatchOnFullImpression(mEventHandler);
+
+    final ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+    verify(mEventDispatcher, times(8)).dispatchOnEvent(eq(mEventHandler), captor.capture());
+
+    final List<Object> events = captor.getAllValues();
+    assertThat(events.get(0)).isInstanceOf(VisibleEvent.class);
+    assertThat(events.get(1)).isSameAs(events.get(0));
+    assertThat(events.get(2)).isInstanceOf(InvisibleEvent.class);
+    assertThat(events.get(3)).isSameAs(events.get(2));
+    assertThat(events.get(4)).isInstanceOf(FocusedVisibleEvent.class);
+    assertThat(events.get(5)).isSameAs(events.get(4));
+    assertThat(events.get(6)).isInstanceOf(FullImpressionVisibleEvent.class);
+    assertThat(events.get(7)).isSameAs(events.get(6));
+  }
+
+  @Test
+  public void testClickEventIsReusedAndCleared() {
+    final View view = new View(RuntimeEnvironment.application);
+
+    EventDispatcherUtils.dispatchOnClick(mEventHandler, view);
+    EventDispatcherUtils.dispatchOnClick(mEventHandler, view);
+
+    final ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+    verify(mEventDispatcher, times(2)).dispatchOnEvent(any(EventHandler.class), captor.capture());
+
+    final List<Object> events = captor.getAllValues();
+    assertThat(events.get(1)).isSameAs(events.get(0));
+    assertThat(((ClickEvent) events.get(0)).view).isNull();
+  }
+}
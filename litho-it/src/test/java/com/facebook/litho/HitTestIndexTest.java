@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+import android.graphics.Rect;
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/** Tests {@link HitTestIndex} */
+@RunWith(ComponentsTestRunner.class)
+public class HitTestIndexTest {
+
+  private HitTestIndex<String> mIndex;
+  private List<String> mItems;
+
+  @Before
+  public void setup() {
+    mIndex = new HitTestIndex<>();
+    mItems = new ArrayList<>();
+  }
+
+  @Test
+  public void testItemsAreFoundInReverseDrawingOrder() {
+    mIndex.add("background", new Rect(0, 0, 100, 100));
+    mIndex.add("icon", new Rect(10, 10, 20, 20));
+    mIndex.add("text", new Rect(0, 50, 100, 60));
+    mIndex.build();
+
+    mIndex.findItemsAt(15, 15, mItems);
+    assertThat(mItems).containsExactly("icon", "background");
+
+    mIndex.findItemsAt(50, 55, mItems);
+    assertThat(mItems).containsExactly("text", "background");
+
+    mIndex.findItemsAt(50, 30, mItems);
+    assertThat(mItems).containsExactly("background");
+  }
+
+  @Test
+  public void testEdgesFollowRectContains() {
+    mIndex.add("first", new Rect(0, 0, 10, 10));
+    mIndex.add("second", new Rect(0, 10, 10, 20));
+    mIndex.build();
+
+    mIndex.findItemsAt(5, 10, mItems);
+    assertThat(mItems).containsExactly("second");
+
+    mIndex.findItemsAt(10, 5, mItems);
+    assertThat(mItems).isEmpty();
+
+    mIndex.findItemsAt(5, 20, mItems);
+    assertThat(mItems).isEmpty();
+
+    mIndex.findItemsAt(5, -1, mItems);
+    assertThat(mItems).isEmpty();
+  }
+
+  @Test
+  public void testEmptyBoundsAreNeverFound() {
+    mIndex.add("empty", new Rect(5, 5, 5, 5));
+    mIndex.add("item", new Rect(0, 0, 10, 10));
+    mIndex.build();
+
+    mIndex.findItemsAt(5, 5, mItems);
+    assertThat(mItems).containsExactly("item");
+  }
+
+  @Test
+  public void testIndexIsRebuilt() {
+    mIndex.add("first", new Rect(0, 0, 10, 10));
+    mIndex.build();
+
+    mIndex.clear();
+    mIndex.add("second", new Rect(20, 20, 30, 30));
+    mIndex.build();
+
+    mIndex.findItemsAt(5, 5, mItems);
+    assertThat(mItems).isEmpty();
+    mIndex.findItemsAt(25, 25, mItems);
+    assertThat(mItems).containsExactly("second");
+    assertThat(mIndex.size()).isEqualTo(1);
+  }
+}
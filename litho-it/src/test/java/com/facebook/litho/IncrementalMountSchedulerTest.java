@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.facebook.litho.dataflow.ChoreographerCompat;
+import com.facebook.litho.dataflow.ChoreographerCompatImpl;
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.robolectric.RuntimeEnvironment;
+
+/** Tests {@link IncrementalMountScheduler} */
+@RunWith(ComponentsTestRunner.class)
+public class IncrementalMountSchedulerTest {
+
+  private ChoreographerCompat mChoreographer;
+  private LithoView mLithoView;
+
+  @Before
+  public void setup() {
+    mChoreographer = Mockito.mock(ChoreographerCompat.class);
+    ChoreographerCompatImpl.setInstance(mChoreographer);
+    IncrementalMountScheduler.reset();
+
+    mLithoView = new LithoView(RuntimeEnvironment.application);
+  }
+
+  @After
+  public void tearDown() {
+    ChoreographerCompatImpl.setInstance(null);
+    IncrementalMountScheduler.reset();
+  }
+
+  @Test
+  public void testRequestsForTheSameViewAreCollapsed() {
+    final IncrementalMountScheduler scheduler = IncrementalMountScheduler.get();
+    scheduler.schedule(mLithoView, false);
+    scheduler.schedule(mLithoView, true);
+    scheduler.schedule(mLithoView, false);
+
+    assertThat(mLithoView.isIncrementalMountScheduled()).isTrue();
+    assertThat(mLithoView.isScheduledIncrementalMountFull()).isTrue();
+
+    final ArgumentCaptor<ChoreographerCompat.FrameCallback> callback =
+        ArgumentCaptor.forClass(ChoreographerCompat.FrameCallback.class);
+    verify(mChoreographer, times(1)).postFrameCallback(callback.capture());
+    callback.getValue().doFrame(0);
+
+    assertThat(mLithoView.isIncrementalMountScheduled()).isFalse();
+    assertThat(IncrementalMountScheduler.getRequestedMountCount()).isEqualTo(3);
+    assertThat(IncrementalMountScheduler.getPerformedMountCount()).isEqualTo(1);
+    assertThat(IncrementalMountScheduler.getCollapsedMountCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void testCancelledMountIsNotPerformed() {
+    final IncrementalMountScheduler scheduler = IncrementalMountScheduler.get();
+    scheduler.schedule(mLithoView, false);
+    scheduler.cancel(mLithoView);
+
+    final ArgumentCaptor<ChoreographerCompat.FrameCallback> callback =
+        ArgumentCaptor.forClass(ChoreographerCompat.FrameCallback.class);
+    verify(mChoreographer).postFrameCallback(callback.capture());
+    callback.getValue().doFrame(0);
+
+    assertThat(IncrementalMountScheduler.getPerformedMountCount()).isEqualTo(0);
+    assertThat(IncrementalMountScheduler.getCollapsedMountCount()).isEqualTo(1);
+  }
+}
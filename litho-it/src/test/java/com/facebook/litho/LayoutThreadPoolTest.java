@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/** Tests {@link LayoutThreadPool} */
+@RunWith(ComponentsTestRunner.class)
+public class LayoutThreadPoolTest {
+
+  private final List<Runnable> mExecutorQueue = new ArrayList<>();
+  private final List<String> mRunOrder = new ArrayList<>();
+  private LayoutThreadPool mLayoutThreadPool;
+
+  @Before
+  public void setup() {
+    mLayoutThreadPool =
+        new LayoutThreadPool(
+            new Executor() {
+              @Override
+              public void execute(Runnable command) {
+                mExecutorQueue.add(command);
+              }
+            });
+  }
+
+  @Test
+  public void testRunnablesOfAHandlerRunSerially() {
+    final LayoutHandler handler = mLayoutThreadPool.createLayoutHandler();
+    handler.post(record("first"));
+    handler.post(record("second"));
+
+    // Only one runnable of a handler can be running on the pool at a time.
+    assertThat(mExecutorQueue).hasSize(1);
+
+    runNextOnPool();
+    assertThat(mRunOrder).containsExactly("first");
+    assertThat(mExecutorQueue).hasSize(1);
+
+    runNextOnPool();
+    assertThat(mRunOrder).containsExactly("first", "second");
+    assertThat(mExecutorQueue).isEmpty();
+  }
+
+  @Test
+  public void testHandlersRunInParallelAndTakeTurns() {
+    final LayoutHandler firstHandler = mLayoutThreadPool.createLayoutHandler();
+    final LayoutHandler secondHandler = mLayoutThreadPool.createLayoutHandler();
+    firstHandler.post(record("first-1"));
+    firstHandler.post(record("first-2"));
+    secondHandler.post(record("second-1"));
+
+    assertThat(mExecutorQueue).hasSize(2);
+
+    while (!mExecutorQueue.isEmpty()) {
+      runNextOnPool();
+    }
+
+    assertThat(mRunOrder).containsExactly("first-1", "second-1", "first-2");
+  }
+
+  @Test
+  public void testRemovedCallbacksDontRun() {
+    final LayoutHandler handler = mLayoutThreadPool.createLayoutHandler();
+    final Runnable removed = record("removed");
+    handler.post(removed);
+    handler.post(record("kept"));
+    handler.removeCallbacks(removed);
+
+    runNextOnPool();
+
+    assertThat(mRunOrder).containsExactly("kept");
+    assertThat(mExecutorQueue).isEmpty();
+  }
+
+  private void runNextOnPool() {
+    mExecutorQueue.remove(0).run();
+  }
+
+  private Runnable record(final String name) {
+    return new Runnable() {
+      @Override
+      public void run() {
+        mRunOrder.add(name);
+      }
+    };
+  }
+}
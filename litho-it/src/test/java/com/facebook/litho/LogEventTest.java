@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho;
+
+import static com.facebook.litho.FrameworkLogEvents.EVENT_MOUNT;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_ID_IS_DIRTY;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_ID_MOUNTED_COUNT;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_IS_DIRTY;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_LOG_TAG;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_MOUNTED_COUNT;
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/** Tests {@link LogEvent} */
+@RunWith(ComponentsTestRunner.class)
+public class LogEventTest {
+
+  private LogEvent mEvent;
+
+  @Before
+  public void setup() {
+    mEvent = new LogEvent();
+    mEvent.setEventId(EVENT_MOUNT);
+  }
+
+  @Test
+  public void testTypedParams() {
+    mEvent.addParam(PARAM_ID_MOUNTED_COUNT, 3);
+    mEvent.addParam(PARAM_ID_IS_DIRTY, true);
+    mEvent.addParam(PARAM_ID_MOUNTED_COUNT, 4);
+
+    assertThat(mEvent.getTypedParamCount()).isEqualTo(2);
+    assertThat(mEvent.getTypedParamIdAt(0)).isEqualTo(PARAM_ID_MOUNTED_COUNT);
+    assertThat(mEvent.getTypedParamValueAt(0)).isEqualTo(4);
+    assertThat(mEvent.isBooleanTypedParamAt(1)).isTrue();
+    assertThat(mEvent.getIntParam(PARAM_ID_MOUNTED_COUNT, -1)).isEqualTo(4);
+    assertThat(mEvent.getBooleanParam(PARAM_ID_IS_DIRTY, false)).isTrue();
+    assertThat(mEvent.getLongParam(42, -1)).isEqualTo(-1);
+  }
+
+  @Test
+  public void testTypedParamsAreReturnedAsNamedParams() {
+    mEvent.addParam(PARAM_LOG_TAG, "tag");
+    mEvent.addParam(PARAM_ID_MOUNTED_COUNT, 3);
+    mEvent.addParam(PARAM_ID_IS_DIRTY, false);
+
+    assertThat(mEvent.getParamCount()).isEqualTo(3);
+    assertThat((String) mEvent.getParam(PARAM_LOG_TAG)).isEqualTo("tag");
+    assertThat((String) mEvent.getParam(PARAM_MOUNTED_COUNT)).isEqualTo("3");
+    assertThat((String) mEvent.getParam(PARAM_IS_DIRTY)).isEqualTo("false");
+
+    mEvent.addParam(PARAM_ID_MOUNTED_COUNT, 5);
+
+    assertThat((String) mEvent.getParam(PARAM_MOUNTED_COUNT)).isEqualTo("5");
+  }
+
+  @Test
+  public void testResetDropsTypedParams() {
+    mEvent.addParam(PARAM_ID_MOUNTED_COUNT, 3);
+    mEvent.getParamCount();
+
+    mEvent.reset();
+
+    assertThat(mEvent.getTypedParamCount()).isEqualTo(0);
+    assertThat(mEvent.getParamCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testTypedParamsCapacityGrows() {
+    for (int i = 0; i < 20; i++) {
+      mEvent.addParam(100 + i, i);
+    }
+
+    assertThat(mEvent.getTypedParamCount()).isEqualTo(20);
+    assertThat(mEvent.getLongParam(119, -1)).isEqualTo(19);
+    assertThat((String) mEvent.getParam("param_119")).isEqualTo("19");
+  }
+
+  @Test
+  public void testEqualsComparesTypedParams() {
+    final LogEvent other = new LogEvent();
+    other.setEventId(EVENT_MOUNT);
+    other.addParam(PARAM_ID_MOUNTED_COUNT, 3);
+
+    mEvent.addParam(PARAM_ID_MOUNTED_COUNT, 3);
+    assertThat(mEvent.equals(other)).isTrue();
+
+    mEvent.addParam(PARAM_ID_MOUNTED_COUNT, 4);
+    assertThat(mEvent.equals(other)).isFalse();
+  }
+}
@@ -10,8 +10,8 @@
 package com.facebook.litho;
 
 import static com.facebook.litho.FrameworkLogEvents.EVENT_MOUNT;
-import static com.facebook.litho.FrameworkLogEvents.PARAM_MOUNTED_COUNT;
-import static com.facebook.litho.FrameworkLogEvents.PARAM_UNMOUNTED_COUNT;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_ID_MOUNTED_COUNT;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_ID_UNMOUNTED_COUNT;
 import static com.facebook.litho.testing.TestViewComponent.create;
 import static com.facebook.litho.testing.helper.ComponentTestHelper.mountComponent;
 import static com.facebook.yoga.YogaEdge.ALL;
@@ -573,8 +573,8 @@ public class MountStateIncrementalMountTest {
 
   private void verifyLoggingAndResetLogger(int mountedCount, int unmountedCount) {
     final LogEvent event = mComponentsLogger.newPerformanceEvent(EVENT_MOUNT);
-    event.addParam(PARAM_MOUNTED_COUNT, String.valueOf(mountedCount));
-    event.addParam(PARAM_UNMOUNTED_COUNT, String.valueOf(unmountedCount));
+    event.addParam(PARAM_ID_MOUNTED_COUNT, mountedCount);
+    event.addParam(PARAM_ID_UNMOUNTED_COUNT, unmountedCount);
 
     verify(mComponentsLogger).log(eq(event));
     reset(mComponentsLogger);
@@ -15,7 +15,7 @@ import static android.view.View.MeasureSpec.AT_MOST;
 import static android.view.View.MeasureSpec.EXACTLY;
 import static android.view.View.MeasureSpec.makeMeasureSpec;
 import static com.facebook.litho.FrameworkLogEvents.EVENT_PREPARE_MOUNT;
-import static com.facebook.litho.FrameworkLogEvents.PARAM_MOVED_COUNT;
+import static com.facebook.litho.FrameworkLogEvents.PARAM_ID_MOVED_COUNT;
 import static com.facebook.litho.testing.TestDrawableComponent.create;
 import static com.facebook.litho.testing.helper.ComponentTestHelper.mountComponent;
 import static org.assertj.core.api.Java6Assertions.assertThat;
@@ -667,7 +667,7 @@ public class MountStateRemountInPlaceTest {
     tree.setRoot(secondLayout);
 
     final LogEvent event = mComponentsLogger.newPerformanceEvent(EVENT_PREPARE_MOUNT);
-    event.addParam(PARAM_MOVED_COUNT, "2");
+    event.addParam(PARAM_ID_MOVED_COUNT, 2);
     verify(mComponentsLogger).log(eq(event));
   }
 }
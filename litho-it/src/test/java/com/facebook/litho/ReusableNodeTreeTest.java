@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho;
+
+import static com.facebook.litho.SizeSpec.EXACTLY;
+import static com.facebook.litho.SizeSpec.makeSizeSpec;
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+import com.facebook.litho.config.ComponentsConfiguration;
+import com.facebook.litho.testing.TestDrawableComponent;
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import com.facebook.litho.testing.util.InlineLayoutSpec;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RuntimeEnvironment;
+
+/** Tests {@link ReusableNodeTree} */
+@RunWith(ComponentsTestRunner.class)
+public class ReusableNodeTreeTest {
+
+  private static final int WIDTH_SPEC = makeSizeSpec(100, EXACTLY);
+  private static final int HEIGHT_SPEC = makeSizeSpec(100, EXACTLY);
+
+  private StateHandler mStateHandler;
+  private ComponentContext mContext;
+  private AtomicInteger mChildLayoutCount;
+  private Component<?> mChild;
+  private Component<?> mRoot;
+
+  @Before
+  public void setup() {
+    ComponentsConfiguration.reuseUnchangedSubtreesOnStateUpdate = true;
+
+    mStateHandler = new StateHandler();
+    mContext = new ComponentContext(RuntimeEnvironment.application, mStateHandler);
+    mChildLayoutCount = new AtomicInteger();
+    mChild =
+        new InlineLayoutSpec() {
+          @Override
+          protected ComponentLayout onCreateLayout(ComponentContext c) {
+            mChildLayoutCount.incrementAndGet();
+            return Column.create(c).child(TestDrawableComponent.create(c)).build();
+          }
+        };
+    mRoot =
+        new InlineLayoutSpec() {
+          @Override
+          protected ComponentLayout onCreateLayout(ComponentContext c) {
+            return Column.create(c).child(mChild).build();
+          }
+        };
+  }
+
+  @After
+  public void tearDown() {
+    ComponentsConfiguration.reuseUnchangedSubtreesOnStateUpdate = false;
+  }
+
+  @Test
+  public void testUnchangedSubtreeIsReused() {
+    final LayoutState layoutState =
+        LayoutState.calculate(mContext, mRoot, -1, WIDTH_SPEC, HEIGHT_SPEC);
+    final ReusableNodeTree reusableNodeTree =
+        new ReusableNodeTree(layoutState.takeLayoutRootForReuse());
+
+    final LayoutState newLayoutState =
+        LayoutState.calculate(
+            ComponentContext.withReusableNodeTree(mContext, reusableNodeTree),
+            mRoot.makeShallowCopy(),
+            -1,
+            WIDTH_SPEC,
+            HEIGHT_SPEC);
+    reusableNodeTree.release();
+
+    assertThat(mChildLayoutCount.get()).isEqualTo(1);
+    assertThat(reusableNodeTree.getReusedSubtreeCount()).isEqualTo(1);
+    assertThat(newLayoutState.getMountableOutputCount())
+        .isEqualTo(layoutState.getMountableOutputCount());
+  }
+
+  @Test
+  public void testAncestorOfUpdatedComponentIsCreatedAgain() {
+    final LayoutState layoutState =
+        LayoutState.calculate(mContext, mRoot, -1, WIDTH_SPEC, HEIGHT_SPEC);
+    final ReusableNodeTree reusableNodeTree =
+        new ReusableNodeTree(layoutState.takeLayoutRootForReuse());
+
+    mStateHandler.queueStateUpdate(
+        mChild.getGlobalKey() + "descendant",
+        new ComponentLifecycle.StateUpdate() {
+          @Override
+          public void updateState(
+              ComponentLifecycle.StateContainer stateContainer, Component newComponent) {}
+        });
+
+    LayoutState.calculate(
+        ComponentContext.withReusableNodeTree(mContext, reusableNodeTree),
+        mRoot.makeShallowCopy(),
+        -1,
+        WIDTH_SPEC,
+        HEIGHT_SPEC);
+    reusableNodeTree.release();
+
+    assertThat(mChildLayoutCount.get()).isEqualTo(2);
+    assertThat(reusableNodeTree.getReusedSubtreeCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testTreeCanOnlyBeTakenOnce() {
+    final LayoutState layoutState =
+        LayoutState.calculate(mContext, mRoot, -1, WIDTH_SPEC, HEIGHT_SPEC);
+
+    assertThat(layoutState.takeLayoutRootForReuse()).isNotNull();
+    assertThat(layoutState.takeLayoutRootForReuse()).isNull();
+  }
+}
@@ -285,6 +285,66 @@ public class TransitionManagerAnimationCreationTest {
             createPropertyAnimation("test2", AnimatedProperties.X, 20));
   }
 
+  @Test
+  public void testWithTransitionDiffCalculatedInLayout() {
+    final LayoutState current =
+        createMockLayoutState(
+            Transition.parallel(),
+            createMockLayoutOutput("test", 0, 0),
+            createMockLayoutOutput("disappearing", 0, 0));
+    final LayoutState next =
+        createMockLayoutState(
+            Transition.parallel(
+                Transition.create("test")
+                    .animate(AnimatedProperties.X)
+                    .animator(mTestVerificationAnimator),
+                Transition.create("appearing")
+                    .animate(AnimatedProperties.X)
+                    .appearFrom(0)
+                    .animator(mTestVerificationAnimator)),
+            createMockLayoutOutput("appearing", 20, 0),
+            createMockLayoutOutput("test", 10, 0));
+    when(next.getTransitionDiff()).thenReturn(TransitionDiff.create(current, next));
+
+    mTransitionManager.setupTransitions(current, next, null);
+
+    assertThat(mCreatedAnimations)
+        .containsExactlyInAnyOrder(
+            createPropertyAnimation("test", AnimatedProperties.X, 10),
+            createPropertyAnimation("appearing", AnimatedProperties.X, 20));
+    assertThat(mTransitionManager.isKeyAnimating("disappearing")).isFalse();
+  }
+
+  @Test
+  public void testTransitionDiffPreparesLayoutValuesOfLayoutTransitions() {
+    final LayoutState current =
+        createMockLayoutState(Transition.parallel(), createMockLayoutOutput("test", 0, 0));
+    final LayoutOutput nextLayoutOutput = createMockLayoutOutput("test", 10, 0);
+    final LayoutState next =
+        createMockLayoutState(
+            Transition.parallel(
+                Transition.create("test")
+                    .animate(AnimatedProperties.X)
+                    .animator(mTestVerificationAnimator)),
+            nextLayoutOutput);
+    when(next.getTransitionDiff()).thenReturn(TransitionDiff.create(current, next));
+    final ArrayList<Transition> mountTimeTransitions = new ArrayList<>();
+    mountTimeTransitions.add(
+        Transition.create("test")
+            .animate(AnimatedProperties.Y)
+            .animator(mTestVerificationAnimator));
+
+    // The layout transitions use the values read when the diff was created, the mount time ones
+    // aren't known on the layout thread and read them when mounting.
+    when(nextLayoutOutput.getBounds()).thenReturn(new Rect(50, 30, 100, 100));
+    mTransitionManager.setupTransitions(current, next, mountTimeTransitions);
+
+    assertThat(mCreatedAnimations)
+        .containsExactlyInAnyOrder(
+            createPropertyAnimation("test", AnimatedProperties.X, 10),
+            createPropertyAnimation("test", AnimatedProperties.Y, 30));
+  }
+
   private PropertyAnimation createPropertyAnimation(
       String key,
       AnimatedProperty property,
@@ -311,6 +371,7 @@ public class TransitionManagerAnimationCreationTest {
     final LayoutState layoutState = mock(LayoutState.class);
     when(layoutState.getTransitionContext()).thenReturn(transitionContext);
     when(layoutState.getTransitionKeyMapping()).thenReturn(transitionKeyMapping);
+    when(layoutState.createTransitionKeyMapping()).thenReturn(transitionKeyMapping);
     when(layoutState.getLayoutOutputForTransitionKey(anyString())).then(new Answer<LayoutOutput>() {
       @Override
       public LayoutOutput answer(InvocationOnMock invocation) throws Throwable {
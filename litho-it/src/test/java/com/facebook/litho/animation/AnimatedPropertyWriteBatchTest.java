@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho.animation;
+
+import static com.facebook.litho.animation.AnimatedProperties.ALPHA;
+import static com.facebook.litho.animation.AnimatedProperties.SCALE;
+import static com.facebook.litho.dataflow.GraphBinding.create;
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.robolectric.RuntimeEnvironment.application;
+
+import android.view.View;
+import com.facebook.litho.config.ComponentsConfiguration;
+import com.facebook.litho.dataflow.DataFlowGraph;
+import com.facebook.litho.dataflow.GraphBinding;
+import com.facebook.litho.dataflow.MockTimingSource;
+import com.facebook.litho.dataflow.SettableNode;
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(ComponentsTestRunner.class)
+public class AnimatedPropertyWriteBatchTest {
+
+  private MockTimingSource mTestTimingSource;
+  private DataFlowGraph mDataFlowGraph;
+
+  @Before
+  public void setUp() throws Exception {
+    ComponentsConfiguration.batchAnimatedPropertyWrites = true;
+    AnimatedPropertyWriteBatch.reset();
+
+    mTestTimingSource = new MockTimingSource();
+    mDataFlowGraph = DataFlowGraph.create(mTestTimingSource);
+    DataFlowGraph.setInstance(mDataFlowGraph);
+  }
+
+  @After
+  public void tearDown() {
+    ComponentsConfiguration.batchAnimatedPropertyWrites = false;
+    AnimatedPropertyWriteBatch.reset();
+    DataFlowGraph.setInstance(null);
+  }
+
+  @Test
+  public void testWritesOfAFrameAreAppliedTogether() {
+    final View view = new View(application);
+    final SettableNode scaleSource = new SettableNode();
+    final SettableNode alphaSource = new SettableNode();
+
+    final GraphBinding binding = create(mDataFlowGraph);
+    binding.addBinding(scaleSource, new AnimatedPropertyNode(view, SCALE));
+    binding.addBinding(alphaSource, new AnimatedPropertyNode(view, ALPHA));
+    binding.activate();
+
+    scaleSource.setValue(2);
+    alphaSource.setValue(0.5f);
+    mTestTimingSource.step(1);
+
+    assertThat(view.getScaleX()).isEqualTo(2f);
+    assertThat(view.getAlpha()).isEqualTo(0.5f);
+    assertThat(AnimatedPropertyWriteBatch.getLastFrameWriteCount()).isEqualTo(2);
+    assertThat(AnimatedPropertyWriteBatch.getLastFrameContentCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testFadingViewHasHardwareLayerWhileAnimating() {
+    final View view = new View(application);
+    final SettableNode alphaSource = new SettableNode();
+
+    final GraphBinding binding = create(mDataFlowGraph);
+    binding.addBinding(alphaSource, new AnimatedPropertyNode(view, ALPHA));
+    binding.activate();
+
+    alphaSource.setValue(0.5f);
+    mTestTimingSource.step(1);
+
+    assertThat(view.getLayerType()).isEqualTo(View.LAYER_TYPE_HARDWARE);
+
+    binding.deactivate();
+
+    assertThat(view.getLayerType()).isEqualTo(View.LAYER_TYPE_NONE);
+  }
+
+  @Test
+  public void testReadInTheMiddleOfAFrameOnlyAppliesTheWrites() {
+    final View view = new View(application);
+    final AnimatedPropertyWriteBatch writeBatch = AnimatedPropertyWriteBatch.get();
+
+    writeBatch.write(view, ALPHA, 0.5f);
+    AnimatedPropertyWriteBatch.flushPendingWrites();
+
+    assertThat(view.getAlpha()).isEqualTo(0.5f);
+    assertThat(view.getLayerType()).isEqualTo(View.LAYER_TYPE_NONE);
+    assertThat(AnimatedPropertyWriteBatch.getLastFrameWriteCount()).isEqualTo(0);
+
+    writeBatch.write(view, SCALE, 2);
+    writeBatch.onFramePropagated();
+
+    assertThat(view.getScaleX()).isEqualTo(2f);
+    assertThat(view.getLayerType()).isEqualTo(View.LAYER_TYPE_HARDWARE);
+    assertThat(AnimatedPropertyWriteBatch.getLastFrameWriteCount()).isEqualTo(2);
+  }
+}
@@ -12,18 +12,25 @@ package com.facebook.litho.sections;
 import static com.facebook.litho.testing.sections.TestSectionCreator.TestSection;
 import static org.assertj.core.api.Java6Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 import android.os.Looper;
+import android.os.SystemClock;
 import com.facebook.litho.Component;
+import com.facebook.litho.dataflow.ChoreographerCompat;
+import com.facebook.litho.dataflow.ChoreographerCompatImpl;
 import com.facebook.litho.sections.SectionLifecycle.StateContainer;
+import com.facebook.litho.sections.config.SectionsConfiguration;
 import com.facebook.litho.testing.sections.TestSectionCreator;
 import com.facebook.litho.testing.sections.TestTarget;
 import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
 import com.facebook.litho.widget.ComponentRenderInfo;
 import com.facebook.litho.widget.RenderInfo;
+import java.util.Map;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.powermock.reflect.Whitebox;
 import org.robolectric.RuntimeEnvironment;
 import org.robolectric.Shadows;
@@ -310,6 +317,62 @@ public class SectionTreeTest {
     assertThat(((TestSection) leaf4).lastFullyVisibleIndex).isEqualTo(3);
   }
 
+  @Test
+  public void testViewPortChangedSkipsSubtreesWithoutViewportChanged() {
+    final Section leaf = TestSectionCreator.createChangeSetComponent(
+        "leaf1",
+        Change.insert(0, makeComponentInfo()),
+        Change.insert(1, makeComponentInfo()));
+    final Section node = TestSectionCreator.createSectionComponent("node1", leaf);
+    ((TestSection) leaf).implementsViewportChanged = false;
+    ((TestSection) node).implementsViewportChanged = false;
+
+    final Section root = TestSectionCreator.createSectionComponent("root", node);
+    final SectionTree tree = SectionTree.create(mSectionContext, new TestTarget()).build();
+    tree.setRoot(root);
+
+    tree.viewPortChangedFromScrolling(1, 1, 1, 1);
+
+    assertThat(((TestSection) root).firstVisibleIndex).isEqualTo(1);
+    assertThat(((TestSection) root).lastVisibleIndex).isEqualTo(1);
+
+    // Nothing in the subtree implements viewportChanged, so its ranges aren't even computed.
+    final Map<String, ?> lastRanges = Whitebox.getInternalState(tree, "mLastRanges");
+    assertThat(lastRanges).containsOnlyKeys(root.getGlobalKey());
+    assertThat(((TestSection) node).lastVisibleIndex).isEqualTo(0);
+    assertThat(((TestSection) leaf).lastVisibleIndex).isEqualTo(0);
+  }
+
+  @Test
+  public void testViewPortChangedReachesDescendantsThatImplementIt() {
+    final Section leaf1 = TestSectionCreator.createChangeSetComponent(
+        "leaf1",
+        Change.insert(0, makeComponentInfo()),
+        Change.insert(1, makeComponentInfo()));
+    final Section leaf2 = TestSectionCreator.createChangeSetComponent(
+        "leaf2",
+        Change.insert(0, makeComponentInfo()),
+        Change.insert(1, makeComponentInfo()));
+    final Section node = TestSectionCreator.createSectionComponent("node1", leaf1, leaf2);
+    ((TestSection) leaf1).implementsViewportChanged = false;
+    ((TestSection) node).implementsViewportChanged = false;
+
+    final Section root = TestSectionCreator.createSectionComponent("root", node);
+    final SectionTree tree = SectionTree.create(mSectionContext, new TestTarget()).build();
+    tree.setRoot(root);
+
+    tree.viewPortChangedFromScrolling(1, 3, 2, 3);
+
+    assertThat(((TestSection) leaf2).firstVisibleIndex).isEqualTo(0);
+    assertThat(((TestSection) leaf2).lastVisibleIndex).isEqualTo(1);
+    assertThat(((TestSection) leaf2).firstFullyVisibleIndex).isEqualTo(0);
+    assertThat(((TestSection) leaf2).lastFullyVisibleIndex).isEqualTo(1);
+
+    // The sections on the way to leaf2 that don't implement viewportChanged aren't notified.
+    assertThat(((TestSection) node).lastVisibleIndex).isEqualTo(0);
+    assertThat(((TestSection) leaf1).lastVisibleIndex).isEqualTo(0);
+  }
+
   @Test
   public void testStateUpdate() {
     final Section section = TestSectionCreator.createChangeSetComponent(
@@ -381,6 +444,81 @@ public class SectionTreeTest {
     assertThat(stateUpdate.mUpdateStateCalled).isFalse();
   }
 
+  @Test
+  public void testStateUpdatesWithinTheWindowAreCoalesced() {
+    SectionsConfiguration.stateUpdatesCoalescingWindowMs = 16;
+    SectionTree.resetMetrics();
+    try {
+      final Section section = TestSectionCreator.createChangeSetComponent(
+          "leaf1",
+          Change.insert(0, makeComponentInfo()));
+      section.setKey("key");
+
+      final TestTarget changeSetHandler = new TestTarget();
+      final SectionTree tree = SectionTree.create(mSectionContext, changeSetHandler).build();
+      tree.setRoot(section);
+
+      final StateUpdate firstStateUpdate = new StateUpdate();
+      final StateUpdate secondStateUpdate = new StateUpdate();
+      tree.updateState("key", firstStateUpdate);
+      tree.updateState("key", secondStateUpdate);
+
+      assertThat(firstStateUpdate.mUpdateStateCalled).isFalse();
+
+      ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+
+      assertThat(firstStateUpdate.mUpdateStateCalled).isTrue();
+      assertThat(secondStateUpdate.mUpdateStateCalled).isTrue();
+      assertThat(SectionTree.getStateUpdateCount()).isEqualTo(2);
+      assertThat(SectionTree.getCoalescedStateUpdateCount()).isEqualTo(1);
+    } finally {
+      SectionsConfiguration.stateUpdatesCoalescingWindowMs = 0;
+      SectionTree.resetMetrics();
+    }
+  }
+
+  @Test
+  public void testChangeSetApplicationIsSplitAcrossFrames() {
+    final ChoreographerCompat choreographer = mock(ChoreographerCompat.class);
+    ChoreographerCompatImpl.setInstance(choreographer);
+    SectionsConfiguration.changeSetApplicationFrameBudgetMs = 16;
+    try {
+      final Section section = TestSectionCreator.createChangeSetComponent(
+          "leaf1",
+          Change.insert(0, makeComponentInfo()),
+          Change.insert(1, makeComponentInfo()),
+          Change.insert(2, makeComponentInfo()));
+
+      // Each insert takes a whole frame budget.
+      final TestTarget changeSetHandler = new TestTarget() {
+        @Override
+        public void insert(int index, RenderInfo renderInfo) {
+          SystemClock.sleep(16);
+          super.insert(index, renderInfo);
+        }
+      };
+      final SectionTree tree = SectionTree.create(mSectionContext, changeSetHandler).build();
+      tree.setRoot(section);
+
+      assertThat(changeSetHandler.getNumChanges()).isEqualTo(1);
+
+      final ArgumentCaptor<ChoreographerCompat.FrameCallback> callback =
+          ArgumentCaptor.forClass(ChoreographerCompat.FrameCallback.class);
+      verify(choreographer).postFrameCallback(callback.capture());
+      callback.getValue().doFrame(0);
+
+      assertThat(changeSetHandler.getNumChanges()).isEqualTo(2);
+
+      callback.getValue().doFrame(0);
+
+      assertThat(changeSetHandler.getNumChanges()).isEqualTo(3);
+      assertThat(changeSetHandler.getOperations().get(2).mIndex).isEqualTo(2);
+    } finally {
+      SectionsConfiguration.changeSetApplicationFrameBudgetMs = 0;
+      ChoreographerCompatImpl.setInstance(null);
+    }
+  }
+
   private static class StateUpdate implements SectionLifecycle.StateUpdate {
 
     private boolean mUpdateStateCalled;
@@ -684,6 +822,35 @@ public class SectionTreeTest {
     assertThat(9).isEqualTo(changeSetHandler.getFocusedTo());
   }
 
+  @Test
+  public void testUnchangedGroupSectionReusesItsChildren() {
+    SectionsConfiguration.reuseChildrenOfUnchangedGroupSections = true;
+    try {
+      final Section leaf = TestSectionCreator.createChangeSetComponent(
+          "leaf1",
+          Change.insert(0, makeComponentInfo()));
+
+      final TestTarget changeSetHandler = new TestTarget();
+      final SectionTree tree = SectionTree.create(mSectionContext, changeSetHandler).build();
+
+      tree.setRoot(TestSectionCreator.createSectionComponent("node1", leaf));
+      assertThat(changeSetHandler.wereChangesHandled()).isTrue();
+      changeSetHandler.clear();
+
+      // The new root is equivalent to the current one, so its children are not created again.
+      tree.setRoot(TestSectionCreator.createSectionComponent("node1", leaf));
+      assertThat(changeSetHandler.wereChangesHandled()).isFalse();
+
+      final Section currentSection = Whitebox.getInternalState(tree, "mCurrentSection");
+      final Section currentLeaf = (Section) currentSection.getChildren().get(0);
+      assertThat(currentLeaf).isNotSameAs(leaf);
+      assertThat(currentLeaf.getGlobalKey()).isEqualTo(leaf.getGlobalKey());
+      assertThat(currentLeaf.getParent()).isSameAs(currentSection);
+    } finally {
+      SectionsConfiguration.reuseChildrenOfUnchangedGroupSections = false;
+    }
+  }
+
   private static RenderInfo makeComponentInfo() {
     return ComponentRenderInfo.create().component(mock(Component.class)).build();
   }
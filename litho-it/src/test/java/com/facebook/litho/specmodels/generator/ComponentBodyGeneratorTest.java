@@ -201,6 +201,22 @@ public class ComponentBodyGeneratorTest {
                 + "}\n");
   }
 
+  @Test
+  public void testGeneratePropsHashCodeMethod() {
+    TypeSpecDataHolder dataHolder =
+        ComponentBodyGenerator.generatePropsHashCodeMethod(mSpecModelDI);
+    assertThat(dataHolder.getMethodSpecs()).hasSize(1);
+    assertThat(dataHolder.getMethodSpecs().get(0).toString())
+        .isEqualTo(
+            "@java.lang.Override\n"
+                + "protected int propsHashCode() {\n"
+                + "  int result = 0;\n"
+                + "  result = 31 * result + (arg0 ? 1 : 0);\n"
+                + "  result = 31 * result + (arg4 != null ? arg4.getPropsHashCode() : 0);\n"
+                + "  return result;\n"
+                + "}\n");
+  }
+
   @Test
   public void testOnUpdateStateMethods() {
     TypeSpecDataHolder dataHolder =
@@ -128,7 +128,7 @@ public class EventGeneratorTest {
         .isEqualTo(
             "public static <T extends java.lang.CharSequence> com.facebook.litho.EventHandler<java.lang.Object> testEventMethod1(com.facebook.litho.ComponentContext c,\n" +
             "    java.lang.Object arg2, T arg3) {\n" +
-            "  return newEventHandler(c, \"testEventMethod1\", -1400079064, new Object[] {\n" +
+            "  return newEventHandler(c, \"testEventMethod1\", 0, new Object[] {\n" +
             "        c,\n" +
             "        arg2,\n" +
             "        arg3,\n" +
@@ -138,7 +138,7 @@ public class EventGeneratorTest {
     assertThat(dataHolder.getMethodSpecs().get(1).toString())
         .isEqualTo(
             "public static com.facebook.litho.EventHandler<java.lang.Object> testEventMethod2(com.facebook.litho.ComponentContext c) {\n" +
-            "  return newEventHandler(c, \"testEventMethod2\", -1400079063, new Object[] {\n" +
+            "  return newEventHandler(c, \"testEventMethod2\", 1, new Object[] {\n" +
             "        c,\n" +
             "      });\n" +
             "}\n");
@@ -153,7 +153,7 @@ public class EventGeneratorTest {
             "    final java.lang.Object eventState) {\n" +
             "  int id = eventHandler.id;\n" +
             "  switch (id) {\n" +
-            "    case -1400079064: {\n" +
+            "    case 0: {\n" +
             "      java.lang.Object _event = (java.lang.Object) eventState;\n" +
             "      testEventMethod1(\n" +
             "            eventHandler.mHasEventDispatcher,\n" +
@@ -161,7 +161,7 @@ public class EventGeneratorTest {
             "            (T) eventHandler.params[1]);\n" +
             "      return null;\n" +
             "    }\n" +
-            "    case -1400079063: {\n" +
+            "    case 1: {\n" +
             "      java.lang.Object _event = (java.lang.Object) eventState;\n" +
             "      testEventMethod2(\n" +
             "            eventHandler.mHasEventDispatcher);\n" +
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho.widget;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import com.facebook.litho.config.ComponentsConfiguration;
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/** Tests {@link CardShadowBitmapCache} */
+@RunWith(ComponentsTestRunner.class)
+public class CardShadowBitmapCacheTest {
+
+  private final Canvas mCanvas = new Canvas(Bitmap.createBitmap(1, 1, Bitmap.Config.ARGB_8888));
+
+  @Before
+  public void setup() {
+    ComponentsConfiguration.enableCardShadowBitmapCache = true;
+    CardShadowBitmapCache.reset();
+  }
+
+  @After
+  public void tearDown() {
+    ComponentsConfiguration.enableCardShadowBitmapCache = false;
+    CardShadowBitmapCache.reset();
+  }
+
+  @Test
+  public void testCardsWithSameShadowShareBitmap() {
+    final CardShadowDrawable first = createDrawable(Color.BLACK, 100);
+    final CardShadowDrawable second = createDrawable(Color.BLACK, 300);
+
+    first.draw(mCanvas);
+    second.draw(mCanvas);
+
+    assertThat(first.getShadowBitmap()).isNotNull();
+    assertThat(second.getShadowBitmap()).isSameAs(first.getShadowBitmap());
+    assertThat(CardShadowBitmapCache.getMissCount()).isEqualTo(1);
+    assertThat(CardShadowBitmapCache.getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testBitmapOnlyFitsCorners() {
+    final CardShadowDrawable drawable = createDrawable(Color.BLACK, 100);
+    drawable.draw(mCanvas);
+
+    // Corner radius plus shadow on each side, and a one pixel slice in between.
+    final Bitmap bitmap = drawable.getShadowBitmap();
+    assertThat(bitmap.getWidth())
+        .isEqualTo(2 * (10 + CardShadowDrawable.getShadowHorizontal(4)) + 1);
+    assertThat(bitmap.getHeight())
+        .isEqualTo(
+            20
+                + CardShadowDrawable.getShadowTop(4)
+                + CardShadowDrawable.getShadowBottom(4)
+                + 1);
+  }
+
+  @Test
+  public void testShadowChangeDropsBitmap() {
+    final CardShadowDrawable drawable = createDrawable(Color.BLACK, 100);
+    drawable.draw(mCanvas);
+    final Bitmap blackShadow = drawable.getShadowBitmap();
+
+    drawable.setShadowStartColor(Color.RED);
+    assertThat(drawable.getShadowBitmap()).isNull();
+
+    drawable.draw(mCanvas);
+    assertThat(drawable.getShadowBitmap()).isNotSameAs(blackShadow);
+  }
+
+  @Test
+  public void testSmallCardIsDrawnWithoutBitmap() {
+    final CardShadowDrawable drawable = createDrawable(Color.BLACK, 10);
+    drawable.draw(mCanvas);
+
+    assertThat(drawable.getShadowBitmap()).isNull();
+    assertThat(CardShadowBitmapCache.getMissCount()).isEqualTo(0);
+  }
+
+  private static CardShadowDrawable createDrawable(int shadowStartColor, int size) {
+    final CardShadowDrawable drawable = new CardShadowDrawable();
+    drawable.setShadowStartColor(shadowStartColor);
+    drawable.setShadowEndColor(Color.TRANSPARENT);
+    drawable.setCornerRadius(10);
+    drawable.setShadowSize(4);
+    drawable.setBounds(0, 0, size, size);
+    return drawable;
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho.widget;
+
+import static com.facebook.litho.SizeSpec.EXACTLY;
+import static com.facebook.litho.SizeSpec.UNSPECIFIED;
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.powermock.reflect.Whitebox.getInternalState;
+
+import com.facebook.litho.ComponentContext;
+import com.facebook.litho.ComponentTree;
+import com.facebook.litho.LayoutHandler;
+import com.facebook.litho.Size;
+import com.facebook.litho.SizeSpec;
+import com.facebook.litho.testing.TestDrawableComponent;
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RuntimeEnvironment;
+
+/** Tests {@link ComponentTreeHolder} */
+@RunWith(ComponentsTestRunner.class)
+public class ComponentTreeHolderTest {
+
+  private static final int PORTRAIT_WIDTH_SPEC = SizeSpec.makeSizeSpec(100, EXACTLY);
+  private static final int LANDSCAPE_WIDTH_SPEC = SizeSpec.makeSizeSpec(200, EXACTLY);
+  private static final int HEIGHT_SPEC = SizeSpec.makeSizeSpec(0, UNSPECIFIED);
+
+  private ComponentContext mContext;
+  private ComponentTreeHolder mComponentTreeHolder;
+
+  @Before
+  public void setup() {
+    mContext = new ComponentContext(RuntimeEnvironment.application);
+    mComponentTreeHolder =
+        ComponentTreeHolder.acquire(
+            ComponentRenderInfo.create()
+                .component(TestDrawableComponent.create(mContext).build())
+                .build(),
+            new LayoutHandler() {
+              @Override
+              public boolean post(Runnable runnable) {
+                runnable.run();
+                return true;
+              }
+
+              @Override
+              public void removeCallbacks(Runnable runnable) {}
+
+              @Override
+              public void removeCallbacksAndMessages(Object token) {}
+            },
+            false,
+            false);
+  }
+
+  @Test
+  public void testTreeIsRestoredForPreviousSizeSpec() {
+    mComponentTreeHolder.computeLayoutSync(mContext, PORTRAIT_WIDTH_SPEC, HEIGHT_SPEC, new Size());
+    final ComponentTree portraitTree = mComponentTreeHolder.getComponentTree();
+
+    mComponentTreeHolder.invalidateTreeForSizeSpecChange(2);
+    assertThat(mComponentTreeHolder.isTreeValid()).isFalse();
+    assertThat(mComponentTreeHolder.hasLayoutForSizeSpec(PORTRAIT_WIDTH_SPEC, HEIGHT_SPEC))
+        .isTrue();
+
+    mComponentTreeHolder.computeLayoutSync(mContext, LANDSCAPE_WIDTH_SPEC, HEIGHT_SPEC, new Size());
+    final ComponentTree landscapeTree = mComponentTreeHolder.getComponentTree();
+    assertThat(landscapeTree).isNotSameAs(portraitTree);
+
+    mComponentTreeHolder.invalidateTreeForSizeSpecChange(2);
+    final Size size = new Size();
+    mComponentTreeHolder.computeLayoutSync(mContext, PORTRAIT_WIDTH_SPEC, HEIGHT_SPEC, size);
+
+    assertThat(mComponentTreeHolder.getComponentTree()).isSameAs(portraitTree);
+    assertThat(mComponentTreeHolder.isTreeValid()).isTrue();
+    assertThat(size.width).isEqualTo(100);
+    assertThat(mComponentTreeHolder.hasLayoutForSizeSpec(LANDSCAPE_WIDTH_SPEC, HEIGHT_SPEC))
+        .isTrue();
+  }
+
+  @Test
+  public void testTreeIsNotKeptWithoutCapacity() {
+    mComponentTreeHolder.computeLayoutSync(mContext, PORTRAIT_WIDTH_SPEC, HEIGHT_SPEC, new Size());
+
+    mComponentTreeHolder.invalidateTreeForSizeSpecChange(0);
+
+    assertThat(mComponentTreeHolder.hasLayoutForSizeSpec(PORTRAIT_WIDTH_SPEC, HEIGHT_SPEC))
+        .isFalse();
+  }
+
+  @Test
+  public void testTreesAreDroppedWhenRenderInfoChanges() {
+    mComponentTreeHolder.computeLayoutSync(mContext, PORTRAIT_WIDTH_SPEC, HEIGHT_SPEC, new Size());
+    mComponentTreeHolder.invalidateTreeForSizeSpecChange(2);
+
+    final RenderInfo renderInfo =
+        ComponentRenderInfo.create()
+            .component(TestDrawableComponent.create(mContext).build())
+            .build();
+    mComponentTreeHolder.setRenderInfo(renderInfo);
+
+    assertThat(mComponentTreeHolder.hasLayoutForSizeSpec(PORTRAIT_WIDTH_SPEC, HEIGHT_SPEC))
+        .isFalse();
+  }
+
+  @Test
+  public void testPrecomputeLayoutForOtherSizeSpec() {
+    mComponentTreeHolder.computeLayoutSync(mContext, PORTRAIT_WIDTH_SPEC, HEIGHT_SPEC, new Size());
+    final ComponentTree portraitTree = mComponentTreeHolder.getComponentTree();
+
+    mComponentTreeHolder.precomputeLayoutForSizeSpecAsync(
+        mContext, LANDSCAPE_WIDTH_SPEC, HEIGHT_SPEC, 2);
+
+    assertThat(mComponentTreeHolder.getComponentTree()).isSameAs(portraitTree);
+    assertThat(mComponentTreeHolder.isTreeValid()).isTrue();
+    assertThat(mComponentTreeHolder.hasLayoutForSizeSpec(LANDSCAPE_WIDTH_SPEC, HEIGHT_SPEC))
+        .isTrue();
+
+    mComponentTreeHolder.invalidateTreeForSizeSpecChange(2);
+    mComponentTreeHolder.computeLayoutAsync(mContext, LANDSCAPE_WIDTH_SPEC, HEIGHT_SPEC);
+
+    assertThat(mComponentTreeHolder.getComponentTree()).isNotSameAs(portraitTree);
+    assertThat(mComponentTreeHolder.hasLayoutForSizeSpec(PORTRAIT_WIDTH_SPEC, HEIGHT_SPEC))
+        .isTrue();
+  }
+
+  @Test
+  public void testRotationKeepsPrecomputedTreeWithASingleKeptTree() {
+    mComponentTreeHolder.computeLayoutSync(mContext, PORTRAIT_WIDTH_SPEC, HEIGHT_SPEC, new Size());
+    mComponentTreeHolder.precomputeLayoutForSizeSpecAsync(
+        mContext, LANDSCAPE_WIDTH_SPEC, HEIGHT_SPEC, 1);
+    final List<?> sizeSpecTrees = getInternalState(mComponentTreeHolder, "mSizeSpecTrees");
+    final ComponentTree precomputedTree = getInternalState(sizeSpecTrees.get(0), "mComponentTree");
+
+    mComponentTreeHolder.invalidateTreeForSizeSpecChange(1);
+
+    assertThat(mComponentTreeHolder.hasLayoutForSizeSpec(LANDSCAPE_WIDTH_SPEC, HEIGHT_SPEC))
+        .isTrue();
+
+    mComponentTreeHolder.computeLayoutSync(mContext, LANDSCAPE_WIDTH_SPEC, HEIGHT_SPEC, new Size());
+
+    assertThat(mComponentTreeHolder.getComponentTree()).isSameAs(precomputedTree);
+    assertThat(precomputedTree.isReleased()).isFalse();
+  }
+}
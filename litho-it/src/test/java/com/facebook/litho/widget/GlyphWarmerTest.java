@@ -17,14 +17,15 @@ import android.graphics.Canvas;
 import android.graphics.Picture;
 import android.text.Layout;
 import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.robolectric.Shadows;
 import org.robolectric.annotation.Config;
 import org.robolectric.annotation.Implementation;
 import org.robolectric.annotation.Implements;
-import org.robolectric.shadows.ShadowLooper;
 
 /**
  * Tests {@link GlyphWarmer}.
@@ -32,20 +33,27 @@ import org.robolectric.shadows.ShadowLooper;
 @RunWith(ComponentsTestRunner.class)
 @Config(shadows = GlyphWarmerTest.ShadowPicture.class)
 public class GlyphWarmerTest {
-  private ShadowLooper mShadowLooper;
+  private final List<Runnable> mPendingRunnables = new ArrayList<>();
   private GlyphWarmer mGlyphWarmer;
 
   @Before
   public void setup() {
-    mGlyphWarmer = GlyphWarmer.getInstance();
-    mShadowLooper = Shadows.shadowOf(mGlyphWarmer.getWarmerLooper());
+    mGlyphWarmer =
+        new GlyphWarmer(
+            new TextPrefetcher(
+                new Executor() {
+                  @Override
+                  public void execute(Runnable runnable) {
+                    mPendingRunnables.add(runnable);
+                  }
+                }));
   }
 
   @Test
   public void testWarmGlyph() {
     Layout layout = mock(Layout.class);
     mGlyphWarmer.warmLayout(layout);
-    mShadowLooper.runOneTask();
+    mPendingRunnables.remove(0).run();
     verify(layout).draw(any(Canvas.class));
   }
 
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho.widget;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/** Tests {@link ItemSizeStatistics} */
+@RunWith(ComponentsTestRunner.class)
+public class ItemSizeStatisticsTest {
+
+  private ItemSizeStatistics mItemSizeStatistics;
+
+  @Before
+  public void setup() {
+    mItemSizeStatistics = new ItemSizeStatistics();
+  }
+
+  @Test
+  public void testNoEstimateWithoutEnoughSamples() {
+    mItemSizeStatistics.addSample("Header", 10);
+
+    assertThat(mItemSizeStatistics.getEstimatedItemSize()).isEqualTo(-1);
+  }
+
+  @Test
+  public void testOutliersDontMoveTheEstimate() {
+    mItemSizeStatistics.addSample("Header", 10);
+    for (int i = 0; i < 8; i++) {
+      mItemSizeStatistics.addSample("Story", 300);
+    }
+    mItemSizeStatistics.addSample("Hero", 2000);
+
+    assertThat(mItemSizeStatistics.getEstimatedItemSize()).isEqualTo(300);
+  }
+
+  @Test
+  public void testOldSamplesLeaveTheWindow() {
+    for (int i = 0; i < 100; i++) {
+      mItemSizeStatistics.addSample("Story", 300);
+    }
+    for (int i = 0; i < 100; i++) {
+      mItemSizeStatistics.addSample("Photo", 500);
+    }
+
+    assertThat(mItemSizeStatistics.getEstimatedItemSize()).isEqualTo(500);
+    assertThat(mItemSizeStatistics.getSampleCount()).isEqualTo(200);
+  }
+
+  @Test
+  public void testAverageIsKeptPerRenderType() {
+    mItemSizeStatistics.addSample("Story", 300);
+    mItemSizeStatistics.addSample("Story", 400);
+    mItemSizeStatistics.addSample("Photo", 500);
+
+    assertThat(mItemSizeStatistics.getAverageItemSize("Story")).isEqualTo(320);
+    assertThat(mItemSizeStatistics.getAverageItemSize("Photo")).isEqualTo(500);
+    assertThat(mItemSizeStatistics.getAverageItemSize("Header")).isEqualTo(-1);
+  }
+
+  @Test
+  public void testEmptySizesAreIgnored() {
+    mItemSizeStatistics.addSample("Story", 0);
+
+    assertThat(mItemSizeStatistics.getSampleCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testReset() {
+    for (int i = 0; i < 4; i++) {
+      mItemSizeStatistics.addSample("Story", 300);
+    }
+
+    mItemSizeStatistics.reset();
+
+    assertThat(mItemSizeStatistics.getEstimatedItemSize()).isEqualTo(-1);
+    assertThat(mItemSizeStatistics.getAverageItemSize("Story")).isEqualTo(-1);
+  }
+}
@@ -16,6 +16,7 @@ import static com.facebook.litho.widget.ComponentRenderInfo.create;
 import static org.assertj.core.api.Java6Assertions.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -96,6 +97,7 @@ public class RecyclerBinderTest {
   }
 
   private final Map<Component, TestComponentTreeHolder> mHoldersForComponents = new HashMap<>();
+  private RecyclerBinder.ComponentTreeHolderFactory mComponentTreeHolderFactory;
   private RecyclerBinder mRecyclerBinder;
   private RecyclerBinder mCircularRecyclerBinder;
   private LayoutInfo mLayoutInfo;
@@ -108,7 +110,7 @@ public class RecyclerBinderTest {
 
     mComponentContext = new ComponentContext(RuntimeEnvironment.application);
 
-    final RecyclerBinder.ComponentTreeHolderFactory componentTreeHolderFactory =
+    mComponentTreeHolderFactory =
         new RecyclerBinder.ComponentTreeHolderFactory() {
           @Override
           public ComponentTreeHolder create(
@@ -134,7 +136,7 @@ public class RecyclerBinderTest {
     mRecyclerBinder = new RecyclerBinder.Builder()
         .rangeRatio(RANGE_RATIO)
         .layoutInfo(mLayoutInfo)
-        .componentTreeHolderFactory(componentTreeHolderFactory)
+        .componentTreeHolderFactory(mComponentTreeHolderFactory)
         .build(mComponentContext);
 
     mRenderInfoViewCreatorController = mRecyclerBinder.mRenderInfoViewCreatorController;
@@ -143,7 +145,7 @@ public class RecyclerBinderTest {
         new RecyclerBinder.Builder()
             .rangeRatio(RANGE_RATIO)
             .layoutInfo(mCircularLayoutInfo)
-            .componentTreeHolderFactory(componentTreeHolderFactory)
+            .componentTreeHolderFactory(mComponentTreeHolderFactory)
             .isCircular(true)
             .build(mComponentContext);
   }
@@ -686,6 +688,26 @@ public class RecyclerBinderTest {
     }
   }
 
+  @Test
+  public void testDistanceToViewportIsResetOutsideRange() {
+    final RecyclerBinder recyclerBinder =
+        new RecyclerBinder.Builder()
+            .rangeRatio(RANGE_RATIO)
+            .layoutInfo(mLayoutInfo)
+            .componentTreeHolderFactory(mComponentTreeHolderFactory)
+            .canPrefetchDisplayLists(true)
+            .build(mComponentContext);
+    final List<ComponentRenderInfo> components = prepareLoadedBinder(recyclerBinder, 100);
+
+    recyclerBinder.onNewVisibleRange(0, 2);
+    final ComponentTree componentTree =
+        mHoldersForComponents.get(components.get(5).getComponent()).getComponentTree();
+    verify(componentTree, atLeastOnce()).setDistanceToViewport(3);
+
+    recyclerBinder.onNewVisibleRange(40, 42);
+    verify(componentTree).setDistanceToViewport(ComponentTree.DISTANCE_TO_VIEWPORT_UNKNOWN);
+  }
+
   @Test
   public void testMoveRangeToEnd() {
     final List<ComponentRenderInfo> components = prepareLoadedBinder();
@@ -1185,6 +1207,24 @@ public class RecyclerBinderTest {
     assertThat(mRecyclerBinder.getRangeCalculationResult()).isNotNull();
   }
 
+  @Test
+  public void testRangeIsReestimatedFromMeasuredItems() {
+    mRecyclerBinder.insertItemAt(0, create().component(mock(Component.class)).build());
+    mRecyclerBinder.measure(
+        new Size(), makeSizeSpec(200, EXACTLY), makeSizeSpec(200, EXACTLY), null);
+    assertThat(mRecyclerBinder.getEstimatedViewportCount()).isEqualTo(RANGE_SIZE);
+
+    when(mLayoutInfo.approximateRangeSize(100, 100, 200, 200)).thenReturn(RANGE_SIZE + 2);
+    for (int i = 1; i < ItemSizeStatistics.MIN_SAMPLES_FOR_ESTIMATE; i++) {
+      // Items inserted in the visible range are laid out, and measured, synchronously.
+      mRecyclerBinder.insertItemAt(i, create().component(mock(Component.class)).build());
+    }
+    mRecyclerBinder.onNewVisibleRange(0, 1);
+
+    assertThat(mRecyclerBinder.getItemSizeStatistics().getEstimatedItemSize()).isEqualTo(100);
+    assertThat(mRecyclerBinder.getEstimatedViewportCount()).isEqualTo(RANGE_SIZE + 2);
+  }
+
   @Test
   public void testMixedContentFirstItemIsViewRangeInitialized() {
     prepareMixedLoadedBinder(
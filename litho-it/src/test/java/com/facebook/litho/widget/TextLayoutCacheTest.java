@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho.widget;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+import android.graphics.Color;
+import android.support.v4.text.TextDirectionHeuristicsCompat;
+import android.text.Spannable;
+import com.facebook.litho.Component;
+import com.facebook.litho.ComponentContext;
+import com.facebook.litho.config.ComponentsConfiguration;
+import com.facebook.litho.testing.helper.ComponentTestHelper;
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RuntimeEnvironment;
+
+/** Tests {@link TextLayoutCache} */
+@RunWith(ComponentsTestRunner.class)
+public class TextLayoutCacheTest {
+
+  private ComponentContext mContext;
+
+  @Before
+  public void setup() {
+    mContext = new ComponentContext(RuntimeEnvironment.application);
+    ComponentsConfiguration.enableTextLayoutCache = true;
+    TextLayoutCache.reset();
+  }
+
+  @After
+  public void tearDown() {
+    ComponentsConfiguration.enableTextLayoutCache = false;
+    TextLayoutCache.reset();
+  }
+
+  @Test
+  public void testIdenticalTextIsServedFromCache() {
+    mountText("Some text", Color.RED);
+    assertThat(TextLayoutCache.getHitCount()).isEqualTo(0);
+    assertThat(TextLayoutCache.getMissCount()).isGreaterThan(0);
+
+    mountText("Some text", Color.RED);
+    assertThat(TextLayoutCache.getHitCount()).isGreaterThan(0);
+    assertThat(TextLayoutCache.getHitRate()).isGreaterThan(0f);
+  }
+
+  @Test
+  public void testTextsOfDifferentColorsDontShareLayouts() {
+    final TextDrawable red = mountText("Some text", Color.RED);
+    final TextDrawable green = mountText("Some text", Color.GREEN);
+
+    assertThat(TextLayoutCache.getHitCount()).isEqualTo(0);
+    assertThat(red.getColor()).isEqualTo(Color.RED);
+    assertThat(green.getColor()).isEqualTo(Color.GREEN);
+  }
+
+  @Test
+  public void testTextWithColorStateListIsNotCached() {
+    final Component<Text> text = Text.create(mContext).text("Some text").build();
+    ComponentTestHelper.mountComponent(mContext, text);
+    ComponentTestHelper.mountComponent(mContext, text);
+
+    assertThat(TextLayoutCache.getHitCount()).isEqualTo(0);
+    assertThat(TextLayoutCache.getMissCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testSpannedTextIsNotCached() {
+    mountText(Spannable.Factory.getInstance().newSpannable("Some text"), Color.RED);
+    mountText(Spannable.Factory.getInstance().newSpannable("Some text"), Color.RED);
+
+    assertThat(TextLayoutCache.getHitCount()).isEqualTo(0);
+    assertThat(TextLayoutCache.getMissCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testCacheIsDisabledByDefault() {
+    ComponentsConfiguration.enableTextLayoutCache = false;
+
+    mountText("Some text", Color.RED);
+    mountText("Some text", Color.RED);
+
+    assertThat(TextLayoutCache.getHitCount()).isEqualTo(0);
+    assertThat(TextLayoutCache.getMissCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testKeyEquality() {
+    assertThat(createKey("text", 100)).isEqualTo(createKey("text", 100));
+    assertThat(createKey("text", 100).hashCode()).isEqualTo(createKey("text", 100).hashCode());
+    assertThat(createKey("text", 100)).isNotEqualTo(createKey("text", 200));
+    assertThat(createKey("text", 100)).isNotEqualTo(createKey("other text", 100));
+    assertThat(createKey("text", 100, Color.RED)).isNotEqualTo(createKey("text", 100, Color.GREEN));
+  }
+
+  private TextDrawable mountText(CharSequence text, int color) {
+    return (TextDrawable)
+        ComponentTestHelper.mountComponent(
+                mContext, Text.create(mContext).text(text).textColor(color).build())
+            .getDrawables()
+            .get(0);
+  }
+
+  private static TextLayoutCache.Key createKey(String text, int widthSpec) {
+    return createKey(text, widthSpec, Color.BLACK);
+  }
+
+  private static TextLayoutCache.Key createKey(String text, int widthSpec, int textColor) {
+    return new TextLayoutCache.Key(
+        text,
+        widthSpec,
+        null,
+        true,
+        Integer.MAX_VALUE,
+        0,
+        0,
+        0,
+        Color.GRAY,
+        false,
+        0,
+        textColor,
+        13,
+        0,
+        1,
+        0,
+        null,
+        null,
+        TextDirectionHeuristicsCompat.FIRSTSTRONG_LTR,
+        -1,
+        -1,
+        0,
+        Integer.MAX_VALUE);
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho.widget;
+
+import static com.facebook.litho.SizeSpec.EXACTLY;
+import static com.facebook.litho.SizeSpec.UNSPECIFIED;
+import static com.facebook.litho.it.R.style.TextSizeStyle;
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.text.Layout;
+import android.text.SpannableString;
+import com.facebook.litho.Column;
+import com.facebook.litho.Component;
+import com.facebook.litho.ComponentContext;
+import com.facebook.litho.Size;
+import com.facebook.litho.SizeSpec;
+import com.facebook.litho.config.ComponentsConfiguration;
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import com.facebook.yoga.YogaEdge;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+/** Tests {@link TextPrefetcher} */
+@RunWith(ComponentsTestRunner.class)
+@Config(shadows = GlyphWarmerTest.ShadowPicture.class)
+public class TextPrefetcherTest {
+
+  private final List<Runnable> mPendingRunnables = new ArrayList<>();
+  private ComponentContext mContext;
+  private TextPrefetcher mTextPrefetcher;
+
+  @Before
+  public void setup() {
+    mContext = new ComponentContext(RuntimeEnvironment.application);
+    mTextPrefetcher =
+        new TextPrefetcher(
+            new Executor() {
+              @Override
+              public void execute(Runnable runnable) {
+                mPendingRunnables.add(runnable);
+              }
+            });
+
+    ComponentsConfiguration.enableTextLayoutCache = true;
+    TextLayoutCache.reset();
+  }
+
+  @After
+  public void tearDown() {
+    ComponentsConfiguration.enableTextLayoutCache = false;
+    TextLayoutCache.reset();
+  }
+
+  @Test
+  public void testClosestTasksRunFirst() {
+    final Layout far = mock(Layout.class);
+    final Layout close = mock(Layout.class);
+    final Layout visible = mock(Layout.class);
+
+    mTextPrefetcher.warmLayout(far, 10);
+    mTextPrefetcher.warmLayout(close, 2);
+    mTextPrefetcher.warmLayout(visible, TextPrefetcher.DISTANCE_VISIBLE);
+    assertThat(mTextPrefetcher.getPendingTaskCount()).isEqualTo(3);
+
+    runPendingTasks();
+
+    final InOrder inOrder = inOrder(visible, close, far);
+    inOrder.verify(visible).draw(any(Canvas.class));
+    inOrder.verify(close).draw(any(Canvas.class));
+    inOrder.verify(far).draw(any(Canvas.class));
+    assertThat(mTextPrefetcher.getPendingTaskCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testPrefetchedTextIsServedFromCache() {
+    final Component<Text> text =
+        Text.create(mContext).text("Some text").textColor(Color.BLACK).build();
+    final int widthSpec = SizeSpec.makeSizeSpec(100, EXACTLY);
+
+    mTextPrefetcher.prefetch(mContext, text, widthSpec, 1);
+    runPendingTasks();
+    assertThat(TextLayoutCache.getHitCount()).isEqualTo(0);
+    final int prefetchMissCount = TextLayoutCache.getMissCount();
+
+    layOutItem(text, widthSpec);
+    assertThat(TextLayoutCache.getHitCount()).isGreaterThan(0);
+    assertThat(TextLayoutCache.getMissCount()).isEqualTo(prefetchMissCount);
+  }
+
+  @Test
+  public void testPrefetchedStyledTextIsServedFromCache() {
+    // The text size comes from the style, and the padding narrows the width the text is measured
+    // with down from the width of the item.
+    final Component<Text> text =
+        Text.create(mContext, 0, TextSizeStyle)
+            .text("Some styled text")
+            .textColor(Color.BLACK)
+            .paddingPx(YogaEdge.HORIZONTAL, 10)
+            .build();
+    final int widthSpec = SizeSpec.makeSizeSpec(100, EXACTLY);
+
+    mTextPrefetcher.prefetch(mContext, text, widthSpec, 1);
+    runPendingTasks();
+    assertThat(TextLayoutCache.getHitCount()).isEqualTo(0);
+    final int prefetchMissCount = TextLayoutCache.getMissCount();
+
+    layOutItem(text, widthSpec);
+    assertThat(TextLayoutCache.getHitCount()).isGreaterThan(0);
+    assertThat(TextLayoutCache.getMissCount()).isEqualTo(prefetchMissCount);
+  }
+
+  @Test
+  public void testNothingIsPrefetchedWithoutCache() {
+    ComponentsConfiguration.enableTextLayoutCache = false;
+
+    mTextPrefetcher.prefetch(
+        mContext,
+        Text.create(mContext).text("Some text").textColor(Color.BLACK).build(),
+        SizeSpec.makeSizeSpec(100, EXACTLY),
+        1);
+
+    assertThat(mTextPrefetcher.getPendingTaskCount()).isEqualTo(0);
+    assertThat(mPendingRunnables).isEmpty();
+  }
+
+  @Test
+  public void testSpannedTextIsNotPrefetched() {
+    mTextPrefetcher.prefetch(
+        mContext,
+        Text.create(mContext)
+            .text(new SpannableString("Some text"))
+            .textColor(Color.BLACK)
+            .build(),
+        SizeSpec.makeSizeSpec(100, EXACTLY),
+        1);
+
+    assertThat(mTextPrefetcher.getPendingTaskCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testTextWithColorStateListIsNotPrefetched() {
+    mTextPrefetcher.prefetch(
+        mContext,
+        Text.create(mContext).text("Some text").build(),
+        SizeSpec.makeSizeSpec(100, EXACTLY),
+        1);
+
+    assertThat(mTextPrefetcher.getPendingTaskCount()).isEqualTo(0);
+  }
+
+  private void layOutItem(Component<Text> text, int widthSpec) {
+    Column.create(mContext)
+        .child(text)
+        .build()
+        .measure(mContext, widthSpec, SizeSpec.makeSizeSpec(0, UNSPECIFIED), new Size());
+  }
+
+  private void runPendingTasks() {
+    while (!mPendingRunnables.isEmpty()) {
+      mPendingRunnables.remove(0).run();
+    }
+  }
+}
@@ -12,10 +12,12 @@ package com.facebook.litho.widget;
 import static org.assertj.core.api.Java6Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import android.content.res.ColorStateList;
 import android.graphics.Color;
 import android.graphics.Typeface;
+import android.text.Layout;
 import android.text.Spannable;
 import android.text.style.ClickableSpan;
 import android.util.SparseArray;
@@ -270,4 +272,66 @@ public class TextSpecTest {
         .isInstanceOf(SynchronizedTypefaceHelper.SynchronizedTypefaceSparseArray.class);
     assertThat(gotSparseArray.get(1)).isSameAs(Typeface.DEFAULT);
   }
+
+  @Test
+  public void testMeasuredLayoutIsReusedForSameWidth() {
+    final Layout layout = mockLayout("Some text.", 100, new int[] {10}, new float[] {60});
+
+    assertThat(
+            TextSpec.canReuseMeasuredLayout(layout, 100, 100, Layout.Alignment.ALIGN_CENTER))
+        .isTrue();
+  }
+
+  @Test
+  public void testMeasuredLayoutIsReusedForNarrowerWidthWhenLinesFit() {
+    final Layout layout =
+        mockLayout("Some text. Other text.", 100, new int[] {11, 22}, new float[] {60, 70});
+
+    assertThat(TextSpec.canReuseMeasuredLayout(layout, 100, 80, Layout.Alignment.ALIGN_NORMAL))
+        .isTrue();
+    assertThat(TextSpec.canReuseMeasuredLayout(layout, 100, 65, Layout.Alignment.ALIGN_NORMAL))
+        .isFalse();
+  }
+
+  @Test
+  public void testMeasuredLayoutIsNotReusedForWiderWidthWithSoftBreaks() {
+    final Layout softBreaks =
+        mockLayout("Some text. Other text.", 100, new int[] {11, 22}, new float[] {60, 70});
+    final Layout hardBreaks =
+        mockLayout("Some text.\nOther text.", 100, new int[] {11, 22}, new float[] {60, 70});
+
+    assertThat(
+            TextSpec.canReuseMeasuredLayout(softBreaks, 100, 120, Layout.Alignment.ALIGN_NORMAL))
+        .isFalse();
+    assertThat(
+            TextSpec.canReuseMeasuredLayout(hardBreaks, 100, 120, Layout.Alignment.ALIGN_NORMAL))
+        .isTrue();
+  }
+
+  @Test
+  public void testMeasuredLayoutIsNotReusedForCenteredOrEllipsizedText() {
+    final Layout layout = mockLayout("Some text.", 100, new int[] {10}, new float[] {60});
+
+    assertThat(TextSpec.canReuseMeasuredLayout(layout, 100, 80, Layout.Alignment.ALIGN_CENTER))
+        .isFalse();
+
+    when(layout.getEllipsisCount(0)).thenReturn(3);
+    assertThat(TextSpec.canReuseMeasuredLayout(layout, 100, 80, Layout.Alignment.ALIGN_NORMAL))
+        .isFalse();
+  }
+
+  private static Layout mockLayout(
+      CharSequence text, int width, int[] lineEnds, float[] lineWidths) {
+    final Layout layout = mock(Layout.class);
+    when(layout.getText()).thenReturn(text);
+    when(layout.getWidth()).thenReturn(width);
+    when(layout.getLineCount()).thenReturn(lineEnds.length);
+    for (int i = 0; i < lineEnds.length; i++) {
+      when(layout.getLineEnd(i)).thenReturn(lineEnds[i]);
+      when(layout.getLineWidth(i)).thenReturn(lineWidths[i]);
+      when(layout.getParagraphDirection(i)).thenReturn(Layout.DIR_LEFT_TO_RIGHT);
+    }
+
+    return layout;
+  }
 }
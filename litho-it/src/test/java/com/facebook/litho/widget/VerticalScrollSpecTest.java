@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho.widget;
+
+import static com.facebook.litho.SizeSpec.EXACTLY;
+import static com.facebook.litho.SizeSpec.makeSizeSpec;
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+import android.view.ViewGroup;
+import com.facebook.litho.Component;
+import com.facebook.litho.ComponentContext;
+import com.facebook.litho.ComponentTree;
+import com.facebook.litho.LithoView;
+import com.facebook.litho.testing.TestDrawableComponent;
+import com.facebook.litho.testing.helper.ComponentTestHelper;
+import com.facebook.litho.testing.testrunner.ComponentsTestRunner;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RuntimeEnvironment;
+
+/** Tests {@link VerticalScrollSpec} */
+@RunWith(ComponentsTestRunner.class)
+public class VerticalScrollSpecTest {
+  private ComponentContext mContext;
+
+  @Before
+  public void setup() {
+    mContext = new ComponentContext(RuntimeEnvironment.application);
+  }
+
+  @Test
+  public void testUpdatedScrollKeepsTheTreeOfItsContent() {
+    final Component<?> content = TestDrawableComponent.create(mContext).build();
+    final ComponentTree componentTree =
+        ComponentTree.create(mContext, createScroll(content, true)).build();
+    final LithoView lithoView =
+        ComponentTestHelper.mountComponent(new LithoView(mContext), componentTree);
+    final ComponentTree contentTree = getContentTree(lithoView);
+
+    // Updating a prop unmounts the scroll view and mounts it again.
+    componentTree.setRoot(createScroll(content, false));
+    lithoView.measure(makeSizeSpec(100, EXACTLY), makeSizeSpec(100, EXACTLY));
+    lithoView.layout(0, 0, lithoView.getMeasuredWidth(), lithoView.getMeasuredHeight());
+
+    assertThat(lithoView.getChildAt(0).isVerticalScrollBarEnabled()).isFalse();
+    assertThat(getContentTree(lithoView)).isSameAs(contentTree);
+    assertThat(contentTree.isReleased()).isFalse();
+  }
+
+  private Component<?> createScroll(Component<?> content, boolean scrollbarEnabled) {
+    return VerticalScroll.create(mContext)
+        .childComponent(content)
+        .scrollbarEnabled(scrollbarEnabled)
+        .build();
+  }
+
+  private static ComponentTree getContentTree(LithoView lithoView) {
+    final ViewGroup scrollView = (ViewGroup) lithoView.getChildAt(0);
+    return ((LithoView) scrollView.getChildAt(0)).getComponentTree();
+  }
+}
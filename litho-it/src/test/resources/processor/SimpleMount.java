@@ -70,6 +70,14 @@ public final class SimpleMount extends Component<SimpleMount> {
     return true;
   }
 
+  @Override
+  protected int propsHashCode() {
+    int result = 0;
+    result = 31 * result + (int) (Double.doubleToLongBits(ratio) ^ (Double.doubleToLongBits(ratio) >>> 32));
+    result = 31 * result + (content != null ? content.getPropsHashCode() : 0);
+    return result;
+  }
+
   @Override
   public SimpleMount makeShallowCopy() {
     SimpleMount component = (SimpleMount) super.makeShallowCopy();
@@ -162,6 +162,19 @@ public final class TestLayout<S extends View> extends Component<TestLayout> {
     return true;
   }
 
+  @Override
+  protected int propsHashCode() {
+    int result = 0;
+    result = 31 * result + prop1;
+    result = 31 * result + (int) (prop6 ^ (prop6 >>> 32));
+    result = 31 * result + (prop2 ? 1 : 0);
+    result = 31 * result + (prop3 != null ? prop3.hashCode() : 0);
+    result = 31 * result + Arrays.hashCode(prop4);
+    result = 31 * result + (child != null ? child.hashCode() : 0);
+    result = 31 * result + prop5;
+    return result;
+  }
+
   private UpdateCurrentStateStateUpdate createUpdateCurrentStateStateUpdate(int someParam) {
     return new UpdateCurrentStateStateUpdate(someParam);
   }
@@ -292,7 +305,7 @@ public final class TestLayout<S extends View> extends Component<TestLayout> {
   }
 
   public static EventHandler<ClickEvent> testLayoutEvent(ComponentContext c, int param1) {
-    return newEventHandler(c, "testLayoutEvent", 1328162206, new Object[] {
+    return newEventHandler(c, "testLayoutEvent", 0, new Object[] {
         c,
         param1,
     });
@@ -302,7 +315,7 @@ public final class TestLayout<S extends View> extends Component<TestLayout> {
   public Object dispatchOnEvent(final EventHandler eventHandler, final Object eventState) {
     int id = eventHandler.id;
     switch (id) {
-      case 1328162206: {
+      case 0: {
         ClickEvent _event = (ClickEvent) eventState;
         testLayoutEvent(
             eventHandler.mHasEventDispatcher,
@@ -172,6 +172,20 @@ public final class TestMount<S extends View> extends Component<TestMount> {
     return true;
   }
 
+  @Override
+  protected int propsHashCode() {
+    int result = 0;
+    result = 31 * result + prop1;
+    result = 31 * result + (int) (prop6 ^ (prop6 >>> 32));
+    result = 31 * result + (prop3 != null ? prop3.hashCode() : 0);
+    result = 31 * result + Arrays.hashCode(prop4);
+    result = 31 * result + (prop2 ? 1 : 0);
+    result = 31 * result + (int) (prop8 ^ (prop8 >>> 32));
+    result = 31 * result + (prop7 != null ? prop7.hashCode() : 0);
+    result = 31 * result + prop5;
+    return result;
+  }
+
   @Override
   protected void copyInterStageImpl(Component component) {
     TestMount testMountRef = (TestMount) component;
@@ -455,7 +469,7 @@ public final class TestMount<S extends View> extends Component<TestMount> {
   }
 
   public static EventHandler<ClickEvent> testLayoutEvent(ComponentContext c, int param1) {
-    return newEventHandler(c, "testLayoutEvent", 1328162206, new Object[] {
+    return newEventHandler(c, "testLayoutEvent", 0, new Object[] {
         c,
         param1,
     });
@@ -465,7 +479,7 @@ public final class TestMount<S extends View> extends Component<TestMount> {
   public Object dispatchOnEvent(final EventHandler eventHandler, final Object eventState) {
     int id = eventHandler.id;
     switch (id) {
-      case 1328162206: {
+      case 0: {
         ClickEvent _event = (ClickEvent) eventState;
         testLayoutEvent(
             eventHandler.mHasEventDispatcher,
@@ -113,6 +113,16 @@ public final class FullDiffSection<T> extends Section<FullDiffSection> {
     return true;
   }
 
+  @Override
+  protected int propsHashCode() {
+    int result = 0;
+    result = 31 * result + (prop1 != null ? prop1.hashCode() : 0);
+    result = 31 * result + (prop2 != null ? prop2.hashCode() : 0);
+    result = 31 * result + (data != null ? data.hashCode() : 0);
+    result = 31 * result + (prop3 != null ? prop3.getPropsHashCode() : 0);
+    return result;
+  }
+
   private UpdateStateStateUpdate createUpdateStateStateUpdate(Object param) {
     return new UpdateStateStateUpdate(param);
   }
@@ -197,7 +207,7 @@ public final class FullDiffSection<T> extends Section<FullDiffSection> {
   }
 
   public static EventHandler<ClickEvent> testEvent(SectionContext c, int someParam) {
-    return newEventHandler(c, "testEvent", -1204074200, new Object[] {
+    return newEventHandler(c, "testEvent", 0, new Object[] {
         c,
         someParam,
     });
@@ -207,7 +217,7 @@ public final class FullDiffSection<T> extends Section<FullDiffSection> {
   public Object dispatchOnEvent(final EventHandler eventHandler, final Object eventState) {
     int id = eventHandler.id;
     switch (id) {
-      case -1204074200: {
+      case 0: {
         ClickEvent _event = (ClickEvent) eventState;
         testEvent(
             eventHandler.mHasEventDispatcher,
@@ -113,6 +113,16 @@ final class FullGroupSection<T> extends Section<FullGroupSection> {
     return true;
   }
 
+  @Override
+  protected int propsHashCode() {
+    int result = 0;
+    result = 31 * result + prop1;
+    result = 31 * result + (prop2 != null ? prop2.hashCode() : 0);
+    result = 31 * result + (prop3 != null ? prop3.getPropsHashCode() : 0);
+    result = 31 * result + (prop4 != null ? prop4.hashCode() : 0);
+    return result;
+  }
+
   private UpdateStateStateUpdate createUpdateStateStateUpdate(Object param) {
     return new UpdateStateStateUpdate(param);
   }
@@ -213,7 +223,7 @@ final class FullGroupSection<T> extends Section<FullGroupSection> {
   }
 
   public static EventHandler<ClickEvent> testEvent(SectionContext c, int someParam) {
-    return newEventHandler(c, "testEvent", -1204074200, new Object[] {
+    return newEventHandler(c, "testEvent", 0, new Object[] {
         c,
         someParam,
     });
@@ -223,7 +233,7 @@ final class FullGroupSection<T> extends Section<FullGroupSection> {
   public Object dispatchOnEvent(final EventHandler eventHandler, final Object eventState) {
     int id = eventHandler.id;
     switch (id) {
-      case -1204074200:
+      case 0:
         {
           ClickEvent _event = (ClickEvent) eventState;
           testEvent(
@@ -64,6 +64,11 @@ public final class SimpleDiffSection extends Section<SimpleDiffSection> {
     return true;
   }
 
+  @Override
+  protected boolean hasOnViewportChanged() {
+    return false;
+  }
+
   public static class Builder extends Section.Builder<SimpleDiffSection, Builder> {
     SimpleDiffSection mSimpleDiffSection;
 
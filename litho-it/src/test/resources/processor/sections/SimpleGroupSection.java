@@ -58,6 +58,11 @@ public final class SimpleGroupSection extends Section<SimpleGroupSection> {
     return _result;
   }
 
+  @Override
+  protected boolean hasOnViewportChanged() {
+    return false;
+  }
+
   public static class Builder extends Section.Builder<SimpleGroupSection, Builder> {
     SimpleGroupSection mSimpleGroupSection;
 
@@ -87,6 +87,7 @@ public class ComponentBodyGenerator {
 
     builder.addMethod(generateGetSimpleName(specModel));
     builder.addMethod(generateIsEquivalentMethod(specModel));
+    builder.addTypeSpecDataHolder(generatePropsHashCodeMethod(specModel));
 
     builder.addTypeSpecDataHolder(generateCopyInterStageImpl(specModel));
     builder.addTypeSpecDataHolder(generateOnUpdateStateMethods(specModel));
@@ -360,6 +361,36 @@ public class ComponentBodyGenerator {
     return isEquivalentBuilder.build();
   }
 
+  /**
+   * Generates a hash of the props which must stay consistent with the comparisons done in {@link
+   * #generateIsEquivalentMethod(SpecModel)}: every field is hashed the same way it is compared
+   * there.
+   */
+  static TypeSpecDataHolder generatePropsHashCodeMethod(SpecModel specModel) {
+    final TypeSpecDataHolder.Builder typeSpecDataHolder = TypeSpecDataHolder.newBuilder();
+    final ImmutableList<PropModel> props = specModel.getProps();
+
+    if (props.isEmpty()) {
+      return typeSpecDataHolder.build();
+    }
+
+    final MethodSpec.Builder propsHashCodeBuilder =
+        MethodSpec.methodBuilder("propsHashCode")
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PROTECTED)
+            .returns(TypeName.INT)
+            .addStatement("int result = 0");
+
+    for (PropModel prop : props) {
+      propsHashCodeBuilder.addStatement(
+          "result = 31 * result + $L", getHashCodeExpression(specModel, prop));
+    }
+
+    propsHashCodeBuilder.addStatement("return result");
+
+    return typeSpecDataHolder.addMethod(propsHashCodeBuilder.build()).build();
+  }
+
   static TypeSpecDataHolder generateCopyInterStageImpl(SpecModel specModel) {
     final TypeSpecDataHolder.Builder typeSpecDataHolder = TypeSpecDataHolder.newBuilder();
     final ImmutableList<InterStageInputParamModel> interStageInputs =
@@ -608,6 +639,38 @@ public class ComponentBodyGenerator {
     return codeBlock.build();
   }
 
+  private static CodeBlock getHashCodeExpression(SpecModel specModel, MethodParamModel field) {
+    final String implAccessor = getImplAccessor(specModel, field);
+    final TypeName type = field.getType();
+
+    if (type == TypeName.FLOAT) {
+      return CodeBlock.of("Float.floatToIntBits($L)", implAccessor);
+    } else if (type == TypeName.DOUBLE) {
+      return CodeBlock.of(
+          "(int) (Double.doubleToLongBits($L) ^ (Double.doubleToLongBits($L) >>> 32))",
+          implAccessor,
+          implAccessor);
+    } else if (type == TypeName.LONG) {
+      return CodeBlock.of("(int) ($L ^ ($L >>> 32))", implAccessor, implAccessor);
+    } else if (type == TypeName.BOOLEAN) {
+      return CodeBlock.of("($L ? 1 : 0)", implAccessor);
+    } else if (type instanceof ArrayTypeName) {
+      return CodeBlock.of("$T.hashCode($L)", Arrays.class, implAccessor);
+    } else if (type.isPrimitive()) {
+      return CodeBlock.of("$L", implAccessor);
+    } else if (type.equals(ClassNames.REFERENCE)) {
+      // References are compared through their lifecycle, so only their type can be relied upon.
+      return CodeBlock.of(
+          "($L != null ? $L.getClass().hashCode() : 0)", implAccessor, implAccessor);
+    } else {
+      final String hashMethodName =
+          shouldUseIsEquivalentTo(specModel, field) ? "getPropsHashCode" : "hashCode";
+
+      return CodeBlock.of(
+          "($L != null ? $L.$L() : 0)", implAccessor, implAccessor, hashMethodName);
+    }
+  }
+
   private static boolean shouldUseIsEquivalentTo(SpecModel specModel, MethodParamModel field) {
     return (field.getType().equals(ClassNames.COMPONENT)
         || field.getType().equals(specModel.getComponentClass()));
@@ -17,6 +17,7 @@ import static com.facebook.litho.specmodels.model.ClassNames.OBJECT;
 
 import com.facebook.litho.annotations.FromEvent;
 import com.facebook.litho.annotations.Param;
+import com.facebook.litho.specmodels.internal.ImmutableList;
 import com.facebook.litho.specmodels.model.ClassNames;
 import com.facebook.litho.specmodels.model.EventDeclarationModel;
 import com.facebook.litho.specmodels.model.EventMethod;
@@ -248,9 +249,12 @@ public class EventGenerator {
     methodBuilder.addStatement("int id = eventHandler.id");
     methodBuilder.beginControlFlow("switch ($L)", "id");
 
-    for (SpecMethodModel<EventMethod, EventDeclarationModel> eventMethodModel :
-        specModel.getEventMethods()) {
-      methodBuilder.beginControlFlow("case $L:", eventMethodModel.name.toString().hashCode());
+    final ImmutableList<SpecMethodModel<EventMethod, EventDeclarationModel>> eventMethodModels =
+        specModel.getEventMethods();
+    for (int i = 0, size = eventMethodModels.size(); i < size; i++) {
+      final SpecMethodModel<EventMethod, EventDeclarationModel> eventMethodModel =
+          eventMethodModels.get(i);
+      methodBuilder.beginControlFlow("case $L:", i);
 
       final String eventVariableName = "_event";
 
@@ -305,17 +309,25 @@ public class EventGenerator {
 
   static TypeSpecDataHolder generateEventHandlerFactories(SpecModel specModel) {
     final TypeSpecDataHolder.Builder typeSpecDataHolder = TypeSpecDataHolder.newBuilder();
-    for (SpecMethodModel<EventMethod, EventDeclarationModel> eventMethodModel :
-        specModel.getEventMethods()) {
+    final ImmutableList<SpecMethodModel<EventMethod, EventDeclarationModel>> eventMethodModels =
+        specModel.getEventMethods();
+    for (int i = 0, size = eventMethodModels.size(); i < size; i++) {
       typeSpecDataHolder.addMethod(
-          generateEventHandlerFactory(eventMethodModel, specModel.getContextClass()));
+          generateEventHandlerFactory(eventMethodModels.get(i), i, specModel.getContextClass()));
     }
 
     return typeSpecDataHolder.build();
   }
 
+  /**
+   * Generate a factory for the {@link ClassNames#EVENT_HANDLER} of an event method. Event methods
+   * are identified by their position in the spec rather than by a hash of their name, so that the
+   * ids are dense and the switch in dispatchOnEvent() compiles to a table lookup.
+   */
   static MethodSpec generateEventHandlerFactory(
-      SpecMethodModel<EventMethod, EventDeclarationModel> eventMethodModel, TypeName paramClass) {
+      SpecMethodModel<EventMethod, EventDeclarationModel> eventMethodModel,
+      int eventMethodId,
+      TypeName paramClass) {
     final MethodSpec.Builder builder =
         MethodSpec.methodBuilder(eventMethodModel.name.toString())
             .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
@@ -348,7 +360,7 @@ public class EventGenerator {
     builder.addStatement(
         "return newEventHandler(c, $S, $L, $L)",
         eventMethodModel.name.toString(),
-        eventMethodModel.name.toString().hashCode(),
+        eventMethodId,
         paramsBlock.build());
 
     return builder.build();
@@ -41,6 +41,11 @@ public abstract class Section<L extends Section> extends SectionLifecycle
   private Section mParent;
   private boolean mInvalidated;
   private SectionContext mScopedContext;
+  // Lazily computed by getPropsHashCode(), 0 means that it hasn't been computed yet.
+  private int mPropsHashCode;
+  // Whether this section or one of its descendants implements viewportChanged, set by the
+  // SectionTree when this section becomes part of its current tree.
+  private boolean mHasOnViewportChangedInSubtree;
   EventHandler<LoadingEvent> loadingEventHandler;
 
   @Override
@@ -235,6 +240,8 @@ public abstract class Section<L extends Section> extends SectionLifecycle
   public Section<L> makeShallowCopy(boolean deepCopy) {
     try {
       final Section<L> clone = (Section<L>) super.clone();
+      // Props might be replaced with their copies, which can change the hash code.
+      clone.mPropsHashCode = 0;
 
       if (!deepCopy) {
         if (clone.mChildren != null) {
@@ -259,6 +266,14 @@ public abstract class Section<L extends Section> extends SectionLifecycle
     return mId;
   }
 
+  boolean hasOnViewportChangedInSubtree() {
+    return mHasOnViewportChangedInSubtree;
+  }
+
+  void setHasOnViewportChangedInSubtree(boolean hasOnViewportChangedInSubtree) {
+    mHasOnViewportChangedInSubtree = hasOnViewportChangedInSubtree;
+  }
+
   SectionContext getScopedContext() {
     return mScopedContext;
   }
@@ -291,6 +306,34 @@ public abstract class Section<L extends Section> extends SectionLifecycle
     return this.equals(other);
   }
 
+  /**
+   * Returns a hash of the props of this section which is consistent with {@link
+   * #isEquivalentTo(Section)}: two equivalent sections always have the same props hash code. The
+   * value is computed once and cached, so this should only be called once the section has been
+   * built.
+   */
+  public final int getPropsHashCode() {
+    int propsHashCode = mPropsHashCode;
+    if (propsHashCode == 0) {
+      propsHashCode = propsHashCode();
+      // 0 is reserved to mark the hash code as not computed yet.
+      if (propsHashCode == 0) {
+        propsHashCode = 1;
+      }
+      mPropsHashCode = propsHashCode;
+    }
+
+    return propsHashCode;
+  }
+
+  /**
+   * Computes the hash returned by {@link #getPropsHashCode()}. Generated sections implement this
+   * for all their props.
+   */
+  protected int propsHashCode() {
+    return 0;
+  }
+
   protected StateContainer getStateContainer() {
     return null;
   }
@@ -85,6 +85,15 @@ public abstract class SectionLifecycle implements EventDispatcher {
 
   }
 
+  /**
+   * @return false if this lifecycle doesn't implement viewportChanged, as generated for specs
+   * without an OnViewportChanged method. Sections whose lifecycle doesn't, and that have no
+   * descendant whose lifecycle does, are skipped when the viewport changes.
+   */
+  protected boolean hasOnViewportChanged() {
+    return true;
+  }
+
   protected void refresh(
       SectionContext sectionContext,
       Section section) {
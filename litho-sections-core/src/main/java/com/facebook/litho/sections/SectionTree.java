@@ -18,12 +18,19 @@ import android.os.HandlerThread;
 import android.os.Looper;
 import android.os.Message;
 import android.os.Process;
+import android.os.SystemClock;
+import android.support.annotation.VisibleForTesting;
 import android.support.v4.util.Pair;
 import android.text.TextUtils;
 import com.facebook.litho.Component;
 import com.facebook.litho.ComponentsPools;
 import com.facebook.litho.EventHandler;
+import com.facebook.litho.LayoutHandler;
+import com.facebook.litho.LayoutThreadPool;
 import com.facebook.litho.TreeProps;
+import com.facebook.litho.config.ComponentsConfiguration;
+import com.facebook.litho.dataflow.ChoreographerCompat;
+import com.facebook.litho.dataflow.ChoreographerCompatImpl;
 import com.facebook.litho.sections.config.SectionsConfiguration;
 import com.facebook.litho.sections.logger.SectionsDebugLogger;
 import com.facebook.litho.widget.RenderInfo;
@@ -34,6 +41,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
 
@@ -106,6 +114,7 @@ public class SectionTree {
   }
 
   private static final int MESSAGE_WHAT_BACKGROUND_CHANGESET_STATE_UPDATED = 1;
+  private static final int MESSAGE_WHAT_SCHEDULE_CHANGESETS_APPLICATION = 2;
   private static final Handler sMainThreadHandler = new SectionsMainThreadHandler();
 
   @GuardedBy("ComponentTree.class")
@@ -125,27 +134,90 @@ public class SectionTree {
   private final CalculateChangeSetRunnable mCalculateChangeSetOnMainThreadRunnable;
   private final CalculateChangeSetRunnable mCalculateChangeSetRunnable;
 
+  private static final AtomicLong sStateUpdateCount = new AtomicLong();
+  private static final AtomicLong sCoalescedStateUpdateCount = new AtomicLong();
+  private static final AtomicLong sChangeSetCalculationCount = new AtomicLong();
+  private static final AtomicLong sCoalescedChangeSetApplicationCount = new AtomicLong();
+
+  @GuardedBy("this")
+  private boolean mIsChangeSetApplicationScheduled;
+
+  // The change sets whose application is split across frames, and the index of the next change to
+  // apply in the first of them. Only accessed on the main thread.
+  private final List<ChangeSet> mChangeSetsBeingApplied = new ArrayList<>();
+  private int mNextChangeIndex;
+  private boolean mHasAppliedChangesSinceDataBound;
+  private boolean mIsApplyingChangesOnNextFrame;
+
+  private final ChoreographerCompat.FrameCallback mApplyChangesFrameCallback =
+      new ChoreographerCompat.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+          mIsApplyingChangesOnNextFrame = false;
+          applyChangeSetsWithinBudget(SectionsConfiguration.changeSetApplicationFrameBudgetMs);
+        }
+      };
+
+  private final ChoreographerCompat.FrameCallback mApplyChangeSetsFrameCallback =
+      new ChoreographerCompat.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+          synchronized (SectionTree.this) {
+            mIsChangeSetApplicationScheduled = false;
+          }
+
+          postChangesetsToHandler();
+        }
+      };
+
   private class CalculateChangeSetRunnable implements Runnable {
 
-    private final Handler mHandler;
+    private final LayoutHandler mHandler;
 
     @GuardedBy("this")
     private boolean mIsPosted;
 
-    public CalculateChangeSetRunnable(Handler handler) {
+    // Posts this runnable to mHandler once the delay of a delayed post has elapsed, since a
+    // LayoutHandler can't post with a delay.
+    private final Runnable mDelayedPostRunnable =
+        new Runnable() {
+          @Override
+          public void run() {
+            mHandler.post(CalculateChangeSetRunnable.this);
+          }
+        };
+
+    public CalculateChangeSetRunnable(LayoutHandler handler) {
       mHandler = handler;
     }
 
     public synchronized void ensurePosted() {
-      if (!mIsPosted) {
-        mIsPosted = true;
+      ensurePosted(0);
+    }
+
+    /**
+     * Posts the runnable with the given delay, unless it's already posted.
+     *
+     * @return whether the runnable was already posted.
+     */
+    public synchronized boolean ensurePosted(long delayMs) {
+      if (mIsPosted) {
+        return true;
+      }
+
+      mIsPosted = true;
+      if (delayMs > 0) {
+        sMainThreadHandler.postDelayed(mDelayedPostRunnable, delayMs);
+      } else {
         mHandler.post(this);
       }
+      return false;
     }
 
     public synchronized void cancel() {
       if (mIsPosted) {
         mIsPosted = false;
+        sMainThreadHandler.removeCallbacks(mDelayedPostRunnable);
         mHandler.removeCallbacks(this);
       }
     }
@@ -221,11 +293,17 @@ public class SectionTree {
     mPendingChangeSets = new ArrayList<>();
     mPendingStateUpdates = new HashMap<>();
     mHasNonLazyUpdate = false;
-    Handler changeSetThreadHandler = builder.mChangeSetThreadHandler != null ?
-        builder.mChangeSetThreadHandler :
-        new Handler(getDefaultChangeSetThreadLooper());
+    final LayoutHandler changeSetThreadHandler;
+    if (builder.mChangeSetThreadHandler != null) {
+      changeSetThreadHandler = new HandlerWrapper(builder.mChangeSetThreadHandler);
+    } else if (ComponentsConfiguration.useLayoutThreadPool) {
+      changeSetThreadHandler = LayoutThreadPool.getInstance().createLayoutHandler();
+    } else {
+      changeSetThreadHandler = new HandlerWrapper(new Handler(getDefaultChangeSetThreadLooper()));
+    }
     mCalculateChangeSetRunnable = new CalculateChangeSetRunnable(changeSetThreadHandler);
-    mCalculateChangeSetOnMainThreadRunnable = new CalculateChangeSetRunnable(sMainThreadHandler);
+    mCalculateChangeSetOnMainThreadRunnable =
+        new CalculateChangeSetRunnable(new HandlerWrapper(sMainThreadHandler));
   }
 
   /**
@@ -445,6 +523,10 @@ public class SectionTree {
       int firstFullyVisibleIndex,
       int lastFullyVisibleIndex,
       @ViewportInfo.State int state) {
+    if (!section.hasOnViewportChangedInSubtree()) {
+      return;
+    }
+
     Range currentRange = mLastRanges.get(section.getGlobalKey());
     final int totalItemsCount = section.getCount();
 
@@ -468,14 +550,16 @@ public class SectionTree {
     currentRange.lastFullyVisibleIndex = lastFullyVisibleIndex;
     currentRange.totalItemsCount = totalItemsCount;
 
-    section.getLifecycle().viewportChanged(
-        section.getScopedContext(),
-        firstVisibleIndex,
-        lastVisibleIndex,
-        totalItemsCount,
-        firstFullyVisibleIndex,
-        lastFullyVisibleIndex,
-        section);
+    if (section.getLifecycle().hasOnViewportChanged()) {
+      section.getLifecycle().viewportChanged(
+          section.getScopedContext(),
+          firstVisibleIndex,
+          lastVisibleIndex,
+          totalItemsCount,
+          firstFullyVisibleIndex,
+          lastFullyVisibleIndex,
+          section);
+    }
 
     if (section.isDiffSectionSpec()) {
       return;
@@ -485,6 +569,10 @@ public class SectionTree {
     final List<Section> children = section.getChildren();
     for (int i = 0, size = children.size(); i < size; i++) {
       final Section child = children.get(i);
+      if (!child.hasOnViewportChangedInSubtree()) {
+        offset += child.getCount();
+        continue;
+      }
 
       int childFirstVisibleIndex = firstVisibleIndex - offset;
       int childLastVisibleIndex = lastVisibleIndex - offset;
@@ -622,9 +710,7 @@ public class SectionTree {
     if (mAsyncStateUpdates) {
       updateStateAsync(key, stateUpdate);
     } else {
-      mCalculateChangeSetOnMainThreadRunnable.cancel();
-      addStateUpdateInternal(key, stateUpdate, true);
-      mCalculateChangeSetOnMainThreadRunnable.ensurePosted();
+      enqueueStateUpdate(mCalculateChangeSetOnMainThreadRunnable, key, stateUpdate);
     }
   }
 
@@ -638,9 +724,31 @@ public class SectionTree {
    *     new state.
    */
   synchronized void updateStateAsync(String key, StateUpdate stateUpdate) {
-    mCalculateChangeSetRunnable.cancel();
+    enqueueStateUpdate(mCalculateChangeSetRunnable, key, stateUpdate);
+  }
+
+  /**
+   * Adds a state update and makes sure that a change set calculation is posted. When state updates
+   * are coalesced, the calculation runs at the end of the window opened by the first update and
+   * the updates that arrive in the meantime join it. Otherwise it is moved to the end of the queue.
+   */
+  @GuardedBy("this")
+  private void enqueueStateUpdate(
+      CalculateChangeSetRunnable calculateChangeSetRunnable, String key, StateUpdate stateUpdate) {
+    sStateUpdateCount.incrementAndGet();
+
+    final int coalescingWindowMs = SectionsConfiguration.stateUpdatesCoalescingWindowMs;
+    if (coalescingWindowMs > 0) {
+      addStateUpdateInternal(key, stateUpdate, true);
+      if (calculateChangeSetRunnable.ensurePosted(coalescingWindowMs)) {
+        sCoalescedStateUpdateCount.incrementAndGet();
+      }
+      return;
+    }
+
+    calculateChangeSetRunnable.cancel();
     addStateUpdateInternal(key, stateUpdate, true);
-    mCalculateChangeSetRunnable.ensurePosted();
+    calculateChangeSetRunnable.ensurePosted();
   }
 
   synchronized void updateStateLazy(String key, StateUpdate stateUpdate) {
@@ -707,6 +815,7 @@ public class SectionTree {
     // Checking nextRoot is enough here since whenever we enqueue a new state update we also
     // re-assign nextRoot.
     while (nextRoot != null) {
+      sChangeSetCalculationCount.incrementAndGet();
       final ChangeSetState changeSetState =
           calculateNewChangeSet(
               mContext, currentRoot, nextRoot, pendingStateUpdates, mSectionsDebugLogger, mTag);
@@ -748,6 +857,7 @@ public class SectionTree {
           }
 
           bindNewComponent(newRoot);
+          updateOnViewportChangedSubtrees(newRoot);
         }
       }
 
@@ -866,6 +976,26 @@ public class SectionTree {
     }
   }
 
+  /**
+   * Marks the sections that implement viewportChanged or have a descendant that does, so that
+   * viewport changes skip the other subtrees.
+   *
+   * @return whether the given section or one of its descendants implements viewportChanged.
+   */
+  private static boolean updateOnViewportChangedSubtrees(Section<?> section) {
+    boolean hasOnViewportChanged = section.getLifecycle().hasOnViewportChanged();
+
+    if (!section.isDiffSectionSpec()) {
+      final List<Section> children = section.getChildren();
+      for (int i = 0, size = children.size(); i < size; i++) {
+        hasOnViewportChanged |= updateOnViewportChangedSubtrees(children.get(i));
+      }
+    }
+
+    section.setHasOnViewportChangedInSubtree(hasOnViewportChanged);
+    return hasOnViewportChanged;
+  }
+
   private void unbindOldComponent(Section<?> section) {
     section.getLifecycle().unbindService(section.getScopedContext(), section);
 
@@ -878,6 +1008,11 @@ public class SectionTree {
   }
 
   private void postNewChangeSets() {
+    if (SectionsConfiguration.applyChangeSetsOncePerFrame) {
+      scheduleChangeSetsApplication();
+      return;
+    }
+
     if (isMainThread()) {
       postChangesetsToHandler();
     } else {
@@ -886,6 +1021,33 @@ public class SectionTree {
     }
   }
 
+  /**
+   * Applies the pending change sets in the next frame. The change sets calculated until then are
+   * applied together, so that a burst of state updates results in one pass of adapter updates.
+   */
+  private void scheduleChangeSetsApplication() {
+    synchronized (this) {
+      if (mIsChangeSetApplicationScheduled) {
+        sCoalescedChangeSetApplicationCount.incrementAndGet();
+        return;
+      }
+
+      mIsChangeSetApplicationScheduled = true;
+    }
+
+    if (isMainThread()) {
+      postApplyChangeSetsFrameCallback();
+    } else {
+      sMainThreadHandler.obtainMessage(MESSAGE_WHAT_SCHEDULE_CHANGESETS_APPLICATION, this)
+          .sendToTarget();
+    }
+  }
+
+  private void postApplyChangeSetsFrameCallback() {
+    assertMainThread();
+    ChoreographerCompatImpl.getInstance().postFrameCallback(mApplyChangeSetsFrameCallback);
+  }
+
   private void postChangesetsToHandler() {
     assertMainThread();
 
@@ -899,42 +1061,24 @@ public class SectionTree {
       mPendingChangeSets.clear();
     }
 
+    final int frameBudgetMs = SectionsConfiguration.changeSetApplicationFrameBudgetMs;
+    if (frameBudgetMs > 0 || !mChangeSetsBeingApplied.isEmpty()) {
+      // The new change sets have to be applied after the ones still being applied.
+      mChangeSetsBeingApplied.addAll(changeSets);
+      if (!mIsApplyingChangesOnNextFrame) {
+        applyChangeSetsWithinBudget(frameBudgetMs);
+      }
+      return;
+    }
+
     boolean appliedChanges = false;
     for (int i = 0, size = changeSets.size(); i < size; i++) {
       final ChangeSet changeSet = changeSets.get(i);
 
       if (changeSet.getChangeCount() > 0) {
         for (int j = 0, changeSize = changeSet.getChangeCount(); j < changeSize; j++) {
-          final Change change = changeSet.getChangeAt(j);
-          switch (change.getType()) {
-            case Change.INSERT:
-              appliedChanges = true;
-              mTarget.insert(change.getIndex(), change.getRenderInfo());
-              break;
-            case Change.INSERT_RANGE:
-              appliedChanges = true;
-              mTarget.insertRange(change.getIndex(), change.getCount(), change.getRenderInfos());
-              break;
-            case Change.UPDATE:
-              appliedChanges = true;
-              mTarget.update(change.getIndex(), change.getRenderInfo());
-              break;
-            case Change.UPDATE_RANGE:
-              appliedChanges = true;
-              mTarget.updateRange(change.getIndex(), change.getCount(), change.getRenderInfos());
-              break;
-            case Change.DELETE:
-              appliedChanges = true;
-              mTarget.delete(change.getIndex());
-              break;
-            case Change.DELETE_RANGE:
-              appliedChanges = true;
-              mTarget.deleteRange(change.getIndex(), change.getCount());
-              break;
-            case Change.MOVE:
-              appliedChanges = true;
-              mTarget.move(change.getIndex(), change.getToIndex());
-          }
+          applyChange(changeSet.getChangeAt(j));
+          appliedChanges = true;
         }
         mTarget.dispatchLastEvent();
       }
@@ -945,6 +1089,84 @@ public class SectionTree {
     }
   }
 
+  /**
+   * Applies the changes of {@link #mChangeSetsBeingApplied} in order until the given budget is
+   * spent, and continues in the next frame if some are left. Each change is dispatched to the
+   * Target right away, so that the budget accounts for the work it does, e.g. the layouts that
+   * RecyclerBinder computes synchronously for the items inserted in the viewport. Every frame
+   * applies at least one change. A budget of 0 applies all the changes.
+   */
+  private void applyChangeSetsWithinBudget(int frameBudgetMs) {
+    assertMainThread();
+
+    if (mReleased) {
+      mChangeSetsBeingApplied.clear();
+      mNextChangeIndex = 0;
+      return;
+    }
+
+    final long deadline = SystemClock.uptimeMillis() + frameBudgetMs;
+    boolean appliedChangesInThisFrame = false;
+
+    while (!mChangeSetsBeingApplied.isEmpty()) {
+      final ChangeSet changeSet = mChangeSetsBeingApplied.get(0);
+      final int changeCount = changeSet.getChangeCount();
+
+      while (mNextChangeIndex < changeCount) {
+        if (frameBudgetMs > 0
+            && appliedChangesInThisFrame
+            && SystemClock.uptimeMillis() >= deadline) {
+          mIsApplyingChangesOnNextFrame = true;
+          ChoreographerCompatImpl.getInstance().postFrameCallback(mApplyChangesFrameCallback);
+          return;
+        }
+
+        applyChange(changeSet.getChangeAt(mNextChangeIndex++));
+        if (frameBudgetMs > 0) {
+          mTarget.dispatchLastEvent();
+        }
+        appliedChangesInThisFrame = true;
+        mHasAppliedChangesSinceDataBound = true;
+      }
+
+      if (changeCount > 0) {
+        mTarget.dispatchLastEvent();
+      }
+      mChangeSetsBeingApplied.remove(0);
+      mNextChangeIndex = 0;
+    }
+
+    if (mHasAppliedChangesSinceDataBound) {
+      mHasAppliedChangesSinceDataBound = false;
+      dataBound();
+    }
+  }
+
+  private void applyChange(Change change) {
+    switch (change.getType()) {
+      case Change.INSERT:
+        mTarget.insert(change.getIndex(), change.getRenderInfo());
+        break;
+      case Change.INSERT_RANGE:
+        mTarget.insertRange(change.getIndex(), change.getCount(), change.getRenderInfos());
+        break;
+      case Change.UPDATE:
+        mTarget.update(change.getIndex(), change.getRenderInfo());
+        break;
+      case Change.UPDATE_RANGE:
+        mTarget.updateRange(change.getIndex(), change.getCount(), change.getRenderInfos());
+        break;
+      case Change.DELETE:
+        mTarget.delete(change.getIndex());
+        break;
+      case Change.DELETE_RANGE:
+        mTarget.deleteRange(change.getIndex(), change.getCount());
+        break;
+      case Change.MOVE:
+        mTarget.move(change.getIndex(), change.getToIndex());
+    }
+  }
+
   private static ChangeSetState calculateNewChangeSet(
       SectionContext context,
       Section<?> currentRoot,
@@ -1017,9 +1239,14 @@ public class SectionTree {
       context.setTreeProps(
           sectionLifecycle.getTreePropsForChildren(context, nextRoot, parentTreeProps));
 
-      nextRoot.setChildren(sectionLifecycle.createChildren(
-          nextRoot.getScopedContext(),
-          nextRoot));
+      if (SectionsConfiguration.reuseChildrenOfUnchangedGroupSections
+          && canReuseChildren(currentRoot, nextRoot, pendingStateUpdates)) {
+        nextRoot.setChildren(copyChildren(currentRoot));
+      } else {
+        nextRoot.setChildren(sectionLifecycle.createChildren(
+            nextRoot.getScopedContext(),
+            nextRoot));
+      }
 
       final List<Section> nextRootChildren = nextRoot.getChildren();
 
@@ -1064,6 +1291,48 @@ public class SectionTree {
     }
   }
 
+  /**
+   * @return whether the children of currentRoot can be used for nextRoot without calling its
+   *     {@code @OnCreateChildren}, i.e. nextRoot has the same props, state and tree props and
+   *     neither it nor any of its descendants has a pending state update. The ChangeSet of such a
+   *     subtree is empty.
+   */
+  private static boolean canReuseChildren(
+      Section<?> currentRoot,
+      Section<?> nextRoot,
+      Map<String, List<StateUpdate>> pendingStateUpdates) {
+    if (currentRoot == null
+        || currentRoot.getChildren() == null
+        || !currentRoot.getClass().equals(nextRoot.getClass())
+        || nextRoot.isInvalidated()
+        || !currentRoot.isEquivalentTo(nextRoot)) {
+      return false;
+    }
+
+    final String globalKey = nextRoot.getGlobalKey();
+    for (String key : pendingStateUpdates.keySet()) {
+      if (key.startsWith(globalKey)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Copies the children of the given section, so that they can be the children of its next version
+   * without sharing their state containers with the current tree.
+   */
+  private static Children copyChildren(Section<?> section) {
+    final List<Section> currentChildren = section.getChildren();
+    final Children.Builder builder = Children.create();
+    for (int i = 0, size = currentChildren.size(); i < size; i++) {
+      builder.child(currentChildren.get(i).makeShallowCopy(false));
+    }
+
+    return builder.build();
+  }
+
   private static Set<String> acquireKeysSet() {
     //TODO use pools t11953296
     return new HashSet<>();
@@ -1097,6 +1366,30 @@ public class SectionTree {
     //TODO use pools t11953296
   }
 
+  /** A {@link LayoutHandler} that posts to a {@link Handler}. */
+  private static class HandlerWrapper implements LayoutHandler {
+    private final Handler mHandler;
+
+    private HandlerWrapper(Handler handler) {
+      mHandler = handler;
+    }
+
+    @Override
+    public boolean post(Runnable runnable) {
+      return mHandler.post(runnable);
+    }
+
+    @Override
+    public void removeCallbacks(Runnable runnable) {
+      mHandler.removeCallbacks(runnable);
+    }
+
+    @Override
+    public void removeCallbacksAndMessages(Object token) {
+      mHandler.removeCallbacksAndMessages(token);
+    }
+  }
+
   private static class SectionsMainThreadHandler extends Handler {
 
     private SectionsMainThreadHandler() {
@@ -1115,12 +1408,50 @@ public class SectionTree {
           }
           break;
 
+        case MESSAGE_WHAT_SCHEDULE_CHANGESETS_APPLICATION:
+          ((SectionTree) msg.obj).postApplyChangeSetsFrameCallback();
+          break;
+
         default:
           throw new IllegalArgumentException();
       }
     }
   }
 
+  /** @return the number of non lazy state updates enqueued in all the SectionTrees. */
+  public static long getStateUpdateCount() {
+    return sStateUpdateCount.get();
+  }
+
+  /**
+   * @return the number of state updates that joined a change set calculation that was already
+   *     pending, instead of posting a new one.
+   */
+  public static long getCoalescedStateUpdateCount() {
+    return sCoalescedStateUpdateCount.get();
+  }
+
+  /** @return the number of change sets calculated for new roots and state updates. */
+  public static long getChangeSetCalculationCount() {
+    return sChangeSetCalculationCount.get();
+  }
+
+  /**
+   * @return the number of change sets that were applied together with the ones of an earlier
+   *     calculation, in the same frame.
+   */
+  public static long getCoalescedChangeSetApplicationCount() {
+    return sCoalescedChangeSetApplicationCount.get();
+  }
+
+  @VisibleForTesting
+  static void resetMetrics() {
+    sStateUpdateCount.set(0);
+    sCoalescedStateUpdateCount.set(0);
+    sChangeSetCalculationCount.set(0);
+    sCoalescedChangeSetApplicationCount.set(0);
+  }
+
   private static String getDebugInfo(SectionTree tree) {
     final StringBuilder sb = new StringBuilder();
     sb.append("tag: ");
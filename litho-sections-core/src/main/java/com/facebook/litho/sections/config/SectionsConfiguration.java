@@ -31,4 +31,30 @@ public class SectionsConfiguration {
    * <p>SectionLifecycle#destroyService(SectionContext, Object) will not be called if this is True
    */
   public static boolean noServiceRegistration = false;
+
+  /**
+   * Whether a GroupSection whose props, state and tree props are unchanged since the last tree
+   * calculation, and none of whose descendants has a pending state update, takes copies of its
+   * current children instead of calling its @OnCreateChildren again.
+   */
+  public static boolean reuseChildrenOfUnchangedGroupSections = false;
+
+  /**
+   * If this is greater than 0, the state updates of a SectionTree that arrive within this many
+   * milliseconds of the first one are applied by a single change set calculation.
+   */
+  public static int stateUpdatesCoalescingWindowMs = 0;
+
+  /**
+   * Whether the change sets calculated by a SectionTree are applied to its Target at most once per
+   * frame, together, instead of once per calculation.
+   */
+  public static boolean applyChangeSetsOncePerFrame = false;
+
+  /**
+   * If this is greater than 0, a SectionTree applies the changes of its change sets to its Target
+   * for at most this many milliseconds per frame, and continues with the remaining ones in the
+   * next frames. Changes are always applied in order.
+   */
+  public static int changeSetApplicationFrameBudgetMs = 0;
 }
@@ -299,6 +299,7 @@ public class DiffSectionSpecModel implements SpecModel, HasService {
         .addTypeSpecDataHolder(
             DelegateMethodGenerator.generateDelegates(
                 this, DelegateMethodDescriptions.getDiffSectionSpecDelegatesMap(this)))
+        .addTypeSpecDataHolder(SectionSpecModelUtils.generateHasOnViewportChanged(this))
         .build()
         .addToTypeSpec(typeSpec);
 
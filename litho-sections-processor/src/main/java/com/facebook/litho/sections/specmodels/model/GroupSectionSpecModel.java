@@ -300,6 +300,7 @@ public class GroupSectionSpecModel implements SpecModel, HasService {
         .addTypeSpecDataHolder(
             DelegateMethodGenerator.generateDelegates(
                 this, DelegateMethodDescriptions.getGroupSectionSpecDelegatesMap(this)))
+        .addTypeSpecDataHolder(SectionSpecModelUtils.generateHasOnViewportChanged(this))
         .addTypeSpecDataHolder(TreePropGenerator.generate(this))
         .build()
         .addToTypeSpec(typeSpec);
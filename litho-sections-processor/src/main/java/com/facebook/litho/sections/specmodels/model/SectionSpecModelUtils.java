@@ -10,14 +10,18 @@
 package com.facebook.litho.sections.specmodels.model;
 
 import com.facebook.litho.sections.annotations.OnCreateService;
+import com.facebook.litho.sections.annotations.OnViewportChanged;
+import com.facebook.litho.specmodels.generator.TypeSpecDataHolder;
 import com.facebook.litho.specmodels.model.DelegateMethod;
 import com.facebook.litho.specmodels.model.SpecMethodModel;
 import com.facebook.litho.specmodels.model.MethodParamModel;
 import com.facebook.litho.specmodels.model.MethodParamModelFactory;
 import com.facebook.litho.specmodels.model.SpecModel;
 import com.facebook.litho.specmodels.model.SpecModelUtils;
+import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.TypeName;
 import javax.annotation.Nullable;
+import javax.lang.model.element.Modifier;
 
 class SectionSpecModelUtils {
 
@@ -32,6 +36,25 @@ class SectionSpecModelUtils {
         serviceType, "_service", model.getRepresentedObject());
   }
 
+  /**
+   * Sections are notified of viewport changes unless they tell otherwise, so specs without an
+   * {@link OnViewportChanged} method opt out of them here.
+   */
+  static TypeSpecDataHolder generateHasOnViewportChanged(SpecModel specModel) {
+    final TypeSpecDataHolder.Builder typeSpecDataHolder = TypeSpecDataHolder.newBuilder();
+    if (SpecModelUtils.getMethodModelWithAnnotation(specModel, OnViewportChanged.class) == null) {
+      typeSpecDataHolder.addMethod(
+          MethodSpec.methodBuilder("hasOnViewportChanged")
+              .addAnnotation(Override.class)
+              .addModifiers(Modifier.PROTECTED)
+              .returns(TypeName.BOOLEAN)
+              .addStatement("return false")
+              .build());
+    }
+
+    return typeSpecDataHolder.build();
+  }
+
   @Nullable
   private static TypeName extractServiceParam(SpecModel specModel) {
     final SpecMethodModel<DelegateMethod, Void> onCreateService =
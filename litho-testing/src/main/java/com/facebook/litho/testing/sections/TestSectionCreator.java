@@ -182,6 +182,7 @@ public class TestSectionCreator {
     public int lastVisibleIndex;
     public int firstFullyVisibleIndex;
     public int lastFullyVisibleIndex;
+    public boolean implementsViewportChanged = true;
 
     protected TestSection(
         int initialCount,
@@ -208,5 +209,10 @@ public class TestSectionCreator {
     public String getSimpleName() {
       return "TestSection";
     }
+
+    @Override
+    protected boolean hasOnViewportChanged() {
+      return implementsViewportChanged;
+    }
   }
 }
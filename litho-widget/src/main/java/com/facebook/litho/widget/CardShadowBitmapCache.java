@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho.widget;
+
+import android.graphics.Bitmap;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+import android.support.v4.util.LruCache;
+import com.facebook.litho.config.ComponentsConfiguration;
+
+/**
+ * Process wide LRU cache of the shadow bitmaps drawn by {@link CardShadowDrawable}, enabled
+ * through {@link ComponentsConfiguration#enableCardShadowBitmapCache}. A bitmap holds the four
+ * corners of a shadow and a one pixel slice of each edge, which are stretched to the size of the
+ * card when drawn, the same way a nine-patch is.
+ *
+ * <p>Shadows are keyed by their corner radius, shadow size and colors. Sizes are in pixels, so
+ * screen densities that end up with the same pixel sizes share the same bitmap. The cache is
+ * bounded by the memory of the bitmaps (see {@link
+ * ComponentsConfiguration#cardShadowBitmapCacheMaxSizeBytes}).
+ */
+public final class CardShadowBitmapCache {
+
+  @Nullable private static volatile LruCache<Key, Bitmap> sCache;
+
+  private CardShadowBitmapCache() {}
+
+  private static LruCache<Key, Bitmap> getCache() {
+    LruCache<Key, Bitmap> cache = sCache;
+    if (cache == null) {
+      synchronized (CardShadowBitmapCache.class) {
+        cache = sCache;
+        if (cache == null) {
+          cache =
+              new LruCache<Key, Bitmap>(ComponentsConfiguration.cardShadowBitmapCacheMaxSizeBytes) {
+                @Override
+                protected int sizeOf(Key key, Bitmap bitmap) {
+                  return bitmap.getRowBytes() * bitmap.getHeight();
+                }
+              };
+          sCache = cache;
+        }
+      }
+    }
+
+    return cache;
+  }
+
+  /**
+   * @return the shadow bitmap for the given parameters, rasterizing it if it isn't cached. The
+   *     sizes are the ones {@link CardShadowDrawable} uses after rounding.
+   */
+  static Bitmap get(
+      float cornerRadius, float rawShadowSize, int shadowStartColor, int shadowEndColor) {
+    final Key key = new Key(cornerRadius, rawShadowSize, shadowStartColor, shadowEndColor);
+    final LruCache<Key, Bitmap> cache = getCache();
+
+    Bitmap bitmap = cache.get(key);
+    if (bitmap == null) {
+      bitmap =
+          CardShadowDrawable.createShadowBitmap(
+              cornerRadius, rawShadowSize, shadowStartColor, shadowEndColor);
+      cache.put(key, bitmap);
+    }
+
+    return bitmap;
+  }
+
+  /** @return the number of shadows that were served from the cache. */
+  public static int getHitCount() {
+    final LruCache<Key, Bitmap> cache = sCache;
+    return cache != null ? cache.hitCount() : 0;
+  }
+
+  /** @return the number of shadows that had to be rasterized because they weren't cached. */
+  public static int getMissCount() {
+    final LruCache<Key, Bitmap> cache = sCache;
+    return cache != null ? cache.missCount() : 0;
+  }
+
+  /** Drops all the cached bitmaps, e.g. on memory pressure. */
+  public static void clear() {
+    final LruCache<Key, Bitmap> cache = sCache;
+    if (cache != null) {
+      cache.evictAll();
+    }
+  }
+
+  @VisibleForTesting
+  static void reset() {
+    synchronized (CardShadowBitmapCache.class) {
+      sCache = null;
+    }
+  }
+
+  private static final class Key {
+
+    private final float mCornerRadius;
+    private final float mRawShadowSize;
+    private final int mShadowStartColor;
+    private final int mShadowEndColor;
+
+    Key(float cornerRadius, float rawShadowSize, int shadowStartColor, int shadowEndColor) {
+      mCornerRadius = cornerRadius;
+      mRawShadowSize = rawShadowSize;
+      mShadowStartColor = shadowStartColor;
+      mShadowEndColor = shadowEndColor;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+
+      final Key key = (Key) o;
+      return mCornerRadius == key.mCornerRadius
+          && mRawShadowSize == key.mRawShadowSize
+          && mShadowStartColor == key.mShadowStartColor
+          && mShadowEndColor == key.mShadowEndColor;
+    }
+
+    @Override
+    public int hashCode() {
+      int result = Float.floatToIntBits(mCornerRadius);
+      result = 31 * result + Float.floatToIntBits(mRawShadowSize);
+      result = 31 * result + mShadowStartColor;
+      result = 31 * result + mShadowEndColor;
+      return result;
+    }
+  }
+}
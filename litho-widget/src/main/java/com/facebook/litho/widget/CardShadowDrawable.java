@@ -9,6 +9,7 @@
 
 package com.facebook.litho.widget;
 
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.ColorFilter;
 import android.graphics.LinearGradient;
@@ -20,6 +21,9 @@ import android.graphics.Rect;
 import android.graphics.RectF;
 import android.graphics.Shader;
 import android.graphics.drawable.Drawable;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+import com.facebook.litho.config.ComponentsConfiguration;
 
 class CardShadowDrawable extends Drawable {
 
@@ -42,6 +46,11 @@ class CardShadowDrawable extends Drawable {
 
   private boolean mDirty = true;
 
+  private final Paint mBitmapPaint = new Paint();
+  private final Rect mBitmapSrc = new Rect();
+  private final Rect mBitmapDst = new Rect();
+  @Nullable private Bitmap mShadowBitmap;
+
   CardShadowDrawable() {
     mCornerShadowTopPaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.DITHER_FLAG);
     mCornerShadowTopPaint.setStyle(Paint.Style.FILL);
@@ -58,6 +67,7 @@ class CardShadowDrawable extends Drawable {
     mCornerShadowTopPaint.setAlpha(alpha);
     mCornerShadowBottomPaint.setAlpha(alpha);
     mEdgeShadowPaint.setAlpha(alpha);
+    mBitmapPaint.setAlpha(alpha);
   }
 
   static int getShadowHorizontal(float shadowSize) {
@@ -81,6 +91,7 @@ class CardShadowDrawable extends Drawable {
     mCornerShadowTopPaint.setColorFilter(cf);
     mCornerShadowBottomPaint.setColorFilter(cf);
     mEdgeShadowPaint.setColorFilter(cf);
+    mBitmapPaint.setColorFilter(cf);
   }
 
   @Override
@@ -90,17 +101,146 @@ class CardShadowDrawable extends Drawable {
 
   @Override
   public void draw(Canvas canvas) {
+    final Rect bounds = getBounds();
+
+    if (ComponentsConfiguration.enableCardShadowBitmapCache && canDrawShadowBitmap(bounds)) {
+      if (mShadowBitmap == null) {
+        mShadowBitmap =
+            CardShadowBitmapCache.get(
+                mCornerRadius, mRawShadowSize, mShadowStartColor, mShadowEndColor);
+      }
+
+      drawShadowBitmap(canvas, bounds, mShadowBitmap);
+      return;
+    }
+
+    drawShadow(canvas, bounds);
+  }
+
+  private void drawShadow(Canvas canvas, Rect bounds) {
     if (mDirty) {
       buildShadow();
       mDirty = false;
     }
 
-    final Rect bounds = getBounds();
-
     drawShadowCorners(canvas, bounds);
     drawShadowEdges(canvas, bounds);
   }
 
+  /**
+   * Rasterizes the shadow of the smallest card that fits the corners, so that there is a one pixel
+   * wide slice of each edge between them.
+   */
+  static Bitmap createShadowBitmap(
+      float cornerRadius, float rawShadowSize, int shadowStartColor, int shadowEndColor) {
+    final CardShadowDrawable drawable = new CardShadowDrawable();
+    drawable.setShadowStartColor(shadowStartColor);
+    drawable.setShadowEndColor(shadowEndColor);
+    drawable.setCornerRadius(cornerRadius);
+    drawable.setShadowSize(rawShadowSize);
+
+    final Rect bounds =
+        new Rect(
+            0,
+            0,
+            drawable.getLeftSliceSize() + 1 + drawable.getRightSliceSize(),
+            drawable.getTopSliceSize() + 1 + drawable.getBottomSliceSize());
+    final Bitmap bitmap =
+        Bitmap.createBitmap(bounds.width(), bounds.height(), Bitmap.Config.ARGB_8888);
+    drawable.drawShadow(new Canvas(bitmap), bounds);
+
+    return bitmap;
+  }
+
+  @VisibleForTesting
+  @Nullable
+  Bitmap getShadowBitmap() {
+    return mShadowBitmap;
+  }
+
+  private boolean canDrawShadowBitmap(Rect bounds) {
+    // Smaller cards have overlapping corners, which only the gradients draw correctly.
+    return bounds.width() >= getLeftSliceSize() + getRightSliceSize()
+        && bounds.height() >= getTopSliceSize() + getBottomSliceSize();
+  }
+
+  private int getLeftSliceSize() {
+    return getShadowHorizontal(mRawShadowSize) + (int) mCornerRadius;
+  }
+
+  private int getTopSliceSize() {
+    return getShadowTop(mRawShadowSize) + (int) mCornerRadius;
+  }
+
+  private int getRightSliceSize() {
+    return getShadowRight(mRawShadowSize) + (int) mCornerRadius;
+  }
+
+  private int getBottomSliceSize() {
+    return getShadowBottom(mRawShadowSize) + (int) mCornerRadius;
+  }
+
+  /**
+   * Draws a bitmap created by {@link #createShadowBitmap} like a nine-patch: the corners as they
+   * are and the edge slices stretched along the card. The center is transparent.
+   */
+  private void drawShadowBitmap(Canvas canvas, Rect bounds, Bitmap bitmap) {
+    final int left = getLeftSliceSize();
+    final int top = getTopSliceSize();
+    final int right = getRightSliceSize();
+    final int bottom = getBottomSliceSize();
+
+    for (int row = 0; row < 3; row++) {
+      for (int column = 0; column < 3; column++) {
+        if (row == 1 && column == 1) {
+          continue;
+        }
+
+        mBitmapDst.set(
+            getDstSliceStart(column, left, right, bounds.left, bounds.right),
+            getDstSliceStart(row, top, bottom, bounds.top, bounds.bottom),
+            getDstSliceEnd(column, left, right, bounds.left, bounds.right),
+            getDstSliceEnd(row, top, bottom, bounds.top, bounds.bottom));
+        if (mBitmapDst.isEmpty()) {
+          continue;
+        }
+
+        mBitmapSrc.set(
+            getSrcSliceStart(column, left, right, bitmap.getWidth()),
+            getSrcSliceStart(row, top, bottom, bitmap.getHeight()),
+            getSrcSliceEnd(column, left, right, bitmap.getWidth()),
+            getSrcSliceEnd(row, top, bottom, bitmap.getHeight()));
+        canvas.drawBitmap(bitmap, mBitmapSrc, mBitmapDst, mBitmapPaint);
+      }
+    }
+  }
+
+  /**
+   * Slices are indexed 0 for the start corner, 1 for the edge and 2 for the end corner, along
+   * either axis.
+   */
+  private static int getSrcSliceStart(int index, int startSize, int endSize, int bitmapSize) {
+    return index == 0 ? 0 : (index == 1 ? startSize : bitmapSize - endSize);
+  }
+
+  private static int getSrcSliceEnd(int index, int startSize, int endSize, int bitmapSize) {
+    return index == 0 ? startSize : (index == 1 ? startSize + 1 : bitmapSize);
+  }
+
+  private static int getDstSliceStart(
+      int index, int startSize, int endSize, int boundsStart, int boundsEnd) {
+    return index == 0
+        ? boundsStart
+        : (index == 1 ? boundsStart + startSize : boundsEnd - endSize);
+  }
+
+  private static int getDstSliceEnd(
+      int index, int startSize, int endSize, int boundsStart, int boundsEnd) {
+    return index == 0
+        ? boundsStart + startSize
+        : (index == 1 ? boundsEnd - endSize : boundsEnd);
+  }
+
   void setShadowStartColor(int shadowStartColor) {
     if (mShadowStartColor == shadowStartColor) {
       return;
@@ -109,6 +249,7 @@ class CardShadowDrawable extends Drawable {
     mShadowStartColor = shadowStartColor;
 
     mDirty = true;
+    mShadowBitmap = null;
     invalidateSelf();
   }
 
@@ -120,6 +261,7 @@ class CardShadowDrawable extends Drawable {
     mShadowEndColor = shadowEndColor;
 
     mDirty = true;
+    mShadowBitmap = null;
     invalidateSelf();
   }
 
@@ -132,6 +274,7 @@ class CardShadowDrawable extends Drawable {
     mCornerRadius = radius;
 
     mDirty = true;
+    mShadowBitmap = null;
     invalidateSelf();
   }
 
@@ -149,6 +292,7 @@ class CardShadowDrawable extends Drawable {
     mShadowSize = (int) (shadowSize * SHADOW_MULTIPLIER + .5f);
 
     mDirty = true;
+    mShadowBitmap = null;
     invalidateSelf();
   }
 
@@ -16,6 +16,8 @@ import com.facebook.litho.ComponentTree;
 import com.facebook.litho.LayoutHandler;
 import com.facebook.litho.Size;
 import com.facebook.litho.StateHandler;
+import java.util.ArrayList;
+import java.util.List;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
@@ -30,6 +32,7 @@ import javax.annotation.concurrent.ThreadSafe;
 public class ComponentTreeHolder {
   private static final Pools.SynchronizedPool<ComponentTreeHolder> sComponentTreeHoldersPool =
       new Pools.SynchronizedPool<>(8);
+  private static final int UNINITIALIZED = -1;
 
   @GuardedBy("this")
   private ComponentTree mComponentTree;
@@ -40,6 +43,19 @@ public class ComponentTreeHolder {
   @GuardedBy("this")
   private RenderInfo mRenderInfo;
 
+  /**
+   * Trees with a valid layout for size specs other than the current ones, most recent first. See
+   * {@link #invalidateTreeForSizeSpecChange(int)}.
+   */
+  @GuardedBy("this")
+  private @Nullable List<SizeSpecTree> mSizeSpecTrees;
+
+  @GuardedBy("this")
+  private int mLastWidthSpec = UNINITIALIZED;
+
+  @GuardedBy("this")
+  private int mLastHeightSpec = UNINITIALIZED;
+
   private boolean mIsTreeValid;
   private LayoutHandler mLayoutHandler;
   private boolean mCanPrefetchDisplayLists;
@@ -82,6 +98,79 @@ public class ComponentTreeHolder {
     mIsTreeValid = false;
   }
 
+  /**
+   * Same as {@link #invalidateTree()}, for when the binder is measured with new size specs (e.g.
+   * after a rotation). Rather than being thrown away, the current tree is kept with its layout so
+   * that it can be restored without any layout calculation if the binder goes back to the
+   * previous size specs. Only maxSizeSpecTrees trees are kept, and the current tree doesn't take
+   * the place of a tree precomputed for other size specs, see {@link
+   * #precomputeLayoutForSizeSpecAsync}.
+   *
+   * <p>Trees with state are never kept, as state updates on the new tree would be lost when
+   * switching back to the old one.
+   */
+  synchronized void invalidateTreeForSizeSpecChange(int maxSizeSpecTrees) {
+    if (maxSizeSpecTrees > 0
+        && mIsTreeValid
+        && mComponentTree != null
+        && !mComponentTree.hasState()
+        && mLastWidthSpec != UNINITIALIZED) {
+      addSizeSpecTree(
+          new SizeSpecTree(
+              mComponentTree,
+              mRenderInfo.getComponent(),
+              mLastWidthSpec,
+              mLastHeightSpec,
+              false /* isPrecomputed */),
+          maxSizeSpecTrees);
+      mComponentTree = null;
+    }
+
+    invalidateTree();
+  }
+
+  /**
+   * Computes a layout for the given size specs in the background, in a separate tree that doesn't
+   * affect the current one. If the binder is later measured with these size specs, {@link
+   * #computeLayoutSync} and {@link #computeLayoutAsync} use this tree instead of calculating a new
+   * layout. Does nothing for items with state, see {@link #invalidateTreeForSizeSpecChange(int)}.
+   */
+  public void precomputeLayoutForSizeSpecAsync(
+      ComponentContext context, int widthSpec, int heightSpec, int maxSizeSpecTrees) {
+    final ComponentTree componentTree;
+    final Component component;
+
+    synchronized (this) {
+      if (maxSizeSpecTrees <= 0
+          || mRenderInfo.rendersView()
+          || !mIsTreeValid
+          || mComponentTree == null
+          || mComponentTree.hasState()
+          || (widthSpec == mLastWidthSpec && heightSpec == mLastHeightSpec)
+          || findSizeSpecTree(widthSpec, heightSpec) >= 0) {
+        return;
+      }
+
+      componentTree = createComponentTree(context);
+      component = mRenderInfo.getComponent();
+      addSizeSpecTree(
+          new SizeSpecTree(
+              componentTree, component, widthSpec, heightSpec, true /* isPrecomputed */),
+          maxSizeSpecTrees);
+    }
+
+    componentTree.setRootAndSizeSpecAsync(component, widthSpec, heightSpec);
+  }
+
+  /**
+   * @return whether a tree with a layout for the given size specs is being kept, see {@link
+   *     #invalidateTreeForSizeSpecChange(int)}.
+   */
+  synchronized boolean hasLayoutForSizeSpec(int widthSpec, int heightSpec) {
+    return (mIsTreeValid && widthSpec == mLastWidthSpec && heightSpec == mLastHeightSpec)
+        || findSizeSpecTree(widthSpec, heightSpec) >= 0;
+  }
+
   synchronized void clearStateHandler() {
     mStateHandler = null;
   }
@@ -98,10 +187,13 @@ public class ComponentTreeHolder {
         return;
       }
 
+      maybeRestoreSizeSpecTree(widthSpec, heightSpec);
       ensureComponentTree(context);
 
       componentTree = mComponentTree;
       component = mRenderInfo.getComponent();
+      mLastWidthSpec = widthSpec;
+      mLastHeightSpec = heightSpec;
     }
 
     componentTree.setRootAndSizeSpec(component, widthSpec, heightSpec, size);
@@ -124,10 +216,13 @@ public class ComponentTreeHolder {
         return;
       }
 
+      maybeRestoreSizeSpecTree(widthSpec, heightSpec);
       ensureComponentTree(context);
 
       componentTree = mComponentTree;
       component = mRenderInfo.getComponent();
+      mLastWidthSpec = widthSpec;
+      mLastHeightSpec = heightSpec;
     }
 
     componentTree.setRootAndSizeSpecAsync(component, widthSpec, heightSpec);
@@ -153,6 +248,7 @@ public class ComponentTreeHolder {
 
   public synchronized void setRenderInfo(RenderInfo renderInfo) {
     invalidateTree();
+    releaseSizeSpecTrees();
     mRenderInfo = renderInfo;
   }
 
@@ -169,21 +265,25 @@ public class ComponentTreeHolder {
   @GuardedBy("this")
   private void ensureComponentTree(ComponentContext context) {
     if (mComponentTree == null) {
-      final Object clipChildrenAttr = mRenderInfo.getCustomAttribute(RenderInfo.CLIP_CHILDREN);
-      final boolean clipChildren = clipChildrenAttr == null ? true : (boolean) clipChildrenAttr;
-
-      mComponentTree =
-          ComponentTree.create(context, mRenderInfo.getComponent())
-              .layoutThreadHandler(mLayoutHandler)
-              .stateHandler(mStateHandler)
-              .canPrefetchDisplayLists(mCanPrefetchDisplayLists)
-              .canCacheDrawingDisplayLists(mCanCacheDrawingDisplayLists)
-              .shouldClipChildren(clipChildren)
-              .preAllocateMountContentHandler(mPreallocateMountContentHandler)
-              .build();
+      mComponentTree = createComponentTree(context);
     }
   }
 
+  @GuardedBy("this")
+  private ComponentTree createComponentTree(ComponentContext context) {
+    final Object clipChildrenAttr = mRenderInfo.getCustomAttribute(RenderInfo.CLIP_CHILDREN);
+    final boolean clipChildren = clipChildrenAttr == null ? true : (boolean) clipChildrenAttr;
+
+    return ComponentTree.create(context, mRenderInfo.getComponent())
+        .layoutThreadHandler(mLayoutHandler)
+        .stateHandler(mStateHandler)
+        .canPrefetchDisplayLists(mCanPrefetchDisplayLists)
+        .canCacheDrawingDisplayLists(mCanCacheDrawingDisplayLists)
+        .shouldClipChildren(clipChildren)
+        .preAllocateMountContentHandler(mPreallocateMountContentHandler)
+        .build();
+  }
+
   @GuardedBy("this")
   private void releaseTree() {
     if (mComponentTree != null) {
@@ -192,6 +292,103 @@ public class ComponentTreeHolder {
     }
 
     mIsTreeValid = false;
+    mLastWidthSpec = UNINITIALIZED;
+    mLastHeightSpec = UNINITIALIZED;
+    releaseSizeSpecTrees();
+  }
+
+  /**
+   * Swaps the current tree with a kept tree for the given size specs, if there is one for the
+   * current component. The current tree is kept in turn, so that going back and forth between two
+   * sets of size specs never requires a layout calculation.
+   */
+  @GuardedBy("this")
+  private void maybeRestoreSizeSpecTree(int widthSpec, int heightSpec) {
+    if (mIsTreeValid && widthSpec == mLastWidthSpec && heightSpec == mLastHeightSpec) {
+      return;
+    }
+
+    final int index = findSizeSpecTree(widthSpec, heightSpec);
+    if (index < 0) {
+      return;
+    }
+
+    final SizeSpecTree sizeSpecTree = mSizeSpecTrees.remove(index);
+    if (mComponentTree != null) {
+      if (mIsTreeValid && !mComponentTree.hasState() && mLastWidthSpec != UNINITIALIZED) {
+        mSizeSpecTrees.add(
+            0,
+            new SizeSpecTree(
+                mComponentTree,
+                mRenderInfo.getComponent(),
+                mLastWidthSpec,
+                mLastHeightSpec,
+                false /* isPrecomputed */));
+      } else {
+        mComponentTree.release();
+      }
+    }
+
+    mComponentTree = sizeSpecTree.mComponentTree;
+  }
+
+  @GuardedBy("this")
+  private int findSizeSpecTree(int widthSpec, int heightSpec) {
+    if (mSizeSpecTrees == null) {
+      return -1;
+    }
+
+    final Component component = mRenderInfo.getComponent();
+    for (int i = 0, size = mSizeSpecTrees.size(); i < size; i++) {
+      final SizeSpecTree sizeSpecTree = mSizeSpecTrees.get(i);
+      if (sizeSpecTree.mWidthSpec == widthSpec
+          && sizeSpecTree.mHeightSpec == heightSpec
+          && sizeSpecTree.mComponent == component) {
+        return i;
+      }
+    }
+
+    return -1;
+  }
+
+  @GuardedBy("this")
+  private void addSizeSpecTree(SizeSpecTree sizeSpecTree, int maxSizeSpecTrees) {
+    if (mSizeSpecTrees == null) {
+      mSizeSpecTrees = new ArrayList<>(maxSizeSpecTrees);
+    }
+
+    mSizeSpecTrees.add(0, sizeSpecTree);
+    while (mSizeSpecTrees.size() > maxSizeSpecTrees) {
+      mSizeSpecTrees.remove(findSizeSpecTreeToEvict()).mComponentTree.release();
+    }
+  }
+
+  /**
+   * @return the least recent kept tree. Trees precomputed for the size specs the binder is likely
+   *     to be measured with next are only evicted if all the trees are precomputed, so that a
+   *     rotation doesn't evict the tree computed for the new orientation to keep the old one.
+   */
+  @GuardedBy("this")
+  private int findSizeSpecTreeToEvict() {
+    for (int i = mSizeSpecTrees.size() - 1; i >= 0; i--) {
+      if (!mSizeSpecTrees.get(i).mIsPrecomputed) {
+        return i;
+      }
+    }
+
+    return mSizeSpecTrees.size() - 1;
+  }
+
+  @GuardedBy("this")
+  private void releaseSizeSpecTrees() {
+    if (mSizeSpecTrees == null) {
+      return;
+    }
+
+    for (int i = 0, size = mSizeSpecTrees.size(); i < size; i++) {
+      mSizeSpecTrees.get(i).mComponentTree.release();
+    }
+    mSizeSpecTrees = null;
   }
 
   @GuardedBy("this")
@@ -202,4 +399,27 @@ public class ComponentTreeHolder {
 
     mStateHandler = mComponentTree.getStateHandler();
   }
+
+  /** A tree kept with its layout for the size specs it was computed with. */
+  private static class SizeSpecTree {
+    private final ComponentTree mComponentTree;
+    private final Component mComponent;
+    private final int mWidthSpec;
+    private final int mHeightSpec;
+    // Whether the tree was computed ahead of time rather than kept from previous size specs.
+    private final boolean mIsPrecomputed;
+
+    private SizeSpecTree(
+        ComponentTree componentTree,
+        Component component,
+        int widthSpec,
+        int heightSpec,
+        boolean isPrecomputed) {
+      mComponentTree = componentTree;
+      mComponent = component;
+      mWidthSpec = widthSpec;
+      mHeightSpec = heightSpec;
+      mIsPrecomputed = isPrecomputed;
+    }
+  }
 }
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho.widget;
+
+import com.facebook.litho.Component;
+import com.facebook.litho.ComponentContext;
+import com.facebook.litho.ComponentTree;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * Holds the {@link ComponentTree} that renders the content of a scroll component. It's kept in the
+ * state of the component, so that a new content is laid out by diffing it against the previous
+ * one. The tree is kept when the component is unmounted, e.g. to be updated with new props, and
+ * it's dropped with the state of the component.
+ */
+final class ContentTreeHolder {
+
+  private final boolean mIncrementalMountEnabled;
+
+  @GuardedBy("this")
+  private @Nullable ComponentTree mComponentTree;
+
+  ContentTreeHolder(boolean incrementalMountEnabled) {
+    mIncrementalMountEnabled = incrementalMountEnabled;
+  }
+
+  /** @return the tree of the content, creating it the first time. */
+  synchronized ComponentTree get(ComponentContext c, Component<?> content) {
+    if (mComponentTree == null) {
+      mComponentTree =
+          ComponentTree.create(c, content).incrementalMount(mIncrementalMountEnabled).build();
+    }
+
+    return mComponentTree;
+  }
+}
@@ -9,19 +9,9 @@
 
 package com.facebook.litho.widget;
 
-import static android.os.Process.THREAD_PRIORITY_BACKGROUND;
-import static android.os.Process.THREAD_PRIORITY_LOWEST;
-
 import android.graphics.Canvas;
-import android.graphics.Picture;
-import android.os.Handler;
-import android.os.HandlerThread;
-import android.os.Looper;
-import android.os.Message;
 import android.support.annotation.VisibleForTesting;
 import android.text.Layout;
-import com.facebook.fbui.textlayoutbuilder.util.LayoutMeasureUtil;
-import java.lang.ref.WeakReference;
 
 /**
  * A class that schedules a background draw of a {@link Layout}. Drawing a {@link Layout} in the
@@ -29,39 +19,29 @@ import java.lang.ref.WeakReference;
  * {@link Layout} on a real {@link Canvas}. This will substantially reduce drawing times for big
  * chunks of text. On the other hand over-using text warming might rotate the glyphs cache too
  * quickly and diminish the optimization.
+ *
+ * <p>The drawing happens on the {@link TextPrefetcher} threads, ahead of any text that is further
+ * away from the viewport.
  */
 public class GlyphWarmer {
 
-  private static final String TAG = GlyphWarmer.class.getName();
-
-  private static final int WARMER_THREAD_PRIORITY =
-      (THREAD_PRIORITY_BACKGROUND + THREAD_PRIORITY_LOWEST) / 2;
-
   private static GlyphWarmer sInstance;
-  private final WarmerHandler mHandler;
+  private final TextPrefetcher mTextPrefetcher;
 
   /**
    * @return the global {@link GlyphWarmer} instance.
    */
   public static synchronized GlyphWarmer getInstance() {
     if (sInstance == null) {
-      sInstance = new GlyphWarmer();
+      sInstance = new GlyphWarmer(TextPrefetcher.getInstance());
     }
 
     return sInstance;
   }
 
-  private GlyphWarmer() {
-
-    HandlerThread handlerThread = new HandlerThread(TAG, WARMER_THREAD_PRIORITY);
-    handlerThread.start();
-
-    mHandler = new WarmerHandler(handlerThread.getLooper());
-  }
-
   @VisibleForTesting
-  Looper getWarmerLooper() {
-    return mHandler.getLooper();
+  GlyphWarmer(TextPrefetcher textPrefetcher) {
+    mTextPrefetcher = textPrefetcher;
   }
 
   /**
@@ -69,49 +49,6 @@ public class GlyphWarmer {
    * that {@link Layout}.
    */
   public void warmLayout(Layout layout) {
-    mHandler.obtainMessage(WarmerHandler.WARM_LAYOUT, new WeakReference<>(layout)).sendToTarget();
-  }
-
-  private static final class WarmerHandler extends Handler {
-    public static final int WARM_LAYOUT = 0;
-
-    private final Picture mPicture;
-
-    private WarmerHandler(Looper looper) {
-      super(looper);
-
-      Picture picture;
-      try {
-        picture = new Picture();
-      } catch (RuntimeException e) {
-        picture = null;
-      }
-
-      mPicture = picture;
-    }
-
-    @Override
-    public void handleMessage(Message msg) {
-      if (mPicture == null) {
-        return;
-      }
-
-      try {
-        final Layout layout = ((WeakReference<Layout>) msg.obj).get();
-
-        if (layout == null) {
-          return;
-        }
-
-        final Canvas canvas = mPicture.beginRecording(
-            layout.getWidth(),
-            LayoutMeasureUtil.getHeight(layout));
-
-        layout.draw(canvas);
-        mPicture.endRecording();
-      } catch (Exception e) {
-        // Nothing to do here. This is a best effort. No real problem if it fails.
-      }
-    }
+    mTextPrefetcher.warmLayout(layout, TextPrefetcher.DISTANCE_VISIBLE);
   }
 }
@@ -14,7 +14,6 @@ import static com.facebook.litho.SizeSpec.UNSPECIFIED;
 
 import android.content.Context;
 import android.content.res.TypedArray;
-import android.support.v4.util.Pools.SynchronizedPool;
 import android.view.ViewTreeObserver;
 import android.widget.HorizontalScrollView;
 import com.facebook.litho.Component;
@@ -29,7 +28,6 @@ import com.facebook.litho.SizeSpec;
 import com.facebook.litho.StateValue;
 import com.facebook.litho.annotations.FromBoundsDefined;
 import com.facebook.litho.annotations.FromMeasure;
-import com.facebook.litho.annotations.FromPrepare;
 import com.facebook.litho.annotations.MountSpec;
 import com.facebook.litho.annotations.OnBoundsDefined;
 import com.facebook.litho.annotations.OnCreateInitialState;
@@ -37,7 +35,6 @@ import com.facebook.litho.annotations.OnCreateMountContent;
 import com.facebook.litho.annotations.OnLoadStyle;
 import com.facebook.litho.annotations.OnMeasure;
 import com.facebook.litho.annotations.OnMount;
-import com.facebook.litho.annotations.OnPrepare;
 import com.facebook.litho.annotations.OnUnmount;
 import com.facebook.litho.annotations.Prop;
 import com.facebook.litho.annotations.PropDefault;
@@ -55,9 +52,6 @@ class HorizontalScrollSpec {
 
   @PropDefault static final boolean scrollbarEnabled = true;
 
-  private static final SynchronizedPool<Size> sSizePool =
-      new SynchronizedPool<>(2);
-
   @OnLoadStyle
   static void onLoadStyle(
       ComponentContext c,
@@ -78,17 +72,6 @@ class HorizontalScrollSpec {
     a.recycle();
   }
 
-  @OnPrepare
-  static void onPrepare(
-      ComponentContext context,
-      @Prop Component<?> contentProps,
-      Output<ComponentTree> contentComponent) {
-    contentComponent.set(
-        ComponentTree.create(context, contentProps)
-            .incrementalMount(false)
-            .build());
-  }
-
   @OnMeasure
   static void onMeasure(
       ComponentContext context,
@@ -96,28 +79,24 @@ class HorizontalScrollSpec {
       int widthSpec,
       int heightSpec,
       Size size,
-      @FromPrepare ComponentTree contentComponent,
+      @Prop Component<?> contentProps,
+      @State ContentTreeHolder contentComponent,
       Output<Integer> measuredComponentWidth,
-      Output<Integer> measuredComponentHeight) {
-
-    final int measuredWidth;
-    final int measuredHeight;
-
-    Size contentSize = acquireSize();
+      Output<Integer> measuredComponentHeight,
+      Output<ComponentTree.PreparedLayout> measuredContentLayout) {
 
     // Measure the component with undefined width spec, as the contents of the
     // hscroll have unlimited horizontal space.
-    contentComponent.setSizeSpec(
-        SizeSpec.makeSizeSpec(0, UNSPECIFIED),
-        heightSpec,
-        contentSize);
-
-    measuredWidth = contentSize.width;
-    measuredHeight = contentSize.height;
+    final ComponentTree.PreparedLayout contentLayout =
+        contentComponent
+            .get(context, contentProps)
+            .prepareRootAndSizeSpec(
+                contentProps, SizeSpec.makeSizeSpec(0, UNSPECIFIED), heightSpec);
 
-    releaseSize(contentSize);
-    contentSize = null;
+    final int measuredWidth = contentLayout.getWidth();
+    final int measuredHeight = contentLayout.getHeight();
 
+    measuredContentLayout.set(contentLayout);
     measuredComponentWidth.set(measuredWidth);
     measuredComponentHeight.set(measuredHeight);
 
@@ -133,35 +112,33 @@ class HorizontalScrollSpec {
   static void onBoundsDefined(
       ComponentContext context,
       ComponentLayout layout,
-      @FromPrepare ComponentTree contentComponent,
+      @Prop Component<?> contentProps,
+      @State ContentTreeHolder contentComponent,
       @FromMeasure Integer measuredComponentWidth,
       @FromMeasure Integer measuredComponentHeight,
+      @FromMeasure ComponentTree.PreparedLayout measuredContentLayout,
       Output<Integer> componentWidth,
-      Output<Integer> componentHeight) {
+      Output<Integer> componentHeight,
+      Output<ComponentTree.PreparedLayout> contentLayout) {
 
     // If onMeasure() has been called, this means the content component already
     // has a defined size, no need to calculate it again.
     if (measuredComponentWidth != null && measuredComponentHeight != null) {
       componentWidth.set(measuredComponentWidth);
       componentHeight.set(measuredComponentHeight);
+      contentLayout.set(measuredContentLayout);
     } else {
-      final int measuredWidth;
-      final int measuredHeight;
-
-      Size contentSize = acquireSize();
-      contentComponent.setSizeSpec(
-          SizeSpec.makeSizeSpec(0, UNSPECIFIED),
-          SizeSpec.makeSizeSpec(layout.getHeight(), EXACTLY),
-          contentSize);
-
-      measuredWidth = contentSize.width;
-      measuredHeight = contentSize.height;
-
-      releaseSize(contentSize);
-      contentSize = null;
-
-      componentWidth.set(measuredWidth);
-      componentHeight.set(measuredHeight);
+      final ComponentTree.PreparedLayout preparedLayout =
+          contentComponent
+              .get(context, contentProps)
+              .prepareRootAndSizeSpec(
+                  contentProps,
+                  SizeSpec.makeSizeSpec(0, UNSPECIFIED),
+                  SizeSpec.makeSizeSpec(layout.getHeight(), EXACTLY));
+
+      componentWidth.set(preparedLayout.getWidth());
+      componentHeight.set(preparedLayout.getHeight());
+      contentLayout.set(preparedLayout);
     }
   }
 
@@ -175,13 +152,20 @@ class HorizontalScrollSpec {
       ComponentContext context,
       final HorizontalScrollLithoView horizontalScrollLithoView,
       @Prop(optional = true, resType = ResType.BOOL) boolean scrollbarEnabled,
+      @Prop Component<?> contentProps,
       @State final ScrollPosition lastScrollPosition,
-      @FromPrepare ComponentTree contentComponent,
+      @State ContentTreeHolder contentComponent,
       @FromBoundsDefined int componentWidth,
-      @FromBoundsDefined int componentHeight) {
+      @FromBoundsDefined int componentHeight,
+      @FromBoundsDefined ComponentTree.PreparedLayout contentLayout) {
+
+    // The content layout was calculated along with this component, render it now that it's
+    // mounted.
+    final ComponentTree contentTree = contentComponent.get(context, contentProps);
+    contentTree.setRootAndSizeSpec(contentLayout);
 
     horizontalScrollLithoView.setHorizontalScrollBarEnabled(scrollbarEnabled);
-    horizontalScrollLithoView.mount(contentComponent, componentWidth, componentHeight);
+    horizontalScrollLithoView.mount(contentTree, componentWidth, componentHeight);
     final ViewTreeObserver viewTreeObserver = horizontalScrollLithoView.getViewTreeObserver();
     viewTreeObserver.addOnPreDrawListener(
         new ViewTreeObserver.OnPreDrawListener() {
@@ -211,8 +195,10 @@ class HorizontalScrollSpec {
   @OnCreateInitialState
   static void onCreateInitialState(
       ComponentContext c,
-      StateValue<ScrollPosition> lastScrollPosition) {
+      StateValue<ScrollPosition> lastScrollPosition,
+      StateValue<ContentTreeHolder> contentComponent) {
     lastScrollPosition.set(new ScrollPosition());
+    contentComponent.set(new ContentTreeHolder(false /* incrementalMountEnabled */));
   }
 
   static class HorizontalScrollLithoView extends HorizontalScrollView {
@@ -257,19 +243,6 @@ class HorizontalScrollSpec {
     }
   }
 
-  private static Size acquireSize() {
-    Size size = sSizePool.acquire();
-    if (size == null) {
-      size = new Size();
-    }
-
-    return size;
-  }
-
-  private static void releaseSize(Size size) {
-    sSizePool.release(size);
-  }
-
   static class ScrollPosition {
     int x = 0;
   }
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho.widget;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Running statistics of the sizes of the items of a {@link RecyclerBinder} along its scrolling
+ * direction. They are used to estimate how many items fill a viewport from the items measured so
+ * far rather than from the first one only, which can be anything from a thin header to a full
+ * screen image.
+ *
+ * <p>The estimate is a low percentile of the most recent samples: an outlier doesn't move it, and
+ * erring on the small side means computing a few layouts too many rather than showing blank
+ * items. An exponentially weighted average is also kept for each render type (see {@link
+ * RenderInfo#getName()}) to help understand the estimate when debugging.
+ */
+@ThreadSafe
+public final class ItemSizeStatistics {
+
+  /** Number of samples needed before the statistics are preferred to the first measured item. */
+  public static final int MIN_SAMPLES_FOR_ESTIMATE = 3;
+
+  private static final int SAMPLE_WINDOW_SIZE = 32;
+  private static final float ESTIMATE_PERCENTILE = 0.25f;
+  private static final float AVERAGE_WEIGHT = 0.2f;
+
+  private final int[] mSamples = new int[SAMPLE_WINDOW_SIZE];
+  private final int[] mSortedSamples = new int[SAMPLE_WINDOW_SIZE];
+  private final Map<String, RenderTypeStats> mRenderTypeStats = new HashMap<>();
+  private int mSampleCount;
+  private int mNextSample;
+
+  /**
+   * Adds the size of a measured item.
+   *
+   * @param renderType the name of the {@link RenderInfo} of the item.
+   * @param size the size of the item along the scrolling direction, ignored if not positive.
+   */
+  synchronized void addSample(@Nullable String renderType, int size) {
+    if (size <= 0) {
+      return;
+    }
+
+    mSamples[mNextSample] = size;
+    mNextSample = (mNextSample + 1) % SAMPLE_WINDOW_SIZE;
+    mSampleCount++;
+
+    final String key = renderType != null ? renderType : "";
+    RenderTypeStats stats = mRenderTypeStats.get(key);
+    if (stats == null) {
+      stats = new RenderTypeStats();
+      stats.average = size;
+      mRenderTypeStats.put(key, stats);
+    } else {
+      stats.average += AVERAGE_WEIGHT * (size - stats.average);
+    }
+    stats.count++;
+  }
+
+  /** Drops all the samples, e.g. when the items are going to be laid out with a new size. */
+  synchronized void reset() {
+    mSampleCount = 0;
+    mNextSample = 0;
+    mRenderTypeStats.clear();
+  }
+
+  /** @return the total number of samples added, including the ones no longer in the window. */
+  public synchronized int getSampleCount() {
+    return mSampleCount;
+  }
+
+  /**
+   * @return the estimated size of an item, or -1 if less than {@link #MIN_SAMPLES_FOR_ESTIMATE}
+   *     items were measured.
+   */
+  public synchronized int getEstimatedItemSize() {
+    if (mSampleCount < MIN_SAMPLES_FOR_ESTIMATE) {
+      return -1;
+    }
+
+    final int windowSize = Math.min(mSampleCount, SAMPLE_WINDOW_SIZE);
+    System.arraycopy(mSamples, 0, mSortedSamples, 0, windowSize);
+    Arrays.sort(mSortedSamples, 0, windowSize);
+
+    return mSortedSamples[(int) ((windowSize - 1) * ESTIMATE_PERCENTILE)];
+  }
+
+  /**
+   * @return the exponentially weighted average size of the items with the given render type, or
+   *     -1 if none was measured.
+   */
+  public synchronized int getAverageItemSize(@Nullable String renderType) {
+    final RenderTypeStats stats = mRenderTypeStats.get(renderType != null ? renderType : "");
+    return stats != null ? Math.round(stats.average) : -1;
+  }
+
+  /** @return a summary of the statistics, one line per render type. */
+  @Override
+  public synchronized String toString() {
+    final StringBuilder builder = new StringBuilder();
+    builder
+        .append("estimatedItemSize=")
+        .append(getEstimatedItemSize())
+        .append(", samples=")
+        .append(mSampleCount);
+
+    for (Map.Entry<String, RenderTypeStats> entry : mRenderTypeStats.entrySet()) {
+      builder
+          .append('\n')
+          .append(entry.getKey())
+          .append(": average=")
+          .append(Math.round(entry.getValue().average))
+          .append(", count=")
+          .append(entry.getValue().count);
+    }
+
+    return builder.toString();
+  }
+
+  private static class RenderTypeStats {
+    private float average;
+    private int count;
+  }
+}
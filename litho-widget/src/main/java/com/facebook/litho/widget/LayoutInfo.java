@@ -38,7 +38,8 @@ public interface LayoutInfo extends ViewportInfo {
   /**
    * This is called when the {@link RecyclerBinder} needs to calculate a range size.
    * The returned value should be an approximate range size based on the size of the first measured
-   * item.
+   * item. As more items are measured, this is called again with an item size estimated from all of
+   * them (see {@link ItemSizeStatistics}).
    *
    * @param firstMeasuredItemWidth The width of the first item measured while computing the range.
    * @param firstMeasuredItemHeight The height of the first item measured while computing the range.
@@ -19,6 +19,7 @@ import static com.facebook.litho.widget.RenderInfoViewCreatorController.COMPONEN
 import android.os.Build;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.MessageQueue;
 import android.support.annotation.UiThread;
 import android.support.annotation.VisibleForTesting;
 import android.support.v4.view.ViewCompat;
@@ -26,6 +27,7 @@ import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.OrientationHelper;
 import android.support.v7.widget.RecyclerView;
 import android.support.v7.widget.RecyclerView.LayoutManager;
+import android.util.DisplayMetrics;
 import android.util.Log;
 import android.view.View;
 import android.view.ViewGroup;
@@ -80,6 +82,9 @@ public class RecyclerBinder
   private final float mRangeRatio;
   private final AtomicBoolean mIsMeasured = new AtomicBoolean(false);
   private final AtomicBoolean mRequiresRemeasure = new AtomicBoolean(false);
+  // Whether the idle handler that precomputes the layouts for the other orientation is posted or
+  // added and hasn't run yet. It reads the visible range when it runs, so it's only added once.
+  private final AtomicBoolean mIsPrecomputeOtherOrientationScheduled = new AtomicBoolean(false);
   private final Runnable mRemeasureRunnable = new Runnable() {
     @Override
     public void run() {
@@ -104,9 +109,12 @@ public class RecyclerBinder
   private int mCurrentLastVisiblePosition = RecyclerView.NO_POSITION;
   private int mCurrentOffset;
   private @Nullable RangeCalculationResult mRange;
+  private final ItemSizeStatistics mItemSizeStatistics = new ItemSizeStatistics();
   private StickyHeaderController mStickyHeaderController;
   private final boolean mCanPrefetchDisplayLists;
   private final boolean mCanCacheDrawingDisplayLists;
+  private final int mSizeSpecTreesPerItem;
+  private final boolean mPrecomputeOtherOrientation;
   private EventHandler<ReMeasureEvent> mReMeasureEventEventHandler;
 
   private final ViewportManager mViewportManager;
@@ -135,6 +143,24 @@ public class RecyclerBinder
         }
       };
 
+  private final MessageQueue.IdleHandler mPrecomputeOtherOrientationIdleHandler =
+      new MessageQueue.IdleHandler() {
+        @Override
+        public boolean queueIdle() {
+          mIsPrecomputeOtherOrientationScheduled.set(false);
+          precomputeOtherOrientationLayouts();
+          return false;
+        }
+      };
+
+  private final Runnable mSchedulePrecomputeOtherOrientationRunnable =
+      new Runnable() {
+        @Override
+        public void run() {
+          Looper.myQueue().addIdleHandler(mPrecomputeOtherOrientationIdleHandler);
+        }
+      };
+
   interface ComponentTreeHolderFactory {
     ComponentTreeHolder create(
         RenderInfo renderInfo,
@@ -168,6 +194,8 @@ public class RecyclerBinder
     private ComponentContext componentContext;
     private LithoViewFactory lithoViewFactory;
     private boolean isCircular;
+    private int sizeSpecTreesPerItem;
+    private boolean precomputeOtherOrientation;
 
     /**
      * @param rangeRatio specifies how big a range this binder should try to compute. The range is
@@ -227,6 +255,29 @@ public class RecyclerBinder
       return this;
     }
 
+    /**
+     * @param sizeSpecTreesPerItem how many layouts for previous size specs each item keeps around
+     *     when the binder is measured with new size specs (e.g. on rotation or when entering split
+     *     screen). Going back to one of those size specs then doesn't require any layout
+     *     calculation. Only items without state keep previous layouts. Defaults to 0.
+     */
+    public Builder sizeSpecTreesPerItem(int sizeSpecTreesPerItem) {
+      this.sizeSpecTreesPerItem = sizeSpecTreesPerItem;
+      return this;
+    }
+
+    /**
+     * Whether the binder should compute layouts for the other screen orientation in the background
+     * when the main thread is idle, so that rotating doesn't require laying out the items in range
+     * again. The size of the binder after the rotation is guessed assuming it keeps the same
+     * margins to the edges of the screen. Requires {@link #sizeSpecTreesPerItem(int)} to be at
+     * least 1. Defaults to false.
+     */
+    public Builder precomputeOtherOrientation(boolean precomputeOtherOrientation) {
+      this.precomputeOtherOrientation = precomputeOtherOrientation;
+      return this;
+    }
+
     /**
      * @param componentTreeHolderFactory Factory to acquire a new ComponentTreeHolder. Defaults to
      *     {@link #DEFAULT_COMPONENT_TREE_HOLDER_FACTORY}.
@@ -266,6 +317,8 @@ public class RecyclerBinder
     mCanCacheDrawingDisplayLists = builder.canCacheDrawingDisplayLists;
 
     mIsCircular = builder.isCircular;
+    mSizeSpecTreesPerItem = builder.sizeSpecTreesPerItem;
+    mPrecomputeOtherOrientation = builder.precomputeOtherOrientation;
 
     mViewportManager =
         new ViewportManager(
@@ -430,7 +483,9 @@ public class RecyclerBinder
     }
 
     if (computeLayout) {
-      holder.computeLayoutSync(mComponentContext, childrenWidthSpec, childrenHeightSpec, null);
+      computeLayoutSync(holder, childrenWidthSpec, childrenHeightSpec);
+    } else {
+      maybePrefetchTexts(position, renderInfo, childrenWidthSpec);
     }
     mInternalAdapter.notifyItemInserted(position);
 
@@ -441,6 +496,41 @@ public class RecyclerBinder
             position, 1, mRange != null ? mRange.estimatedViewportCount : -1));
   }
 
+  /**
+   * Hands the texts the {@link RenderInfo} asked to prefetch to the {@link TextPrefetcher}, so that
+   * they are shaped before the item is laid out, closest to the viewport first.
+   */
+  private void maybePrefetchTexts(int position, RenderInfo renderInfo, int childrenWidthSpec) {
+    final List<Component<Text>> texts = renderInfo.getTextsToPrefetch();
+    if (texts == null || !mIsMeasured.get()) {
+      return;
+    }
+
+    final int distanceToViewport = getDistanceToViewport(position);
+    final TextPrefetcher textPrefetcher = TextPrefetcher.getInstance();
+    for (int i = 0, size = texts.size(); i < size; i++) {
+      textPrefetcher.prefetch(
+          mComponentContext, texts.get(i), childrenWidthSpec, distanceToViewport);
+    }
+  }
+
+  /** @return how many items away from the visible items the given position is. */
+  private int getDistanceToViewport(int position) {
+    if (mCurrentFirstVisiblePosition == RecyclerView.NO_POSITION) {
+      return position;
+    }
+
+    if (position < mCurrentFirstVisiblePosition) {
+      return mCurrentFirstVisiblePosition - position;
+    }
+
+    if (position > mCurrentLastVisiblePosition) {
+      return position - mCurrentLastVisiblePosition;
+    }
+
+    return TextPrefetcher.DISTANCE_VISIBLE;
+  }
+
   private void requestUpdate() {
     if (mMountedView != null) {
       mMainThreadHandler.removeCallbacks(mRemeasureRunnable);
@@ -493,6 +583,8 @@ public class RecyclerBinder
             requestUpdate();
           }
         }
+
+        maybePrefetchTexts(position + i, renderInfo, getActualChildrenWidthSpec(holder));
       }
     }
     mInternalAdapter.notifyItemRangeInserted(position, renderInfos.size());
@@ -556,11 +648,13 @@ public class RecyclerBinder
         !ComponentsConfiguration.sectionsNoNotifyItemChanged
             || renderInfoWasView
             || renderInfo.rendersView();
-    if (doNotifyItemChanged) {
-      if (shouldComputeLayout) {
-        holder.computeLayoutSync(mComponentContext, childrenWidthSpec, childrenHeightSpec, null);
-      }
+    if (doNotifyItemChanged && shouldComputeLayout) {
+      computeLayoutSync(holder, childrenWidthSpec, childrenHeightSpec);
+    } else {
+      maybePrefetchTexts(position, renderInfo, childrenWidthSpec);
+    }
 
+    if (doNotifyItemChanged) {
       mInternalAdapter.notifyItemChanged(position);
     }
     computeRange(mCurrentFirstVisiblePosition, mCurrentLastVisiblePosition);
@@ -605,6 +699,8 @@ public class RecyclerBinder
               getActualChildrenHeightSpec(holder),
               mLayoutInfo.getScrollDirection());
         }
+
+        maybePrefetchTexts(position + i, newRenderInfo, getActualChildrenWidthSpec(holder));
       }
     }
 
@@ -650,7 +746,7 @@ public class RecyclerBinder
     if (isTreeValid && !isNewPositionInRange) {
       holder.acquireStateHandlerAndReleaseTree();
     } else if (isNewPositionInVisibleRange && !isTreeValid) {
-      holder.computeLayoutSync(mComponentContext, childrenWidthSpec, childrenHeightSpec, null);
+      computeLayoutSync(holder, childrenWidthSpec, childrenHeightSpec);
     }
     mInternalAdapter.notifyItemMoved(fromPosition, toPosition);
 
@@ -889,6 +985,8 @@ public class RecyclerBinder
     if (mRange != null) {
       computeRange(mCurrentFirstVisiblePosition, mCurrentLastVisiblePosition);
     }
+
+    maybeSchedulePrecomputeOtherOrientation();
   }
 
   private int findFirstComponentPosition() {
@@ -937,8 +1035,14 @@ public class RecyclerBinder
   @GuardedBy("this")
   private void invalidateLayoutData() {
     mRange = null;
+    // The items will have new sizes, e.g. text wraps differently with a different width.
+    mItemSizeStatistics.reset();
     for (int i = 0, size = mComponentTreeHolders.size(); i < size; i++) {
-      mComponentTreeHolders.get(i).invalidateTree();
+      if (mSizeSpecTreesPerItem > 0) {
+        mComponentTreeHolders.get(i).invalidateTreeForSizeSpecChange(mSizeSpecTreesPerItem);
+      } else {
+        mComponentTreeHolders.get(i).invalidateTree();
+      }
     }
 
     // We need to call this as we want to make sure everything is re-bound since we need new sizes
@@ -966,6 +1070,7 @@ public class RecyclerBinder
     final Size size = new Size();
     final ComponentTreeHolder holder = mComponentTreeHolders.get(positionToComputeLayout);
     holder.computeLayoutSync(mComponentContext, childrenWidthSpec, childrenHeightSpec, size);
+    addItemSizeSample(holder.getRenderInfo(), size.width, size.height);
 
     final int rangeSize = Math.max(
         mLayoutInfo.approximateRangeSize(
@@ -978,6 +1083,52 @@ public class RecyclerBinder
     mRange = new RangeCalculationResult();
     mRange.measuredSize = scrollDirection == HORIZONTAL ? size.height : size.width;
     mRange.estimatedViewportCount = rangeSize;
+    mRange.itemSizeSampleCount = mItemSizeStatistics.getSampleCount();
+  }
+
+  /**
+   * Computes the layout of the given item synchronously and adds its size to the statistics used
+   * to estimate the range.
+   */
+  private void computeLayoutSync(ComponentTreeHolder holder, int widthSpec, int heightSpec) {
+    final Size size = new Size();
+    holder.computeLayoutSync(mComponentContext, widthSpec, heightSpec, size);
+    addItemSizeSample(holder.getRenderInfo(), size.width, size.height);
+  }
+
+  private void addItemSizeSample(RenderInfo renderInfo, int width, int height) {
+    mItemSizeStatistics.addSample(
+        renderInfo.getName(), mLayoutInfo.getScrollDirection() == HORIZONTAL ? width : height);
+  }
+
+  /**
+   * Re-estimates the number of items needed to fill the viewport if items were measured since the
+   * last estimate. Until enough items are measured, the estimate based on the first measured item
+   * is kept.
+   */
+  @GuardedBy("this")
+  private void maybeUpdateEstimatedViewportCount() {
+    if (mRange == null
+        || mMeasuredSize == null
+        || mRange.itemSizeSampleCount == mItemSizeStatistics.getSampleCount()) {
+      return;
+    }
+
+    final int estimatedItemSize = mItemSizeStatistics.getEstimatedItemSize();
+    if (estimatedItemSize <= 0) {
+      return;
+    }
+
+    final boolean isHorizontal = mLayoutInfo.getScrollDirection() == HORIZONTAL;
+    mRange.itemSizeSampleCount = mItemSizeStatistics.getSampleCount();
+    mRange.estimatedViewportCount =
+        Math.max(
+            mLayoutInfo.approximateRangeSize(
+                isHorizontal ? estimatedItemSize : mRange.measuredSize,
+                isHorizontal ? mRange.measuredSize : estimatedItemSize,
+                mMeasuredSize.width,
+                mMeasuredSize.height),
+            1);
   }
 
   /**
@@ -1202,6 +1353,8 @@ public class RecyclerBinder
     private int estimatedViewportCount;
     // The size computed for the first Component.
     private int measuredSize;
+    // The number of item sizes known to the statistics when the count was last estimated.
+    private int itemSizeSampleCount;
   }
 
   @Override
@@ -1215,6 +1368,79 @@ public class RecyclerBinder
     mCurrentFirstVisiblePosition = firstVisiblePosition;
     mCurrentLastVisiblePosition = lastVisiblePosition;
     computeRange(firstVisiblePosition, lastVisiblePosition);
+    maybeSchedulePrecomputeOtherOrientation();
+  }
+
+  private void maybeSchedulePrecomputeOtherOrientation() {
+    if (!mPrecomputeOtherOrientation || mSizeSpecTreesPerItem <= 0) {
+      return;
+    }
+
+    if (mIsPrecomputeOtherOrientationScheduled.compareAndSet(false, true)) {
+      mMainThreadHandler.post(mSchedulePrecomputeOtherOrientationRunnable);
+    }
+  }
+
+  /**
+   * Computes in the background the layouts the items in range would need after a rotation. The
+   * items keep them aside (see {@link ComponentTreeHolder#precomputeLayoutForSizeSpecAsync}) and
+   * use them if the binder is then measured with the guessed size.
+   */
+  @UiThread
+  private void precomputeOtherOrientationLayouts() {
+    final List<ComponentTreeHolder> holders = new ArrayList<>();
+    final int[] sizeSpecs;
+
+    synchronized (this) {
+      if (!mIsMeasured.get() || mRequiresRemeasure.get() || mRange == null) {
+        return;
+      }
+
+      final DisplayMetrics displayMetrics = mComponentContext.getResources().getDisplayMetrics();
+      final int otherWidth =
+          mMeasuredSize.width - displayMetrics.widthPixels + displayMetrics.heightPixels;
+      final int otherHeight =
+          mMeasuredSize.height - displayMetrics.heightPixels + displayMetrics.widthPixels;
+      if (otherWidth <= 0 || otherHeight <= 0) {
+        return;
+      }
+
+      final int firstVisible = Math.max(mCurrentFirstVisiblePosition, 0);
+      final int rangeSize =
+          Math.max(mRange.estimatedViewportCount, mCurrentLastVisiblePosition - firstVisible);
+      final int rangeStart = Math.max(firstVisible - (int) (rangeSize * mRangeRatio), 0);
+      final int rangeEnd =
+          Math.min(
+              firstVisible + rangeSize + (int) (rangeSize * mRangeRatio),
+              mComponentTreeHolders.size() - 1);
+
+      sizeSpecs = new int[Math.max(2 * (rangeEnd - rangeStart + 1), 0)];
+      for (int i = rangeStart; i <= rangeEnd; i++) {
+        final ComponentTreeHolder holder = mComponentTreeHolders.get(i);
+        final RenderInfo renderInfo = holder.getRenderInfo();
+        if (!renderInfo.rendersComponent()) {
+          continue;
+        }
+
+        sizeSpecs[2 * holders.size()] =
+            mLayoutInfo.getChildWidthSpec(
+                SizeSpec.makeSizeSpec(otherWidth, SizeSpec.EXACTLY), renderInfo);
+        sizeSpecs[2 * holders.size() + 1] =
+            mLayoutInfo.getChildHeightSpec(
+                SizeSpec.makeSizeSpec(otherHeight, SizeSpec.EXACTLY), renderInfo);
+        holders.add(holder);
+      }
+    }
+
+    for (int i = 0, size = holders.size(); i < size; i++) {
+      holders
+          .get(i)
+          .precomputeLayoutForSizeSpecAsync(
+              mComponentContext,
+              sizeSpecs[2 * i],
+              sizeSpecs[2 * i + 1],
+              mSizeSpecTreesPerItem);
+    }
   }
 
   private void maybePostComputeRange() {
@@ -1240,17 +1466,24 @@ public class RecyclerBinder
       if (firstVisible == RecyclerView.NO_POSITION || lastVisible == RecyclerView.NO_POSITION) {
         firstVisible = lastVisible = 0;
       }
+      maybeUpdateEstimatedViewportCount();
       rangeSize = Math.max(mRange.estimatedViewportCount, lastVisible - firstVisible);
       rangeStart = firstVisible - (int) (rangeSize * mRangeRatio);
       rangeEnd = firstVisible + rangeSize + (int) (rangeSize * mRangeRatio);
       treeHoldersSize = mComponentTreeHolders.size();
     }
 
-    computeRangeLayout(treeHoldersSize, rangeStart, rangeEnd, mIsCircular);
+    computeRangeLayout(
+        treeHoldersSize, rangeStart, rangeEnd, firstVisible, lastVisible, mIsCircular);
   }
 
   private void computeRangeLayout(
-      int treeHoldersSize, int rangeStart, int rangeEnd, boolean ignoreRange) {
+      int treeHoldersSize,
+      int rangeStart,
+      int rangeEnd,
+      int firstVisible,
+      int lastVisible,
+      boolean ignoreRange) {
     // TODO 16212153 optimize computeRange loop.
     for (int i = 0; i < treeHoldersSize; i++) {
       final ComponentTreeHolder holder;
@@ -1282,8 +1515,17 @@ public class RecyclerBinder
           if (!holder.isTreeValid()) {
             holder.computeLayoutAsync(mComponentContext, childrenWidthSpec, childrenHeightSpec);
           }
-        } else if (holder.isTreeValid() && !holder.getRenderInfo().isSticky()) {
-          holder.acquireStateHandlerAndReleaseTree();
+          if (mCanPrefetchDisplayLists) {
+            updateDistanceToViewport(holder, i, firstVisible, lastVisible);
+          }
+        } else {
+          if (mCanPrefetchDisplayLists) {
+            // The distance isn't kept up to date outside of the range, e.g. for sticky items.
+            resetDistanceToViewport(holder);
+          }
+          if (holder.isTreeValid() && !holder.getRenderInfo().isSticky()) {
+            holder.acquireStateHandlerAndReleaseTree();
+          }
         }
       }
     }
@@ -1295,6 +1537,19 @@ public class RecyclerBinder
     return mRange;
   }
 
+  /**
+   * @return the current estimate of the number of items needed to fill the viewport, or -1 if the
+   *     binder wasn't measured with any item yet.
+   */
+  public synchronized int getEstimatedViewportCount() {
+    return mRange != null ? mRange.estimatedViewportCount : -1;
+  }
+
+  /** @return the statistics of the item sizes the viewport count is estimated from. */
+  public ItemSizeStatistics getItemSizeStatistics() {
+    return mItemSizeStatistics;
+  }
+
   @GuardedBy("this")
   private int getActualChildrenWidthSpec(final ComponentTreeHolder treeHolder) {
     if (mIsMeasured.get() && !mRequiresRemeasure.get()) {
@@ -1317,6 +1572,36 @@ public class RecyclerBinder
     return mLayoutInfo.getChildHeightSpec(mLastHeightSpec, treeHolder.getRenderInfo());
   }
 
+  /**
+   * Lets the {@link com.facebook.litho.DisplayListPrefetcher} know how far the item is from the
+   * viewport, so that display lists of the closest items across all lists are prefetched first.
+   */
+  private static void updateDistanceToViewport(
+      ComponentTreeHolder holder, int position, int firstVisible, int lastVisible) {
+    final ComponentTree componentTree = holder.getComponentTree();
+    if (componentTree == null) {
+      return;
+    }
+
+    final int distanceToViewport;
+    if (position < firstVisible) {
+      distanceToViewport = firstVisible - position;
+    } else if (position > lastVisible) {
+      distanceToViewport = position - lastVisible;
+    } else {
+      distanceToViewport = 0;
+    }
+
+    componentTree.setDistanceToViewport(distanceToViewport);
+  }
+
+  private static void resetDistanceToViewport(ComponentTreeHolder holder) {
+    final ComponentTree componentTree = holder.getComponentTree();
+    if (componentTree != null) {
+      componentTree.setDistanceToViewport(ComponentTree.DISTANCE_TO_VIEWPORT_UNKNOWN);
+    }
+  }
+
   private class RangeScrollListener extends RecyclerView.OnScrollListener {
 
     @Override
@@ -1330,6 +1615,7 @@ public class RecyclerBinder
   private class BaseViewHolder extends RecyclerView.ViewHolder {
 
     private final boolean isLithoViewType;
+    private @Nullable String renderType;
 
     public BaseViewHolder(View view, boolean isLithoViewType) {
       super(view);
@@ -1377,8 +1663,7 @@ public class RecyclerBinder
         final int childrenWidthSpec = getActualChildrenWidthSpec(componentTreeHolder);
         final int childrenHeightSpec = getActualChildrenHeightSpec(componentTreeHolder);
         if (!componentTreeHolder.isTreeValid()) {
-          componentTreeHolder.computeLayoutSync(
-              mComponentContext, childrenWidthSpec, childrenHeightSpec, null);
+          computeLayoutSync(componentTreeHolder, childrenWidthSpec, childrenHeightSpec);
         }
         final boolean isOrientationVertical =
             mLayoutInfo.getScrollDirection() == OrientationHelper.VERTICAL;
@@ -1409,6 +1694,7 @@ public class RecyclerBinder
 
         lithoView.setLayoutParams(layoutParams);
         lithoView.setComponentTree(componentTreeHolder.getComponentTree());
+        holder.renderType = renderInfo.getName();
       } else {
         renderInfo.getViewBinder().bind(holder.itemView);
       }
@@ -1440,11 +1726,33 @@ public class RecyclerBinder
     public void onViewRecycled(BaseViewHolder holder) {
       if (holder.isLithoViewType) {
         final LithoView lithoView = (LithoView) holder.itemView;
+        // The size of the items laid out in the background is only known once they were shown.
+        // Sample it before the view lets go of its ComponentTree.
+        if (holder.renderType != null && hasValidMeasuredSize(lithoView)) {
+          mItemSizeStatistics.addSample(
+              holder.renderType,
+              mLayoutInfo.getScrollDirection() == HORIZONTAL
+                  ? lithoView.getMeasuredWidth()
+                  : lithoView.getMeasuredHeight());
+        }
+        holder.renderType = null;
         lithoView.setComponentTree(null);
       }
     }
   }
 
+  /**
+   * @return whether the measured size of the given view is the size of the item it's bound to. A
+   *     view that was recycled before it was laid out for its item still has the size of the item
+   *     it rendered before, or no size at all.
+   */
+  private static boolean hasValidMeasuredSize(LithoView lithoView) {
+    return lithoView.getComponentTree() != null
+        && !lithoView.isLayoutRequested()
+        && lithoView.getMeasuredWidth() > 0
+        && lithoView.getMeasuredHeight() > 0;
+  }
+
   /**
    * If the recycler is circular, returns the position of the {@link ComponentTreeHolder} that is
    * used to render the item at given position. Otherwise, it returns the position passed as
@@ -13,6 +13,8 @@ import android.support.v4.util.SimpleArrayMap;
 import com.facebook.litho.Component;
 import com.facebook.litho.viewcompat.ViewBinder;
 import com.facebook.litho.viewcompat.ViewCreator;
+import java.util.ArrayList;
+import java.util.List;
 import javax.annotation.Nullable;
 
 /**
@@ -30,6 +32,7 @@ public abstract class RenderInfo {
 
   private static final String IS_STICKY = "is_sticky";
   private static final String SPAN_SIZE = "span_size";
+  private static final String TEXTS_TO_PREFETCH = "texts_to_prefetch";
 
   private final @Nullable SimpleArrayMap<String, Object> mCustomAttributes;
 
@@ -53,6 +56,17 @@ public abstract class RenderInfo {
     return (int) mCustomAttributes.get(SPAN_SIZE);
   }
 
+  /**
+   * @return the {@link Text} components whose text layouts should be created in the background
+   *     before this item is laid out, or null if there are none. See {@link
+   *     Builder#prefetchText(Component)}.
+   */
+  public @Nullable List<Component<Text>> getTextsToPrefetch() {
+    return mCustomAttributes == null
+        ? null
+        : (List<Component<Text>>) mCustomAttributes.get(TEXTS_TO_PREFETCH);
+  }
+
   public @Nullable Object getCustomAttribute(String key) {
     return mCustomAttributes == null ? null : mCustomAttributes.get(key);
   }
@@ -138,6 +152,26 @@ public abstract class RenderInfo {
       return customAttribute(SPAN_SIZE, spanSize);
     }
 
+    /**
+     * Adds a {@link Text} that is part of this item and whose text layout should be created by the
+     * {@link TextPrefetcher} before the item is laid out. The text is laid out on its own, with its
+     * style and layout attributes, at the width the item is laid out with, so this only pays off
+     * for texts that span the whole item.
+     */
+    public T prefetchText(Component<Text> text) {
+      List<Component<Text>> texts =
+          mCustomAttributes == null
+              ? null
+              : (List<Component<Text>>) mCustomAttributes.get(TEXTS_TO_PREFETCH);
+      if (texts == null) {
+        texts = new ArrayList<>();
+        customAttribute(TEXTS_TO_PREFETCH, texts);
+      }
+      texts.add(text);
+
+      return (T) this;
+    }
+
     public T customAttribute(String key, Object value) {
       if (mCustomAttributes == null) {
         mCustomAttributes = new SimpleArrayMap<>();
@@ -53,6 +53,9 @@ public class TextDrawable extends Drawable implements Touchable, TextContent, Dr
   private CharSequence mText;
   private ColorStateList mColorStateList;
   private int mUserColor;
+  // The color the text is drawn with. Kept here rather than read from the layout's paint since the
+  // layout might be shared with other drawables, see TextLayoutCache.
+  private int mCurrentColor;
   private int mHighlightColor;
   private ClickableSpan[] mClickableSpans;
   private ImageSpan[] mImageSpans;
@@ -86,10 +89,10 @@ public class TextDrawable extends Drawable implements Touchable, TextContent, Dr
   @Override
   protected boolean onStateChange(int[] states) {
     if (mColorStateList != null && mLayout != null) {
-      final int previousColor = mLayout.getPaint().getColor();
       final int currentColor = mColorStateList.getColorForState(states, mUserColor);
 
-      if (currentColor != previousColor) {
+      if (currentColor != mCurrentColor) {
+        mCurrentColor = currentColor;
         mLayout.getPaint().setColor(currentColor);
         invalidateSelf();
       }
@@ -225,12 +228,17 @@ public class TextDrawable extends Drawable implements Touchable, TextContent, Dr
     if (userColor != 0) {
       mColorStateList = null;
       mUserColor = userColor;
+      mCurrentColor = userColor;
     } else {
       mColorStateList = colorStateList != null ? colorStateList : TextSpec.textColorStateList;
       mUserColor = mColorStateList.getDefaultColor();
-      if (mLayout != null) {
-        mLayout.getPaint().setColor(mColorStateList.getColorForState(getState(), mUserColor));
-      }
+      mCurrentColor = mColorStateList.getColorForState(getState(), mUserColor);
+    }
+
+    // Layouts with a fixed color can be shared, see TextLayoutCache, and are already created with
+    // that color. Their paint is never written to, as it might be drawn on another thread.
+    if (mLayout != null && mLayout.getPaint().getColor() != mCurrentColor) {
+      mLayout.getPaint().setColor(mCurrentColor);
     }
 
     if (highlightOffsetsValid(text, highlightStartOffset, highlightEndOffset)) {
@@ -265,6 +273,7 @@ public class TextDrawable extends Drawable implements Touchable, TextContent, Dr
     mTextOffsetOnTouchListener = null;
     mColorStateList = null;
     mUserColor = 0;
+    mCurrentColor = 0;
     if (mImageSpans != null) {
       for (int i = 0, size = mImageSpans.length; i < size; i++) {
         Drawable drawable = mImageSpans[i].getDrawable();
@@ -297,7 +306,7 @@ public class TextDrawable extends Drawable implements Touchable, TextContent, Dr
   }
 
   public int getColor() {
-    return mLayout.getPaint().getColor();
+    return mCurrentColor;
   }
 
   @Override
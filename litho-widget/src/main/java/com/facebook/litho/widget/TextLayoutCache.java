@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho.widget;
+
+import android.graphics.Typeface;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+import android.support.v4.text.TextDirectionHeuristicCompat;
+import android.support.v4.util.LruCache;
+import android.text.Layout;
+import android.text.Layout.Alignment;
+import android.text.TextUtils.TruncateAt;
+import com.facebook.litho.config.ComponentsConfiguration;
+
+/**
+ * Process wide LRU cache of the text {@link Layout}s created by {@link TextSpec}, enabled through
+ * {@link ComponentsConfiguration#enableTextLayoutCache}. Feeds tend to lay out the same strings
+ * (timestamps, button labels, names) over and over again, and a cache hit saves the whole text
+ * measurement.
+ *
+ * <p>Only plain {@link String}s are cached: spans can't be compared by content and can change the
+ * layout. Cached layouts are shared along with their paint, which must not be written to, so only
+ * texts with a fixed color are cached and the color is part of the key. The cache is bounded by the
+ * estimated memory of the cached layouts (see {@link
+ * ComponentsConfiguration#textLayoutCacheMaxSizeBytes}) and is safe to use from any layout thread.
+ */
+public final class TextLayoutCache {
+
+  /** Rough per layout memory cost of the Layout object, its paint and its line metadata. */
+  private static final int LAYOUT_OVERHEAD_BYTES = 512;
+  private static final int LINE_OVERHEAD_BYTES = 64;
+
+  @Nullable private static volatile LruCache<Key, Layout> sCache;
+
+  private TextLayoutCache() {}
+
+  private static LruCache<Key, Layout> getCache() {
+    LruCache<Key, Layout> cache = sCache;
+    if (cache == null) {
+      synchronized (TextLayoutCache.class) {
+        cache = sCache;
+        if (cache == null) {
+          cache =
+              new LruCache<Key, Layout>(ComponentsConfiguration.textLayoutCacheMaxSizeBytes) {
+                @Override
+                protected int sizeOf(Key key, Layout layout) {
+                  return LAYOUT_OVERHEAD_BYTES
+                      + key.mText.length() * 2
+                      + layout.getLineCount() * LINE_OVERHEAD_BYTES;
+                }
+              };
+          sCache = cache;
+        }
+      }
+    }
+
+    return cache;
+  }
+
+  @Nullable
+  static Layout get(Key key) {
+    return getCache().get(key);
+  }
+
+  static void put(Key key, Layout layout) {
+    getCache().put(key, layout);
+  }
+
+  /** @return the number of text layouts that were served from the cache. */
+  public static int getHitCount() {
+    final LruCache<Key, Layout> cache = sCache;
+    return cache != null ? cache.hitCount() : 0;
+  }
+
+  /** @return the number of text layouts that had to be created because they weren't cached. */
+  public static int getMissCount() {
+    final LruCache<Key, Layout> cache = sCache;
+    return cache != null ? cache.missCount() : 0;
+  }
+
+  /** @return the number of text layouts that were evicted to keep the cache within its bounds. */
+  public static int getEvictionCount() {
+    final LruCache<Key, Layout> cache = sCache;
+    return cache != null ? cache.evictionCount() : 0;
+  }
+
+  /** @return the fraction of lookups that were served from the cache, 0 if there were none. */
+  public static float getHitRate() {
+    final int hits = getHitCount();
+    final int lookups = hits + getMissCount();
+    return lookups == 0 ? 0f : (float) hits / lookups;
+  }
+
+  /** Drops all the cached layouts, e.g. on memory pressure or when the font scale changes. */
+  public static void clear() {
+    final LruCache<Key, Layout> cache = sCache;
+    if (cache != null) {
+      cache.evictAll();
+    }
+  }
+
+  @VisibleForTesting
+  static void reset() {
+    synchronized (TextLayoutCache.class) {
+      sCache = null;
+    }
+  }
+
+  /** Everything that {@link TextSpec} feeds into the text layout builder. */
+  static final class Key {
+
+    private final String mText;
+    private final int mWidthSpec;
+    @Nullable private final TruncateAt mEllipsize;
+    private final boolean mShouldIncludeFontPadding;
+    private final int mMaxLines;
+    private final float mShadowRadius;
+    private final float mShadowDx;
+    private final float mShadowDy;
+    private final int mShadowColor;
+    private final boolean mIsSingleLine;
+    private final int mLinkColor;
+    private final int mTextColor;
+    private final int mTextSize;
+    private final float mExtraSpacing;
+    private final float mSpacingMultiplier;
+    private final int mTextStyle;
+    @Nullable private final Typeface mTypeface;
+    @Nullable private final Alignment mTextAlignment;
+    private final TextDirectionHeuristicCompat mTextDirection;
+    private final int mMinEms;
+    private final int mMaxEms;
+    private final int mMinTextWidth;
+    private final int mMaxTextWidth;
+    private final int mHashCode;
+
+    Key(
+        String text,
+        int widthSpec,
+        @Nullable TruncateAt ellipsize,
+        boolean shouldIncludeFontPadding,
+        int maxLines,
+        float shadowRadius,
+        float shadowDx,
+        float shadowDy,
+        int shadowColor,
+        boolean isSingleLine,
+        int linkColor,
+        int textColor,
+        int textSize,
+        float extraSpacing,
+        float spacingMultiplier,
+        int textStyle,
+        @Nullable Typeface typeface,
+        @Nullable Alignment textAlignment,
+        TextDirectionHeuristicCompat textDirection,
+        int minEms,
+        int maxEms,
+        int minTextWidth,
+        int maxTextWidth) {
+      mText = text;
+      mWidthSpec = widthSpec;
+      mEllipsize = ellipsize;
+      mShouldIncludeFontPadding = shouldIncludeFontPadding;
+      mMaxLines = maxLines;
+      mShadowRadius = shadowRadius;
+      mShadowDx = shadowDx;
+      mShadowDy = shadowDy;
+      mShadowColor = shadowColor;
+      mIsSingleLine = isSingleLine;
+      mLinkColor = linkColor;
+      mTextColor = textColor;
+      mTextSize = textSize;
+      mExtraSpacing = extraSpacing;
+      mSpacingMultiplier = spacingMultiplier;
+      mTextStyle = textStyle;
+      mTypeface = typeface;
+      mTextAlignment = textAlignment;
+      mTextDirection = textDirection;
+      mMinEms = minEms;
+      mMaxEms = maxEms;
+      mMinTextWidth = minTextWidth;
+      mMaxTextWidth = maxTextWidth;
+      mHashCode = computeHashCode();
+    }
+
+    private int computeHashCode() {
+      int result = mText.hashCode();
+      result = 31 * result + mWidthSpec;
+      result = 31 * result + (mEllipsize != null ? mEllipsize.hashCode() : 0);
+      result = 31 * result + (mShouldIncludeFontPadding ? 1 : 0);
+      result = 31 * result + mMaxLines;
+      result = 31 * result + Float.floatToIntBits(mShadowRadius);
+      result = 31 * result + Float.floatToIntBits(mShadowDx);
+      result = 31 * result + Float.floatToIntBits(mShadowDy);
+      result = 31 * result + mShadowColor;
+      result = 31 * result + (mIsSingleLine ? 1 : 0);
+      result = 31 * result + mLinkColor;
+      result = 31 * result + mTextColor;
+      result = 31 * result + mTextSize;
+      result = 31 * result + Float.floatToIntBits(mExtraSpacing);
+      result = 31 * result + Float.floatToIntBits(mSpacingMultiplier);
+      result = 31 * result + mTextStyle;
+      result = 31 * result + (mTypeface != null ? mTypeface.hashCode() : 0);
+      result = 31 * result + (mTextAlignment != null ? mTextAlignment.hashCode() : 0);
+      result = 31 * result + mTextDirection.hashCode();
+      result = 31 * result + mMinEms;
+      result = 31 * result + mMaxEms;
+      result = 31 * result + mMinTextWidth;
+      result = 31 * result + mMaxTextWidth;
+      return result;
+    }
+
+    @Override
+    public int hashCode() {
+      return mHashCode;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+
+      final Key key = (Key) o;
+      return mHashCode == key.mHashCode
+          && mWidthSpec == key.mWidthSpec
+          && mShouldIncludeFontPadding == key.mShouldIncludeFontPadding
+          && mMaxLines == key.mMaxLines
+          && Float.compare(mShadowRadius, key.mShadowRadius) == 0
+          && Float.compare(mShadowDx, key.mShadowDx) == 0
+          && Float.compare(mShadowDy, key.mShadowDy) == 0
+          && mShadowColor == key.mShadowColor
+          && mIsSingleLine == key.mIsSingleLine
+          && mLinkColor == key.mLinkColor
+          && mTextColor == key.mTextColor
+          && mTextSize == key.mTextSize
+          && Float.compare(mExtraSpacing, key.mExtraSpacing) == 0
+          && Float.compare(mSpacingMultiplier, key.mSpacingMultiplier) == 0
+          && mTextStyle == key.mTextStyle
+          && mMinEms == key.mMinEms
+          && mMaxEms == key.mMaxEms
+          && mMinTextWidth == key.mMinTextWidth
+          && mMaxTextWidth == key.mMaxTextWidth
+          && mEllipsize == key.mEllipsize
+          && mTextAlignment == key.mTextAlignment
+          && mTextDirection == key.mTextDirection
+          && (mTypeface != null ? mTypeface.equals(key.mTypeface) : key.mTypeface == null)
+          && mText.equals(key.mText);
+    }
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho.widget;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts how often a {@link Text} ends up with bounds different from the size it was measured
+ * with, e.g. because of flex grow or stretch, and whether the text layout created during measure
+ * could still be used for them. Each remeasure is a full second text layout.
+ */
+public final class TextMeasureStats {
+
+  private static final AtomicInteger sReusedCount = new AtomicInteger();
+  private static final AtomicInteger sRemeasureCount = new AtomicInteger();
+
+  private TextMeasureStats() {}
+
+  static void onMeasuredLayoutReused() {
+    sReusedCount.incrementAndGet();
+  }
+
+  static void onRemeasured() {
+    sRemeasureCount.incrementAndGet();
+  }
+
+  /**
+   * @return how many times the measured text layout was kept although the final bounds differed
+   *     from the measured size.
+   */
+  public static int getReusedCount() {
+    return sReusedCount.get();
+  }
+
+  /** @return how many times the text had to be laid out again for its final bounds. */
+  public static int getRemeasureCount() {
+    return sRemeasureCount.get();
+  }
+
+  /** Resets the counters, e.g. at the start of a new sampling window. */
+  public static void reset() {
+    sReusedCount.set(0);
+    sRemeasureCount.set(0);
+  }
+}
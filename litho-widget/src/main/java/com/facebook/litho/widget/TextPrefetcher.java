@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2017-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.litho.widget;
+
+import static android.os.Process.THREAD_PRIORITY_BACKGROUND;
+import static android.os.Process.THREAD_PRIORITY_LOWEST;
+import static com.facebook.litho.SizeSpec.UNSPECIFIED;
+
+import android.graphics.Canvas;
+import android.graphics.Picture;
+import android.os.Process;
+import android.support.annotation.VisibleForTesting;
+import android.text.Layout;
+import com.facebook.fbui.textlayoutbuilder.util.LayoutMeasureUtil;
+import com.facebook.litho.Component;
+import com.facebook.litho.ComponentContext;
+import com.facebook.litho.Size;
+import com.facebook.litho.SizeSpec;
+import com.facebook.litho.config.ComponentsConfiguration;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shapes text on a pool of background threads ahead of the layout pass, so that a long paragraph
+ * doesn't have to be laid out inline in the measure callback of its {@link Text}.
+ *
+ * <p>Two kinds of work go through the prefetcher, both ordered by distance to the viewport so that
+ * the items the user is about to see are handled first:
+ *
+ * <ul>
+ *   <li>Text layouts of upcoming {@link Text} components (see {@link
+ *       RenderInfo.Builder#prefetchText(Component)}). The resulting layouts are stored in the
+ *       {@link TextLayoutCache}, so this only does anything when {@link
+ *       ComponentsConfiguration#enableTextLayoutCache} is enabled.
+ *   <li>Glyph warming: drawing a {@link Layout} to an off-screen {@link Picture} so that the glyph
+ *       caches are ready when it's drawn on a real {@link Canvas} (see {@link GlyphWarmer}).
+ * </ul>
+ */
+public class TextPrefetcher {
+
+  /** Distance to use for work that is needed for what's on screen right now. */
+  public static final int DISTANCE_VISIBLE = 0;
+
+  private static final String TAG = TextPrefetcher.class.getName();
+
+  private static final int PREFETCHER_THREAD_PRIORITY =
+      (THREAD_PRIORITY_BACKGROUND + THREAD_PRIORITY_LOWEST) / 2;
+
+  /** Text shaping is CPU bound, more threads would just compete with the layout threads. */
+  private static final int PREFETCHER_THREAD_COUNT = 2;
+
+  private static final long PREFETCHER_KEEP_ALIVE_SECONDS = 30;
+
+  private static TextPrefetcher sInstance;
+
+  private static final ThreadLocal<Picture> sPicture =
+      new ThreadLocal<Picture>() {
+        @Override
+        protected Picture initialValue() {
+          try {
+            return new Picture();
+          } catch (RuntimeException e) {
+            return null;
+          }
+        }
+      };
+
+  private final Executor mExecutor;
+  private final PriorityBlockingQueue<Task> mTasks = new PriorityBlockingQueue<>();
+  private final AtomicLong mSequence = new AtomicLong();
+
+  /**
+   * Every task submitted to the executor runs the closest task at the time it is executed, rather
+   * than the task it was submitted for. This keeps the ordering by distance regardless of the
+   * executor.
+   */
+  private final Runnable mRunClosestTask =
+      new Runnable() {
+        @Override
+        public void run() {
+          final Task task = mTasks.poll();
+          if (task != null) {
+            task.run();
+          }
+        }
+      };
+
+  /** @return the global {@link TextPrefetcher} instance. */
+  public static synchronized TextPrefetcher getInstance() {
+    if (sInstance == null) {
+      sInstance = new TextPrefetcher(createExecutor());
+    }
+
+    return sInstance;
+  }
+
+  @VisibleForTesting
+  TextPrefetcher(Executor executor) {
+    mExecutor = executor;
+  }
+
+  private static Executor createExecutor() {
+    final ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            PREFETCHER_THREAD_COUNT,
+            PREFETCHER_THREAD_COUNT,
+            PREFETCHER_KEEP_ALIVE_SECONDS,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(),
+            new ThreadFactory() {
+              private final AtomicInteger mThreadCount = new AtomicInteger();
+
+              @Override
+              public Thread newThread(final Runnable runnable) {
+                return new Thread(
+                    new Runnable() {
+                      @Override
+                      public void run() {
+                        Process.setThreadPriority(PREFETCHER_THREAD_PRIORITY);
+                        runnable.run();
+                      }
+                    },
+                    TAG + "-" + mThreadCount.incrementAndGet());
+              }
+            });
+    executor.allowCoreThreadTimeOut(true);
+
+    return executor;
+  }
+
+  /**
+   * Schedules the given {@link Text} to be laid out in the background with the given width spec,
+   * so that its text layout is served from the {@link TextLayoutCache} when the component is laid
+   * out with the same width spec. The text is laid out like in the layout pass: its style and
+   * layout attributes, e.g. padding, are applied and the text layout is cached under the width
+   * spec it's actually measured with. If the text requests glyph warming, the glyphs are warmed
+   * right after.
+   *
+   * @param c the {@link ComponentContext} the component will be laid out with.
+   * @param text a component created with {@link Text#create(ComponentContext)}.
+   * @param widthSpec the width spec the {@link Text} component is expected to be laid out with.
+   * @param distanceToViewport how far (e.g. in items) the text is from the viewport, closer texts
+   *     are shaped first.
+   */
+  public void prefetch(
+      ComponentContext c, Component<Text> text, int widthSpec, int distanceToViewport) {
+    // Spanned texts and texts without a fixed color are never cached, so there would be nothing to
+    // gain from shaping them early.
+    if (!ComponentsConfiguration.enableTextLayoutCache
+        || !(((Text) text).text instanceof String)
+        || ((Text) text).textColor == 0) {
+      return;
+    }
+
+    enqueue(
+        new PrefetchTextTask(
+            // A context of its own, so that laying the text out doesn't touch the key handler or
+            // the tree of the given one.
+            new ComponentContext(c.getBaseContext()),
+            text,
+            widthSpec,
+            distanceToViewport,
+            mSequence.getAndIncrement()));
+  }
+
+  /**
+   * Schedules a {@link Layout} to be drawn in the background. This warms up the glyph cache for
+   * that {@link Layout}.
+   */
+  public void warmLayout(Layout layout, int distanceToViewport) {
+    enqueue(
+        new WarmLayoutTask(
+            new WeakReference<>(layout), distanceToViewport, mSequence.getAndIncrement()));
+  }
+
+  /** @return the number of tasks that are waiting to be executed. */
+  public int getPendingTaskCount() {
+    return mTasks.size();
+  }
+
+  private void enqueue(Task task) {
+    mTasks.add(task);
+    mExecutor.execute(mRunClosestTask);
+  }
+
+  private static void warmGlyphs(Layout layout) {
+    final Picture picture = sPicture.get();
+    if (picture == null) {
+      return;
+    }
+
+    try {
+      final Canvas canvas =
+          picture.beginRecording(layout.getWidth(), LayoutMeasureUtil.getHeight(layout));
+      layout.draw(canvas);
+      picture.endRecording();
+    } catch (Exception e) {
+      // Nothing to do here. This is a best effort. No real problem if it fails.
+    }
+  }
+
+  private abstract static class Task implements Comparable<Task>, Runnable {
+    private final int mDistanceToViewport;
+    private final long mSequence;
+
+    Task(int distanceToViewport, long sequence) {
+      mDistanceToViewport = Math.abs(distanceToViewport);
+      mSequence = sequence;
+    }
+
+    @Override
+    public int compareTo(Task other) {
+      if (mDistanceToViewport != other.mDistanceToViewport) {
+        return mDistanceToViewport < other.mDistanceToViewport ? -1 : 1;
+      }
+
+      // First in, first out for tasks at the same distance.
+      return mSequence < other.mSequence ? -1 : (mSequence == other.mSequence ? 0 : 1);
+    }
+  }
+
+  private static final class PrefetchTextTask extends Task {
+    private final ComponentContext mContext;
+    private final Component<Text> mText;
+    private final int mWidthSpec;
+
+    PrefetchTextTask(
+        ComponentContext context,
+        Component<Text> text,
+        int widthSpec,
+        int distanceToViewport,
+        long sequence) {
+      super(distanceToViewport, sequence);
+      mContext = context;
+      mText = text;
+      mWidthSpec = widthSpec;
+    }
+
+    @Override
+    public void run() {
+      // A copy is laid out since the component keeps the layout it was last measured with. The
+      // glyphs are warmed by the measure callback of the copy when glyph warming is requested.
+      try {
+        mText
+            .makeShallowCopy()
+            .measure(mContext, mWidthSpec, SizeSpec.makeSizeSpec(0, UNSPECIFIED), new Size());
+      } catch (Exception e) {
+        // Nothing to do here. This is a best effort, the text is laid out again when it's needed.
+      }
+    }
+  }
+
+  private static final class WarmLayoutTask extends Task {
+    private final WeakReference<Layout> mLayout;
+
+    WarmLayoutTask(WeakReference<Layout> layout, int distanceToViewport, long sequence) {
+      super(distanceToViewport, sequence);
+      mLayout = layout;
+    }
+
+    @Override
+    public void run() {
+      try {
+        final Layout layout = mLayout.get();
+        if (layout != null) {
+          warmGlyphs(layout);
+        }
+      } catch (Exception e) {
+        // Nothing to do here. This is a best effort. No real problem if it fails.
+      }
+    }
+  }
+}
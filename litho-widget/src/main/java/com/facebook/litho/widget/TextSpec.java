@@ -33,6 +33,7 @@ import android.graphics.Rect;
 import android.graphics.RectF;
 import android.graphics.Typeface;
 import android.os.Build;
+import android.support.annotation.VisibleForTesting;
 import android.support.v4.text.TextDirectionHeuristicCompat;
 import android.support.v4.text.TextDirectionHeuristicsCompat;
 import android.support.v4.util.Pools.SynchronizedPool;
@@ -75,6 +76,7 @@ import com.facebook.litho.annotations.OnUnmount;
 import com.facebook.litho.annotations.Prop;
 import com.facebook.litho.annotations.PropDefault;
 import com.facebook.litho.annotations.ResType;
+import com.facebook.litho.config.ComponentsConfiguration;
 import com.facebook.litho.utils.DisplayListUtils;
 import com.facebook.widget.accessibility.delegates.AccessibleClickableSpan;
 import com.facebook.yoga.YogaDirection;
@@ -494,6 +496,55 @@ class TextSpec {
       int minTextWidth,
       int maxTextWidth,
       TextDirectionHeuristicCompat textDirection) {
+    final TextDirectionHeuristicCompat resolvedTextDirection;
+    if (textDirection != null) {
+      resolvedTextDirection = textDirection;
+    } else {
+      resolvedTextDirection = layoutDirection == YogaDirection.RTL
+          ? TextDirectionHeuristicsCompat.FIRSTSTRONG_RTL
+          : TextDirectionHeuristicsCompat.FIRSTSTRONG_LTR;
+    }
+
+    // The paint of a layout whose color comes from a ColorStateList is written to when the state of
+    // its drawable changes, so such a layout can't be shared or drawn in the background.
+    final boolean hasFixedTextColor = textColor != 0;
+
+    TextLayoutCache.Key cacheKey = null;
+    if (ComponentsConfiguration.enableTextLayoutCache
+        && hasFixedTextColor
+        && text instanceof String) {
+      cacheKey =
+          new TextLayoutCache.Key(
+              (String) text,
+              widthSpec,
+              ellipsize,
+              shouldIncludeFontPadding,
+              maxLines,
+              shadowRadius,
+              shadowDx,
+              shadowDy,
+              shadowColor,
+              isSingleLine,
+              linkColor,
+              textColor,
+              textSize,
+              extraSpacing,
+              spacingMultiplier,
+              textStyle,
+              typeface,
+              textAlignment,
+              resolvedTextDirection,
+              minEms,
+              maxEms,
+              minTextWidth,
+              maxTextWidth);
+
+      final Layout cachedLayout = TextLayoutCache.get(cacheKey);
+      if (cachedLayout != null) {
+        return cachedLayout;
+      }
+    }
+
     Layout newLayout;
 
     TextLayoutBuilder layoutBuilder = sTextLayoutBuilderPool.acquire();
@@ -540,7 +591,7 @@ class TextSpec {
       layoutBuilder.setMaxWidth(maxTextWidth);
     }
 
-    if (textColor != 0) {
+    if (hasFixedTextColor) {
       layoutBuilder.setTextColor(textColor);
     } else {
       layoutBuilder.setTextColor(textColorStateList);
@@ -552,13 +603,7 @@ class TextSpec {
       layoutBuilder.setTextStyle(textStyle);
     }
 
-    if (textDirection != null) {
-      layoutBuilder.setTextDirection(textDirection);
-    } else {
-      layoutBuilder.setTextDirection(layoutDirection == YogaDirection.RTL
-          ? TextDirectionHeuristicsCompat.FIRSTSTRONG_RTL
-          : TextDirectionHeuristicsCompat.FIRSTSTRONG_LTR);
-    }
+    layoutBuilder.setTextDirection(resolvedTextDirection);
 
     layoutBuilder.setIncludeFontPadding(shouldIncludeFontPadding);
     layoutBuilder.setTextSpacingExtra(extraSpacing);
@@ -571,13 +616,58 @@ class TextSpec {
     layoutBuilder.setText(null);
     sTextLayoutBuilderPool.release(layoutBuilder);
 
-    if (glyphWarming && !DisplayListUtils.isEligibleForCreatingDisplayLists()) {
+    if (glyphWarming
+        && hasFixedTextColor
+        && !DisplayListUtils.isEligibleForCreatingDisplayLists()) {
       GlyphWarmer.getInstance().warmLayout(newLayout);
     }
 
+    if (cacheKey != null) {
+      TextLayoutCache.put(cacheKey, newLayout);
+    }
+
     return newLayout;
   }
 
+  /**
+   * Checks whether the layout created in {@link #onMeasure} can be drawn within the final bounds,
+   * with exactly the line breaks a new layout for the final width would have. The height of the
+   * bounds never matters as it only affects the vertical gravity.
+   *
+   * <p>With a narrower width the breaks stay the same as long as every line still fits, since the
+   * words that moved to the next line didn't fit in the wider width either. With a wider width
+   * words could move up, so only hard line breaks are safe. Centered, opposite and right to left
+   * text is positioned against the layout width, so it always needs a new layout.
+   */
+  @VisibleForTesting
+  static boolean canReuseMeasuredLayout(
+      Layout measureLayout, int measuredWidth, float layoutWidth, Alignment textAlignment) {
+    if (measuredWidth == layoutWidth) {
+      return true;
+    }
+
+    if (textAlignment != ALIGN_NORMAL) {
+      return false;
+    }
+
+    final boolean isWider = layoutWidth > measureLayout.getWidth();
+    final CharSequence text = measureLayout.getText();
+    for (int i = 0, lineCount = measureLayout.getLineCount(); i < lineCount; i++) {
+      if (measureLayout.getParagraphDirection(i) != Layout.DIR_LEFT_TO_RIGHT
+          || measureLayout.getEllipsisCount(i) > 0
+          || measureLayout.getLineWidth(i) > layoutWidth) {
+        return false;
+      }
+
+      final boolean isLastLine = i == lineCount - 1;
+      if (isWider && !isLastLine && text.charAt(measureLayout.getLineEnd(i) - 1) != '\n') {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
   private static Alignment getAlignment(int viewTextAlignment, int gravity) {
     final Alignment alignment;
     switch (viewTextAlignment) {
@@ -699,12 +789,15 @@ class TextSpec {
     final float layoutHeight =
         layout.getHeight() - layout.getPaddingTop() - layout.getPaddingBottom();
 
-    if (measureLayout != null &&
-        measuredWidth == layoutWidth &&
-        measuredHeight == layoutHeight) {
+    if (measureLayout != null
+        && canReuseMeasuredLayout(measureLayout, measuredWidth, layoutWidth, textAlignment)) {
+      if (measuredWidth != layoutWidth || measuredHeight != layoutHeight) {
+        TextMeasureStats.onMeasuredLayoutReused();
+      }
       textLayout.set(measureLayout);
     } else {
       if (measureLayout != null) {
+        TextMeasureStats.onRemeasured();
         Log.w(
             TAG,
             "Remeasuring Text component.  This is expensive: consider changing parent layout " +
@@ -9,23 +9,28 @@
 
 package com.facebook.litho.widget;
 
+import static com.facebook.litho.SizeSpec.EXACTLY;
+import static com.facebook.litho.SizeSpec.UNSPECIFIED;
+
 import android.content.Context;
 import android.view.ViewTreeObserver;
 import android.widget.ScrollView;
 import com.facebook.litho.Component;
 import com.facebook.litho.ComponentContext;
+import com.facebook.litho.ComponentLayout;
 import com.facebook.litho.ComponentTree;
 import com.facebook.litho.LithoView;
 import com.facebook.litho.Output;
+import com.facebook.litho.SizeSpec;
 import com.facebook.litho.StateValue;
 import com.facebook.litho.annotations.FromBind;
-import com.facebook.litho.annotations.FromPrepare;
+import com.facebook.litho.annotations.FromBoundsDefined;
 import com.facebook.litho.annotations.MountSpec;
 import com.facebook.litho.annotations.OnBind;
+import com.facebook.litho.annotations.OnBoundsDefined;
 import com.facebook.litho.annotations.OnCreateInitialState;
 import com.facebook.litho.annotations.OnCreateMountContent;
 import com.facebook.litho.annotations.OnMount;
-import com.facebook.litho.annotations.OnPrepare;
 import com.facebook.litho.annotations.OnUnbind;
 import com.facebook.litho.annotations.OnUnmount;
 import com.facebook.litho.annotations.Prop;
@@ -45,6 +50,9 @@ import com.facebook.litho.annotations.State;
  * @prop scrollbarFadingEnabled whether the scrollbar should fade out when the view is not
  *       scrolling
  * @props initialScrollOffsetPixels initial vertical scroll offset, in pixels
+ * @prop asyncContentLayout whether the layout of the content should be computed on a background
+ *       thread rather than along with the layout of this component. The content can then show up
+ *       a bit later, but a large content doesn't hold up the layout of the rest of the tree.
  */
 @MountSpec(canMountIncrementally = true)
 public class VerticalScrollSpec {
@@ -52,14 +60,29 @@ public class VerticalScrollSpec {
   @PropDefault static final boolean scrollbarEnabled = true;
   @PropDefault static final boolean scrollbarFadingEnabled = true;
 
-  @OnPrepare
-  static void onPrepare(
+  @OnBoundsDefined
+  static void onBoundsDefined(
       ComponentContext context,
+      ComponentLayout layout,
       @Prop Component<?> childComponent,
-      Output<ComponentTree> childComponentTree) {
-      childComponentTree.set(
-          ComponentTree.create(context,childComponent).build());
-
+      @Prop(optional = true) boolean asyncContentLayout,
+      @State ContentTreeHolder childComponentTree,
+      Output<Integer> childWidthSpec,
+      Output<ComponentTree.PreparedLayout> childLayout) {
+    // The content is measured by the ScrollView with the same specs, so it finds this layout ready
+    // when it's mounted instead of computing it on the main thread.
+    final int widthSpec =
+        SizeSpec.makeSizeSpec(
+            layout.getWidth() - layout.getPaddingLeft() - layout.getPaddingRight(), EXACTLY);
+    childWidthSpec.set(widthSpec);
+
+    if (!asyncContentLayout) {
+      childLayout.set(
+          childComponentTree
+              .get(context, childComponent)
+              .prepareRootAndSizeSpec(
+                  childComponent, widthSpec, SizeSpec.makeSizeSpec(0, UNSPECIFIED)));
+    }
   }
 
   @OnCreateMountContent
@@ -71,10 +94,12 @@ public class VerticalScrollSpec {
   static void onCreateInitialState(
       ComponentContext context,
       StateValue<ScrollPosition> scrollPosition,
+      StateValue<ContentTreeHolder> childComponentTree,
       @Prop(optional = true) Integer initialScrollOffsetPixels) {
     ScrollPosition initialScrollPosition = new ScrollPosition();
     initialScrollPosition.y = initialScrollOffsetPixels == null ? 0 : initialScrollOffsetPixels;
     scrollPosition.set(initialScrollPosition);
+    childComponentTree.set(new ContentTreeHolder(true /* incrementalMountEnabled */));
   }
 
   @OnMount
@@ -83,9 +108,20 @@ public class VerticalScrollSpec {
       final LithoScrollView lithoScrollView,
       @Prop(optional = true) boolean scrollbarEnabled,
       @Prop(optional = true) boolean scrollbarFadingEnabled,
-      @FromPrepare ComponentTree childComponentTree,
-      @State final ScrollPosition scrollPosition) {
-      lithoScrollView.mount(childComponentTree);
+      @Prop Component<?> childComponent,
+      @State ContentTreeHolder childComponentTree,
+      @State final ScrollPosition scrollPosition,
+      @FromBoundsDefined Integer childWidthSpec,
+      @FromBoundsDefined ComponentTree.PreparedLayout childLayout) {
+      final ComponentTree contentTree = childComponentTree.get(context, childComponent);
+      if (childLayout != null) {
+        contentTree.setRootAndSizeSpec(childLayout);
+      } else {
+        contentTree.setRootAndSizeSpecAsync(
+            childComponent, childWidthSpec, SizeSpec.makeSizeSpec(0, UNSPECIFIED));
+      }
+
+      lithoScrollView.mount(contentTree);
       lithoScrollView.setVerticalScrollBarEnabled(scrollbarEnabled);
       lithoScrollView.setScrollbarFadingEnabled(scrollbarFadingEnabled);
   }
@@ -137,7 +173,9 @@ public class VerticalScrollSpec {
   }
 
   @OnUnmount
-  static void onUnmount(ComponentContext context, LithoScrollView lithoScrollView) {
+  static void onUnmount(
+      ComponentContext context,
+      LithoScrollView lithoScrollView) {
     lithoScrollView.unmount();
   }
 
@@ -156,7 +194,7 @@ public class VerticalScrollSpec {
       super.onScrollChanged(l, t, oldl, oldt);
 
       // Perform incremental mount since visible region has changed.
-      mLithoView.performIncrementalMount();
+      mLithoView.notifyVisibleBoundsChanged();
     }
 
     private void mount(ComponentTree contentComponentTree) {